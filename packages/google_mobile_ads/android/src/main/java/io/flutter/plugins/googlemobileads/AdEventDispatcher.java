@@ -0,0 +1,355 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodCodec;
+import io.flutter.plugin.common.StandardMethodCodec;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Sends ad events from {@link AdInstanceManager} to Dart.
+ *
+ * <p>By default every event is sent as its own {@code onAdEvent} method call. When batching is
+ * enabled, events are queued and sent as a single {@code onAdEvents} call on the next {@link
+ * Choreographer} frame. The queue is first in, first out, and every call is posted to the main
+ * thread in the order it was encoded, so the events of each ad are delivered in the order they were
+ * dispatched in either mode.
+ *
+ * <p>Events are dispatched in one of three lanes:
+ *
+ * <ul>
+ *   <li>{@link #dispatch} queues the event behind the events already waiting.
+ *   <li>{@link #dispatchUrgent} is for revenue and reward events. When batching, they are sent
+ *       without waiting for the next frame, together with the queued events of the same ad so
+ *       those keep their order. Urgent events are never coalesced or dropped.
+ *   <li>{@link #dispatchCoalesced} is for high frequency state events. While an event with the same
+ *       key is still waiting to be sent, it is replaced by the newer one, so at most one event per
+ *       key is ever queued.
+ * </ul>
+ *
+ * <p>Method calls are encoded on a background thread, in the order they are sent. The main thread
+ * only hands the encoded message to the {@link BinaryMessenger}. Every call reaches Dart in the
+ * order it was encoded, so repeated strings are sent through the string table of {@link
+ * AdMessageCodec}.
+ *
+ * <p>When an {@link AdTimelineRecorder} is set, it is told when each event is queued and when it
+ * is handed to the {@link BinaryMessenger}. When an {@link AdEventJournal} is set, every event is
+ * written to it as it is dispatched, including the ones later replaced by coalescing.
+ */
+class AdEventDispatcher implements Choreographer.FrameCallback {
+
+  /** An event waiting to be sent. Coalesced events are updated in place. */
+  private static final class PendingEvent {
+    @Nullable final String coalescingKey;
+    @NonNull FlutterAdEvent event;
+
+    PendingEvent(@Nullable String coalescingKey, @NonNull FlutterAdEvent event) {
+      this.coalescingKey = coalescingKey;
+      this.event = event;
+    }
+  }
+
+  @Nullable private static Executor sharedEncoder;
+
+  @NonNull private final BinaryMessenger messenger;
+  @NonNull private final String channelName;
+  @NonNull private final AdMessageCodec messageCodec;
+  @NonNull private final MethodCodec codec;
+  @NonNull private final Handler mainHandler;
+  @NonNull private final Executor encoder;
+  @NonNull private final Object lock = new Object();
+
+  @NonNull private List<PendingEvent> pendingEvents = new ArrayList<>();
+  @NonNull private final Map<String, PendingEvent> pendingCoalescedEvents = new HashMap<>();
+  private boolean isFrameScheduled;
+  private volatile boolean isBatchingEnabled;
+  @Nullable private volatile AdTimelineRecorder timelineRecorder;
+  @Nullable private volatile AdEventJournal journal;
+
+  private final Runnable scheduleFrame =
+      new Runnable() {
+        @Override
+        public void run() {
+          Choreographer.getInstance().postFrameCallback(AdEventDispatcher.this);
+        }
+      };
+
+  AdEventDispatcher(
+      @NonNull BinaryMessenger messenger,
+      @NonNull String channelName,
+      @NonNull AdMessageCodec messageCodec) {
+    this(
+        messenger,
+        channelName,
+        messageCodec,
+        new Handler(Looper.getMainLooper()),
+        getSharedEncoder());
+  }
+
+  @VisibleForTesting
+  AdEventDispatcher(
+      @NonNull BinaryMessenger messenger,
+      @NonNull String channelName,
+      @NonNull AdMessageCodec messageCodec,
+      @NonNull Handler mainHandler,
+      @NonNull Executor encoder) {
+    this.messenger = messenger;
+    this.channelName = channelName;
+    this.messageCodec = messageCodec;
+    this.codec = new StandardMethodCodec(messageCodec);
+    this.mainHandler = mainHandler;
+    this.encoder = encoder;
+  }
+
+  /** Returns the single thread that encodes events for every dispatcher. */
+  @NonNull
+  private static synchronized Executor getSharedEncoder() {
+    if (sharedEncoder == null) {
+      sharedEncoder =
+          Executors.newSingleThreadExecutor(
+              new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                  final Thread thread = new Thread(runnable, "GoogleMobileAdsEventEncoder");
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              });
+    }
+    return sharedEncoder;
+  }
+
+  /**
+   * Sets whether events are batched once per frame. Disabling batching sends any queued events
+   * before events dispatched afterwards.
+   */
+  void setBatchingEnabled(boolean enabled) {
+    isBatchingEnabled = enabled;
+    if (!enabled) {
+      flush();
+    }
+  }
+
+  boolean isBatchingEnabled() {
+    return isBatchingEnabled;
+  }
+
+  void setTimelineRecorder(@Nullable AdTimelineRecorder timelineRecorder) {
+    this.timelineRecorder = timelineRecorder;
+  }
+
+  void setJournal(@Nullable AdEventJournal journal) {
+    this.journal = journal;
+  }
+
+  /**
+   * Sends {@code event} to Dart after the events already waiting. May be called from any thread.
+   */
+  void dispatch(@NonNull FlutterAdEvent event) {
+    recordQueued(event);
+    if (isBatchingEnabled) {
+      enqueue(new PendingEvent(null, event));
+    } else {
+      sendImmediate(new PendingEvent(null, event));
+    }
+  }
+
+  /**
+   * Sends {@code event} to Dart without waiting for the next frame. May be called from any thread.
+   *
+   * <p>When batching, the queued events of the same ad are sent along with it so they keep their
+   * order. Events of other ads stay queued for the next frame.
+   */
+  void dispatchUrgent(@NonNull FlutterAdEvent event) {
+    recordQueued(event);
+    final PendingEvent pendingEvent = new PendingEvent(null, event);
+    if (!isBatchingEnabled) {
+      sendImmediate(pendingEvent);
+      return;
+    }
+    final List<PendingEvent> batch = new ArrayList<>();
+    synchronized (lock) {
+      final Iterator<PendingEvent> iterator = pendingEvents.iterator();
+      while (iterator.hasNext()) {
+        final PendingEvent queued = iterator.next();
+        if (queued.event.adId == event.adId) {
+          batch.add(queued);
+          iterator.remove();
+        }
+      }
+    }
+    if (batch.isEmpty()) {
+      sendImmediate(pendingEvent);
+    } else {
+      batch.add(pendingEvent);
+      sendBatch(batch);
+    }
+  }
+
+  /**
+   * Sends {@code event} to Dart unless a newer event with the same {@code coalescingKey} is
+   * dispatched before it is sent. May be called from any thread.
+   */
+  void dispatchCoalesced(@NonNull String coalescingKey, @NonNull FlutterAdEvent event) {
+    recordQueued(event);
+    final PendingEvent pendingEvent;
+    synchronized (lock) {
+      final PendingEvent existing = pendingCoalescedEvents.get(coalescingKey);
+      if (existing != null) {
+        existing.event = event;
+        return;
+      }
+      pendingEvent = new PendingEvent(coalescingKey, event);
+      pendingCoalescedEvents.put(coalescingKey, pendingEvent);
+    }
+    if (isBatchingEnabled) {
+      enqueue(pendingEvent);
+    } else {
+      sendImmediate(pendingEvent);
+    }
+  }
+
+  private void sendImmediate(@NonNull final PendingEvent pendingEvent) {
+    encoder.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            final FlutterAdEvent event = takeEvent(pendingEvent);
+            send(new MethodCall("onAdEvent", event), Collections.singletonList(event));
+          }
+        });
+  }
+
+  private void enqueue(@NonNull PendingEvent pendingEvent) {
+    final boolean shouldScheduleFrame;
+    synchronized (lock) {
+      pendingEvents.add(pendingEvent);
+      shouldScheduleFrame = !isFrameScheduled;
+      isFrameScheduled = true;
+    }
+    if (shouldScheduleFrame) {
+      // Choreographer is thread local, so the callback has to be registered from the main thread.
+      mainHandler.post(scheduleFrame);
+    }
+  }
+
+  /** Returns the latest event of {@code pendingEvent} and stops coalescing into it. */
+  @NonNull
+  private FlutterAdEvent takeEvent(@NonNull PendingEvent pendingEvent) {
+    synchronized (lock) {
+      if (pendingEvent.coalescingKey != null) {
+        pendingCoalescedEvents.remove(pendingEvent.coalescingKey);
+      }
+      return pendingEvent.event;
+    }
+  }
+
+  private void recordQueued(@NonNull FlutterAdEvent event) {
+    final AdTimelineRecorder recorder = timelineRecorder;
+    if (recorder != null) {
+      recorder.onEventQueued(event);
+    }
+    final AdEventJournal journal = this.journal;
+    if (journal != null) {
+      journal.write(event);
+    }
+  }
+
+  /**
+   * Encodes {@code call}, which carries {@code events}, on the calling thread and sends it to Dart
+   * from the main thread.
+   */
+  private void send(@NonNull MethodCall call, @NonNull final List<FlutterAdEvent> events) {
+    final ByteBuffer message = encode(call);
+    // Invoke the channel using the UI thread. Otherwise the message gets silently dropped.
+    final Runnable sendMessage =
+        new Runnable() {
+          @Override
+          public void run() {
+            messenger.send(channelName, message, null);
+            final AdTimelineRecorder recorder = timelineRecorder;
+            if (recorder != null) {
+              for (FlutterAdEvent event : events) {
+                recorder.onEventSent(event);
+              }
+            }
+          }
+        };
+    mainHandler.post(sendMessage);
+  }
+
+  @NonNull
+  private ByteBuffer encode(@NonNull MethodCall call) {
+    messageCodec.setUsesStringTable(true);
+    try {
+      return codec.encodeMethodCall(call);
+    } finally {
+      messageCodec.setUsesStringTable(false);
+    }
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    synchronized (lock) {
+      isFrameScheduled = false;
+    }
+    flush();
+  }
+
+  /** Sends all queued events as one {@code onAdEvents} call. May be called from any thread. */
+  @VisibleForTesting
+  void flush() {
+    final List<PendingEvent> batch;
+    synchronized (lock) {
+      if (pendingEvents.isEmpty()) {
+        return;
+      }
+      batch = pendingEvents;
+      pendingEvents = new ArrayList<>();
+    }
+    sendBatch(batch);
+  }
+
+  private void sendBatch(@NonNull final List<PendingEvent> batch) {
+    encoder.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            final List<FlutterAdEvent> events = new ArrayList<>(batch.size());
+            for (PendingEvent pendingEvent : batch) {
+              events.add(takeEvent(pendingEvent));
+            }
+            send(new MethodCall("onAdEvents", events), events);
+          }
+        });
+  }
+}
@@ -0,0 +1,268 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterAdError;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
+import io.flutter.plugins.googlemobileads.FlutterRewardedAd.FlutterRewardItem;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes every ad event to a fixed size ring of binary records in a memory mapped file, so the
+ * events that led up to a hang or a crash can be read after the process died.
+ *
+ * <p>The file is little endian. A {@link #HEADER_SIZE} byte header holds the magic {@code GMAJ},
+ * the format version, the record size and the record count. It is followed by {@link #CAPACITY}
+ * records of {@link #RECORD_SIZE} bytes:
+ *
+ * <ul>
+ *   <li>0: the sequence number of the record, starting at 1. Zero while the record is written.
+ *   <li>8: {@link System#currentTimeMillis} when the event was dispatched.
+ *   <li>16: the value of the event, or {@link Long#MIN_VALUE} if it has none. This is the value in
+ *       micros of paid events, the error code of failures, the amount of rewards and the height of
+ *       fluid ads.
+ *   <li>24: the ad id.
+ *   <li>28: the {@link FlutterAdEvent.Type} code. The last three bytes are padding.
+ * </ul>
+ *
+ * <p>Record {@code n} is written to slot {@code (n - 1) % CAPACITY}, so the newest records replace
+ * the oldest ones. With adb, the file can be pulled with {@code adb shell run-as <package> cat
+ * files/google_mobile_ads_event_journal}.
+ *
+ * <p>Writers claim a sequence number from an atomic counter and only touch the slot it maps to, so
+ * {@link #write} takes no lock and allocates nothing. The page cache keeps the writes when the
+ * process dies. They are not synced, so they may be lost if the device loses power. May be called
+ * from any thread.
+ */
+final class AdEventJournal {
+  private static final String TAG = "AdEventJournal";
+
+  @VisibleForTesting static final int CAPACITY = 1024;
+  @VisibleForTesting static final int HEADER_SIZE = 16;
+  @VisibleForTesting static final int RECORD_SIZE = 32;
+
+  private static final int MAGIC = 0x4a414d47;
+  private static final int VERSION = 1;
+  private static final long NO_VALUE = Long.MIN_VALUE;
+
+  private static final int SEQUENCE_OFFSET = 0;
+  private static final int TIME_OFFSET = 8;
+  private static final int VALUE_OFFSET = 16;
+  private static final int AD_ID_OFFSET = 24;
+  private static final int TYPE_OFFSET = 28;
+
+  /** Provides the wall clock time of each record. */
+  interface Clock {
+    long currentTimeMillis();
+  }
+
+  @NonNull private final MappedByteBuffer buffer;
+  @NonNull private final Clock clock;
+  @NonNull private final AtomicLong lastSequence;
+
+  private AdEventJournal(
+      @NonNull MappedByteBuffer buffer, @NonNull Clock clock, long lastSequence) {
+    this.buffer = buffer;
+    this.clock = clock;
+    this.lastSequence = new AtomicLong(lastSequence);
+  }
+
+  /**
+   * Maps the journal in {@code file}, keeping the records of the previous process so numbering
+   * continues after them. Returns null, after logging why, if the file cannot be mapped.
+   */
+  @Nullable
+  static AdEventJournal open(@NonNull File file) {
+    return open(
+        file,
+        new Clock() {
+          @Override
+          public long currentTimeMillis() {
+            return System.currentTimeMillis();
+          }
+        });
+  }
+
+  @VisibleForTesting
+  @Nullable
+  static AdEventJournal open(@NonNull File file, @NonNull Clock clock) {
+    final long size = HEADER_SIZE + (long) CAPACITY * RECORD_SIZE;
+    RandomAccessFile randomAccessFile = null;
+    try {
+      randomAccessFile = new RandomAccessFile(file, "rw");
+      final boolean isValid = randomAccessFile.length() == size;
+      randomAccessFile.setLength(size);
+      final MappedByteBuffer buffer =
+          randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (!isValid || !hasValidHeader(buffer)) {
+        for (int i = 0; i < size; i += 8) {
+          buffer.putLong(i, 0);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, CAPACITY);
+      }
+      long lastSequence = 0;
+      for (int slot = 0; slot < CAPACITY; slot++) {
+        lastSequence = Math.max(lastSequence, buffer.getLong(offsetOf(slot) + SEQUENCE_OFFSET));
+      }
+      return new AdEventJournal(buffer, clock, lastSequence);
+    } catch (IOException e) {
+      Log.w(TAG, "Failed to map the ad event journal: " + e.getMessage());
+      return null;
+    } finally {
+      if (randomAccessFile != null) {
+        try {
+          // The mapping stays valid after the file is closed.
+          randomAccessFile.close();
+        } catch (IOException e) {
+          // Nothing left to do with the file.
+        }
+      }
+    }
+  }
+
+  /** Appends a record of {@code event}. */
+  void write(@NonNull FlutterAdEvent event) {
+    final long sequence = lastSequence.incrementAndGet();
+    final int offset = offsetOf((int) ((sequence - 1) % CAPACITY));
+    // Readers skip the record until its sequence number is written back last.
+    buffer.putLong(offset + SEQUENCE_OFFSET, 0);
+    buffer.putLong(offset + TIME_OFFSET, clock.currentTimeMillis());
+    buffer.putLong(offset + VALUE_OFFSET, valueOf(event));
+    buffer.putInt(offset + AD_ID_OFFSET, event.adId);
+    buffer.put(offset + TYPE_OFFSET, event.type.code);
+    buffer.putLong(offset + SEQUENCE_OFFSET, sequence);
+  }
+
+  /**
+   * Returns the complete records in {@code file}, oldest first, in the format sent to Dart. Returns
+   * an empty list if there is no journal.
+   */
+  @NonNull
+  static List<Map<String, Object>> read(@NonNull File file) {
+    final List<Map<String, Object>> records = new ArrayList<>();
+    final long size = HEADER_SIZE + (long) CAPACITY * RECORD_SIZE;
+    if (!file.exists() || file.length() != size) {
+      return records;
+    }
+    final byte[] bytes = new byte[(int) size];
+    FileInputStream stream = null;
+    try {
+      stream = new FileInputStream(file);
+      int read = 0;
+      while (read < bytes.length) {
+        final int count = stream.read(bytes, read, bytes.length - read);
+        if (count < 0) {
+          return records;
+        }
+        read += count;
+      }
+    } catch (IOException e) {
+      Log.w(TAG, "Failed to read the ad event journal: " + e.getMessage());
+      return records;
+    } finally {
+      if (stream != null) {
+        try {
+          stream.close();
+        } catch (IOException e) {
+          // Nothing left to do with the stream.
+        }
+      }
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    if (!hasValidHeader(buffer)) {
+      return records;
+    }
+    for (int slot = 0; slot < CAPACITY; slot++) {
+      final int offset = offsetOf(slot);
+      final long sequence = buffer.getLong(offset + SEQUENCE_OFFSET);
+      final byte code = buffer.get(offset + TYPE_OFFSET);
+      if (sequence <= 0
+          || (sequence - 1) % CAPACITY != slot
+          || code < 0
+          || code >= FlutterAdEvent.Type.values().length) {
+        continue;
+      }
+      final long value = buffer.getLong(offset + VALUE_OFFSET);
+      final Map<String, Object> record = new HashMap<>();
+      record.put("sequence", sequence);
+      record.put("timeMillis", buffer.getLong(offset + TIME_OFFSET));
+      record.put("adId", buffer.getInt(offset + AD_ID_OFFSET));
+      record.put("eventName", FlutterAdEvent.Type.forCode(code).eventName);
+      record.put("value", value == NO_VALUE ? null : value);
+      records.add(record);
+    }
+    Collections.sort(
+        records,
+        new Comparator<Map<String, Object>>() {
+          @Override
+          public int compare(Map<String, Object> a, Map<String, Object> b) {
+            return Long.compare((Long) a.get("sequence"), (Long) b.get("sequence"));
+          }
+        });
+    return records;
+  }
+
+  private static boolean hasValidHeader(@NonNull ByteBuffer buffer) {
+    return buffer.getInt(0) == MAGIC
+        && buffer.getInt(4) == VERSION
+        && buffer.getInt(8) == RECORD_SIZE
+        && buffer.getInt(12) == CAPACITY;
+  }
+
+  private static int offsetOf(int slot) {
+    return HEADER_SIZE + slot * RECORD_SIZE;
+  }
+
+  /** Returns the single number kept for {@code event}, without allocating. */
+  private static long valueOf(@NonNull FlutterAdEvent event) {
+    switch (event.type) {
+      case PAID_EVENT:
+        return ((Number) event.arguments[0]).longValue();
+      case AD_FAILED_TO_LOAD:
+        return ((FlutterLoadAdError) event.arguments[0]).code;
+      case FAILED_TO_SHOW_FULL_SCREEN_CONTENT:
+        return ((FlutterAdError) event.arguments[0]).code;
+      case REWARDED_AD_USER_EARNED_REWARD:
+      case REWARDED_INTERSTITIAL_AD_USER_EARNED_REWARD:
+        return ((FlutterRewardItem) event.arguments[0]).amount;
+      case FLUID_AD_HEIGHT_CHANGED:
+        return ((Number) event.arguments[0]).longValue();
+      default:
+        return NO_VALUE;
+    }
+  }
+}
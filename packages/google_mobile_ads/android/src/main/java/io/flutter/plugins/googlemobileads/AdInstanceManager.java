@@ -21,11 +21,17 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.google.android.gms.ads.AdError;
 import com.google.android.gms.ads.ResponseInfo;
-import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugins.googlemobileads.AdTimelineRecorder.Stage;
+import io.flutter.plugins.googlemobileads.AdTimelineRecorder.Step;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterAdError;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterResponseInfo;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterResponseInfo.Level;
+import io.flutter.plugins.googlemobileads.FlutterAdEvent.Type;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Maintains reference to ad instances for the {@link
@@ -37,16 +43,68 @@ import java.util.Map;
 class AdInstanceManager {
   @Nullable private Activity activity;
 
-  @NonNull private final Map<Integer, FlutterAd> ads;
-  @NonNull private final MethodChannel channel;
+  @NonNull private final AdRegistry ads;
+  @NonNull private final AdEventDispatcher eventDispatcher;
+  @NonNull private final AdLoadCircuitBreaker circuitBreaker = new AdLoadCircuitBreaker();
+  @NonNull private final AdTimelineRecorder timelines = new AdTimelineRecorder();
+  @NonNull private final AdapterLatencyHistograms adapterLatencies = new AdapterLatencyHistograms();
+  @NonNull private final AdViewPauser adViewPauser = new AdViewPauser();
+  @NonNull private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
   /**
-   * Initializes the ad instance manager. We only need a method channel to start loading ads, but an
-   * activity must be present in order to attach any ads to the view hierarchy.
+   * The ad unit of each ad that Dart asked to load. Guarded by itself, since it is read when load
+   * results and paid events arrive off the main thread.
    */
-  AdInstanceManager(@NonNull MethodChannel channel) {
-    this.channel = channel;
-    this.ads = new HashMap<>();
+  private final Map<Integer, String> adUnitIds = new HashMap<>();
+
+  /**
+   * The latest response info of each ad, converted in full only when Dart asks for it. Guarded by
+   * itself, since it is written when load results arrive off the main thread.
+   */
+  private final Map<Integer, ResponseInfo> responseInfos = new HashMap<>();
+
+  @NonNull private volatile Level responseInfoLevel = Level.FULL;
+
+  private int fluidAdHeightThreshold;
+
+  @Nullable private RevenueAggregator revenueAggregator;
+
+  /** Full-screen ads asked to show that were not dismissed yet. Only used on the main thread. */
+  private final Set<Integer> showingAds = new HashSet<>();
+
+  /**
+   * Ads whose load timed out. Results the SDK delivers for them afterwards are dropped. Guarded by
+   * itself, since those results may arrive off the main thread.
+   */
+  private final Set<Integer> abandonedLoads = new HashSet<>();
+
+  @NonNull
+  private final AdLoadScheduler loadScheduler =
+      new AdLoadScheduler(
+          new AdLoadScheduler.Delegate() {
+            @Override
+            public boolean allowLoad(int adId, @NonNull String adUnitId) {
+              if (circuitBreaker.allowLoad(adUnitId)) {
+                return true;
+              }
+              onAdFailedToLoad(adId, circuitBreaker.getCircuitOpenError(adUnitId));
+              return false;
+            }
+
+            @Override
+            public void onLoadTimedOut(int adId, @NonNull String adUnitId) {
+              abandonLoad(adId, adUnitId);
+            }
+          });
+
+  /**
+   * Initializes the ad instance manager. We only need an event dispatcher to start loading ads, but
+   * an activity must be present in order to attach any ads to the view hierarchy.
+   */
+  AdInstanceManager(@NonNull AdEventDispatcher eventDispatcher) {
+    this.ads = new AdRegistry();
+    this.eventDispatcher = eventDispatcher;
+    eventDispatcher.setTimelineRecorder(timelines);
   }
 
   void setActivity(@Nullable Activity activity) {
@@ -58,6 +116,96 @@ class AdInstanceManager {
     return activity;
   }
 
+  /** Sets whether ad events are sent to Dart in one batch per frame instead of one at a time. */
+  void setEventBatchingEnabled(boolean enabled) {
+    eventDispatcher.setBatchingEnabled(enabled);
+  }
+
+  /** Sets the journal every ad event is written to, or stops journaling when null. */
+  void setEventJournal(@Nullable AdEventJournal journal) {
+    eventDispatcher.setJournal(journal);
+  }
+
+  @NonNull
+  AdLoadScheduler getLoadScheduler() {
+    return loadScheduler;
+  }
+
+  @NonNull
+  AdLoadCircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  @NonNull
+  AdTimelineRecorder getTimelines() {
+    return timelines;
+  }
+
+  @NonNull
+  AdapterLatencyHistograms getAdapterLatencies() {
+    return adapterLatencies;
+  }
+
+  @NonNull
+  AdViewPauser getAdViewPauser() {
+    return adViewPauser;
+  }
+
+  void setRevenueAggregator(@Nullable RevenueAggregator revenueAggregator) {
+    this.revenueAggregator = revenueAggregator;
+  }
+
+  @Nullable
+  RevenueAggregator getRevenueAggregator() {
+    return revenueAggregator;
+  }
+
+  /** Returns whether a full-screen ad loaded from Dart is showing or about to show. */
+  boolean isShowingFullScreenAd() {
+    return !showingAds.isEmpty();
+  }
+
+  /** Sets how much of the response info is sent to Dart with load events. */
+  void setResponseInfoLevel(@NonNull Level responseInfoLevel) {
+    this.responseInfoLevel = responseInfoLevel;
+  }
+
+  /**
+   * Sets the smallest change in pixels of the height of a fluid ad that is reported before its
+   * layout settles.
+   */
+  void setFluidAdHeightThreshold(int fluidAdHeightThreshold) {
+    this.fluidAdHeightThreshold = fluidAdHeightThreshold;
+  }
+
+  int getFluidAdHeightThreshold() {
+    return fluidAdHeightThreshold;
+  }
+
+  /** Returns the full response info of the latest load of {@code adId}, if there is one. */
+  @Nullable
+  FlutterResponseInfo getResponseInfo(int adId) {
+    final ResponseInfo responseInfo;
+    synchronized (responseInfos) {
+      responseInfo = responseInfos.get(adId);
+    }
+    return FlutterResponseInfo.create(responseInfo, Level.FULL);
+  }
+
+  /** Called when Dart asks to load {@code adId}, before the ad is built. */
+  void onLoadRequested(int adId, @NonNull String adUnitId) {
+    timelines.start(adId);
+    synchronized (adUnitIds) {
+      adUnitIds.put(adId, adUnitId);
+    }
+  }
+
+  /** Called by an ad once its SDK request is built, right before the SDK starts loading it. */
+  void onAdRequestBuilt(int adId) {
+    timelines.mark(adId, Stage.LOAD, Step.REQUEST_BUILT);
+    timelines.mark(adId, Stage.LOAD, Step.SDK_STARTED);
+  }
+
   @Nullable
   FlutterAd adForId(int id) {
     return ads.get(id);
@@ -65,159 +213,180 @@ class AdInstanceManager {
 
   @Nullable
   Integer adIdFor(@NonNull FlutterAd ad) {
-    for (Integer adId : ads.keySet()) {
-      if (ads.get(adId) == ad) {
-        return adId;
-      }
-    }
-    return null;
+    return ads.idFor(ad);
   }
 
   void trackAd(@NonNull FlutterAd ad, int adId) {
-    if (ads.get(adId) != null) {
+    if (!ads.add(adId, ad)) {
       throw new IllegalArgumentException(
           String.format("Ad for following adId already exists: %d", adId));
     }
-    ads.put(adId, ad);
   }
 
   void disposeAd(int adId) {
-    if (!ads.containsKey(adId)) {
-      return;
+    final String adUnitId = loadScheduler.getInFlightAdUnitId(adId);
+    if (adUnitId != null) {
+      circuitBreaker.onLoadCancelled(adUnitId);
+    }
+    loadScheduler.cancel(adId);
+    synchronized (abandonedLoads) {
+      abandonedLoads.remove(adId);
+    }
+    timelines.remove(adId);
+    synchronized (adUnitIds) {
+      adUnitIds.remove(adId);
     }
-    FlutterAd ad = ads.get(adId);
+    synchronized (responseInfos) {
+      responseInfos.remove(adId);
+    }
+    showingAds.remove(adId);
+    FlutterAd ad = ads.remove(adId);
     if (ad != null) {
       ad.dispose();
     }
-    ads.remove(adId);
   }
 
   void disposeAllAds() {
-    for (Map.Entry<Integer, FlutterAd> entry : ads.entrySet()) {
-      if (entry.getValue() != null) {
-        entry.getValue().dispose();
-      }
+    loadScheduler.clear();
+    synchronized (abandonedLoads) {
+      abandonedLoads.clear();
+    }
+    timelines.clear();
+    synchronized (adUnitIds) {
+      adUnitIds.clear();
+    }
+    synchronized (responseInfos) {
+      responseInfos.clear();
+    }
+    showingAds.clear();
+    for (FlutterAd ad : ads.clear()) {
+      ad.dispose();
     }
-    ads.clear();
   }
 
-  void onAdLoaded(int adId, @Nullable ResponseInfo responseInfo) {
-    Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onAdLoaded");
-    FlutterResponseInfo flutterResponseInfo =
-        (responseInfo == null) ? null : new FlutterResponseInfo(responseInfo);
-    arguments.put("responseInfo", flutterResponseInfo);
-    invokeOnAdEvent(arguments);
+  void onAdLoaded(final int adId, @Nullable ResponseInfo responseInfo) {
+    if (isLoadAbandoned(adId)) {
+      return;
+    }
+    timelines.mark(adId, Stage.LOAD, Step.SDK_CALLBACK);
+    runOnMainThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            // The breaker is updated first, so loads started by the freed slot see the result.
+            final String adUnitId = loadScheduler.getInFlightAdUnitId(adId);
+            if (adUnitId != null) {
+              circuitBreaker.onLoadSucceeded(adUnitId);
+            }
+            loadScheduler.onLoadFinished(adId);
+          }
+        });
+    FlutterResponseInfo flutterResponseInfo = convertResponseInfo(adId, responseInfo);
+    invokeOnAdEvent(new FlutterAdEvent(adId, Type.AD_LOADED, flutterResponseInfo));
   }
 
-  void onAdFailedToLoad(int adId, @NonNull FlutterAd.FlutterLoadAdError error) {
-    Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onAdFailedToLoad");
-    arguments.put("loadAdError", error);
-    invokeOnAdEvent(arguments);
+  void onAdFailedToLoad(final int adId, @NonNull final FlutterAd.FlutterLoadAdError error) {
+    if (isLoadAbandoned(adId)) {
+      return;
+    }
+    timelines.mark(adId, Stage.LOAD, Step.SDK_CALLBACK);
+    runOnMainThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            final String adUnitId = loadScheduler.getInFlightAdUnitId(adId);
+            if (adUnitId != null) {
+              circuitBreaker.onLoadFailed(adUnitId, error);
+            }
+            loadScheduler.onLoadFinished(adId);
+          }
+        });
+    if (error.sdkResponseInfo != null) {
+      error.responseInfo = convertResponseInfo(adId, error.sdkResponseInfo);
+    }
+    invokeOnAdEvent(new FlutterAdEvent(adId, Type.AD_FAILED_TO_LOAD, error));
   }
 
   void onAppEvent(int adId, @NonNull String name, @NonNull String data) {
-    Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onAppEvent");
-    arguments.put("name", name);
-    arguments.put("data", data);
-    invokeOnAdEvent(arguments);
+    eventDispatcher.dispatchCoalesced(
+        adId + "/onAppEvent/" + name, new FlutterAdEvent(adId, Type.APP_EVENT, name, data));
   }
 
   void onAdImpression(int id) {
-    Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", id);
-    arguments.put("eventName", "onAdImpression");
-    invokeOnAdEvent(arguments);
+    timelines.mark(id, Stage.IMPRESSION, Step.SDK_CALLBACK);
+    invokeOnAdEvent(new FlutterAdEvent(id, Type.AD_IMPRESSION));
   }
 
   void onAdClicked(int id) {
-    Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", id);
-    arguments.put("eventName", "onAdClicked");
-    invokeOnAdEvent(arguments);
+    invokeOnAdEvent(new FlutterAdEvent(id, Type.AD_CLICKED));
   }
 
   void onAdOpened(int adId) {
-    Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onAdOpened");
-    invokeOnAdEvent(arguments);
+    invokeOnAdEvent(new FlutterAdEvent(adId, Type.AD_OPENED));
   }
 
   void onAdClosed(int adId) {
-    Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onAdClosed");
-    invokeOnAdEvent(arguments);
+    invokeOnAdEvent(new FlutterAdEvent(adId, Type.AD_CLOSED));
   }
 
   void onRewardedAdUserEarnedReward(int adId, @NonNull FlutterRewardedAd.FlutterRewardItem reward) {
-    final Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onRewardedAdUserEarnedReward");
-    arguments.put("rewardItem", reward);
-    invokeOnAdEvent(arguments);
+    eventDispatcher.dispatchUrgent(
+        new FlutterAdEvent(adId, Type.REWARDED_AD_USER_EARNED_REWARD, reward));
   }
 
   void onRewardedInterstitialAdUserEarnedReward(
       int adId, @NonNull FlutterRewardedAd.FlutterRewardItem reward) {
-    final Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onRewardedInterstitialAdUserEarnedReward");
-    arguments.put("rewardItem", reward);
-    invokeOnAdEvent(arguments);
+    eventDispatcher.dispatchUrgent(
+        new FlutterAdEvent(adId, Type.REWARDED_INTERSTITIAL_AD_USER_EARNED_REWARD, reward));
   }
 
   void onPaidEvent(@NonNull FlutterAd ad, @NonNull FlutterAdValue adValue) {
-    final Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adIdFor(ad));
-    arguments.put("eventName", "onPaidEvent");
-    arguments.put("valueMicros", adValue.valueMicros);
-    arguments.put("precision", adValue.precisionType);
-    arguments.put("currencyCode", adValue.currencyCode);
-    invokeOnAdEvent(arguments);
+    final Integer adId = adIdFor(ad);
+    if (revenueAggregator != null) {
+      // Revenue is recorded even for disposed ads, so the ad unit comes from the ad itself.
+      final String adUnitId = ad.getAdUnitId();
+      revenueAggregator.record(adUnitId == null ? "" : adUnitId, adValue);
+    }
+    if (adId == null) {
+      // The ad was disposed, so there is nothing in Dart to notify.
+      return;
+    }
+    eventDispatcher.dispatchUrgent(
+        new FlutterAdEvent(
+            adId,
+            Type.PAID_EVENT,
+            adValue.valueMicros,
+            adValue.precisionType,
+            adValue.currencyCode));
   }
 
   void onFailedToShowFullScreenContent(int adId, @NonNull AdError error) {
-    final Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onFailedToShowFullScreenContent");
-    arguments.put("error", new FlutterAdError(error));
-    invokeOnAdEvent(arguments);
+    showingAds.remove(adId);
+    timelines.mark(adId, Stage.SHOW, Step.SDK_CALLBACK);
+    invokeOnAdEvent(
+        new FlutterAdEvent(
+            adId, Type.FAILED_TO_SHOW_FULL_SCREEN_CONTENT, new FlutterAdError(error)));
   }
 
   void onAdShowedFullScreenContent(int adId) {
-    final Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onAdShowedFullScreenContent");
-    invokeOnAdEvent(arguments);
+    timelines.mark(adId, Stage.SHOW, Step.SDK_CALLBACK);
+    invokeOnAdEvent(new FlutterAdEvent(adId, Type.AD_SHOWED_FULL_SCREEN_CONTENT));
   }
 
   void onAdDismissedFullScreenContent(int adId) {
-    final Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onAdDismissedFullScreenContent");
-    invokeOnAdEvent(arguments);
+    showingAds.remove(adId);
+    invokeOnAdEvent(new FlutterAdEvent(adId, Type.AD_DISMISSED_FULL_SCREEN_CONTENT));
   }
 
   void onAdMetadataChanged(int adId) {
-    final Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onAdMetadataChanged");
-    invokeOnAdEvent(arguments);
+    eventDispatcher.dispatchCoalesced(
+        adId + "/onAdMetadataChanged", new FlutterAdEvent(adId, Type.AD_METADATA_CHANGED));
   }
 
   void onFluidAdHeightChanged(int adId, int height) {
-    final Map<Object, Object> arguments = new HashMap<>();
-    arguments.put("adId", adId);
-    arguments.put("eventName", "onFluidAdHeightChanged");
-    arguments.put("height", height);
-    invokeOnAdEvent(arguments);
+    eventDispatcher.dispatchCoalesced(
+        adId + "/onFluidAdHeightChanged",
+        new FlutterAdEvent(adId, Type.FLUID_AD_HEIGHT_CHANGED, height));
   }
 
   boolean showAdWithId(int id) {
@@ -227,19 +396,90 @@ class AdInstanceManager {
       return false;
     }
 
+    timelines.mark(id, Stage.SHOW, Step.SDK_STARTED);
+    showingAds.add(id);
     ad.show();
     return true;
   }
 
-  /** Invoke the method channel using the UI thread. Otherwise the message gets silently dropped. */
-  private void invokeOnAdEvent(final Map<Object, Object> arguments) {
-    new Handler(Looper.getMainLooper())
-        .post(
-            new Runnable() {
-              @Override
-              public void run() {
-                channel.invokeMethod("onAdEvent", arguments);
-              }
-            });
+  @Nullable
+  private String getAdUnitId(int adId) {
+    synchronized (adUnitIds) {
+      return adUnitIds.get(adId);
+    }
+  }
+
+  /**
+   * Keeps {@code responseInfo} for {@link #getResponseInfo}, records its adapter latencies and
+   * returns it converted at the configured level.
+   */
+  @Nullable
+  private FlutterResponseInfo convertResponseInfo(int adId, @Nullable ResponseInfo responseInfo) {
+    if (responseInfo == null) {
+      return null;
+    }
+    if (ads.get(adId) != null) {
+      synchronized (responseInfos) {
+        responseInfos.put(adId, responseInfo);
+      }
+    }
+    final Level level = responseInfoLevel;
+    final FlutterResponseInfo converted = FlutterResponseInfo.create(responseInfo, level);
+    final String adUnitId = getAdUnitId(adId);
+    if (adUnitId != null) {
+      // Latencies only need the summary, which is cheap to build below that level.
+      adapterLatencies.record(
+          adUnitId,
+          level.compareTo(Level.SUMMARY) >= 0
+              ? converted
+              : FlutterResponseInfo.create(responseInfo, Level.SUMMARY));
+    }
+    return converted;
+  }
+
+  /**
+   * Fails a load that missed its deadline. The SDK cannot abort a request, so the ad is removed and
+   * disposed to release its loader and views, and whatever the request returns later is dropped.
+   */
+  private void abandonLoad(int adId, @NonNull String adUnitId) {
+    circuitBreaker.onLoadCancelled(adUnitId);
+    synchronized (abandonedLoads) {
+      abandonedLoads.add(adId);
+    }
+    final FlutterAd ad = ads.remove(adId);
+    if (ad != null) {
+      ad.dispose();
+    }
+    invokeOnAdEvent(
+        new FlutterAdEvent(
+            adId,
+            Type.AD_FAILED_TO_LOAD,
+            new FlutterLoadAdError(
+                FlutterLoadAdError.ERROR_CODE_LOAD_TIMEOUT,
+                FlutterLoadAdError.PLUGIN_ERROR_DOMAIN,
+                String.format("The load of %s did not finish before its deadline.", adUnitId),
+                null)));
+  }
+
+  private boolean isLoadAbandoned(int adId) {
+    synchronized (abandonedLoads) {
+      return abandonedLoads.contains(adId);
+    }
+  }
+
+  /**
+   * Runs {@code runnable} right away on the main thread, and posts it there from the threads that
+   * mediation adapters may call back on, since the load scheduler and breaker are not thread safe.
+   */
+  private void runOnMainThread(@NonNull Runnable runnable) {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      runnable.run();
+    } else {
+      mainHandler.post(runnable);
+    }
+  }
+
+  private void invokeOnAdEvent(@NonNull FlutterAdEvent event) {
+    eventDispatcher.dispatch(event);
   }
 }
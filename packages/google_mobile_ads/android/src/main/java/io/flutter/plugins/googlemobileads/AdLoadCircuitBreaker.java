@@ -0,0 +1,178 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.google.android.gms.ads.AdRequest;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks no fill errors per ad unit and stops loads of an ad unit that keeps failing.
+ *
+ * <p>After {@link #FAILURE_THRESHOLD} no fills in a row the circuit of an ad unit opens, and loads
+ * fail locally with {@link FlutterLoadAdError#ERROR_CODE_CIRCUIT_OPEN}. Once the backoff ends a
+ * single probe load is let through. A filled probe closes the circuit, and another no fill opens it
+ * again with twice the backoff. Must only be used from the main thread.
+ */
+final class AdLoadCircuitBreaker {
+  @VisibleForTesting static final int FAILURE_THRESHOLD = 3;
+  @VisibleForTesting static final long INITIAL_BACKOFF_MILLIS = 10 * 1000L;
+  @VisibleForTesting static final long MAX_BACKOFF_MILLIS = 10 * 60 * 1000L;
+
+  private static final String SDK_ERROR_DOMAIN = "com.google.android.gms.ads";
+
+  /** The state of the circuit of an ad unit. The ordinals match the Dart enum. */
+  enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN,
+  }
+
+  interface Clock {
+    long elapsedRealtime();
+  }
+
+  private static final class Circuit {
+    int consecutiveFailures;
+    long backoffMillis = INITIAL_BACKOFF_MILLIS;
+    long openUntilMillis;
+    boolean isOpen;
+    boolean isProbing;
+  }
+
+  @NonNull private final Clock clock;
+  private final Map<String, Circuit> circuits = new HashMap<>();
+
+  AdLoadCircuitBreaker() {
+    this(
+        new Clock() {
+          @Override
+          public long elapsedRealtime() {
+            return SystemClock.elapsedRealtime();
+          }
+        });
+  }
+
+  @VisibleForTesting
+  AdLoadCircuitBreaker(@NonNull Clock clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * Returns whether a load of {@code adUnitId} may start. Once the backoff ends, the first call
+   * returns true and makes that load the probe.
+   */
+  boolean allowLoad(@NonNull String adUnitId) {
+    final Circuit circuit = circuits.get(adUnitId);
+    if (circuit == null || !circuit.isOpen) {
+      return true;
+    }
+    if (circuit.isProbing || clock.elapsedRealtime() < circuit.openUntilMillis) {
+      return false;
+    }
+    circuit.isProbing = true;
+    return true;
+  }
+
+  void onLoadSucceeded(@NonNull String adUnitId) {
+    circuits.remove(adUnitId);
+  }
+
+  void onLoadFailed(@NonNull String adUnitId, @NonNull FlutterLoadAdError error) {
+    if (!isNoFill(error)) {
+      onLoadCancelled(adUnitId);
+      return;
+    }
+    Circuit circuit = circuits.get(adUnitId);
+    if (circuit == null) {
+      circuit = new Circuit();
+      circuits.put(adUnitId, circuit);
+    }
+    circuit.consecutiveFailures++;
+    if (circuit.isProbing) {
+      circuit.isProbing = false;
+      circuit.backoffMillis = Math.min(circuit.backoffMillis * 2, MAX_BACKOFF_MILLIS);
+      open(circuit);
+    } else if (!circuit.isOpen && circuit.consecutiveFailures >= FAILURE_THRESHOLD) {
+      open(circuit);
+    }
+  }
+
+  /** Lets another load probe the circuit when the probe ended without a fill result. */
+  void onLoadCancelled(@NonNull String adUnitId) {
+    final Circuit circuit = circuits.get(adUnitId);
+    if (circuit != null) {
+      circuit.isProbing = false;
+    }
+  }
+
+  /** Returns the error for a load that was stopped by an open circuit. */
+  @NonNull
+  FlutterLoadAdError getCircuitOpenError(@NonNull String adUnitId) {
+    return new FlutterLoadAdError(
+        FlutterLoadAdError.ERROR_CODE_CIRCUIT_OPEN,
+        FlutterLoadAdError.PLUGIN_ERROR_DOMAIN,
+        String.format(
+            "Loads of %s are paused for %d ms after repeated no fills.",
+            adUnitId, getRetryAfterMillis(circuits.get(adUnitId))),
+        null);
+  }
+
+  /** Returns the state of the circuit of {@code adUnitId} in the format sent to Dart. */
+  @NonNull
+  Map<String, Object> getState(@NonNull String adUnitId) {
+    final Circuit circuit = circuits.get(adUnitId);
+    final State state;
+    if (circuit == null || !circuit.isOpen) {
+      state = State.CLOSED;
+    } else if (circuit.isProbing || getRetryAfterMillis(circuit) == 0) {
+      state = State.HALF_OPEN;
+    } else {
+      state = State.OPEN;
+    }
+    final Map<String, Object> result = new HashMap<>();
+    result.put("state", state.ordinal());
+    result.put("consecutiveFailures", circuit == null ? 0 : circuit.consecutiveFailures);
+    result.put("retryAfterMillis", getRetryAfterMillis(circuit));
+    return result;
+  }
+
+  void clear() {
+    circuits.clear();
+  }
+
+  private void open(@NonNull Circuit circuit) {
+    circuit.isOpen = true;
+    circuit.openUntilMillis = clock.elapsedRealtime() + circuit.backoffMillis;
+  }
+
+  private long getRetryAfterMillis(@Nullable Circuit circuit) {
+    if (circuit == null || !circuit.isOpen) {
+      return 0;
+    }
+    return Math.max(0, circuit.openUntilMillis - clock.elapsedRealtime());
+  }
+
+  private static boolean isNoFill(@NonNull FlutterLoadAdError error) {
+    return SDK_ERROR_DOMAIN.equals(error.domain)
+        && (error.code == AdRequest.ERROR_CODE_NO_FILL
+            || error.code == AdRequest.ERROR_CODE_MEDIATION_NO_FILL);
+  }
+}
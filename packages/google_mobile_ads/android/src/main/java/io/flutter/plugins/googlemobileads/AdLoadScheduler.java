@@ -0,0 +1,307 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Starts {@link FlutterAd#load()} calls in priority order, optionally limiting how many loads are
+ * in flight, both overall and per ad unit.
+ *
+ * <p>There are no limits until the app sets them with {@link #setMaxInFlight}. Full-screen ads
+ * never wait for a slot and do not take one, so a screen of banners can't hold up an interstitial.
+ *
+ * <p>A load is in flight until {@link #onLoadFinished} or {@link #cancel} is called for its ad, or
+ * until its deadline passes when a load timeout is set. Must only be used from the main thread.
+ */
+final class AdLoadScheduler {
+  /** How soon an ad is expected to be shown. Loads of a higher priority start first. */
+  enum Priority {
+    VISIBLE,
+    NEAR_VISIBLE,
+    PREFETCH;
+
+    /** Returns the priority with the index sent by Dart, defaulting to {@link #VISIBLE}. */
+    @NonNull
+    static Priority fromIndex(@Nullable Integer index) {
+      final Priority[] values = values();
+      if (index == null || index < 0 || index >= values.length) {
+        return VISIBLE;
+      }
+      return values[index];
+    }
+  }
+
+  /** Decides whether a queued load may start, and handles loads that miss their deadline. */
+  interface Delegate {
+    /** Returns false to drop the load instead of starting it. */
+    boolean allowLoad(int adId, @NonNull String adUnitId);
+
+    /** Called before the slot of a load that did not finish in time is freed. */
+    void onLoadTimedOut(int adId, @NonNull String adUnitId);
+  }
+
+  private static final class Request {
+    final int adId;
+    @NonNull final String adUnitId;
+    @NonNull final FlutterAd ad;
+    @NonNull Priority priority;
+
+    Request(int adId, @NonNull String adUnitId, @NonNull FlutterAd ad, @NonNull Priority priority) {
+      this.adId = adId;
+      this.adUnitId = adUnitId;
+      this.ad = ad;
+      this.priority = priority;
+    }
+
+    /** Whether the load counts against the limits. Full-screen ads have a lane of their own. */
+    boolean isLimited() {
+      return !(ad instanceof FlutterAd.FlutterOverlayAd);
+    }
+  }
+
+  @NonNull private final Delegate delegate;
+  @NonNull private final Handler handler;
+  private final ArrayDeque<Request>[] queues;
+  private final Map<Integer, Request> queued = new HashMap<>();
+  private final Map<Integer, Request> inFlight = new HashMap<>();
+  private final Map<String, Integer> inFlightPerAdUnit = new HashMap<>();
+  private final Map<Integer, Runnable> deadlines = new HashMap<>();
+  private int limitedInFlightCount;
+  private int maxInFlight;
+  private int maxInFlightPerAdUnit;
+  private long loadTimeoutMillis;
+  private boolean isDraining;
+
+  AdLoadScheduler() {
+    this(
+        new Delegate() {
+          @Override
+          public boolean allowLoad(int adId, @NonNull String adUnitId) {
+            return true;
+          }
+
+          @Override
+          public void onLoadTimedOut(int adId, @NonNull String adUnitId) {}
+        });
+  }
+
+  AdLoadScheduler(@NonNull Delegate delegate) {
+    this(delegate, new Handler(Looper.getMainLooper()));
+  }
+
+  @VisibleForTesting
+  @SuppressWarnings("unchecked")
+  AdLoadScheduler(@NonNull Delegate delegate, @NonNull Handler handler) {
+    this.delegate = delegate;
+    this.handler = handler;
+    queues = new ArrayDeque[Priority.values().length];
+    for (int i = 0; i < queues.length; i++) {
+      queues[i] = new ArrayDeque<>();
+    }
+  }
+
+  /** Queues a load of {@code ad}, starting it right away if there is capacity. */
+  void schedule(
+      int adId, @NonNull String adUnitId, @NonNull Priority priority, @NonNull FlutterAd ad) {
+    if (queued.containsKey(adId) || inFlight.containsKey(adId)) {
+      return;
+    }
+    final Request request = new Request(adId, adUnitId, ad, priority);
+    queued.put(adId, request);
+    queues[priority.ordinal()].add(request);
+    drain();
+  }
+
+  /** Moves a queued load to {@code priority}. Loads that already started are unaffected. */
+  void setPriority(int adId, @NonNull Priority priority) {
+    final Request request = queued.get(adId);
+    if (request == null || request.priority == priority) {
+      return;
+    }
+    queues[request.priority.ordinal()].remove(request);
+    request.priority = priority;
+    queues[priority.ordinal()].add(request);
+    drain();
+  }
+
+  /**
+   * Sets how long a started load may take before it fails with a timeout. Only affects loads that
+   * start afterwards, and 0 turns the deadline off.
+   */
+  void setLoadTimeoutMillis(long loadTimeoutMillis) {
+    this.loadTimeoutMillis = Math.max(0, loadTimeoutMillis);
+  }
+
+  /**
+   * Sets how many loads of banner and native ads may be in flight, overall and per ad unit. 0 lifts
+   * a limit. Loads that are queued start right away if the new limits allow it.
+   */
+  void setMaxInFlight(int maxInFlight, int maxInFlightPerAdUnit) {
+    this.maxInFlight = Math.max(0, maxInFlight);
+    this.maxInFlightPerAdUnit = Math.max(0, maxInFlightPerAdUnit);
+    drain();
+  }
+
+  /** Frees the slot of a finished load. Later loads of the ad, such as refreshes, are ignored. */
+  void onLoadFinished(int adId) {
+    if (release(adId)) {
+      drain();
+    }
+  }
+
+  /** Drops a queued load, or frees the slot of a started one, because the ad was disposed. */
+  void cancel(int adId) {
+    final Request request = queued.remove(adId);
+    if (request != null) {
+      queues[request.priority.ordinal()].remove(request);
+    } else if (release(adId)) {
+      drain();
+    }
+  }
+
+  /** Drops every queued load and forgets the ones in flight. */
+  void clear() {
+    for (ArrayDeque<Request> queue : queues) {
+      queue.clear();
+    }
+    queued.clear();
+    for (Runnable deadline : deadlines.values()) {
+      handler.removeCallbacks(deadline);
+    }
+    deadlines.clear();
+    inFlight.clear();
+    inFlightPerAdUnit.clear();
+    limitedInFlightCount = 0;
+  }
+
+  /** Returns the ad unit of the load of {@code adId} if it is in flight. */
+  @Nullable
+  String getInFlightAdUnitId(int adId) {
+    final Request request = inFlight.get(adId);
+    return request != null ? request.adUnitId : null;
+  }
+
+  @VisibleForTesting
+  int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  @VisibleForTesting
+  int getQueuedCount() {
+    return queued.size();
+  }
+
+  private boolean release(int adId) {
+    final Request request = inFlight.remove(adId);
+    if (request == null) {
+      return false;
+    }
+    final Runnable deadline = deadlines.remove(adId);
+    if (deadline != null) {
+      handler.removeCallbacks(deadline);
+    }
+    if (request.isLimited()) {
+      limitedInFlightCount--;
+      final int count = inFlightPerAdUnit.get(request.adUnitId) - 1;
+      if (count == 0) {
+        inFlightPerAdUnit.remove(request.adUnitId);
+      } else {
+        inFlightPerAdUnit.put(request.adUnitId, count);
+      }
+    }
+    return true;
+  }
+
+  private void drain() {
+    // A load can finish synchronously, which calls back into this method. The outer loop picks
+    // up the freed slot instead.
+    if (isDraining) {
+      return;
+    }
+    isDraining = true;
+    try {
+      Request request;
+      while ((request = pollStartable()) != null) {
+        queued.remove(request.adId);
+        if (!delegate.allowLoad(request.adId, request.adUnitId)) {
+          continue;
+        }
+        inFlight.put(request.adId, request);
+        if (request.isLimited()) {
+          limitedInFlightCount++;
+          final Integer count = inFlightPerAdUnit.get(request.adUnitId);
+          inFlightPerAdUnit.put(request.adUnitId, count == null ? 1 : count + 1);
+        }
+        startDeadline(request.adId);
+        request.ad.load();
+      }
+    } finally {
+      isDraining = false;
+    }
+  }
+
+  private void startDeadline(final int adId) {
+    if (loadTimeoutMillis == 0) {
+      return;
+    }
+    // Only the id is captured, so a pending deadline does not keep the ad alive.
+    final Runnable deadline =
+        new Runnable() {
+          @Override
+          public void run() {
+            deadlines.remove(adId);
+            final Request request = inFlight.get(adId);
+            if (request != null) {
+              delegate.onLoadTimedOut(adId, request.adUnitId);
+              onLoadFinished(adId);
+            }
+          }
+        };
+    deadlines.put(adId, deadline);
+    handler.postDelayed(deadline, loadTimeoutMillis);
+  }
+
+  /** Removes and returns the first queued load the limits allow to start, by priority. */
+  @Nullable
+  private Request pollStartable() {
+    final boolean isFull = maxInFlight > 0 && limitedInFlightCount >= maxInFlight;
+    for (ArrayDeque<Request> queue : queues) {
+      final Iterator<Request> iterator = queue.iterator();
+      while (iterator.hasNext()) {
+        final Request request = iterator.next();
+        if (request.isLimited() && (isFull || isAdUnitFull(request.adUnitId))) {
+          continue;
+        }
+        iterator.remove();
+        return request;
+      }
+    }
+    return null;
+  }
+
+  private boolean isAdUnitFull(@NonNull String adUnitId) {
+    final Integer count = inFlightPerAdUnit.get(adUnitId);
+    return maxInFlightPerAdUnit > 0 && count != null && count >= maxInFlightPerAdUnit;
+  }
+}
@@ -27,8 +27,11 @@ import io.flutter.plugins.googlemobileads.FlutterAd.FlutterResponseInfo;
 import io.flutter.plugins.googlemobileads.FlutterAdSize.InlineAdaptiveBannerAdSize;
 import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Encodes and decodes values by reading from a ByteBuffer and writing to a ByteArrayOutputStream.
@@ -54,20 +57,65 @@ class AdMessageCodec extends StandardMessageCodec {
   private static final byte VALUE_VIDEO_OPTIONS = (byte) 145;
   private static final byte VALUE_INLINE_ADAPTIVE_BANNER_AD_SIZE = (byte) 146;
   private static final byte VALUE_REQUEST_CONFIGURATION_PARAMS = (byte) 148;
+  private static final byte VALUE_AD_EVENT = (byte) 149;
+  private static final byte VALUE_STRING_DEFINITION = (byte) 150;
+  private static final byte VALUE_STRING_REFERENCE = (byte) 151;
+
+  private static final Charset UTF8 = Charset.forName("UTF8");
+
+  /** Writes the fields of a value after its type byte. */
+  private interface ValueWriter {
+    void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value);
+  }
+
+  /** Reads the fields of a value whose type byte has already been read. */
+  private interface ValueReader {
+    Object read(@NonNull ByteBuffer buffer);
+  }
 
   @NonNull Context context;
   @NonNull final FlutterAdSize.AdSizeFactory adSizeFactory;
   @Nullable private MediationNetworkExtrasProvider mediationNetworkExtrasProvider;
+  @NonNull private final AdRequestCache requestCache = new AdRequestCache();
+
+  // The string table of the current Dart session. Null until Dart asks for one.
+  @Nullable private volatile StringTable stringTable;
+
+  // The string table used by messages being written on this thread, if they may use one.
+  @NonNull private final ThreadLocal<StringTable> activeStringTable = new ThreadLocal<>();
+
+  // The strings defined by the messages read so far, indexed like the table of the sender. Only
+  // filled by codecs that read their own messages back, see registerOutgoingValueReaders.
+  @NonNull private final String[] readStrings = new String[StringTable.MAX_ENTRIES];
+
+  // Writers registered for the classes this codec handles. Subclasses are resolved to the writer of
+  // their nearest registered superclass, or to StandardMessageCodec, and cached by concrete class,
+  // so every value costs a single lookup.
+  @NonNull private final Map<Class<?>, ValueWriter> writers = new HashMap<>();
+  @NonNull private final Map<Class<?>, ValueWriter> resolvedWriters = new ConcurrentHashMap<>();
+
+  // Readers indexed by unsigned type byte. Types without a reader belong to StandardMessageCodec.
+  @NonNull private final ValueReader[] readers = new ValueReader[256];
+
+  @NonNull
+  private final ValueWriter standardWriter =
+      new ValueWriter() {
+        @Override
+        public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+          AdMessageCodec.super.writeValue(stream, value);
+        }
+      };
 
   AdMessageCodec(@NonNull Context context) {
-    this.context = context;
-    this.adSizeFactory = new FlutterAdSize.AdSizeFactory();
+    this(context, new FlutterAdSize.AdSizeFactory());
   }
 
   @VisibleForTesting
   AdMessageCodec(@NonNull Context context, @NonNull FlutterAdSize.AdSizeFactory adSizeFactory) {
     this.context = context;
     this.adSizeFactory = adSizeFactory;
+    registerWriters();
+    registerReaders();
   }
 
   void setContext(@NonNull Context context) {
@@ -77,247 +125,567 @@ class AdMessageCodec extends StandardMessageCodec {
   void setMediationNetworkExtrasProvider(
       @Nullable MediationNetworkExtrasProvider mediationNetworkExtrasProvider) {
     this.mediationNetworkExtrasProvider = mediationNetworkExtrasProvider;
+    // Cached requests carry extras from the previous provider.
+    requestCache.clear();
+  }
+
+  /**
+   * Starts a new string table, which Dart asks for when it starts. Strings defined for a previous
+   * Dart session are defined again the next time they are sent.
+   */
+  void resetStringTable() {
+    stringTable = new StringTable();
+  }
+
+  /**
+   * Sets whether the messages written on the calling thread send repeated strings by index. Only
+   * messages that reach Dart in the order they are written may use the string table.
+   */
+  void setUsesStringTable(boolean usesStringTable) {
+    if (usesStringTable && stringTable != null) {
+      activeStringTable.set(stringTable);
+    } else {
+      activeStringTable.remove();
+    }
   }
 
   @Override
   protected void writeValue(ByteArrayOutputStream stream, Object value) {
-    if (value instanceof FlutterAdSize) {
-      writeAdSize(stream, (FlutterAdSize) value);
-    } else if (value instanceof FlutterAdManagerAdRequest) {
-      stream.write(VALUE_ADMANAGER_AD_REQUEST);
-      final FlutterAdManagerAdRequest request = (FlutterAdManagerAdRequest) value;
-      writeValue(stream, request.getKeywords());
-      writeValue(stream, request.getContentUrl());
-      writeValue(stream, request.getCustomTargeting());
-      writeValue(stream, request.getCustomTargetingLists());
-      writeValue(stream, request.getNonPersonalizedAds());
-      writeValue(stream, request.getNeighboringContentUrls());
-      writeValue(stream, request.getHttpTimeoutMillis());
-      writeValue(stream, request.getPublisherProvidedId());
-      writeValue(stream, request.getMediationExtrasIdentifier());
-      writeValue(stream, request.getAdMobExtras());
-    } else if (value instanceof FlutterAdRequest) {
-      stream.write(VALUE_AD_REQUEST);
-      final FlutterAdRequest request = (FlutterAdRequest) value;
-      writeValue(stream, request.getKeywords());
-      writeValue(stream, request.getContentUrl());
-      writeValue(stream, request.getNonPersonalizedAds());
-      writeValue(stream, request.getNeighboringContentUrls());
-      writeValue(stream, request.getHttpTimeoutMillis());
-      writeValue(stream, request.getMediationExtrasIdentifier());
-      writeValue(stream, request.getAdMobExtras());
-    } else if (value instanceof FlutterRewardedAd.FlutterRewardItem) {
-      stream.write(VALUE_REWARD_ITEM);
-      final FlutterRewardedAd.FlutterRewardItem item = (FlutterRewardedAd.FlutterRewardItem) value;
-      writeValue(stream, item.amount);
-      writeValue(stream, item.type);
-    } else if (value instanceof FlutterAdapterResponseInfo) {
-      stream.write(VALUE_ADAPTER_RESPONSE_INFO);
-      final FlutterAdapterResponseInfo responseInfo = (FlutterAdapterResponseInfo) value;
-      writeValue(stream, responseInfo.getAdapterClassName());
-      writeValue(stream, responseInfo.getLatencyMillis());
-      writeValue(stream, responseInfo.getDescription());
-      writeValue(stream, responseInfo.getAdUnitMapping());
-      writeValue(stream, responseInfo.getError());
-    } else if (value instanceof FlutterResponseInfo) {
-      stream.write(VALUE_RESPONSE_INFO);
-      final FlutterResponseInfo responseInfo = (FlutterResponseInfo) value;
-      writeValue(stream, responseInfo.getResponseId());
-      writeValue(stream, responseInfo.getMediationAdapterClassName());
-      writeValue(stream, responseInfo.getAdapterResponses());
-    } else if (value instanceof FlutterAd.FlutterLoadAdError) {
-      stream.write(VALUE_LOAD_AD_ERROR);
-      final FlutterAd.FlutterLoadAdError error = (FlutterAd.FlutterLoadAdError) value;
-      writeValue(stream, error.code);
-      writeValue(stream, error.domain);
-      writeValue(stream, error.message);
-      writeValue(stream, error.responseInfo);
-    } else if (value instanceof FlutterAdError) {
-      stream.write(VALUE_AD_ERROR);
-      final FlutterAdError error = (FlutterAdError) value;
-      writeValue(stream, error.code);
-      writeValue(stream, error.domain);
-      writeValue(stream, error.message);
-    } else if (value instanceof FlutterAdapterStatus.AdapterInitializationState) {
-      stream.write(VALUE_INITIALIZATION_STATE);
-      final FlutterAdapterStatus.AdapterInitializationState state =
-          (FlutterAdapterStatus.AdapterInitializationState) value;
-      switch (state) {
-        case NOT_READY:
-          writeValue(stream, "notReady");
-          return;
-        case READY:
-          writeValue(stream, "ready");
-          return;
+    if (value == null) {
+      super.writeValue(stream, null);
+      return;
+    } else if (value instanceof String && writeTableString(stream, (String) value)) {
+      return;
+    }
+    writerFor(value.getClass()).write(stream, value);
+  }
+
+  /** Writes {@code value} through the active string table. Returns false if there is none. */
+  private boolean writeTableString(@NonNull ByteArrayOutputStream stream, @NonNull String value) {
+    final StringTable table = activeStringTable.get();
+    if (table == null) {
+      return false;
+    }
+    int index = table.indexOf(value);
+    if (index != StringTable.NO_INDEX) {
+      stream.write(VALUE_STRING_REFERENCE);
+      writeSize(stream, index);
+      return true;
+    }
+    index = table.add(value);
+    if (index == StringTable.NO_INDEX) {
+      return false;
+    }
+    stream.write(VALUE_STRING_DEFINITION);
+    writeSize(stream, index);
+    writeBytes(stream, value.getBytes(UTF8));
+    return true;
+  }
+
+  @NonNull
+  private ValueWriter writerFor(@NonNull Class<?> valueClass) {
+    ValueWriter writer = resolvedWriters.get(valueClass);
+    if (writer != null) {
+      return writer;
+    }
+    writer = standardWriter;
+    for (Class<?> type = valueClass; type != null; type = type.getSuperclass()) {
+      final ValueWriter registered = writers.get(type);
+      if (registered != null) {
+        writer = registered;
+        break;
       }
-      final String message = String.format("Unable to handle state: %s", state);
-      throw new IllegalArgumentException(message);
-    } else if (value instanceof FlutterAdapterStatus) {
-      stream.write(VALUE_ADAPTER_STATUS);
-      final FlutterAdapterStatus status = (FlutterAdapterStatus) value;
-      writeValue(stream, status.state);
-      writeValue(stream, status.description);
-      writeValue(stream, status.latency);
-    } else if (value instanceof FlutterInitializationStatus) {
-      stream.write(VALUE_INITIALIZATION_STATUS);
-      final FlutterInitializationStatus status = (FlutterInitializationStatus) value;
-      writeValue(stream, status.adapterStatuses);
-    } else if (value instanceof FlutterServerSideVerificationOptions) {
-      stream.write(VALUE_SERVER_SIDE_VERIFICATION_OPTIONS);
-      FlutterServerSideVerificationOptions options = (FlutterServerSideVerificationOptions) value;
-      writeValue(stream, options.getUserId());
-      writeValue(stream, options.getCustomData());
-    } else if (value instanceof FlutterNativeAdOptions) {
-      stream.write(VALUE_NATIVE_AD_OPTIONS);
-      FlutterNativeAdOptions options = (FlutterNativeAdOptions) value;
-      writeValue(stream, options.adChoicesPlacement);
-      writeValue(stream, options.mediaAspectRatio);
-      writeValue(stream, options.videoOptions);
-      writeValue(stream, options.requestCustomMuteThisAd);
-      writeValue(stream, options.shouldRequestMultipleImages);
-      writeValue(stream, options.shouldReturnUrlsForImageAssets);
-    } else if (value instanceof RequestConfiguration) {
-      stream.write(VALUE_REQUEST_CONFIGURATION_PARAMS);
-      RequestConfiguration params = (RequestConfiguration) value;
-      writeValue(stream, params.getMaxAdContentRating());
-      writeValue(stream, params.getTagForChildDirectedTreatment());
-      writeValue(stream, params.getTagForUnderAgeOfConsent());
-      writeValue(stream, params.getTestDeviceIds());
-    } else if (value instanceof FlutterVideoOptions) {
-      stream.write(VALUE_VIDEO_OPTIONS);
-      FlutterVideoOptions options = (FlutterVideoOptions) value;
-      writeValue(stream, options.clickToExpandRequested);
-      writeValue(stream, options.customControlsRequested);
-      writeValue(stream, options.startMuted);
-    } else {
-      super.writeValue(stream, value);
     }
+    resolvedWriters.put(valueClass, writer);
+    return writer;
   }
 
-  @SuppressWarnings("unchecked")
-  @Override
-  protected Object readValueOfType(byte type, ByteBuffer buffer) {
-    switch (type) {
-      case VALUE_INLINE_ADAPTIVE_BANNER_AD_SIZE:
-        {
-          final Integer width = (Integer) readValueOfType(buffer.get(), buffer);
-          final Integer height = (Integer) readValueOfType(buffer.get(), buffer);
-          final Integer orientation = (Integer) readValueOfType(buffer.get(), buffer);
-          return new FlutterAdSize.InlineAdaptiveBannerAdSize(
-              adSizeFactory, context, width, orientation, height);
-        }
-      case VALUE_ANCHORED_ADAPTIVE_BANNER_AD_SIZE:
-        final String orientation = (String) readValueOfType(buffer.get(), buffer);
-        final Integer width = (Integer) readValueOfType(buffer.get(), buffer);
-        return new FlutterAdSize.AnchoredAdaptiveBannerAdSize(
-            context, adSizeFactory, orientation, width);
-      case VALUE_SMART_BANNER_AD_SIZE:
-        return new FlutterAdSize.SmartBannerAdSize();
-      case VALUE_AD_SIZE:
-        return new FlutterAdSize(
-            (Integer) readValueOfType(buffer.get(), buffer),
-            (Integer) readValueOfType(buffer.get(), buffer));
-      case VALUE_FLUID_AD_SIZE:
-        return new FlutterAdSize.FluidAdSize();
-      case VALUE_AD_REQUEST:
-        return new FlutterAdRequest.Builder()
-            .setKeywords((List<String>) readValueOfType(buffer.get(), buffer))
-            .setContentUrl((String) readValueOfType(buffer.get(), buffer))
-            .setNonPersonalizedAds(booleanValueOf(readValueOfType(buffer.get(), buffer)))
-            .setNeighboringContentUrls((List<String>) readValueOfType(buffer.get(), buffer))
-            .setHttpTimeoutMillis((Integer) readValueOfType(buffer.get(), buffer))
-            .setMediationNetworkExtrasIdentifier((String) readValueOfType(buffer.get(), buffer))
-            .setMediationNetworkExtrasProvider(mediationNetworkExtrasProvider)
-            .setAdMobExtras((Map<String, String>) readValueOfType(buffer.get(), buffer))
-            .build();
-      case VALUE_REWARD_ITEM:
-        return new FlutterRewardedAd.FlutterRewardItem(
-            (Integer) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer));
-      case VALUE_ADAPTER_RESPONSE_INFO:
-        return new FlutterAdapterResponseInfo(
-            (String) readValueOfType(buffer.get(), buffer),
-            (long) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer),
-            (Map<String, String>) readValueOfType(buffer.get(), buffer),
-            (FlutterAdError) readValueOfType(buffer.get(), buffer));
-      case VALUE_RESPONSE_INFO:
-        return new FlutterResponseInfo(
-            (String) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer),
-            (List<FlutterAdapterResponseInfo>) readValueOfType(buffer.get(), buffer));
-      case VALUE_LOAD_AD_ERROR:
-        return new FlutterAd.FlutterLoadAdError(
-            (Integer) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer),
-            (FlutterResponseInfo) readValueOfType(buffer.get(), buffer));
-      case VALUE_AD_ERROR:
-        return new FlutterAdError(
-            (Integer) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer));
-      case VALUE_ADMANAGER_AD_REQUEST:
-        FlutterAdManagerAdRequest.Builder builder = new FlutterAdManagerAdRequest.Builder();
-        builder.setKeywords((List<String>) readValueOfType(buffer.get(), buffer));
-        builder.setContentUrl((String) readValueOfType(buffer.get(), buffer));
-        builder.setCustomTargeting((Map<String, String>) readValueOfType(buffer.get(), buffer));
-        builder.setCustomTargetingLists(
-            (Map<String, List<String>>) readValueOfType(buffer.get(), buffer));
-        builder.setNonPersonalizedAds((Boolean) readValueOfType(buffer.get(), buffer));
-        builder.setNeighboringContentUrls((List<String>) readValueOfType(buffer.get(), buffer));
-        builder.setHttpTimeoutMillis((Integer) readValueOfType(buffer.get(), buffer));
-        builder.setPublisherProvidedId((String) readValueOfType(buffer.get(), buffer));
-        builder.setMediationNetworkExtrasIdentifier((String) readValueOfType(buffer.get(), buffer));
-        builder.setMediationNetworkExtrasProvider(mediationNetworkExtrasProvider);
-        builder.setAdMobExtras((Map<String, String>) readValueOfType(buffer.get(), buffer));
-        return builder.build();
-      case VALUE_INITIALIZATION_STATE:
-        final String state = (String) readValueOfType(buffer.get(), buffer);
-        switch (state) {
-          case "notReady":
-            return FlutterAdapterStatus.AdapterInitializationState.NOT_READY;
-          case "ready":
-            return FlutterAdapterStatus.AdapterInitializationState.READY;
-          default:
+  private void registerWriters() {
+    writers.put(
+        FlutterAdSize.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            writeAdSize(stream, (FlutterAdSize) value);
+          }
+        });
+    writers.put(
+        FlutterAdManagerAdRequest.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_ADMANAGER_AD_REQUEST);
+            final FlutterAdManagerAdRequest request = (FlutterAdManagerAdRequest) value;
+            writeValue(stream, request.getKeywords());
+            writeValue(stream, request.getContentUrl());
+            writeValue(stream, request.getCustomTargeting());
+            writeValue(stream, request.getCustomTargetingLists());
+            writeValue(stream, request.getNonPersonalizedAds());
+            writeValue(stream, request.getNeighboringContentUrls());
+            writeValue(stream, request.getHttpTimeoutMillis());
+            writeValue(stream, request.getPublisherProvidedId());
+            writeValue(stream, request.getMediationExtrasIdentifier());
+            writeValue(stream, request.getAdMobExtras());
+          }
+        });
+    writers.put(
+        FlutterAdRequest.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_AD_REQUEST);
+            final FlutterAdRequest request = (FlutterAdRequest) value;
+            writeValue(stream, request.getKeywords());
+            writeValue(stream, request.getContentUrl());
+            writeValue(stream, request.getNonPersonalizedAds());
+            writeValue(stream, request.getNeighboringContentUrls());
+            writeValue(stream, request.getHttpTimeoutMillis());
+            writeValue(stream, request.getMediationExtrasIdentifier());
+            writeValue(stream, request.getAdMobExtras());
+          }
+        });
+    writers.put(
+        FlutterRewardedAd.FlutterRewardItem.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_REWARD_ITEM);
+            final FlutterRewardedAd.FlutterRewardItem item =
+                (FlutterRewardedAd.FlutterRewardItem) value;
+            writeValue(stream, item.amount);
+            writeValue(stream, item.type);
+          }
+        });
+    writers.put(
+        FlutterAdapterResponseInfo.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_ADAPTER_RESPONSE_INFO);
+            final FlutterAdapterResponseInfo responseInfo = (FlutterAdapterResponseInfo) value;
+            writeValue(stream, responseInfo.getAdapterClassName());
+            writeValue(stream, responseInfo.getLatencyMillis());
+            writeValue(stream, responseInfo.getDescription());
+            writeValue(stream, responseInfo.getAdUnitMapping());
+            writeValue(stream, responseInfo.getError());
+          }
+        });
+    writers.put(
+        FlutterResponseInfo.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_RESPONSE_INFO);
+            final FlutterResponseInfo responseInfo = (FlutterResponseInfo) value;
+            writeValue(stream, responseInfo.getResponseId());
+            writeValue(stream, responseInfo.getMediationAdapterClassName());
+            writeValue(stream, responseInfo.getAdapterResponses());
+          }
+        });
+    writers.put(
+        FlutterAd.FlutterLoadAdError.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_LOAD_AD_ERROR);
+            final FlutterAd.FlutterLoadAdError error = (FlutterAd.FlutterLoadAdError) value;
+            writeValue(stream, error.code);
+            writeValue(stream, error.domain);
+            writeValue(stream, error.message);
+            writeValue(stream, error.responseInfo);
+          }
+        });
+    writers.put(
+        FlutterAdError.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_AD_ERROR);
+            final FlutterAdError error = (FlutterAdError) value;
+            writeValue(stream, error.code);
+            writeValue(stream, error.domain);
+            writeValue(stream, error.message);
+          }
+        });
+    writers.put(
+        FlutterAdapterStatus.AdapterInitializationState.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_INITIALIZATION_STATE);
+            final FlutterAdapterStatus.AdapterInitializationState state =
+                (FlutterAdapterStatus.AdapterInitializationState) value;
+            switch (state) {
+              case NOT_READY:
+                writeValue(stream, "notReady");
+                return;
+              case READY:
+                writeValue(stream, "ready");
+                return;
+            }
             final String message = String.format("Unable to handle state: %s", state);
             throw new IllegalArgumentException(message);
-        }
-      case VALUE_ADAPTER_STATUS:
-        return new FlutterAdapterStatus(
-            (FlutterAdapterStatus.AdapterInitializationState) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer),
-            (Number) readValueOfType(buffer.get(), buffer));
-      case VALUE_INITIALIZATION_STATUS:
-        return new FlutterInitializationStatus(
-            (Map<String, FlutterAdapterStatus>) readValueOfType(buffer.get(), buffer));
-      case VALUE_SERVER_SIDE_VERIFICATION_OPTIONS:
-        return new FlutterServerSideVerificationOptions(
-            (String) readValueOfType(buffer.get(), buffer),
-            (String) readValueOfType(buffer.get(), buffer));
-      case VALUE_NATIVE_AD_OPTIONS:
-        return new FlutterNativeAdOptions(
-            (Integer) readValueOfType(buffer.get(), buffer),
-            (Integer) readValueOfType(buffer.get(), buffer),
-            (FlutterVideoOptions) readValueOfType(buffer.get(), buffer),
-            (Boolean) readValueOfType(buffer.get(), buffer),
-            (Boolean) readValueOfType(buffer.get(), buffer),
-            (Boolean) readValueOfType(buffer.get(), buffer));
-      case VALUE_VIDEO_OPTIONS:
-        return new FlutterVideoOptions(
-            (Boolean) readValueOfType(buffer.get(), buffer),
-            (Boolean) readValueOfType(buffer.get(), buffer),
-            (Boolean) readValueOfType(buffer.get(), buffer));
-      case VALUE_REQUEST_CONFIGURATION_PARAMS:
-        RequestConfiguration.Builder rcb = new RequestConfiguration.Builder();
-        rcb.setMaxAdContentRating((String) readValueOfType(buffer.get(), buffer));
-        rcb.setTagForChildDirectedTreatment((Integer) readValueOfType(buffer.get(), buffer));
-        rcb.setTagForUnderAgeOfConsent((Integer) readValueOfType(buffer.get(), buffer));
-        rcb.setTestDeviceIds((List<String>) readValueOfType(buffer.get(), buffer));
-        return rcb.build();
-      default:
-        return super.readValueOfType(type, buffer);
+          }
+        });
+    writers.put(
+        FlutterAdapterStatus.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_ADAPTER_STATUS);
+            final FlutterAdapterStatus status = (FlutterAdapterStatus) value;
+            writeValue(stream, status.state);
+            writeValue(stream, status.description);
+            writeValue(stream, status.latency);
+          }
+        });
+    writers.put(
+        FlutterInitializationStatus.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_INITIALIZATION_STATUS);
+            final FlutterInitializationStatus status = (FlutterInitializationStatus) value;
+            writeValue(stream, status.adapterStatuses);
+          }
+        });
+    writers.put(
+        FlutterServerSideVerificationOptions.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_SERVER_SIDE_VERIFICATION_OPTIONS);
+            FlutterServerSideVerificationOptions options =
+                (FlutterServerSideVerificationOptions) value;
+            writeValue(stream, options.getUserId());
+            writeValue(stream, options.getCustomData());
+          }
+        });
+    writers.put(
+        FlutterNativeAdOptions.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_NATIVE_AD_OPTIONS);
+            FlutterNativeAdOptions options = (FlutterNativeAdOptions) value;
+            writeValue(stream, options.adChoicesPlacement);
+            writeValue(stream, options.mediaAspectRatio);
+            writeValue(stream, options.videoOptions);
+            writeValue(stream, options.requestCustomMuteThisAd);
+            writeValue(stream, options.shouldRequestMultipleImages);
+            writeValue(stream, options.shouldReturnUrlsForImageAssets);
+          }
+        });
+    writers.put(
+        RequestConfiguration.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_REQUEST_CONFIGURATION_PARAMS);
+            RequestConfiguration params = (RequestConfiguration) value;
+            writeValue(stream, params.getMaxAdContentRating());
+            writeValue(stream, params.getTagForChildDirectedTreatment());
+            writeValue(stream, params.getTagForUnderAgeOfConsent());
+            writeValue(stream, params.getTestDeviceIds());
+          }
+        });
+    writers.put(
+        FlutterVideoOptions.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_VIDEO_OPTIONS);
+            FlutterVideoOptions options = (FlutterVideoOptions) value;
+            writeValue(stream, options.clickToExpandRequested);
+            writeValue(stream, options.customControlsRequested);
+            writeValue(stream, options.startMuted);
+          }
+        });
+    writers.put(
+        FlutterAdEvent.class,
+        new ValueWriter() {
+          @Override
+          public void write(@NonNull ByteArrayOutputStream stream, @NonNull Object value) {
+            stream.write(VALUE_AD_EVENT);
+            final FlutterAdEvent event = (FlutterAdEvent) value;
+            stream.write(event.type.code);
+            writeInt(stream, event.adId);
+            for (Object argument : event.arguments) {
+              writeValue(stream, argument);
+            }
+          }
+        });
+  }
+
+  @Override
+  protected Object readValueOfType(byte type, ByteBuffer buffer) {
+    final ValueReader reader = readers[type & 0xFF];
+    if (reader == null) {
+      return super.readValueOfType(type, buffer);
     }
+    return reader.read(buffer);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void registerReaders() {
+    readers[VALUE_INLINE_ADAPTIVE_BANNER_AD_SIZE & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            final Integer width = (Integer) readValueOfType(buffer.get(), buffer);
+            final Integer height = (Integer) readValueOfType(buffer.get(), buffer);
+            final Integer orientation = (Integer) readValueOfType(buffer.get(), buffer);
+            return new FlutterAdSize.InlineAdaptiveBannerAdSize(
+                adSizeFactory, context, width, orientation, height);
+          }
+        };
+    readers[VALUE_ANCHORED_ADAPTIVE_BANNER_AD_SIZE & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            final String orientation = (String) readValueOfType(buffer.get(), buffer);
+            final Integer width = (Integer) readValueOfType(buffer.get(), buffer);
+            return new FlutterAdSize.AnchoredAdaptiveBannerAdSize(
+                context, adSizeFactory, orientation, width);
+          }
+        };
+    readers[VALUE_SMART_BANNER_AD_SIZE & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterAdSize.SmartBannerAdSize();
+          }
+        };
+    readers[VALUE_AD_SIZE & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterAdSize(
+                (Integer) readValueOfType(buffer.get(), buffer),
+                (Integer) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_FLUID_AD_SIZE & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterAdSize.FluidAdSize();
+          }
+        };
+    readers[VALUE_AD_REQUEST & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterAdRequest.Builder()
+                .setKeywords((List<String>) readValueOfType(buffer.get(), buffer))
+                .setContentUrl((String) readValueOfType(buffer.get(), buffer))
+                .setNonPersonalizedAds(booleanValueOf(readValueOfType(buffer.get(), buffer)))
+                .setNeighboringContentUrls((List<String>) readValueOfType(buffer.get(), buffer))
+                .setHttpTimeoutMillis((Integer) readValueOfType(buffer.get(), buffer))
+                .setMediationNetworkExtrasIdentifier(
+                    (String) readValueOfType(buffer.get(), buffer))
+                .setMediationNetworkExtrasProvider(mediationNetworkExtrasProvider)
+                .setAdMobExtras((Map<String, String>) readValueOfType(buffer.get(), buffer))
+                .setRequestCache(requestCache)
+                .build();
+          }
+        };
+    readers[VALUE_REWARD_ITEM & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterRewardedAd.FlutterRewardItem(
+                (Integer) readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_ADAPTER_RESPONSE_INFO & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterAdapterResponseInfo(
+                (String) readValueOfType(buffer.get(), buffer),
+                (long) readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer),
+                (Map<String, String>) readValueOfType(buffer.get(), buffer),
+                (FlutterAdError) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_RESPONSE_INFO & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterResponseInfo(
+                (String) readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer),
+                (List<FlutterAdapterResponseInfo>) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_LOAD_AD_ERROR & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterAd.FlutterLoadAdError(
+                (Integer) readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer),
+                (FlutterResponseInfo) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_AD_ERROR & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterAdError(
+                (Integer) readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_ADMANAGER_AD_REQUEST & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            FlutterAdManagerAdRequest.Builder builder = new FlutterAdManagerAdRequest.Builder();
+            builder.setKeywords((List<String>) readValueOfType(buffer.get(), buffer));
+            builder.setContentUrl((String) readValueOfType(buffer.get(), buffer));
+            builder.setCustomTargeting(
+                (Map<String, String>) readValueOfType(buffer.get(), buffer));
+            builder.setCustomTargetingLists(
+                (Map<String, List<String>>) readValueOfType(buffer.get(), buffer));
+            builder.setNonPersonalizedAds((Boolean) readValueOfType(buffer.get(), buffer));
+            builder.setNeighboringContentUrls(
+                (List<String>) readValueOfType(buffer.get(), buffer));
+            builder.setHttpTimeoutMillis((Integer) readValueOfType(buffer.get(), buffer));
+            builder.setPublisherProvidedId((String) readValueOfType(buffer.get(), buffer));
+            builder.setMediationNetworkExtrasIdentifier(
+                (String) readValueOfType(buffer.get(), buffer));
+            builder.setMediationNetworkExtrasProvider(mediationNetworkExtrasProvider);
+            builder.setAdMobExtras((Map<String, String>) readValueOfType(buffer.get(), buffer));
+            builder.setRequestCache(requestCache);
+            return builder.build();
+          }
+        };
+    readers[VALUE_INITIALIZATION_STATE & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            final String state = (String) readValueOfType(buffer.get(), buffer);
+            switch (state) {
+              case "notReady":
+                return FlutterAdapterStatus.AdapterInitializationState.NOT_READY;
+              case "ready":
+                return FlutterAdapterStatus.AdapterInitializationState.READY;
+              default:
+                final String message = String.format("Unable to handle state: %s", state);
+                throw new IllegalArgumentException(message);
+            }
+          }
+        };
+    readers[VALUE_ADAPTER_STATUS & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterAdapterStatus(
+                (FlutterAdapterStatus.AdapterInitializationState)
+                    readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer),
+                (Number) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_INITIALIZATION_STATUS & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterInitializationStatus(
+                (Map<String, FlutterAdapterStatus>) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_SERVER_SIDE_VERIFICATION_OPTIONS & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterServerSideVerificationOptions(
+                (String) readValueOfType(buffer.get(), buffer),
+                (String) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_NATIVE_AD_OPTIONS & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return requestCache.intern(
+                new FlutterNativeAdOptions(
+                    (Integer) readValueOfType(buffer.get(), buffer),
+                    (Integer) readValueOfType(buffer.get(), buffer),
+                    (FlutterVideoOptions) readValueOfType(buffer.get(), buffer),
+                    (Boolean) readValueOfType(buffer.get(), buffer),
+                    (Boolean) readValueOfType(buffer.get(), buffer),
+                    (Boolean) readValueOfType(buffer.get(), buffer)));
+          }
+        };
+    readers[VALUE_VIDEO_OPTIONS & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return new FlutterVideoOptions(
+                (Boolean) readValueOfType(buffer.get(), buffer),
+                (Boolean) readValueOfType(buffer.get(), buffer),
+                (Boolean) readValueOfType(buffer.get(), buffer));
+          }
+        };
+    readers[VALUE_REQUEST_CONFIGURATION_PARAMS & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            RequestConfiguration.Builder rcb = new RequestConfiguration.Builder();
+            rcb.setMaxAdContentRating((String) readValueOfType(buffer.get(), buffer));
+            rcb.setTagForChildDirectedTreatment((Integer) readValueOfType(buffer.get(), buffer));
+            rcb.setTagForUnderAgeOfConsent((Integer) readValueOfType(buffer.get(), buffer));
+            rcb.setTestDeviceIds((List<String>) readValueOfType(buffer.get(), buffer));
+            return rcb.build();
+          }
+        };
+  }
+
+  /**
+   * Registers readers for the values this codec only ever writes to Dart: ad events and the string
+   * table entries they use. Production codecs never read them, so those type bytes stay unknown.
+   */
+  @VisibleForTesting
+  void registerOutgoingValueReaders() {
+    readers[VALUE_STRING_DEFINITION & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            final int index = readSize(buffer);
+            final String value = new String(readBytes(buffer), UTF8);
+            readStrings[index] = value;
+            return value;
+          }
+        };
+    readers[VALUE_STRING_REFERENCE & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            return readStrings[readSize(buffer)];
+          }
+        };
+    readers[VALUE_AD_EVENT & 0xFF] =
+        new ValueReader() {
+          @Override
+          public Object read(@NonNull ByteBuffer buffer) {
+            // Ad events are only sent to Dart, so they are read back as the map Dart receives.
+            final FlutterAdEvent.Type eventType = FlutterAdEvent.Type.forCode(buffer.get());
+            final Map<Object, Object> event = new HashMap<>();
+            event.put("adId", buffer.getInt());
+            event.put("eventName", eventType.eventName);
+            for (String argumentName : eventType.argumentNames) {
+              event.put(argumentName, readValueOfType(buffer.get(), buffer));
+            }
+            return event;
+          }
+        };
   }
 
   protected void writeAdSize(ByteArrayOutputStream stream, FlutterAdSize value) {
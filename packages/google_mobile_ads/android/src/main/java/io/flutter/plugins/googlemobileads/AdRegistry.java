@@ -0,0 +1,169 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bidirectional index of {@link FlutterAd}s keyed by their int ad id.
+ *
+ * <p>Ad ids are stored in an open-addressed int table, and ads are mapped back to their id with an
+ * identity map, so lookups in either direction are constant time and don't box. All methods are
+ * synchronized because SDK and mediation adapter callbacks may arrive off the main thread.
+ */
+final class AdRegistry {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] keys;
+  private FlutterAd[] values;
+  private int size;
+  @NonNull private final Map<FlutterAd, Integer> ids = new IdentityHashMap<>();
+
+  AdRegistry() {
+    keys = new int[INITIAL_CAPACITY];
+    values = new FlutterAd[INITIAL_CAPACITY];
+  }
+
+  /** Returns the ad tracked with {@code adId}, or null if there is none. */
+  @Nullable
+  synchronized FlutterAd get(int adId) {
+    final int index = indexOf(adId);
+    return index < 0 ? null : values[index];
+  }
+
+  /** Returns the id {@code ad} was tracked with, or null if it is not tracked. */
+  @Nullable
+  synchronized Integer idFor(@NonNull FlutterAd ad) {
+    return ids.get(ad);
+  }
+
+  /**
+   * Tracks {@code ad} with {@code adId}.
+   *
+   * @return false if an ad is already tracked with {@code adId}, in which case nothing changes
+   */
+  synchronized boolean add(int adId, @NonNull FlutterAd ad) {
+    if (indexOf(adId) >= 0) {
+      return false;
+    }
+    if ((size + 1) * 4 > values.length * 3) {
+      resize(values.length * 2);
+    }
+    insert(adId, ad);
+    ids.put(ad, adId);
+    size++;
+    return true;
+  }
+
+  /** Stops tracking the ad with {@code adId} and returns it, or null if there was none. */
+  @Nullable
+  synchronized FlutterAd remove(int adId) {
+    int gap = indexOf(adId);
+    if (gap < 0) {
+      return null;
+    }
+    final FlutterAd removed = values[gap];
+    final Integer trackedId = ids.get(removed);
+    if (trackedId != null && trackedId == adId) {
+      ids.remove(removed);
+    }
+    size--;
+
+    // Backward shift deletion: move later entries of the probe run into the gap when their home
+    // slot allows it, so lookups never need tombstones.
+    final int mask = values.length - 1;
+    int next = gap;
+    while (true) {
+      next = (next + 1) & mask;
+      if (values[next] == null) {
+        break;
+      }
+      final int home = slot(keys[next], mask);
+      final boolean canMove =
+          next > gap ? (home <= gap || home > next) : (home <= gap && home > next);
+      if (canMove) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+    }
+    values[gap] = null;
+    return removed;
+  }
+
+  /** Stops tracking all ads and returns the ones that were tracked. */
+  @NonNull
+  synchronized List<FlutterAd> clear() {
+    final List<FlutterAd> removed = new ArrayList<>(size);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        removed.add(values[i]);
+        values[i] = null;
+      }
+    }
+    ids.clear();
+    size = 0;
+    return removed;
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  private int indexOf(int adId) {
+    final int mask = values.length - 1;
+    int index = slot(adId, mask);
+    while (values[index] != null) {
+      if (keys[index] == adId) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void insert(int adId, @NonNull FlutterAd ad) {
+    final int mask = values.length - 1;
+    int index = slot(adId, mask);
+    while (values[index] != null) {
+      index = (index + 1) & mask;
+    }
+    keys[index] = adId;
+    values[index] = ad;
+  }
+
+  private void resize(int capacity) {
+    final int[] oldKeys = keys;
+    final FlutterAd[] oldValues = values;
+    keys = new int[capacity];
+    values = new FlutterAd[capacity];
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        insert(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private static int slot(int adId, int mask) {
+    // Ad ids are sequential, so spread them before masking to keep probe runs short.
+    final int hash = adId * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+}
@@ -0,0 +1,121 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.android.gms.ads.AdRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches the SDK requests built from {@link FlutterAdRequest}s, and interns {@link
+ * FlutterNativeAdOptions} so equal options share one built {@code NativeAdOptions}.
+ *
+ * <p>Apps tend to load the same few request shapes many times per session. Built requests are keyed
+ * by the content of the Flutter request, by ad unit id because mediation extras are looked up per
+ * ad unit, and by whether an {@link com.google.android.gms.ads.admanager.AdManagerAdRequest} was
+ * built. The least recently used entries are evicted first. The extras returned by a {@link
+ * MediationNetworkExtrasProvider} are assumed to be stable while it is set, so {@link
+ * AdMessageCodec} clears the cache whenever the provider changes.
+ */
+final class AdRequestCache {
+  private static final int MAX_REQUESTS = 32;
+  private static final int MAX_NATIVE_AD_OPTIONS = 8;
+
+  private static final class Key {
+    @NonNull final FlutterAdRequest request;
+    @NonNull final String adUnitId;
+    final boolean isAdManagerRequest;
+
+    Key(@NonNull FlutterAdRequest request, @NonNull String adUnitId, boolean isAdManagerRequest) {
+      this.request = request;
+      this.adUnitId = adUnitId;
+      this.isAdManagerRequest = isAdManagerRequest;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object object) {
+      if (this == object) {
+        return true;
+      } else if (!(object instanceof Key)) {
+        return false;
+      }
+
+      final Key that = (Key) object;
+      return isAdManagerRequest == that.isAdManagerRequest
+          && adUnitId.equals(that.adUnitId)
+          && request.getClass() == that.request.getClass()
+          && request.equals(that.request);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(request, adUnitId, isAdManagerRequest);
+    }
+  }
+
+  @NonNull private final Map<Key, AdRequest> requests = new LruMap<>(MAX_REQUESTS);
+
+  @NonNull
+  private final Map<FlutterNativeAdOptions, FlutterNativeAdOptions> nativeAdOptions =
+      new LruMap<>(MAX_NATIVE_AD_OPTIONS);
+
+  /** Returns the request previously built for {@code request} and {@code adUnitId}, if any. */
+  @Nullable
+  synchronized AdRequest get(
+      @NonNull FlutterAdRequest request, @NonNull String adUnitId, boolean isAdManagerRequest) {
+    return requests.get(new Key(request, adUnitId, isAdManagerRequest));
+  }
+
+  synchronized void put(
+      @NonNull FlutterAdRequest request,
+      @NonNull String adUnitId,
+      boolean isAdManagerRequest,
+      @NonNull AdRequest adRequest) {
+    requests.put(new Key(request, adUnitId, isAdManagerRequest), adRequest);
+  }
+
+  /** Returns a previously seen instance equal to {@code options}, or {@code options} itself. */
+  @NonNull
+  synchronized FlutterNativeAdOptions intern(@NonNull FlutterNativeAdOptions options) {
+    final FlutterNativeAdOptions interned = nativeAdOptions.get(options);
+    if (interned != null) {
+      return interned;
+    }
+    nativeAdOptions.put(options, options);
+    return options;
+  }
+
+  synchronized void clear() {
+    requests.clear();
+    nativeAdOptions.clear();
+  }
+
+  private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+    private final int maxSize;
+
+    LruMap(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      return size() > maxSize;
+    }
+  }
+}
@@ -0,0 +1,170 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records when each step of loading and showing an ad happens, so the time spent in the plugin can
+ * be told apart from the time spent in the SDK.
+ *
+ * <p>Times come from {@link SystemClock#elapsedRealtimeNanos()}. Only the first time of each step
+ * is kept, so banner refreshes do not overwrite the first load. A timeline starts when Dart asks to
+ * load the ad and is dropped when the ad is disposed. May be used from any thread.
+ */
+final class AdTimelineRecorder {
+  /** The parts of the life of an ad that are timed. */
+  enum Stage {
+    LOAD,
+    SHOW,
+    IMPRESSION,
+  }
+
+  /** The steps of a stage in the order they happen. The ordinals match the Dart list. */
+  enum Step {
+    CALL_RECEIVED,
+    REQUEST_BUILT,
+    SDK_STARTED,
+    SDK_CALLBACK,
+    EVENT_QUEUED,
+    EVENT_SENT,
+  }
+
+  interface Clock {
+    long elapsedRealtimeNanos();
+  }
+
+  private static final long UNSET = 0;
+
+  @NonNull private final Clock clock;
+  private final Map<Integer, long[][]> timelines = new HashMap<>();
+
+  AdTimelineRecorder() {
+    this(
+        new Clock() {
+          @Override
+          public long elapsedRealtimeNanos() {
+            return SystemClock.elapsedRealtimeNanos();
+          }
+        });
+  }
+
+  @VisibleForTesting
+  AdTimelineRecorder(@NonNull Clock clock) {
+    this.clock = clock;
+  }
+
+  /** Starts the timeline of {@code adId} with the time Dart's load call was received. */
+  void start(int adId) {
+    final long now = clock.elapsedRealtimeNanos();
+    synchronized (timelines) {
+      if (!timelines.containsKey(adId)) {
+        timelines.put(adId, new long[Stage.values().length][Step.values().length]);
+      }
+      setIfUnset(timelines.get(adId), Stage.LOAD, Step.CALL_RECEIVED, now);
+    }
+  }
+
+  /** Records that {@code step} of {@code stage} happened now. Ignored for untimed ads. */
+  void mark(int adId, @NonNull Stage stage, @NonNull Step step) {
+    final long now = clock.elapsedRealtimeNanos();
+    synchronized (timelines) {
+      final long[][] timeline = timelines.get(adId);
+      if (timeline != null) {
+        setIfUnset(timeline, stage, step, now);
+      }
+    }
+  }
+
+  void onEventQueued(@NonNull FlutterAdEvent event) {
+    final Stage stage = getStage(event.type);
+    if (stage != null) {
+      mark(event.adId, stage, Step.EVENT_QUEUED);
+    }
+  }
+
+  void onEventSent(@NonNull FlutterAdEvent event) {
+    final Stage stage = getStage(event.type);
+    if (stage != null) {
+      mark(event.adId, stage, Step.EVENT_SENT);
+    }
+  }
+
+  void remove(int adId) {
+    synchronized (timelines) {
+      timelines.remove(adId);
+    }
+  }
+
+  void clear() {
+    synchronized (timelines) {
+      timelines.clear();
+    }
+  }
+
+  /**
+   * Returns the timeline of {@code adId} in the format sent to Dart: a list of step times in
+   * nanoseconds for each stage, with null for steps that did not happen.
+   */
+  @Nullable
+  Map<String, Object> getTimeline(int adId) {
+    synchronized (timelines) {
+      final long[][] timeline = timelines.get(adId);
+      if (timeline == null) {
+        return null;
+      }
+      final Map<String, Object> result = new HashMap<>();
+      for (Stage stage : Stage.values()) {
+        final List<Long> times = new ArrayList<>(Step.values().length);
+        for (long time : timeline[stage.ordinal()]) {
+          times.add(time == UNSET ? null : time);
+        }
+        result.put(stage.name().toLowerCase(Locale.US), times);
+      }
+      return result;
+    }
+  }
+
+  private static void setIfUnset(
+      @NonNull long[][] timeline, @NonNull Stage stage, @NonNull Step step, long time) {
+    if (timeline[stage.ordinal()][step.ordinal()] == UNSET) {
+      timeline[stage.ordinal()][step.ordinal()] = time;
+    }
+  }
+
+  @Nullable
+  private static Stage getStage(@NonNull FlutterAdEvent.Type type) {
+    switch (type) {
+      case AD_LOADED:
+      case AD_FAILED_TO_LOAD:
+        return Stage.LOAD;
+      case AD_SHOWED_FULL_SCREEN_CONTENT:
+      case FAILED_TO_SHOW_FULL_SCREEN_CONTENT:
+        return Stage.SHOW;
+      case AD_IMPRESSION:
+        return Stage.IMPRESSION;
+      default:
+        return null;
+    }
+  }
+}
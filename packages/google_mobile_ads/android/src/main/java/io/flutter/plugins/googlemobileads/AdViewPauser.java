@@ -0,0 +1,113 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.view.View;
+import androidx.annotation.NonNull;
+import com.google.android.gms.ads.BaseAdView;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Pauses banner ad views while they can't be seen, and resumes them once they can.
+ *
+ * <p>An ad view is paused while the app is in the background, and while it is detached from its
+ * window after having been attached, which is what happens when its platform view is scrolled out
+ * of a list. Ad views that have not been attached yet are left running so they can load. Paused ad
+ * views stop their WebView timers, animations and refreshes. Must only be used from the main
+ * thread.
+ */
+final class AdViewPauser implements View.OnAttachStateChangeListener {
+
+  /** The state of a tracked ad view. */
+  private static final class State {
+    boolean isAttached;
+    boolean wasAttached;
+    boolean isPaused;
+  }
+
+  private final Map<BaseAdView, State> adViews = new IdentityHashMap<>();
+  private boolean isEnabled = true;
+  private boolean isAppInForeground = true;
+
+  /** Starts pausing and resuming {@code adView}. */
+  void track(@NonNull BaseAdView adView) {
+    if (adViews.containsKey(adView)) {
+      return;
+    }
+    final State state = new State();
+    state.isAttached = adView.isAttachedToWindow();
+    state.wasAttached = state.isAttached;
+    adViews.put(adView, state);
+    adView.addOnAttachStateChangeListener(this);
+    update(adView, state);
+  }
+
+  /** Stops pausing and resuming {@code adView}, which is about to be destroyed. */
+  void untrack(@NonNull BaseAdView adView) {
+    if (adViews.remove(adView) != null) {
+      adView.removeOnAttachStateChangeListener(this);
+    }
+  }
+
+  /** Sets whether ad views are paused at all. Disabling it resumes the paused ad views. */
+  void setEnabled(boolean enabled) {
+    isEnabled = enabled;
+    updateAll();
+  }
+
+  void setAppInForeground(boolean isAppInForeground) {
+    this.isAppInForeground = isAppInForeground;
+    updateAll();
+  }
+
+  @Override
+  public void onViewAttachedToWindow(@NonNull View view) {
+    final State state = adViews.get(view);
+    if (state != null) {
+      state.isAttached = true;
+      state.wasAttached = true;
+      update((BaseAdView) view, state);
+    }
+  }
+
+  @Override
+  public void onViewDetachedFromWindow(@NonNull View view) {
+    // The view still counts as attached while this is called, so the state is tracked here.
+    final State state = adViews.get(view);
+    if (state != null) {
+      state.isAttached = false;
+      update((BaseAdView) view, state);
+    }
+  }
+
+  private void updateAll() {
+    for (Map.Entry<BaseAdView, State> entry : adViews.entrySet()) {
+      update(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void update(@NonNull BaseAdView adView, @NonNull State state) {
+    final boolean shouldPause =
+        isEnabled && (!isAppInForeground || (state.wasAttached && !state.isAttached));
+    if (shouldPause && !state.isPaused) {
+      adView.pause();
+      state.isPaused = true;
+    } else if (!shouldPause && state.isPaused) {
+      adView.resume();
+      state.isPaused = false;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterAdapterResponseInfo;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterResponseInfo;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Aggregates the latency of mediation adapters per adapter class and ad unit.
+ *
+ * <p>Each histogram has {@link #BUCKET_COUNT} log scaled buckets. Latencies under 8 ms get a bucket
+ * each, and every doubling above that is split into four buckets, so percentiles are off by at most
+ * a quarter. Latencies above {@link #MAX_TRACKED_LATENCY_MILLIS} land in the last bucket. At most
+ * {@link #MAX_HISTOGRAMS} histograms are kept, dropping the least recently updated one. Access is
+ * guarded by the histogram map because load results arrive on mediation adapter threads.
+ */
+final class AdapterLatencyHistograms {
+  @VisibleForTesting static final int BUCKET_COUNT = 64;
+  @VisibleForTesting static final int MAX_HISTOGRAMS = 64;
+  @VisibleForTesting static final long MAX_TRACKED_LATENCY_MILLIS = (1L << 17) - 1;
+
+  private static final int LINEAR_BUCKETS = 8;
+  private static final int SUB_BUCKETS = 4;
+
+  private static final class Key {
+    @NonNull final String adapterClassName;
+    @NonNull final String adUnitId;
+
+    Key(@NonNull String adapterClassName, @NonNull String adUnitId) {
+      this.adapterClassName = adapterClassName;
+      this.adUnitId = adUnitId;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) o;
+      return adapterClassName.equals(other.adapterClassName) && adUnitId.equals(other.adUnitId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(adapterClassName, adUnitId);
+    }
+  }
+
+  private static final class Histogram {
+    final int[] counts = new int[BUCKET_COUNT];
+    int count;
+    long maxMillis;
+
+    void add(long latencyMillis) {
+      counts[getBucket(latencyMillis)]++;
+      count++;
+      maxMillis = Math.max(maxMillis, latencyMillis);
+    }
+
+    /** Returns the largest latency of the bucket holding the {@code quantile} sample. */
+    long getPercentile(double quantile) {
+      final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+      long seen = 0;
+      for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+        seen += counts[bucket];
+        if (seen >= rank) {
+          // The last bucket also holds every latency too large to track.
+          return bucket == BUCKET_COUNT - 1
+              ? maxMillis
+              : Math.min(getBucketUpperBound(bucket) - 1, maxMillis);
+        }
+      }
+      return maxMillis;
+    }
+  }
+
+  private final Map<Key, Histogram> histograms =
+      new LinkedHashMap<Key, Histogram>(MAX_HISTOGRAMS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Histogram> eldest) {
+          return size() > MAX_HISTOGRAMS;
+        }
+      };
+
+  /** Adds the latency of every adapter in {@code responseInfo}. */
+  void record(@NonNull String adUnitId, @NonNull FlutterResponseInfo responseInfo) {
+    for (FlutterAdapterResponseInfo adapterResponse : responseInfo.getAdapterResponses()) {
+      final String adapterClassName = adapterResponse.getAdapterClassName();
+      if (adapterClassName == null || adapterClassName.isEmpty()) {
+        continue;
+      }
+      final Key key = new Key(adapterClassName, adUnitId);
+      synchronized (histograms) {
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+          histogram = new Histogram();
+          histograms.put(key, histogram);
+        }
+        histogram.add(Math.max(0, adapterResponse.getLatencyMillis()));
+      }
+    }
+  }
+
+  /** Returns a summary of each histogram in the format sent to Dart. */
+  @NonNull
+  List<Map<String, Object>> getSummaries() {
+    synchronized (histograms) {
+      final List<Map<String, Object>> summaries = new ArrayList<>(histograms.size());
+      for (Map.Entry<Key, Histogram> entry : histograms.entrySet()) {
+        final Histogram histogram = entry.getValue();
+        final Map<String, Object> summary = new HashMap<>();
+        summary.put("adapterClassName", entry.getKey().adapterClassName);
+        summary.put("adUnitId", entry.getKey().adUnitId);
+        summary.put("count", histogram.count);
+        summary.put("p50Millis", histogram.getPercentile(0.5));
+        summary.put("p90Millis", histogram.getPercentile(0.9));
+        summary.put("p99Millis", histogram.getPercentile(0.99));
+        summary.put("maxMillis", histogram.maxMillis);
+        summaries.add(summary);
+      }
+      return summaries;
+    }
+  }
+
+  void clear() {
+    synchronized (histograms) {
+      histograms.clear();
+    }
+  }
+
+  @VisibleForTesting
+  static int getBucket(long latencyMillis) {
+    final long latency = Math.min(latencyMillis, MAX_TRACKED_LATENCY_MILLIS);
+    if (latency < LINEAR_BUCKETS) {
+      return (int) latency;
+    }
+    final int octave = 63 - Long.numberOfLeadingZeros(latency);
+    final int subBucket = (int) (latency >> (octave - 2)) & (SUB_BUCKETS - 1);
+    return LINEAR_BUCKETS + (octave - 3) * SUB_BUCKETS + subBucket;
+  }
+
+  /** Returns the smallest latency that is too large for {@code bucket}. */
+  @VisibleForTesting
+  static long getBucketUpperBound(int bucket) {
+    if (bucket < LINEAR_BUCKETS) {
+      return bucket + 1;
+    }
+    final int octave = 3 + (bucket - LINEAR_BUCKETS) / SUB_BUCKETS;
+    final int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+    return (long) (SUB_BUCKETS + subBucket + 1) << (octave - 2);
+  }
+}
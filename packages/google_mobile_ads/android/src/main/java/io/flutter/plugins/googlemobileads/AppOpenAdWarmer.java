@@ -0,0 +1,281 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.google.android.gms.ads.AdError;
+import com.google.android.gms.ads.AdValue;
+import com.google.android.gms.ads.FullScreenContentCallback;
+import com.google.android.gms.ads.OnPaidEventListener;
+import com.google.android.gms.ads.appopen.AppOpenAd;
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterAdError;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps app open ads loaded while the app is in the background, and can show one as soon as the
+ * app returns to the foreground.
+ *
+ * <p>Each ad unit passed to {@link #warmUp} is preloaded in the {@link FullScreenAdPool}. When the
+ * app moves to the background, expired ads are replaced, and each ad is replaced again {@link
+ * #REFRESH_MARGIN_MILLIS} before it would expire until the app returns. Ads that failed to load are
+ * retried with backoff, starting after {@link #MIN_RETRY_DELAY_MILLIS}. A later load of a matching
+ * app open ad from Dart is served from the pool.
+ *
+ * <p>For ad units warmed up with {@code showOnForeground}, a ready ad is shown from the lifecycle
+ * callback of the app starting, without waiting on Dart, unless a full-screen ad loaded from Dart
+ * is showing. The events of a warm ad are sent to Dart with {@link #EVENT_METHOD}, and its revenue
+ * is recorded like that of other ads. Must only be used from the main thread.
+ */
+final class AppOpenAdWarmer implements AppStateNotifier.Listener {
+  @VisibleForTesting static final String EVENT_METHOD = "onWarmAppOpenAdEvent";
+  @VisibleForTesting static final long REFRESH_MARGIN_MILLIS = 5 * 60 * 1000L;
+  @VisibleForTesting static final long MIN_RETRY_DELAY_MILLIS = 60 * 1000L;
+  @VisibleForTesting static final long MAX_RETRY_DELAY_MILLIS = 30 * 60 * 1000L;
+
+  private static final class Config {
+    @NonNull final String adUnitId;
+    @NonNull final FlutterAdRequest request;
+    final int orientation;
+    final boolean showOnForeground;
+
+    Config(
+        @NonNull String adUnitId,
+        @NonNull FlutterAdRequest request,
+        int orientation,
+        boolean showOnForeground) {
+      this.adUnitId = adUnitId;
+      this.request = request;
+      this.orientation = orientation;
+      this.showOnForeground = showOnForeground;
+    }
+  }
+
+  @NonNull private final FullScreenAdPool adPool;
+  @NonNull private final AdInstanceManager manager;
+  @NonNull private final MethodChannel channel;
+  @NonNull private final Handler mainHandler;
+
+  private final Map<String, Config> configs = new LinkedHashMap<>();
+  private boolean isShowingAd;
+  private long retryDelayMillis = MIN_RETRY_DELAY_MILLIS;
+
+  private final Runnable refreshAds =
+      new Runnable() {
+        @Override
+        public void run() {
+          refresh();
+          scheduleRefresh();
+        }
+      };
+
+  AppOpenAdWarmer(
+      @NonNull FullScreenAdPool adPool,
+      @NonNull AdInstanceManager manager,
+      @NonNull MethodChannel channel) {
+    this(adPool, manager, channel, new Handler(Looper.getMainLooper()));
+  }
+
+  @VisibleForTesting
+  AppOpenAdWarmer(
+      @NonNull FullScreenAdPool adPool,
+      @NonNull AdInstanceManager manager,
+      @NonNull MethodChannel channel,
+      @NonNull Handler mainHandler) {
+    this.adPool = adPool;
+    this.manager = manager;
+    this.channel = channel;
+    this.mainHandler = mainHandler;
+  }
+
+  /**
+   * Starts keeping an app open ad of {@code adUnitId} ready, replacing the settings of an earlier
+   * call for the same ad unit.
+   *
+   * @param orientation the SDK app open orientation
+   * @param showOnForeground whether the ad is shown when the app returns to the foreground
+   */
+  void warmUp(
+      @NonNull String adUnitId,
+      @NonNull FlutterAdRequest request,
+      int orientation,
+      boolean showOnForeground) {
+    configs.put(adUnitId, new Config(adUnitId, request, orientation, showOnForeground));
+    adPool.preload(FullScreenAdPool.Format.APP_OPEN, adUnitId, request, orientation, 1);
+  }
+
+  /** Stops keeping an app open ad of {@code adUnitId} ready. Ads already loaded stay pooled. */
+  void stop(@NonNull String adUnitId) {
+    configs.remove(adUnitId);
+    if (configs.isEmpty()) {
+      mainHandler.removeCallbacks(refreshAds);
+    }
+  }
+
+  void clear() {
+    configs.clear();
+    mainHandler.removeCallbacks(refreshAds);
+  }
+
+  @Override
+  public void onAppStateChanged(boolean isInForeground) {
+    mainHandler.removeCallbacks(refreshAds);
+    if (configs.isEmpty()) {
+      return;
+    }
+    if (isInForeground) {
+      showWarmAd();
+    } else {
+      retryDelayMillis = MIN_RETRY_DELAY_MILLIS;
+      refreshAds.run();
+    }
+  }
+
+  private void refresh() {
+    for (Config config : configs.values()) {
+      adPool.refresh(
+          FullScreenAdPool.Format.APP_OPEN,
+          config.adUnitId,
+          config.request,
+          config.orientation,
+          REFRESH_MARGIN_MILLIS);
+    }
+  }
+
+  /**
+   * Schedules the next refresh shortly before the first pooled ad expires, or sooner if an ad unit
+   * has no ready ad yet.
+   */
+  private void scheduleRefresh() {
+    long delayMillis = Long.MAX_VALUE;
+    boolean isMissingAds = false;
+    for (Config config : configs.values()) {
+      final Long millisUntilExpiry =
+          adPool.getMillisUntilNextExpiry(
+              FullScreenAdPool.Format.APP_OPEN,
+              config.adUnitId,
+              config.request,
+              config.orientation);
+      if (millisUntilExpiry == null) {
+        isMissingAds = true;
+      } else {
+        delayMillis = Math.min(delayMillis, millisUntilExpiry - REFRESH_MARGIN_MILLIS);
+      }
+    }
+    if (isMissingAds) {
+      // Loads may still be in flight, so the first check comes soon and later ones back off.
+      delayMillis = Math.min(delayMillis, retryDelayMillis);
+      retryDelayMillis = Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+    } else {
+      retryDelayMillis = MIN_RETRY_DELAY_MILLIS;
+    }
+    mainHandler.postDelayed(refreshAds, Math.max(delayMillis, 0));
+  }
+
+  private void showWarmAd() {
+    final Activity activity = manager.getActivity();
+    // Returning from the click-through of an ad loaded from Dart must not cover that ad.
+    if (isShowingAd || activity == null || manager.isShowingFullScreenAd()) {
+      return;
+    }
+    for (Config config : configs.values()) {
+      if (!config.showOnForeground) {
+        continue;
+      }
+      final AppOpenAd ad =
+          adPool.claim(
+              FullScreenAdPool.Format.APP_OPEN,
+              config.adUnitId,
+              config.request,
+              config.orientation);
+      if (ad != null) {
+        show(config.adUnitId, ad, activity);
+        return;
+      }
+    }
+  }
+
+  private void show(
+      @NonNull final String adUnitId, @NonNull AppOpenAd ad, @NonNull Activity activity) {
+    ad.setFullScreenContentCallback(
+        new FullScreenContentCallback() {
+          @Override
+          public void onAdShowedFullScreenContent() {
+            sendEvent(adUnitId, "onAdShowedFullScreenContent", null);
+          }
+
+          @Override
+          public void onAdFailedToShowFullScreenContent(@NonNull AdError adError) {
+            isShowingAd = false;
+            final Map<String, Object> values = new HashMap<>();
+            values.put("error", new FlutterAdError(adError));
+            sendEvent(adUnitId, "onAdFailedToShowFullScreenContent", values);
+          }
+
+          @Override
+          public void onAdDismissedFullScreenContent() {
+            isShowingAd = false;
+            sendEvent(adUnitId, "onAdDismissedFullScreenContent", null);
+          }
+
+          @Override
+          public void onAdImpression() {
+            sendEvent(adUnitId, "onAdImpression", null);
+          }
+
+          @Override
+          public void onAdClicked() {
+            sendEvent(adUnitId, "onAdClicked", null);
+          }
+        });
+    ad.setOnPaidEventListener(
+        new OnPaidEventListener() {
+          @Override
+          public void onPaidEvent(@NonNull AdValue adValue) {
+            final RevenueAggregator revenueAggregator = manager.getRevenueAggregator();
+            if (revenueAggregator != null) {
+              revenueAggregator.record(
+                  adUnitId,
+                  new FlutterAdValue(
+                      adValue.getPrecisionType(),
+                      adValue.getCurrencyCode(),
+                      adValue.getValueMicros()));
+            }
+            final Map<String, Object> values = new HashMap<>();
+            values.put("valueMicros", adValue.getValueMicros());
+            values.put("precision", adValue.getPrecisionType());
+            values.put("currencyCode", adValue.getCurrencyCode());
+            sendEvent(adUnitId, "onPaidEvent", values);
+          }
+        });
+    isShowingAd = true;
+    ad.show(activity);
+  }
+
+  private void sendEvent(
+      @NonNull String adUnitId, @NonNull String eventName, @Nullable Map<String, Object> values) {
+    final Map<String, Object> arguments = values != null ? values : new HashMap<String, Object>();
+    arguments.put("adUnitId", adUnitId);
+    arguments.put("eventName", eventName);
+    channel.invokeMethod(EVENT_METHOD, arguments);
+  }
+}
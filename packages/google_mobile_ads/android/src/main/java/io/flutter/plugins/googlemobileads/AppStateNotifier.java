@@ -16,6 +16,7 @@ package io.flutter.plugins.googlemobileads;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.Lifecycle.Event;
 import androidx.lifecycle.LifecycleEventObserver;
 import androidx.lifecycle.LifecycleOwner;
@@ -28,10 +29,22 @@ import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
+import java.util.ArrayList;
+import java.util.List;
 
-/** Listens to changes in app foreground/background and forwards events to Flutter. */
+/**
+ * Listens to changes in app foreground/background and forwards events to Flutter.
+ *
+ * <p>Native {@link Listener}s are notified of the same changes through their own observer, so they
+ * keep receiving them whether or not Dart listens.
+ */
 final class AppStateNotifier implements LifecycleEventObserver, MethodCallHandler, StreamHandler {
 
+  /** Notified when the app moves to the foreground or the background. */
+  interface Listener {
+    void onAppStateChanged(boolean isInForeground);
+  }
+
   private static final String METHOD_CHANNEL_NAME =
       "plugins.flutter.io/google_mobile_ads/app_state_method";
   private static final String EVENT_CHANNEL_NAME =
@@ -42,6 +55,20 @@ final class AppStateNotifier implements LifecycleEventObserver, MethodCallHandle
 
   @Nullable private EventSink events;
 
+  private final List<Listener> listeners = new ArrayList<>();
+
+  private final LifecycleEventObserver listenerObserver =
+      new LifecycleEventObserver() {
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Event event) {
+          if (event == Event.ON_START || event == Event.ON_STOP) {
+            for (Listener listener : new ArrayList<>(listeners)) {
+              listener.onAppStateChanged(event == Event.ON_START);
+            }
+          }
+        }
+      };
+
   AppStateNotifier(BinaryMessenger binaryMessenger) {
     methodChannel = new MethodChannel(binaryMessenger, METHOD_CHANNEL_NAME);
     methodChannel.setMethodCallHandler(this);
@@ -59,6 +86,28 @@ final class AppStateNotifier implements LifecycleEventObserver, MethodCallHandle
     ProcessLifecycleOwner.get().getLifecycle().removeObserver(this);
   }
 
+  /**
+   * Adds {@code listener}, which is told the current app state right away if the app has started.
+   */
+  void addListener(@NonNull Listener listener) {
+    listeners.add(listener);
+    if (listeners.size() == 1) {
+      ProcessLifecycleOwner.get().getLifecycle().addObserver(listenerObserver);
+    } else if (ProcessLifecycleOwner.get()
+        .getLifecycle()
+        .getCurrentState()
+        .isAtLeast(Lifecycle.State.STARTED)) {
+      listener.onAppStateChanged(true);
+    }
+  }
+
+  void removeListener(@NonNull Listener listener) {
+    listeners.remove(listener);
+    if (listeners.isEmpty()) {
+      ProcessLifecycleOwner.get().getLifecycle().removeObserver(listenerObserver);
+    }
+  }
+
   @Override
   public void onMethodCall(@NonNull MethodCall call, @NonNull Result result) {
     switch (call.method) {
@@ -15,26 +15,121 @@
 package io.flutter.plugins.googlemobileads;
 
 import android.content.Context;
+import android.os.Looper;
+import android.os.MessageQueue;
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import com.google.android.gms.ads.AdView;
 import com.google.android.gms.ads.admanager.AdManagerAdView;
+import java.util.ArrayDeque;
 
-/** Creates AdView and AdManagerAdViews for banner ads. */
+/**
+ * Creates AdView and AdManagerAdViews for banner ads.
+ *
+ * <p>Constructing the first ad view in a process also initializes the WebView, which can take long
+ * enough to drop frames. {@link #prewarm} builds views ahead of time while the main thread is idle,
+ * one per idle pass. The create methods hand out a prewarmed view when one is available and then
+ * build its replacement during the next idle pass.
+ *
+ * <p>Must only be used from the main thread.
+ */
 public class BannerAdCreator {
 
   @NonNull private final Context context;
+  @NonNull private final ArrayDeque<AdView> warmAdViews = new ArrayDeque<>();
+  @NonNull private final ArrayDeque<AdManagerAdView> warmAdManagerAdViews = new ArrayDeque<>();
+  private int adViewTarget;
+  private int adManagerAdViewTarget;
+  private boolean isWarmingScheduled;
+
+  private final MessageQueue.IdleHandler warmer =
+      new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+          isWarmingScheduled = warmNextView();
+          return isWarmingScheduled;
+        }
+      };
 
   public BannerAdCreator(@NonNull Context context) {
     this.context = context;
   }
 
+  @NonNull
+  Context getContext() {
+    return context;
+  }
+
+  /**
+   * Keeps {@code adViewCount} {@link AdView}s and {@code adManagerAdViewCount} {@link
+   * AdManagerAdView}s built ahead of time.
+   */
+  void prewarm(int adViewCount, int adManagerAdViewCount) {
+    adViewTarget = Math.max(adViewCount, 0);
+    adManagerAdViewTarget = Math.max(adManagerAdViewCount, 0);
+    while (warmAdViews.size() > adViewTarget) {
+      warmAdViews.poll().destroy();
+    }
+    while (warmAdManagerAdViews.size() > adManagerAdViewTarget) {
+      warmAdManagerAdViews.poll().destroy();
+    }
+    scheduleWarming();
+  }
+
+  /** Destroys the prewarmed views and stops building new ones. */
+  void clear() {
+    prewarm(0, 0);
+  }
+
   /** Create a new {@link AdManagerAdView}. */
   public AdManagerAdView createAdManagerAdView() {
-    return new AdManagerAdView(context);
+    final AdManagerAdView adView = warmAdManagerAdViews.poll();
+    if (adView == null) {
+      return buildAdManagerAdView();
+    }
+    scheduleWarming();
+    return adView;
   }
 
   /** Create a new {@link AdView}. */
   public AdView createAdView() {
+    final AdView adView = warmAdViews.poll();
+    if (adView == null) {
+      return buildAdView();
+    }
+    scheduleWarming();
+    return adView;
+  }
+
+  @VisibleForTesting
+  AdManagerAdView buildAdManagerAdView() {
+    return new AdManagerAdView(context);
+  }
+
+  @VisibleForTesting
+  AdView buildAdView() {
     return new AdView(context);
   }
+
+  /** Builds one missing view and returns whether more are still missing. */
+  @VisibleForTesting
+  boolean warmNextView() {
+    if (warmAdViews.size() < adViewTarget) {
+      warmAdViews.add(buildAdView());
+    } else if (warmAdManagerAdViews.size() < adManagerAdViewTarget) {
+      warmAdManagerAdViews.add(buildAdManagerAdView());
+    }
+    return warmAdViews.size() < adViewTarget
+        || warmAdManagerAdViews.size() < adManagerAdViewTarget;
+  }
+
+  private void scheduleWarming() {
+    if (isWarmingScheduled
+        || (warmAdViews.size() >= adViewTarget
+            && warmAdManagerAdViews.size() >= adManagerAdViewTarget)) {
+      return;
+    }
+    isWarmingScheduled = true;
+    Looper.myQueue().addIdleHandler(warmer);
+  }
 }
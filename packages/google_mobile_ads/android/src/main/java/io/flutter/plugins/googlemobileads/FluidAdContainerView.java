@@ -0,0 +1,76 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+
+/**
+ * Holds the ad view of a fluid ad and lets it take as much height as it needs.
+ *
+ * <p>The ad view is measured with the width of the container and an unspecified height, and laid
+ * out at its measured height even when that overflows the container. This lets the ad view report
+ * its real height through its layout, while the container itself keeps the size Flutter gives it.
+ * Unlike a {@link android.widget.ScrollView}, it has no scrolling state and measures its child in a
+ * single pass.
+ */
+final class FluidAdContainerView extends ViewGroup {
+
+  FluidAdContainerView(@NonNull Context context) {
+    super(context);
+    setClipChildren(false);
+  }
+
+  @Override
+  protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+    final int width = MeasureSpec.getSize(widthMeasureSpec);
+    final int childWidthMeasureSpec =
+        MeasureSpec.makeMeasureSpec(
+            Math.max(0, width - getPaddingLeft() - getPaddingRight()), MeasureSpec.EXACTLY);
+    final int childHeightMeasureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+    int childHeight = 0;
+    for (int i = 0; i < getChildCount(); i++) {
+      final View child = getChildAt(i);
+      if (child.getVisibility() != GONE) {
+        child.measure(childWidthMeasureSpec, childHeightMeasureSpec);
+        childHeight = Math.max(childHeight, child.getMeasuredHeight());
+      }
+    }
+    setMeasuredDimension(
+        resolveSize(width, widthMeasureSpec),
+        resolveSize(childHeight + getPaddingTop() + getPaddingBottom(), heightMeasureSpec));
+  }
+
+  @Override
+  protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+    for (int i = 0; i < getChildCount(); i++) {
+      final View child = getChildAt(i);
+      if (child.getVisibility() != GONE) {
+        child.layout(
+            getPaddingLeft(),
+            getPaddingTop(),
+            getPaddingLeft() + child.getMeasuredWidth(),
+            getPaddingTop() + child.getMeasuredHeight());
+      }
+    }
+  }
+
+  @Override
+  public boolean shouldDelayChildPressedState() {
+    return false;
+  }
+}
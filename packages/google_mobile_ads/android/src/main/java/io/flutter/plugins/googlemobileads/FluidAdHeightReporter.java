@@ -0,0 +1,109 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Reports the measured height of a fluid ad to Dart at most once per frame.
+ *
+ * <p>Heights measured during a frame replace each other, and the latest one is reported on the
+ * next {@link Choreographer} frame if it differs from the last reported height by at least {@link
+ * AdInstanceManager#getFluidAdHeightThreshold}. Once no height has been measured for {@link
+ * #SETTLE_DELAY_MILLIS}, the settled height is reported even if it is within the threshold, so Dart
+ * always ends up with the exact height. Must only be used from the main thread.
+ */
+class FluidAdHeightReporter implements Choreographer.FrameCallback {
+  @VisibleForTesting static final long SETTLE_DELAY_MILLIS = 200;
+
+  private static final int NO_HEIGHT = -1;
+
+  private final int adId;
+  @NonNull private final AdInstanceManager manager;
+  @NonNull private final Choreographer choreographer;
+  @NonNull private final Handler mainHandler;
+
+  private int measuredHeight = NO_HEIGHT;
+  private int reportedHeight = NO_HEIGHT;
+  private boolean isFrameScheduled;
+
+  private final Runnable reportSettledHeight =
+      new Runnable() {
+        @Override
+        public void run() {
+          report();
+        }
+      };
+
+  FluidAdHeightReporter(int adId, @NonNull AdInstanceManager manager) {
+    this(adId, manager, Choreographer.getInstance(), new Handler(Looper.getMainLooper()));
+  }
+
+  @VisibleForTesting
+  FluidAdHeightReporter(
+      int adId,
+      @NonNull AdInstanceManager manager,
+      @NonNull Choreographer choreographer,
+      @NonNull Handler mainHandler) {
+    this.adId = adId;
+    this.manager = manager;
+    this.choreographer = choreographer;
+    this.mainHandler = mainHandler;
+  }
+
+  /** Records the latest measured height of the ad. */
+  void onHeightMeasured(int height) {
+    measuredHeight = height;
+    mainHandler.removeCallbacks(reportSettledHeight);
+    if (height == reportedHeight) {
+      return;
+    }
+    if (!isFrameScheduled) {
+      isFrameScheduled = true;
+      choreographer.postFrameCallback(this);
+    }
+    mainHandler.postDelayed(reportSettledHeight, SETTLE_DELAY_MILLIS);
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    isFrameScheduled = false;
+    if (reportedHeight == NO_HEIGHT
+        || Math.abs(measuredHeight - reportedHeight) >= manager.getFluidAdHeightThreshold()) {
+      report();
+    }
+  }
+
+  /** Stops reporting heights. */
+  void stop() {
+    if (isFrameScheduled) {
+      choreographer.removeFrameCallback(this);
+      isFrameScheduled = false;
+    }
+    mainHandler.removeCallbacks(reportSettledHeight);
+  }
+
+  private void report() {
+    if (measuredHeight == NO_HEIGHT || measuredHeight == reportedHeight) {
+      return;
+    }
+    reportedHeight = measuredHeight;
+    manager.onFluidAdHeightChanged(adId, measuredHeight);
+  }
+}
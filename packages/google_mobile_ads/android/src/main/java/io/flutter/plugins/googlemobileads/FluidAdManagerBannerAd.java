@@ -18,7 +18,6 @@ import android.util.Log;
 import android.view.View;
 import android.view.View.OnLayoutChangeListener;
 import android.view.ViewGroup;
-import android.widget.ScrollView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
@@ -33,7 +32,7 @@ final class FluidAdManagerBannerAd extends FlutterAdManagerBannerAd {
 
   @Nullable private ViewGroup containerView;
 
-  private int height = -1;
+  @NonNull private final FluidAdHeightReporter heightReporter;
 
   FluidAdManagerBannerAd(
       int adId,
@@ -41,6 +40,23 @@ final class FluidAdManagerBannerAd extends FlutterAdManagerBannerAd {
       @NonNull String adUnitId,
       @NonNull FlutterAdManagerAdRequest request,
       @NonNull BannerAdCreator bannerAdCreator) {
+    this(
+        adId,
+        manager,
+        adUnitId,
+        request,
+        bannerAdCreator,
+        new FluidAdHeightReporter(adId, manager));
+  }
+
+  @VisibleForTesting
+  FluidAdManagerBannerAd(
+      int adId,
+      @NonNull AdInstanceManager manager,
+      @NonNull String adUnitId,
+      @NonNull FlutterAdManagerAdRequest request,
+      @NonNull BannerAdCreator bannerAdCreator,
+      @NonNull FluidAdHeightReporter heightReporter) {
     super(
         adId,
         manager,
@@ -48,6 +64,7 @@ final class FluidAdManagerBannerAd extends FlutterAdManagerBannerAd {
         Collections.singletonList(new FlutterAdSize(AdSize.FLUID)),
         request,
         bannerAdCreator);
+    this.heightReporter = heightReporter;
   }
 
   @Override
@@ -66,12 +83,8 @@ final class FluidAdManagerBannerAd extends FlutterAdManagerBannerAd {
                 int oldTop,
                 int oldRight,
                 int oldBottom) {
-              // Forward the new height to its container.
-              int newHeight = v.getMeasuredHeight();
-              if (newHeight != height) {
-                manager.onFluidAdHeightChanged(adId, newHeight);
-              }
-              height = newHeight;
+              // Forward the new height to its container, at most once per frame.
+              heightReporter.onHeightMeasured(v.getMeasuredHeight());
             }
           });
       manager.onAdLoaded(adId, adView.getResponseInfo());
@@ -87,33 +100,32 @@ final class FluidAdManagerBannerAd extends FlutterAdManagerBannerAd {
     if (containerView != null) {
       return new FlutterPlatformView(containerView);
     }
-    // Place the ad view inside a scroll view. This allows the height of the ad view to overflow
-    // its container so we can calculate the height and send it back to flutter.
-    ScrollView scrollView = createContainerView();
-    if (scrollView == null) {
+    // Place the ad view inside a container that lets its height overflow, so we can measure the
+    // height and send it back to flutter.
+    FluidAdContainerView fluidContainerView = createContainerView();
+    if (fluidContainerView == null) {
       return null;
     }
-    scrollView.setClipChildren(false);
-    scrollView.setVerticalScrollBarEnabled(false);
-    scrollView.setHorizontalScrollBarEnabled(false);
-    containerView = scrollView;
+    containerView = fluidContainerView;
     containerView.addView(adView);
     return new FlutterPlatformView(adView);
   }
 
   @Nullable
   @VisibleForTesting
-  ScrollView createContainerView() {
+  FluidAdContainerView createContainerView() {
     if (manager.getActivity() == null) {
       Log.e(TAG, "Tried to create container view before plugin is attached to an activity.");
       return null;
     }
-    return new ScrollView(manager.getActivity());
+    return new FluidAdContainerView(manager.getActivity());
   }
 
   @Override
   void dispose() {
+    heightReporter.stop();
     if (adView != null) {
+      manager.getAdViewPauser().untrack(adView);
       adView.destroy();
       adView = null;
     }
@@ -22,6 +22,7 @@ import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.ResponseInfo;
 import io.flutter.plugin.platform.PlatformView;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +50,28 @@ abstract class FlutterAd {
   /** A wrapper around {@link ResponseInfo}. */
   static class FlutterResponseInfo {
 
+    /** How much of a {@link ResponseInfo} is converted. The ordinals match the Dart enum. */
+    enum Level {
+      /** Nothing is converted. */
+      NONE,
+      /** Only the response id and the mediation adapter class name. */
+      ID_ONLY,
+      /** Adds the class name, latency and error of each adapter. */
+      SUMMARY,
+      /** Adds the description and credentials of each adapter. */
+      FULL;
+
+      /** Returns the level with the index sent by Dart, defaulting to {@link #FULL}. */
+      @NonNull
+      static Level fromIndex(@Nullable Integer index) {
+        final Level[] values = values();
+        if (index == null || index < 0 || index >= values.length) {
+          return FULL;
+        }
+        return values[index];
+      }
+    }
+
     @Nullable private final String responseId;
     @Nullable private final String mediationAdapterClassName;
     @NonNull private final List<FlutterAdapterResponseInfo> adapterResponses;
@@ -72,6 +95,38 @@ abstract class FlutterAd {
       this.adapterResponses = adapterResponseInfos;
     }
 
+    /**
+     * Converts {@code responseInfo} up to {@code level}. Returns null for {@link Level#NONE}.
+     *
+     * <p>Below {@link Level#FULL} the adapter descriptions and credentials are left empty, which
+     * skips {@link AdapterResponseInfo#toString()} and copying the credentials.
+     */
+    @Nullable
+    static FlutterResponseInfo create(@Nullable ResponseInfo responseInfo, @NonNull Level level) {
+      if (responseInfo == null || level == Level.NONE) {
+        return null;
+      } else if (level == Level.FULL) {
+        return new FlutterResponseInfo(responseInfo);
+      }
+      final List<FlutterAdapterResponseInfo> adapterResponseInfos = new ArrayList<>();
+      if (level == Level.SUMMARY) {
+        for (AdapterResponseInfo adapterInfo : responseInfo.getAdapterResponses()) {
+          final AdError adError = adapterInfo.getAdError();
+          adapterResponseInfos.add(
+              new FlutterAdapterResponseInfo(
+                  adapterInfo.getAdapterClassName(),
+                  adapterInfo.getLatencyMillis(),
+                  "",
+                  Collections.<String, String>emptyMap(),
+                  adError == null ? null : new FlutterAdError(adError)));
+        }
+      }
+      return new FlutterResponseInfo(
+          responseInfo.getResponseId(),
+          responseInfo.getMediationAdapterClassName(),
+          adapterResponseInfos);
+    }
+
     @Nullable
     String getResponseId() {
       return responseId;
@@ -236,19 +291,28 @@ abstract class FlutterAd {
 
   /** Wrapper for {@link LoadAdError}. */
   static class FlutterLoadAdError {
+    /** The domain of errors raised by the plugin rather than the SDK. */
+    static final String PLUGIN_ERROR_DOMAIN = "io.flutter.plugins.googlemobileads";
+
+    static final int ERROR_CODE_CIRCUIT_OPEN = 1;
+    static final int ERROR_CODE_LOAD_TIMEOUT = 2;
+
     final int code;
     @NonNull final String domain;
     @NonNull final String message;
     @Nullable FlutterResponseInfo responseInfo;
 
+    /**
+     * The response info from the SDK. It is converted into {@link #responseInfo} by {@link
+     * AdInstanceManager#onAdFailedToLoad} at the configured level.
+     */
+    @Nullable final ResponseInfo sdkResponseInfo;
+
     FlutterLoadAdError(@NonNull LoadAdError error) {
       code = error.getCode();
       domain = error.getDomain();
       message = error.getMessage();
-
-      if (error.getResponseInfo() != null) {
-        responseInfo = new FlutterResponseInfo(error.getResponseInfo());
-      }
+      sdkResponseInfo = error.getResponseInfo();
     }
 
     FlutterLoadAdError(
@@ -260,6 +324,7 @@ abstract class FlutterAd {
       this.domain = domain;
       this.message = message;
       this.responseInfo = responseInfo;
+      this.sdkResponseInfo = null;
     }
 
     @Override
@@ -290,6 +355,12 @@ abstract class FlutterAd {
 
   abstract void load();
 
+  /** Returns the ad unit the ad is loaded from, or null if it is not known. */
+  @Nullable
+  String getAdUnitId() {
+    return null;
+  }
+
   /**
    * Gets the PlatformView for the ad. Default behavior is to return null. Should be overridden by
    * ads with platform views, such as banner and native ads.
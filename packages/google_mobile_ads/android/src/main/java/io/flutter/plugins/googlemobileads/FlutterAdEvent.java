@@ -0,0 +1,123 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An ad event sent to Dart.
+ *
+ * <p>{@link AdMessageCodec} writes the event type as a single byte and the ad id as an int,
+ * followed by the arguments in the order listed by {@link Type#argumentNames}. The argument names
+ * are never written, Dart restores them from the event type.
+ */
+class FlutterAdEvent {
+
+  /** The kinds of ad events. The codes must be consistent with the Dart AdMessageCodec. */
+  enum Type {
+    AD_LOADED(0, "onAdLoaded", "responseInfo"),
+    AD_FAILED_TO_LOAD(1, "onAdFailedToLoad", "loadAdError"),
+    APP_EVENT(2, "onAppEvent", "name", "data"),
+    AD_IMPRESSION(3, "onAdImpression"),
+    AD_CLICKED(4, "onAdClicked"),
+    AD_OPENED(5, "onAdOpened"),
+    AD_CLOSED(6, "onAdClosed"),
+    REWARDED_AD_USER_EARNED_REWARD(7, "onRewardedAdUserEarnedReward", "rewardItem"),
+    REWARDED_INTERSTITIAL_AD_USER_EARNED_REWARD(
+        8, "onRewardedInterstitialAdUserEarnedReward", "rewardItem"),
+    PAID_EVENT(9, "onPaidEvent", "valueMicros", "precision", "currencyCode"),
+    FAILED_TO_SHOW_FULL_SCREEN_CONTENT(10, "onFailedToShowFullScreenContent", "error"),
+    AD_SHOWED_FULL_SCREEN_CONTENT(11, "onAdShowedFullScreenContent"),
+    AD_DISMISSED_FULL_SCREEN_CONTENT(12, "onAdDismissedFullScreenContent"),
+    AD_METADATA_CHANGED(13, "onAdMetadataChanged"),
+    FLUID_AD_HEIGHT_CHANGED(14, "onFluidAdHeightChanged", "height");
+
+    private static final Type[] TYPES_BY_CODE = new Type[values().length];
+
+    static {
+      for (Type type : values()) {
+        TYPES_BY_CODE[type.code] = type;
+      }
+    }
+
+    final byte code;
+    @NonNull final String eventName;
+    @NonNull final String[] argumentNames;
+
+    Type(int code, @NonNull String eventName, @NonNull String... argumentNames) {
+      this.code = (byte) code;
+      this.eventName = eventName;
+      this.argumentNames = argumentNames;
+    }
+
+    @NonNull
+    static Type forCode(byte code) {
+      if (code < 0 || code >= TYPES_BY_CODE.length) {
+        throw new IllegalArgumentException(String.format("Unknown ad event type: %d", code));
+      }
+      return TYPES_BY_CODE[code];
+    }
+  }
+
+  final int adId;
+  @NonNull final Type type;
+  @NonNull final Object[] arguments;
+
+  FlutterAdEvent(int adId, @NonNull Type type, @NonNull Object... arguments) {
+    if (arguments.length != type.argumentNames.length) {
+      final String message =
+          String.format(
+              "%s expects %d arguments but got %d",
+              type.eventName, type.argumentNames.length, arguments.length);
+      throw new IllegalArgumentException(message);
+    }
+    this.adId = adId;
+    this.type = type;
+    this.arguments = arguments;
+  }
+
+  /** Returns the event as the map of named values that Dart receives. */
+  @NonNull
+  Map<Object, Object> toMap() {
+    final Map<Object, Object> map = new HashMap<>();
+    map.put("adId", adId);
+    map.put("eventName", type.eventName);
+    for (int i = 0; i < arguments.length; i++) {
+      map.put(type.argumentNames[i], arguments[i]);
+    }
+    return map;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object object) {
+    if (this == object) {
+      return true;
+    } else if (!(object instanceof FlutterAdEvent)) {
+      return false;
+    }
+
+    final FlutterAdEvent that = (FlutterAdEvent) object;
+    return adId == that.adId && type == that.type && Arrays.equals(arguments, that.arguments);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * adId + type.hashCode()) + Arrays.hashCode(arguments);
+  }
+}
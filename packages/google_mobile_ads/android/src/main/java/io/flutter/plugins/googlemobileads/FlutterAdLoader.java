@@ -139,4 +139,29 @@ public class FlutterAdLoader {
         .build()
         .loadAd(adManagerAdRequest);
   }
+
+  /** Build a native ad loader that can be reused to load several native ads at a time. */
+  @NonNull
+  public AdLoader buildNativeAdLoader(
+      @NonNull String adUnitId,
+      @NonNull OnNativeAdLoadedListener onNativeAdLoadedListener,
+      @NonNull NativeAdOptions nativeAdOptions,
+      @NonNull AdListener adListener) {
+    return new AdLoader.Builder(context, adUnitId)
+        .forNativeAd(onNativeAdLoadedListener)
+        .withNativeAdOptions(nativeAdOptions)
+        .withAdListener(adListener)
+        .build();
+  }
+
+  /** Load up to {@code maxNumberOfAds} native ads from a {@link #buildNativeAdLoader} loader. */
+  public void loadNativeAds(
+      @NonNull AdLoader adLoader, @NonNull AdRequest adRequest, int maxNumberOfAds) {
+    adLoader.loadAds(adRequest, maxNumberOfAds);
+  }
+
+  /** Whether a loader from {@link #buildNativeAdLoader} is still loading ads. */
+  public boolean isLoading(@NonNull AdLoader adLoader) {
+    return adLoader.isLoading();
+  }
 }
@@ -64,7 +64,8 @@ class FlutterAdManagerAdRequest extends FlutterAdRequest {
           publisherProvidedId,
           getMediationExtrasIdentifier(),
           getMediationNetworkExtrasProvider(),
-          getAdMobExtras());
+          getAdMobExtras(),
+          getRequestCache());
     }
   }
 
@@ -79,7 +80,8 @@ class FlutterAdManagerAdRequest extends FlutterAdRequest {
       @Nullable String publisherProvidedId,
       @Nullable String mediationExtrasIdentifier,
       @Nullable MediationNetworkExtrasProvider mediationNetworkExtrasProvider,
-      @Nullable Map<String, String> adMobExtras) {
+      @Nullable Map<String, String> adMobExtras,
+      @Nullable AdRequestCache requestCache) {
     super(
         keywords,
         contentUrl,
@@ -88,13 +90,21 @@ class FlutterAdManagerAdRequest extends FlutterAdRequest {
         httpTimeoutMillis,
         mediationExtrasIdentifier,
         mediationNetworkExtrasProvider,
-        adMobExtras);
+        adMobExtras,
+        requestCache);
     this.customTargeting = customTargeting;
     this.customTargetingLists = customTargetingLists;
     this.publisherProvidedId = publisherProvidedId;
   }
 
   AdManagerAdRequest asAdManagerAdRequest(String adUnitId) {
+    final AdRequestCache requestCache = getRequestCache();
+    if (requestCache != null) {
+      final AdManagerAdRequest cached = (AdManagerAdRequest) requestCache.get(this, adUnitId, true);
+      if (cached != null) {
+        return cached;
+      }
+    }
     final AdManagerAdRequest.Builder builder = new AdManagerAdRequest.Builder();
     updateAdRequestBuilder(builder, adUnitId);
 
@@ -111,7 +121,11 @@ class FlutterAdManagerAdRequest extends FlutterAdRequest {
     if (publisherProvidedId != null) {
       builder.setPublisherProvidedId(publisherProvidedId);
     }
-    return builder.build();
+    final AdManagerAdRequest adManagerAdRequest = builder.build();
+    if (requestCache != null) {
+      requestCache.put(this, adUnitId, true, adManagerAdRequest);
+    }
+    return adManagerAdRequest;
   }
 
   @Nullable
@@ -140,11 +154,13 @@ class FlutterAdManagerAdRequest extends FlutterAdRequest {
     FlutterAdManagerAdRequest request = (FlutterAdManagerAdRequest) o;
     return super.equals(o)
         && Objects.equals(customTargeting, request.customTargeting)
-        && Objects.equals(customTargetingLists, request.customTargetingLists);
+        && Objects.equals(customTargetingLists, request.customTargetingLists)
+        && Objects.equals(publisherProvidedId, request.publisherProvidedId);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), customTargeting, customTargetingLists);
+    return Objects.hash(
+        super.hashCode(), customTargeting, customTargetingLists, publisherProvidedId);
   }
 }
@@ -21,6 +21,7 @@ import android.view.ViewGroup.LayoutParams;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.google.android.gms.ads.AdSize;
+import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.admanager.AdManagerAdView;
 import com.google.android.gms.ads.admanager.AppEventListener;
 import io.flutter.plugin.platform.PlatformView;
@@ -68,6 +69,7 @@ class FlutterAdManagerBannerAd extends FlutterAd implements FlutterAdLoadedListe
   @Override
   void load() {
     adView = bannerAdCreator.createAdManagerAdView();
+    manager.getAdViewPauser().track(adView);
     if (this instanceof FluidAdManagerBannerAd) {
       adView.setLayoutParams(new LayoutParams(MATCH_PARENT, WRAP_CONTENT));
     }
@@ -86,7 +88,9 @@ class FlutterAdManagerBannerAd extends FlutterAd implements FlutterAdLoadedListe
     }
     adView.setAdSizes(allSizes);
     adView.setAdListener(new FlutterBannerAdListener(adId, manager, this));
-    adView.loadAd(request.asAdManagerAdRequest(adUnitId));
+    final AdManagerAdRequest adRequest = request.asAdManagerAdRequest(adUnitId);
+    manager.onAdRequestBuilt(adId);
+    adView.loadAd(adRequest);
   }
 
   @Override
@@ -105,9 +109,16 @@ class FlutterAdManagerBannerAd extends FlutterAd implements FlutterAdLoadedListe
     return new FlutterPlatformView(adView);
   }
 
+  @NonNull
+  @Override
+  String getAdUnitId() {
+    return adUnitId;
+  }
+
   @Override
   void dispose() {
     if (adView != null) {
+      manager.getAdViewPauser().untrack(adView);
       adView.destroy();
       adView = null;
     }
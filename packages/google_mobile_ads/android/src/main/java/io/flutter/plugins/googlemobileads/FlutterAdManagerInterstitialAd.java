@@ -18,6 +18,7 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.admanager.AdManagerInterstitialAd;
 import com.google.android.gms.ads.admanager.AdManagerInterstitialAdLoadCallback;
 import com.google.android.gms.ads.admanager.AppEventListener;
@@ -32,9 +33,10 @@ class FlutterAdManagerInterstitialAd extends FlutterAd.FlutterOverlayAd {
 
   @NonNull private final AdInstanceManager manager;
   @NonNull private final String adUnitId;
-  @NonNull private final FlutterAdManagerAdRequest request;
+  @Nullable private FlutterAdManagerAdRequest request;
   @Nullable private AdManagerInterstitialAd ad;
   @NonNull private final FlutterAdLoader flutterAdLoader;
+  private boolean isDisposed;
 
   /**
    * Constructs a `FlutterAdManagerInterstitialAd`.
@@ -57,13 +59,20 @@ class FlutterAdManagerInterstitialAd extends FlutterAd.FlutterOverlayAd {
 
   @Override
   void load() {
+    if (request == null) {
+      return;
+    }
+    final AdManagerAdRequest adRequest = request.asAdManagerAdRequest(adUnitId);
+    manager.onAdRequestBuilt(adId);
     flutterAdLoader.loadAdManagerInterstitial(
-        adUnitId,
-        request.asAdManagerAdRequest(adUnitId),
-        new DelegatingAdManagerInterstitialAdCallbacks(this));
+        adUnitId, adRequest, new DelegatingAdManagerInterstitialAdCallbacks(this));
   }
 
   void onAdLoaded(AdManagerInterstitialAd ad) {
+    if (isDisposed) {
+      // The load was cancelled, so the late result is dropped instead of being kept.
+      return;
+    }
     this.ad = ad;
     ad.setAppEventListener(new DelegatingAdManagerInterstitialAdCallbacks(this));
     ad.setOnPaidEventListener(new FlutterPaidEventListener(manager, this));
@@ -71,6 +80,9 @@ class FlutterAdManagerInterstitialAd extends FlutterAd.FlutterOverlayAd {
   }
 
   void onAdFailedToLoad(LoadAdError loadAdError) {
+    if (isDisposed) {
+      return;
+    }
     manager.onAdFailedToLoad(adId, new FlutterLoadAdError(loadAdError));
   }
 
@@ -101,8 +113,16 @@ class FlutterAdManagerInterstitialAd extends FlutterAd.FlutterOverlayAd {
     ad.setImmersiveMode(immersiveModeEnabled);
   }
 
+  @NonNull
+  @Override
+  String getAdUnitId() {
+    return adUnitId;
+  }
+
   @Override
   void dispose() {
+    isDisposed = true;
+    request = null;
     ad = null;
   }
 
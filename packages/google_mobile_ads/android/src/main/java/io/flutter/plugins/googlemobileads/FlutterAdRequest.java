@@ -34,6 +34,7 @@ class FlutterAdRequest {
   @Nullable private final String mediationExtrasIdentifier;
   @Nullable private final MediationNetworkExtrasProvider mediationNetworkExtrasProvider;
   @Nullable private final Map<String, String> adMobExtras;
+  @Nullable private final AdRequestCache requestCache;
 
   protected static class Builder {
     @Nullable private List<String> keywords;
@@ -44,6 +45,7 @@ class FlutterAdRequest {
     @Nullable private String mediationExtrasIdentifier;
     @Nullable private MediationNetworkExtrasProvider mediationNetworkExtrasProvider;
     @Nullable private Map<String, String> adMobExtras;
+    @Nullable private AdRequestCache requestCache;
 
     Builder setKeywords(@Nullable List<String> keywords) {
       this.keywords = keywords;
@@ -86,6 +88,12 @@ class FlutterAdRequest {
       return this;
     }
 
+    /** Sets the cache that built SDK requests are shared through. */
+    Builder setRequestCache(@Nullable AdRequestCache requestCache) {
+      this.requestCache = requestCache;
+      return this;
+    }
+
     @Nullable
     protected List<String> getKeywords() {
       return keywords;
@@ -126,6 +134,11 @@ class FlutterAdRequest {
       return adMobExtras;
     }
 
+    @Nullable
+    protected AdRequestCache getRequestCache() {
+      return requestCache;
+    }
+
     FlutterAdRequest build() {
       return new FlutterAdRequest(
           keywords,
@@ -135,7 +148,8 @@ class FlutterAdRequest {
           httpTimeoutMillis,
           mediationExtrasIdentifier,
           mediationNetworkExtrasProvider,
-          adMobExtras);
+          adMobExtras,
+          requestCache);
     }
   }
 
@@ -147,7 +161,8 @@ class FlutterAdRequest {
       @Nullable Integer httpTimeoutMillis,
       @Nullable String mediationExtrasIdentifier,
       @Nullable MediationNetworkExtrasProvider mediationNetworkExtrasProvider,
-      @Nullable Map<String, String> adMobExtras) {
+      @Nullable Map<String, String> adMobExtras,
+      @Nullable AdRequestCache requestCache) {
     this.keywords = keywords;
     this.contentUrl = contentUrl;
     this.nonPersonalizedAds = nonPersonalizedAds;
@@ -156,6 +171,7 @@ class FlutterAdRequest {
     this.mediationExtrasIdentifier = mediationExtrasIdentifier;
     this.mediationNetworkExtrasProvider = mediationNetworkExtrasProvider;
     this.adMobExtras = adMobExtras;
+    this.requestCache = requestCache;
   }
 
   /** Adds network extras to the ad request builder, if any. */
@@ -211,7 +227,17 @@ class FlutterAdRequest {
   }
 
   AdRequest asAdRequest(String adUnitId) {
-    return updateAdRequestBuilder(new AdRequest.Builder(), adUnitId).build();
+    if (requestCache != null) {
+      final AdRequest cached = requestCache.get(this, adUnitId, false);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    final AdRequest adRequest = updateAdRequestBuilder(new AdRequest.Builder(), adUnitId).build();
+    if (requestCache != null) {
+      requestCache.put(this, adUnitId, false, adRequest);
+    }
+    return adRequest;
   }
 
   @Nullable
@@ -249,6 +275,11 @@ class FlutterAdRequest {
     return adMobExtras;
   }
 
+  @Nullable
+  protected AdRequestCache getRequestCache() {
+    return requestCache;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -15,44 +15,170 @@
 package io.flutter.plugins.googlemobileads;
 
 import android.content.Context;
+import android.content.res.Configuration;
+import android.util.LruCache;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import com.google.android.gms.ads.AdSize;
+import java.util.List;
+import java.util.Objects;
 
 class FlutterAdSize {
   @NonNull final AdSize size;
   final int width;
   final int height;
 
-  /** Wrapper around static methods for {@link com.google.android.gms.ads.AdSize}. */
+  /**
+   * Wrapper around static methods for {@link com.google.android.gms.ads.AdSize}.
+   *
+   * <p>Adaptive sizes are memoized, since the SDK recomputes them from the display metrics on
+   * every call. Sizes that depend on a {@link Context} are keyed by the display configuration of
+   * that context as well, so a rotated or resized window never reuses a stale size. {@link
+   * #clearCache()} drops every size when the configuration of the application changes.
+   */
   static class AdSizeFactory {
+    private static final int MAX_CACHED_SIZES = 32;
+
+    private static final int PORTRAIT_ANCHORED = 0;
+    private static final int LANDSCAPE_ANCHORED = 1;
+    private static final int CURRENT_ORIENTATION_ANCHORED = 2;
+    private static final int PORTRAIT_INLINE = 3;
+    private static final int LANDSCAPE_INLINE = 4;
+    private static final int CURRENT_ORIENTATION_INLINE = 5;
+    private static final int MAX_HEIGHT_INLINE = 6;
+
+    private static final class Key {
+      final int kind;
+      final int width;
+      final int maxHeight;
+      final int orientation;
+      final int screenWidthDp;
+      final int screenHeightDp;
+      final int densityDpi;
+
+      Key(int kind, int width, int maxHeight, @Nullable Configuration configuration) {
+        this.kind = kind;
+        this.width = width;
+        this.maxHeight = maxHeight;
+        if (configuration != null) {
+          this.orientation = configuration.orientation;
+          this.screenWidthDp = configuration.screenWidthDp;
+          this.screenHeightDp = configuration.screenHeightDp;
+          this.densityDpi = configuration.densityDpi;
+        } else {
+          this.orientation = 0;
+          this.screenWidthDp = 0;
+          this.screenHeightDp = 0;
+          this.densityDpi = 0;
+        }
+      }
+
+      @Override
+      public boolean equals(@Nullable Object object) {
+        if (this == object) {
+          return true;
+        } else if (!(object instanceof Key)) {
+          return false;
+        }
+
+        final Key that = (Key) object;
+        return kind == that.kind
+            && width == that.width
+            && maxHeight == that.maxHeight
+            && orientation == that.orientation
+            && screenWidthDp == that.screenWidthDp
+            && screenHeightDp == that.screenHeightDp
+            && densityDpi == that.densityDpi;
+      }
+
+      @Override
+      public int hashCode() {
+        return Objects.hash(
+            kind, width, maxHeight, orientation, screenWidthDp, screenHeightDp, densityDpi);
+      }
+    }
+
+    @NonNull private final LruCache<Key, AdSize> cache = new LruCache<>(MAX_CACHED_SIZES);
 
     AdSize getPortraitAnchoredAdaptiveBannerAdSize(Context context, int width) {
-      return AdSize.getPortraitAnchoredAdaptiveBannerAdSize(context, width);
+      return getAdSize(PORTRAIT_ANCHORED, context, width, 0);
     }
 
     AdSize getLandscapeAnchoredAdaptiveBannerAdSize(Context context, int width) {
-      return AdSize.getLandscapeAnchoredAdaptiveBannerAdSize(context, width);
+      return getAdSize(LANDSCAPE_ANCHORED, context, width, 0);
     }
 
     AdSize getCurrentOrientationAnchoredAdaptiveBannerAdSize(Context context, int width) {
-      return AdSize.getCurrentOrientationAnchoredAdaptiveBannerAdSize(context, width);
+      return getAdSize(CURRENT_ORIENTATION_ANCHORED, context, width, 0);
     }
 
     AdSize getCurrentOrientationInlineAdaptiveBannerAdSize(Context context, int width) {
-      return AdSize.getCurrentOrientationInlineAdaptiveBannerAdSize(context, width);
+      return getAdSize(CURRENT_ORIENTATION_INLINE, context, width, 0);
     }
 
     AdSize getLandscapeInlineAdaptiveBannerAdSize(Context context, int width) {
-      return AdSize.getLandscapeInlineAdaptiveBannerAdSize(context, width);
+      return getAdSize(LANDSCAPE_INLINE, context, width, 0);
     }
 
     AdSize getPortraitInlineAdaptiveBannerAdSize(Context context, int width) {
-      return AdSize.getPortraitInlineAdaptiveBannerAdSize(context, width);
+      return getAdSize(PORTRAIT_INLINE, context, width, 0);
     }
 
     AdSize getInlineAdaptiveBannerAdSize(int width, int maxHeight) {
-      return AdSize.getInlineAdaptiveBannerAdSize(width, maxHeight);
+      return getAdSize(MAX_HEIGHT_INLINE, null, width, maxHeight);
+    }
+
+    /**
+     * Resolves the portrait and landscape anchored and inline adaptive sizes for each of {@code
+     * widths}, so banners laid out later with those widths don't wait on the SDK.
+     */
+    void precomputeAdaptiveBannerAdSizes(@NonNull Context context, @NonNull List<Integer> widths) {
+      for (Integer width : widths) {
+        getPortraitAnchoredAdaptiveBannerAdSize(context, width);
+        getLandscapeAnchoredAdaptiveBannerAdSize(context, width);
+        getPortraitInlineAdaptiveBannerAdSize(context, width);
+        getLandscapeInlineAdaptiveBannerAdSize(context, width);
+      }
+    }
+
+    /** Drops every memoized size. Called when the display configuration changes. */
+    void clearCache() {
+      cache.evictAll();
+    }
+
+    private AdSize getAdSize(int kind, @Nullable Context context, int width, int maxHeight) {
+      final Configuration configuration =
+          context == null ? null : context.getResources().getConfiguration();
+      final Key key = new Key(kind, width, maxHeight, configuration);
+      AdSize adSize = cache.get(key);
+      if (adSize == null) {
+        adSize = resolveAdSize(kind, context, width, maxHeight);
+        cache.put(key, adSize);
+      }
+      return adSize;
+    }
+
+    @VisibleForTesting
+    AdSize resolveAdSize(int kind, @Nullable Context context, int width, int maxHeight) {
+      switch (kind) {
+        case PORTRAIT_ANCHORED:
+          return AdSize.getPortraitAnchoredAdaptiveBannerAdSize(context, width);
+        case LANDSCAPE_ANCHORED:
+          return AdSize.getLandscapeAnchoredAdaptiveBannerAdSize(context, width);
+        case CURRENT_ORIENTATION_ANCHORED:
+          return AdSize.getCurrentOrientationAnchoredAdaptiveBannerAdSize(context, width);
+        case PORTRAIT_INLINE:
+          return AdSize.getPortraitInlineAdaptiveBannerAdSize(context, width);
+        case LANDSCAPE_INLINE:
+          return AdSize.getLandscapeInlineAdaptiveBannerAdSize(context, width);
+        case CURRENT_ORIENTATION_INLINE:
+          return AdSize.getCurrentOrientationInlineAdaptiveBannerAdSize(context, width);
+        case MAX_HEIGHT_INLINE:
+          return AdSize.getInlineAdaptiveBannerAdSize(width, maxHeight);
+        default:
+          throw new IllegalArgumentException(String.format("Unknown ad size kind: %d", kind));
+      }
     }
   }
 
@@ -17,7 +17,9 @@ package io.flutter.plugins.googlemobileads;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.appopen.AppOpenAd;
 import com.google.android.gms.ads.appopen.AppOpenAd.AppOpenAdLoadCallback;
 import io.flutter.util.Preconditions;
@@ -31,10 +33,11 @@ class FlutterAppOpenAd extends FlutterAd.FlutterOverlayAd {
   @NonNull private final AdInstanceManager manager;
   @NonNull private final String adUnitId;
   private final int orientation;
-  @Nullable private final FlutterAdRequest request;
-  @Nullable private final FlutterAdManagerAdRequest adManagerAdRequest;
+  @Nullable private FlutterAdRequest request;
+  @Nullable private FlutterAdManagerAdRequest adManagerAdRequest;
   @Nullable private AppOpenAd ad;
   @NonNull private final FlutterAdLoader flutterAdLoader;
+  private boolean isDisposed;
 
   FlutterAppOpenAd(
       int adId,
@@ -59,21 +62,30 @@ class FlutterAppOpenAd extends FlutterAd.FlutterOverlayAd {
   @Override
   void load() {
     if (request != null) {
+      final AdRequest adRequest = request.asAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
       flutterAdLoader.loadAppOpen(
           adUnitId,
-          request.asAdRequest(adUnitId),
+          adRequest,
           getOrientation(),
           new DelegatingAppOpenAdLoadCallback(this));
     } else if (adManagerAdRequest != null) {
+      final AdManagerAdRequest adRequest = adManagerAdRequest.asAdManagerAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
       flutterAdLoader.loadAdManagerAppOpen(
           adUnitId,
-          adManagerAdRequest.asAdManagerAdRequest(adUnitId),
+          adRequest,
           getOrientation(),
           new DelegatingAppOpenAdLoadCallback(this));
     }
   }
 
   private int getOrientation() {
+    return getSdkOrientation(orientation);
+  }
+
+  /** Converts an orientation from Dart to the matching {@link AppOpenAd} orientation. */
+  static int getSdkOrientation(int orientation) {
     if (orientation == 1) {
       return AppOpenAd.APP_OPEN_AD_ORIENTATION_PORTRAIT;
     } else if (orientation == 2 || orientation == 3) {
@@ -83,13 +95,20 @@ class FlutterAppOpenAd extends FlutterAd.FlutterOverlayAd {
     return AppOpenAd.APP_OPEN_AD_ORIENTATION_PORTRAIT;
   }
 
-  private void onAdLoaded(@NonNull AppOpenAd ad) {
+  void onAdLoaded(@NonNull AppOpenAd ad) {
+    if (isDisposed) {
+      // The load was cancelled, so the late result is dropped instead of being kept.
+      return;
+    }
     this.ad = ad;
     ad.setOnPaidEventListener(new FlutterPaidEventListener(manager, this));
     manager.onAdLoaded(adId, ad.getResponseInfo());
   }
 
   private void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+    if (isDisposed) {
+      return;
+    }
     manager.onAdFailedToLoad(adId, new FlutterLoadAdError(loadAdError));
   }
 
@@ -116,8 +135,17 @@ class FlutterAppOpenAd extends FlutterAd.FlutterOverlayAd {
     ad.setImmersiveMode(immersiveModeEnabled);
   }
 
+  @NonNull
+  @Override
+  String getAdUnitId() {
+    return adUnitId;
+  }
+
   @Override
   void dispose() {
+    isDisposed = true;
+    request = null;
+    adManagerAdRequest = null;
     ad = null;
   }
 
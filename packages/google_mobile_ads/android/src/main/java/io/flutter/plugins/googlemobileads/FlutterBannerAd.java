@@ -16,6 +16,7 @@ package io.flutter.plugins.googlemobileads;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.AdView;
 import io.flutter.plugin.platform.PlatformView;
 import io.flutter.util.Preconditions;
@@ -60,11 +61,14 @@ class FlutterBannerAd extends FlutterAd implements FlutterAdLoadedListener {
   @Override
   void load() {
     adView = bannerAdCreator.createAdView();
+    manager.getAdViewPauser().track(adView);
     adView.setAdUnitId(adUnitId);
     adView.setAdSize(size.getAdSize());
     adView.setOnPaidEventListener(new FlutterPaidEventListener(manager, this));
     adView.setAdListener(new FlutterBannerAdListener(adId, manager, this));
-    adView.loadAd(request.asAdRequest(adUnitId));
+    final AdRequest adRequest = request.asAdRequest(adUnitId);
+    manager.onAdRequestBuilt(adId);
+    adView.loadAd(adRequest);
   }
 
   @Nullable
@@ -76,9 +80,16 @@ class FlutterBannerAd extends FlutterAd implements FlutterAdLoadedListener {
     return new FlutterPlatformView(adView);
   }
 
+  @NonNull
+  @Override
+  String getAdUnitId() {
+    return adUnitId;
+  }
+
   @Override
   void dispose() {
     if (adView != null) {
+      manager.getAdViewPauser().untrack(adView);
       adView.destroy();
       adView = null;
     }
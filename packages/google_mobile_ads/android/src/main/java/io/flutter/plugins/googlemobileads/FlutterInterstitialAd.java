@@ -17,6 +17,7 @@ package io.flutter.plugins.googlemobileads;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.interstitial.InterstitialAd;
 import com.google.android.gms.ads.interstitial.InterstitialAdLoadCallback;
@@ -27,9 +28,10 @@ class FlutterInterstitialAd extends FlutterAd.FlutterOverlayAd {
 
   @NonNull private final AdInstanceManager manager;
   @NonNull private final String adUnitId;
-  @NonNull private final FlutterAdRequest request;
+  @Nullable private FlutterAdRequest request;
   @Nullable private InterstitialAd ad;
   @NonNull private final FlutterAdLoader flutterAdLoader;
+  private boolean isDisposed;
 
   public FlutterInterstitialAd(
       int adId,
@@ -47,23 +49,40 @@ class FlutterInterstitialAd extends FlutterAd.FlutterOverlayAd {
   @Override
   void load() {
     if (manager != null && adUnitId != null && request != null) {
+      final AdRequest adRequest = request.asAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
       flutterAdLoader.loadInterstitial(
-          adUnitId, request.asAdRequest(adUnitId), new DelegatingInterstitialAdLoadCallback(this));
+          adUnitId, adRequest, new DelegatingInterstitialAdLoadCallback(this));
     }
   }
 
   void onAdLoaded(InterstitialAd ad) {
+    if (isDisposed) {
+      // The load was cancelled, so the late result is dropped instead of being kept.
+      return;
+    }
     this.ad = ad;
     ad.setOnPaidEventListener(new FlutterPaidEventListener(manager, this));
     manager.onAdLoaded(adId, ad.getResponseInfo());
   }
 
   void onAdFailedToLoad(LoadAdError loadAdError) {
+    if (isDisposed) {
+      return;
+    }
     manager.onAdFailedToLoad(adId, new FlutterAd.FlutterLoadAdError(loadAdError));
   }
 
+  @NonNull
+  @Override
+  String getAdUnitId() {
+    return adUnitId;
+  }
+
   @Override
   void dispose() {
+    isDisposed = true;
+    request = null;
     ad = null;
   }
 
@@ -18,6 +18,7 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.google.android.gms.ads.AdListener;
+import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.nativead.NativeAd;
 import com.google.android.gms.ads.nativead.NativeAd.OnNativeAdLoadedListener;
@@ -25,6 +26,7 @@ import com.google.android.gms.ads.nativead.NativeAdOptions;
 import com.google.android.gms.ads.nativead.NativeAdView;
 import io.flutter.plugin.platform.PlatformView;
 import io.flutter.plugins.googlemobileads.GoogleMobileAdsPlugin.NativeAdFactory;
+import io.flutter.plugins.googlemobileads.GoogleMobileAdsPlugin.RecyclingNativeAdFactory;
 import java.util.Map;
 
 /** A wrapper for {@link NativeAd}. */
@@ -39,7 +41,10 @@ class FlutterNativeAd extends FlutterAd {
   @Nullable private FlutterAdManagerAdRequest adManagerRequest;
   @Nullable private Map<String, Object> customOptions;
   @Nullable private NativeAdView nativeAdView;
+  @Nullable private NativeAd nativeAd;
   @Nullable private final FlutterNativeAdOptions nativeAdOptions;
+  @Nullable private NativeAdViewPool nativeAdViewPool;
+  private boolean isDisposed;
 
   static class Builder {
     @Nullable private AdInstanceManager manager;
@@ -51,6 +56,7 @@ class FlutterNativeAd extends FlutterAd {
     @Nullable private Integer id;
     @Nullable private FlutterNativeAdOptions nativeAdOptions;
     @Nullable private FlutterAdLoader flutterAdLoader;
+    @Nullable private NativeAdViewPool nativeAdViewPool;
 
     public Builder setAdFactory(@NonNull NativeAdFactory adFactory) {
       this.adFactory = adFactory;
@@ -97,6 +103,12 @@ class FlutterNativeAd extends FlutterAd {
       return this;
     }
 
+    /** Sets the pool that views are recycled through. Only used with a recycling factory. */
+    public Builder setNativeAdViewPool(@Nullable NativeAdViewPool nativeAdViewPool) {
+      this.nativeAdViewPool = nativeAdViewPool;
+      return this;
+    }
+
     FlutterNativeAd build() {
       if (manager == null) {
         throw new IllegalStateException("AdInstanceManager cannot not be null.");
@@ -132,6 +144,9 @@ class FlutterNativeAd extends FlutterAd {
                 customOptions,
                 nativeAdOptions);
       }
+      if (adFactory instanceof RecyclingNativeAdFactory) {
+        nativeAd.nativeAdViewPool = nativeAdViewPool;
+      }
       return nativeAd;
     }
   }
@@ -185,10 +200,12 @@ class FlutterNativeAd extends FlutterAd {
             ? new NativeAdOptions.Builder().build()
             : nativeAdOptions.asNativeAdOptions();
     if (request != null) {
-      flutterAdLoader.loadNativeAd(
-          adUnitId, loadedListener, options, adListener, request.asAdRequest(adUnitId));
+      final AdRequest adRequest = request.asAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
+      flutterAdLoader.loadNativeAd(adUnitId, loadedListener, options, adListener, adRequest);
     } else if (adManagerRequest != null) {
       AdManagerAdRequest adManagerAdRequest = adManagerRequest.asAdManagerAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
       flutterAdLoader.loadAdManagerNativeAd(
           adUnitId, loadedListener, options, adListener, adManagerAdRequest);
     } else {
@@ -206,16 +223,50 @@ class FlutterNativeAd extends FlutterAd {
   }
 
   void onNativeAdLoaded(@NonNull NativeAd nativeAd) {
-    nativeAdView = adFactory.createNativeAd(nativeAd, customOptions);
+    if (isDisposed) {
+      // The load was cancelled, so the ad is released instead of being shown.
+      nativeAd.destroy();
+      return;
+    }
+    this.nativeAd = nativeAd;
+    final NativeAdView recycledView =
+        nativeAdViewPool != null ? nativeAdViewPool.acquire() : null;
+    if (recycledView != null) {
+      ((RecyclingNativeAdFactory) adFactory).bindNativeAd(recycledView, nativeAd, customOptions);
+      nativeAdView = recycledView;
+    } else {
+      nativeAdView = adFactory.createNativeAd(nativeAd, customOptions);
+    }
     nativeAd.setOnPaidEventListener(new FlutterPaidEventListener(manager, this));
     manager.onAdLoaded(adId, nativeAd.getResponseInfo());
   }
 
+  void onNativeAdFailedToLoad(@NonNull FlutterLoadAdError error) {
+    manager.onAdFailedToLoad(adId, error);
+  }
+
+  @NonNull
+  @Override
+  String getAdUnitId() {
+    return adUnitId;
+  }
+
   @Override
   void dispose() {
+    isDisposed = true;
+    request = null;
+    adManagerRequest = null;
     if (nativeAdView != null) {
-      nativeAdView.destroy();
+      if (nativeAdViewPool != null && nativeAd != null) {
+        // The view outlives the ad, so the ad is destroyed on its own.
+        ((RecyclingNativeAdFactory) adFactory).unbindNativeAd(nativeAdView);
+        nativeAd.destroy();
+        nativeAdViewPool.release(nativeAdView);
+      } else {
+        nativeAdView.destroy();
+      }
       nativeAdView = null;
     }
+    nativeAd = null;
   }
 }
@@ -17,6 +17,7 @@ package io.flutter.plugins.googlemobileads;
 
 import androidx.annotation.Nullable;
 import com.google.android.gms.ads.nativead.NativeAdOptions;
+import java.util.Objects;
 
 /** A wrapper for {@link com.google.android.gms.ads.nativead.NativeAdOptions}. */
 class FlutterNativeAdOptions {
@@ -28,6 +29,9 @@ class FlutterNativeAdOptions {
   @Nullable final Boolean shouldRequestMultipleImages;
   @Nullable final Boolean shouldReturnUrlsForImageAssets;
 
+  // Equal options are interned by AdMessageCodec, so this is built once per distinct options.
+  @Nullable private NativeAdOptions nativeAdOptions;
+
   FlutterNativeAdOptions(
       @Nullable Integer adChoicesPlacement,
       @Nullable Integer mediaAspectRatio,
@@ -43,7 +47,14 @@ class FlutterNativeAdOptions {
     this.shouldReturnUrlsForImageAssets = shouldReturnUrlsForImageAssets;
   }
 
-  NativeAdOptions asNativeAdOptions() {
+  synchronized NativeAdOptions asNativeAdOptions() {
+    if (nativeAdOptions == null) {
+      nativeAdOptions = buildNativeAdOptions();
+    }
+    return nativeAdOptions;
+  }
+
+  private NativeAdOptions buildNativeAdOptions() {
     NativeAdOptions.Builder builder = new NativeAdOptions.Builder();
     if (adChoicesPlacement != null) {
       builder.setAdChoicesPlacement(adChoicesPlacement);
@@ -65,4 +76,32 @@ class FlutterNativeAdOptions {
     }
     return builder.build();
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof FlutterNativeAdOptions)) {
+      return false;
+    }
+
+    final FlutterNativeAdOptions that = (FlutterNativeAdOptions) o;
+    return Objects.equals(adChoicesPlacement, that.adChoicesPlacement)
+        && Objects.equals(mediaAspectRatio, that.mediaAspectRatio)
+        && Objects.equals(videoOptions, that.videoOptions)
+        && Objects.equals(requestCustomMuteThisAd, that.requestCustomMuteThisAd)
+        && Objects.equals(shouldRequestMultipleImages, that.shouldRequestMultipleImages)
+        && Objects.equals(shouldReturnUrlsForImageAssets, that.shouldReturnUrlsForImageAssets);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        adChoicesPlacement,
+        mediaAspectRatio,
+        videoOptions,
+        requestCustomMuteThisAd,
+        shouldRequestMultipleImages,
+        shouldReturnUrlsForImageAssets);
+  }
 }
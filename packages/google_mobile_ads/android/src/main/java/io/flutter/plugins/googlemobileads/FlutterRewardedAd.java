@@ -17,8 +17,10 @@ package io.flutter.plugins.googlemobileads;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.OnUserEarnedRewardListener;
+import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.rewarded.OnAdMetadataChangedListener;
 import com.google.android.gms.ads.rewarded.RewardItem;
 import com.google.android.gms.ads.rewarded.RewardedAd;
@@ -32,9 +34,10 @@ class FlutterRewardedAd extends FlutterAd.FlutterOverlayAd {
   @NonNull private final AdInstanceManager manager;
   @NonNull private final String adUnitId;
   @NonNull private final FlutterAdLoader flutterAdLoader;
-  @Nullable private final FlutterAdRequest request;
-  @Nullable private final FlutterAdManagerAdRequest adManagerRequest;
+  @Nullable private FlutterAdRequest request;
+  @Nullable private FlutterAdManagerAdRequest adManagerRequest;
   @Nullable RewardedAd rewardedAd;
+  private boolean isDisposed;
 
   /** A wrapper for {@link RewardItem}. */
   static class FlutterRewardItem {
@@ -103,22 +106,32 @@ class FlutterRewardedAd extends FlutterAd.FlutterOverlayAd {
   void load() {
     final RewardedAdLoadCallback adLoadCallback = new DelegatingRewardedCallback(this);
     if (request != null) {
-      flutterAdLoader.loadRewarded(adUnitId, request.asAdRequest(adUnitId), adLoadCallback);
+      final AdRequest adRequest = request.asAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
+      flutterAdLoader.loadRewarded(adUnitId, adRequest, adLoadCallback);
     } else if (adManagerRequest != null) {
-      flutterAdLoader.loadAdManagerRewarded(
-          adUnitId, adManagerRequest.asAdManagerAdRequest(adUnitId), adLoadCallback);
+      final AdManagerAdRequest adRequest = adManagerRequest.asAdManagerAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
+      flutterAdLoader.loadAdManagerRewarded(adUnitId, adRequest, adLoadCallback);
     } else {
       Log.e(TAG, "A null or invalid ad request was provided.");
     }
   }
 
   void onAdLoaded(@NonNull RewardedAd rewardedAd) {
+    if (isDisposed) {
+      // The load was cancelled, so the late result is dropped instead of being kept.
+      return;
+    }
     FlutterRewardedAd.this.rewardedAd = rewardedAd;
     rewardedAd.setOnPaidEventListener(new FlutterPaidEventListener(manager, this));
     manager.onAdLoaded(adId, rewardedAd.getResponseInfo());
   }
 
   void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+    if (isDisposed) {
+      return;
+    }
     manager.onAdFailedToLoad(adId, new FlutterLoadAdError(loadAdError));
   }
 
@@ -156,8 +169,17 @@ class FlutterRewardedAd extends FlutterAd.FlutterOverlayAd {
         adId, new FlutterRewardItem(rewardItem.getAmount(), rewardItem.getType()));
   }
 
+  @NonNull
+  @Override
+  String getAdUnitId() {
+    return adUnitId;
+  }
+
   @Override
   void dispose() {
+    isDisposed = true;
+    request = null;
+    adManagerRequest = null;
     rewardedAd = null;
   }
 
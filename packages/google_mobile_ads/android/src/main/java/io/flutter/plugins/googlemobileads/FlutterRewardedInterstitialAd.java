@@ -17,8 +17,10 @@ package io.flutter.plugins.googlemobileads;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.OnUserEarnedRewardListener;
+import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.rewarded.OnAdMetadataChangedListener;
 import com.google.android.gms.ads.rewarded.RewardItem;
 import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAd;
@@ -33,9 +35,10 @@ class FlutterRewardedInterstitialAd extends FlutterAd.FlutterOverlayAd {
   @NonNull private final AdInstanceManager manager;
   @NonNull private final String adUnitId;
   @NonNull private final FlutterAdLoader flutterAdLoader;
-  @Nullable private final FlutterAdRequest request;
-  @Nullable private final FlutterAdManagerAdRequest adManagerRequest;
+  @Nullable private FlutterAdRequest request;
+  @Nullable private FlutterAdManagerAdRequest adManagerRequest;
   @Nullable RewardedInterstitialAd rewardedInterstitialAd;
+  private boolean isDisposed;
 
   /** Constructor for AdMob Ad Request. */
   public FlutterRewardedInterstitialAd(
@@ -71,23 +74,32 @@ class FlutterRewardedInterstitialAd extends FlutterAd.FlutterOverlayAd {
   void load() {
     final RewardedInterstitialAdLoadCallback adLoadCallback = new DelegatingRewardedCallback(this);
     if (request != null) {
-      flutterAdLoader.loadRewardedInterstitial(
-          adUnitId, request.asAdRequest(adUnitId), adLoadCallback);
+      final AdRequest adRequest = request.asAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
+      flutterAdLoader.loadRewardedInterstitial(adUnitId, adRequest, adLoadCallback);
     } else if (adManagerRequest != null) {
-      flutterAdLoader.loadAdManagerRewardedInterstitial(
-          adUnitId, adManagerRequest.asAdManagerAdRequest(adUnitId), adLoadCallback);
+      final AdManagerAdRequest adRequest = adManagerRequest.asAdManagerAdRequest(adUnitId);
+      manager.onAdRequestBuilt(adId);
+      flutterAdLoader.loadAdManagerRewardedInterstitial(adUnitId, adRequest, adLoadCallback);
     } else {
       Log.e(TAG, "A null or invalid ad request was provided.");
     }
   }
 
   void onAdLoaded(@NonNull RewardedInterstitialAd rewardedInterstitialAd) {
+    if (isDisposed) {
+      // The load was cancelled, so the late result is dropped instead of being kept.
+      return;
+    }
     FlutterRewardedInterstitialAd.this.rewardedInterstitialAd = rewardedInterstitialAd;
     rewardedInterstitialAd.setOnPaidEventListener(new FlutterPaidEventListener(manager, this));
     manager.onAdLoaded(adId, rewardedInterstitialAd.getResponseInfo());
   }
 
   void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+    if (isDisposed) {
+      return;
+    }
     manager.onAdFailedToLoad(adId, new FlutterLoadAdError(loadAdError));
   }
 
@@ -129,8 +141,17 @@ class FlutterRewardedInterstitialAd extends FlutterAd.FlutterOverlayAd {
         adId, new FlutterRewardItem(rewardItem.getAmount(), rewardItem.getType()));
   }
 
+  @NonNull
+  @Override
+  String getAdUnitId() {
+    return adUnitId;
+  }
+
   @Override
   void dispose() {
+    isDisposed = true;
+    request = null;
+    adManagerRequest = null;
     rewardedInterstitialAd = null;
   }
 
@@ -17,6 +17,7 @@ package io.flutter.plugins.googlemobileads;
 
 import androidx.annotation.Nullable;
 import com.google.android.gms.ads.VideoOptions;
+import java.util.Objects;
 
 /** A wrapper for {@link com.google.android.gms.ads.VideoOptions}. */
 class FlutterVideoOptions {
@@ -46,4 +47,23 @@ class FlutterVideoOptions {
     }
     return builder.build();
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof FlutterVideoOptions)) {
+      return false;
+    }
+
+    final FlutterVideoOptions that = (FlutterVideoOptions) o;
+    return Objects.equals(clickToExpandRequested, that.clickToExpandRequested)
+        && Objects.equals(customControlsRequested, that.customControlsRequested)
+        && Objects.equals(startMuted, that.startMuted);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(clickToExpandRequested, customControlsRequested, startMuted);
+  }
 }
@@ -0,0 +1,411 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.admanager.AdManagerInterstitialAd;
+import com.google.android.gms.ads.admanager.AdManagerInterstitialAdLoadCallback;
+import com.google.android.gms.ads.appopen.AppOpenAd;
+import com.google.android.gms.ads.appopen.AppOpenAd.AppOpenAdLoadCallback;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
+import com.google.android.gms.ads.interstitial.InterstitialAdLoadCallback;
+import com.google.android.gms.ads.rewarded.RewardedAd;
+import com.google.android.gms.ads.rewarded.RewardedAdLoadCallback;
+import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAd;
+import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAdLoadCallback;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps loaded full-screen ads ready, so a load from Dart can be answered without waiting on a
+ * network round trip.
+ *
+ * <p>Pooling is opt in. Dart calls {@link #preload} for an ad format, ad unit and request, and the
+ * pool loads ads for it in the background. A later load of a matching ad claims a pooled ad with
+ * {@link #claim} under its new ad id, and the pool starts loading a replacement right away. Ads
+ * that outlive the validity window of their format are never handed out.
+ *
+ * <p>The number of ads kept ready for each key adapts to how they are used. A claim that finds the
+ * pool empty grows it, and an ad that expires before it is claimed shrinks it.
+ *
+ * <p>Must only be used from the main thread.
+ */
+final class FullScreenAdPool {
+  private static final String TAG = "FullScreenAdPool";
+
+  private static final long ONE_HOUR_MILLIS = 60 * 60 * 1000L;
+
+  /** The most ads kept ready for a single key. */
+  static final int MAX_DEPTH = 3;
+
+  /** The full-screen ad formats that can be pooled, with how long a loaded ad stays valid. */
+  enum Format {
+    INTERSTITIAL(ONE_HOUR_MILLIS),
+    AD_MANAGER_INTERSTITIAL(ONE_HOUR_MILLIS),
+    REWARDED(ONE_HOUR_MILLIS),
+    REWARDED_INTERSTITIAL(ONE_HOUR_MILLIS),
+    APP_OPEN(4 * ONE_HOUR_MILLIS);
+
+    final long validityMillis;
+
+    Format(long validityMillis) {
+      this.validityMillis = validityMillis;
+    }
+  }
+
+  /** Source of the time ads were loaded at. */
+  interface Clock {
+    long elapsedRealtime();
+  }
+
+  private static final class Key {
+    @NonNull final Format format;
+    @NonNull final String adUnitId;
+    @NonNull final FlutterAdRequest request;
+    final int orientation;
+
+    Key(
+        @NonNull Format format,
+        @NonNull String adUnitId,
+        @NonNull FlutterAdRequest request,
+        int orientation) {
+      this.format = format;
+      this.adUnitId = adUnitId;
+      this.request = request;
+      this.orientation = orientation;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object object) {
+      if (this == object) {
+        return true;
+      } else if (!(object instanceof Key)) {
+        return false;
+      }
+
+      final Key that = (Key) object;
+      return format == that.format
+          && orientation == that.orientation
+          && adUnitId.equals(that.adUnitId)
+          && request.getClass() == that.request.getClass()
+          && request.equals(that.request);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(format, adUnitId, request, orientation);
+    }
+  }
+
+  private static final class PooledAd {
+    @NonNull final Object ad;
+    final long loadedAtMillis;
+
+    PooledAd(@NonNull Object ad, long loadedAtMillis) {
+      this.ad = ad;
+      this.loadedAtMillis = loadedAtMillis;
+    }
+  }
+
+  /** The ads of a single key. */
+  private static final class Slot {
+    @NonNull final ArrayDeque<PooledAd> readyAds = new ArrayDeque<>();
+    int loadingCount;
+    int depth;
+  }
+
+  @NonNull private final FlutterAdLoader flutterAdLoader;
+  @NonNull private final Clock clock;
+  @NonNull private final Map<Key, Slot> slots = new HashMap<>();
+
+  FullScreenAdPool(@NonNull FlutterAdLoader flutterAdLoader) {
+    this(
+        flutterAdLoader,
+        new Clock() {
+          @Override
+          public long elapsedRealtime() {
+            return SystemClock.elapsedRealtime();
+          }
+        });
+  }
+
+  @VisibleForTesting
+  FullScreenAdPool(@NonNull FlutterAdLoader flutterAdLoader, @NonNull Clock clock) {
+    this.flutterAdLoader = flutterAdLoader;
+    this.clock = clock;
+  }
+
+  /**
+   * Starts keeping {@code depth} ads ready for the given key, capped at {@link #MAX_DEPTH}.
+   *
+   * @param orientation the SDK app open orientation for {@link Format#APP_OPEN}, otherwise 0
+   */
+  void preload(
+      @NonNull Format format,
+      @NonNull String adUnitId,
+      @NonNull FlutterAdRequest request,
+      int orientation,
+      int depth) {
+    final Key key = new Key(format, adUnitId, request, orientation);
+    Slot slot = slots.get(key);
+    if (slot == null) {
+      slot = new Slot();
+      slots.put(key, slot);
+    }
+    slot.depth = Math.max(1, Math.min(depth, MAX_DEPTH));
+    evictExpiredAds(key, slot, 0);
+    fill(key, slot);
+  }
+
+  /**
+   * Drops the ads of the given key that expire within {@code marginMillis} and starts loading their
+   * replacements, along with any ad that failed to load. Does nothing if the key was never
+   * preloaded.
+   */
+  void refresh(
+      @NonNull Format format,
+      @NonNull String adUnitId,
+      @NonNull FlutterAdRequest request,
+      int orientation,
+      long marginMillis) {
+    final Key key = new Key(format, adUnitId, request, orientation);
+    final Slot slot = slots.get(key);
+    if (slot == null) {
+      return;
+    }
+    evictExpiredAds(key, slot, marginMillis);
+    fill(key, slot);
+  }
+
+  /**
+   * Returns how long until the first ready ad of the given key expires, or null if fewer ads are
+   * ready than the key keeps because some are still loading or failed to load.
+   */
+  @Nullable
+  Long getMillisUntilNextExpiry(
+      @NonNull Format format,
+      @NonNull String adUnitId,
+      @NonNull FlutterAdRequest request,
+      int orientation) {
+    final Slot slot = slots.get(new Key(format, adUnitId, request, orientation));
+    if (slot == null || slot.readyAds.size() < slot.depth) {
+      return null;
+    }
+    long firstLoadedAtMillis = Long.MAX_VALUE;
+    for (PooledAd pooledAd : slot.readyAds) {
+      firstLoadedAtMillis = Math.min(firstLoadedAtMillis, pooledAd.loadedAtMillis);
+    }
+    return firstLoadedAtMillis + format.validityMillis - clock.elapsedRealtime();
+  }
+
+  /**
+   * Hands out a ready ad for the given key and starts loading its replacement.
+   *
+   * @return the loaded SDK ad, or null if nothing was preloaded for the key or no ad is ready yet
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  <T> T claim(
+      @NonNull Format format,
+      @NonNull String adUnitId,
+      @NonNull FlutterAdRequest request,
+      int orientation) {
+    final Key key = new Key(format, adUnitId, request, orientation);
+    final Slot slot = slots.get(key);
+    if (slot == null) {
+      return null;
+    }
+    evictExpiredAds(key, slot, 0);
+    final PooledAd pooledAd = slot.readyAds.poll();
+    if (pooledAd == null) {
+      slot.depth = Math.min(slot.depth + 1, MAX_DEPTH);
+    }
+    fill(key, slot);
+    return pooledAd == null ? null : (T) pooledAd.ad;
+  }
+
+  /** Drops every pooled ad. Loads that are still in flight are discarded when they finish. */
+  void clear() {
+    slots.clear();
+  }
+
+  @VisibleForTesting
+  int getDepth(
+      @NonNull Format format,
+      @NonNull String adUnitId,
+      @NonNull FlutterAdRequest request,
+      int orientation) {
+    final Slot slot = slots.get(new Key(format, adUnitId, request, orientation));
+    return slot == null ? 0 : slot.depth;
+  }
+
+  /** Drops the ready ads of {@code key} that expire within {@code marginMillis}. */
+  private void evictExpiredAds(@NonNull Key key, @NonNull Slot slot, long marginMillis) {
+    final long now = clock.elapsedRealtime();
+    boolean didExpire = false;
+    final Iterator<PooledAd> iterator = slot.readyAds.iterator();
+    while (iterator.hasNext()) {
+      if (now + marginMillis - iterator.next().loadedAtMillis >= key.format.validityMillis) {
+        iterator.remove();
+        didExpire = true;
+      }
+    }
+    if (didExpire) {
+      slot.depth = Math.max(slot.depth - 1, 1);
+    }
+  }
+
+  private void fill(@NonNull Key key, @NonNull Slot slot) {
+    while (slot.readyAds.size() + slot.loadingCount < slot.depth) {
+      slot.loadingCount++;
+      load(key, slot);
+    }
+  }
+
+  private void onAdLoaded(@NonNull Key key, @NonNull Slot slot, @NonNull Object ad) {
+    if (slots.get(key) != slot) {
+      return;
+    }
+    slot.loadingCount--;
+    slot.readyAds.add(new PooledAd(ad, clock.elapsedRealtime()));
+  }
+
+  private void onAdFailedToLoad(
+      @NonNull Key key, @NonNull Slot slot, @NonNull LoadAdError loadAdError) {
+    if (slots.get(key) != slot) {
+      return;
+    }
+    // Not retried right away, the next claim or refresh for the key loads again.
+    slot.loadingCount--;
+    Log.w(TAG, "Failed to preload " + key.format + " ad: " + loadAdError.getMessage());
+  }
+
+  private void load(@NonNull final Key key, @NonNull final Slot slot) {
+    final String adUnitId = key.adUnitId;
+    final FlutterAdRequest request = key.request;
+    final boolean isAdManagerRequest = request instanceof FlutterAdManagerAdRequest;
+    switch (key.format) {
+      case INTERSTITIAL:
+        flutterAdLoader.loadInterstitial(
+            adUnitId,
+            request.asAdRequest(adUnitId),
+            new InterstitialAdLoadCallback() {
+              @Override
+              public void onAdLoaded(@NonNull InterstitialAd ad) {
+                FullScreenAdPool.this.onAdLoaded(key, slot, ad);
+              }
+
+              @Override
+              public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                FullScreenAdPool.this.onAdFailedToLoad(key, slot, loadAdError);
+              }
+            });
+        break;
+      case AD_MANAGER_INTERSTITIAL:
+        flutterAdLoader.loadAdManagerInterstitial(
+            adUnitId,
+            ((FlutterAdManagerAdRequest) request).asAdManagerAdRequest(adUnitId),
+            new AdManagerInterstitialAdLoadCallback() {
+              @Override
+              public void onAdLoaded(@NonNull AdManagerInterstitialAd ad) {
+                FullScreenAdPool.this.onAdLoaded(key, slot, ad);
+              }
+
+              @Override
+              public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                FullScreenAdPool.this.onAdFailedToLoad(key, slot, loadAdError);
+              }
+            });
+        break;
+      case REWARDED:
+        final RewardedAdLoadCallback rewardedCallback =
+            new RewardedAdLoadCallback() {
+              @Override
+              public void onAdLoaded(@NonNull RewardedAd ad) {
+                FullScreenAdPool.this.onAdLoaded(key, slot, ad);
+              }
+
+              @Override
+              public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                FullScreenAdPool.this.onAdFailedToLoad(key, slot, loadAdError);
+              }
+            };
+        if (isAdManagerRequest) {
+          flutterAdLoader.loadAdManagerRewarded(
+              adUnitId,
+              ((FlutterAdManagerAdRequest) request).asAdManagerAdRequest(adUnitId),
+              rewardedCallback);
+        } else {
+          flutterAdLoader.loadRewarded(adUnitId, request.asAdRequest(adUnitId), rewardedCallback);
+        }
+        break;
+      case REWARDED_INTERSTITIAL:
+        final RewardedInterstitialAdLoadCallback rewardedInterstitialCallback =
+            new RewardedInterstitialAdLoadCallback() {
+              @Override
+              public void onAdLoaded(@NonNull RewardedInterstitialAd ad) {
+                FullScreenAdPool.this.onAdLoaded(key, slot, ad);
+              }
+
+              @Override
+              public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                FullScreenAdPool.this.onAdFailedToLoad(key, slot, loadAdError);
+              }
+            };
+        if (isAdManagerRequest) {
+          flutterAdLoader.loadAdManagerRewardedInterstitial(
+              adUnitId,
+              ((FlutterAdManagerAdRequest) request).asAdManagerAdRequest(adUnitId),
+              rewardedInterstitialCallback);
+        } else {
+          flutterAdLoader.loadRewardedInterstitial(
+              adUnitId, request.asAdRequest(adUnitId), rewardedInterstitialCallback);
+        }
+        break;
+      case APP_OPEN:
+        final AppOpenAdLoadCallback appOpenCallback =
+            new AppOpenAdLoadCallback() {
+              @Override
+              public void onAdLoaded(@NonNull AppOpenAd ad) {
+                FullScreenAdPool.this.onAdLoaded(key, slot, ad);
+              }
+
+              @Override
+              public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                FullScreenAdPool.this.onAdFailedToLoad(key, slot, loadAdError);
+              }
+            };
+        if (isAdManagerRequest) {
+          flutterAdLoader.loadAdManagerAppOpen(
+              adUnitId,
+              ((FlutterAdManagerAdRequest) request).asAdManagerAdRequest(adUnitId),
+              key.orientation,
+              appOpenCallback);
+        } else {
+          flutterAdLoader.loadAppOpen(
+              adUnitId, request.asAdRequest(adUnitId), key.orientation, appOpenCallback);
+        }
+        break;
+    }
+  }
+}
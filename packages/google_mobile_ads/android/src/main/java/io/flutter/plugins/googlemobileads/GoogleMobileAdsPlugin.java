@@ -14,20 +14,30 @@
 
 package io.flutter.plugins.googlemobileads;
 
+import android.content.ComponentCallbacks;
 import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.google.android.gms.ads.AdInspectorError;
+import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.AdSize;
 import com.google.android.gms.ads.MobileAds;
 import com.google.android.gms.ads.OnAdInspectorClosedListener;
 import com.google.android.gms.ads.RequestConfiguration;
+import com.google.android.gms.ads.admanager.AdManagerInterstitialAd;
+import com.google.android.gms.ads.appopen.AppOpenAd;
 import com.google.android.gms.ads.initialization.InitializationStatus;
 import com.google.android.gms.ads.initialization.OnInitializationCompleteListener;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
 import com.google.android.gms.ads.nativead.NativeAd;
 import com.google.android.gms.ads.nativead.NativeAdView;
+import com.google.android.gms.ads.rewarded.RewardedAd;
+import com.google.android.gms.ads.rewardedinterstitial.RewardedInterstitialAd;
 import io.flutter.embedding.engine.FlutterEngine;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.embedding.engine.plugins.activity.ActivityAware;
@@ -37,11 +47,22 @@ import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
 import io.flutter.plugin.common.StandardMethodCodec;
+import io.flutter.plugins.googlemobileads.AdTimelineRecorder.Stage;
+import io.flutter.plugins.googlemobileads.AdTimelineRecorder.Step;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterOverlayAd;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterResponseInfo;
 import io.flutter.plugins.googlemobileads.usermessagingplatform.UserMessagingPlatformManager;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Flutter plugin accessing Google Mobile Ads API.
@@ -51,6 +72,23 @@ import java.util.Map;
 public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, MethodCallHandler {
 
   private static final String TAG = "GoogleMobileAdsPlugin";
+  private static final String REVENUE_LEDGER_FILE_NAME = "google_mobile_ads_revenue_ledger";
+  private static final String EVENT_JOURNAL_FILE_NAME = "google_mobile_ads_event_journal";
+
+  /** The load methods that can be sent together through {@code loadAds}. */
+  private static final Set<String> BATCH_LOAD_METHODS =
+      new HashSet<>(
+          Arrays.asList("loadBannerAd", "loadAdManagerBannerAd", "loadFluidAd", "loadNativeAd"));
+
+  // Opens and reads the event journal, which may touch the disk. Shared by every plugin instance.
+  @Nullable private static Executor journalExecutor;
+
+  // The journal written by every engine that enables it, so their records never share a sequence
+  // number. Only accessed on the journal executor.
+  @Nullable private static AdEventJournal sharedEventJournal;
+
+  // Shared by every plugin instance, since they all write the same ledger file.
+  @Nullable private static RevenueAggregator sharedRevenueAggregator;
 
   private static <T> T requireNonNull(T obj) {
     if (obj == null) {
@@ -64,10 +102,52 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
   @Nullable private AdInstanceManager instanceManager;
   @Nullable private AdMessageCodec adMessageCodec;
   @Nullable private AppStateNotifier appStateNotifier;
+  @Nullable private FullScreenAdPool adPool;
+  @Nullable private RevenueAggregator revenueAggregator;
+  @Nullable private MethodChannel channel;
+  @Nullable private AppOpenAdWarmer appOpenAdWarmer;
+  @Nullable private BannerAdCreator bannerAdCreator;
+  // The prewarmed view counts Dart asked for, applied again whenever the banner creator is rebuilt.
+  private int prewarmedAdViewCount;
+  private int prewarmedAdManagerAdViewCount;
+  @Nullable private NativeAdBatchLoader nativeAdBatchLoader;
   @Nullable private UserMessagingPlatformManager userMessagingPlatformManager;
   private final Map<String, NativeAdFactory> nativeAdFactories = new HashMap<>();
+  private final Map<String, NativeAdViewPool> nativeAdViewPools = new HashMap<>();
   @Nullable private MediationNetworkExtrasProvider mediationNetworkExtrasProvider;
   private final FlutterMobileAdsWrapper flutterMobileAds;
+  @NonNull private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  // Whether Dart enabled the event journal, and how many times that changed. A journal opened in
+  // the background is only used if nothing changed while it was opening.
+  private boolean isEventJournalEnabled;
+  private int eventJournalGeneration;
+
+  /** Drops memoized adaptive banner sizes when the display configuration changes. */
+  private final ComponentCallbacks configurationCallbacks =
+      new ComponentCallbacks() {
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+          if (adMessageCodec != null) {
+            adMessageCodec.adSizeFactory.clearCache();
+          }
+        }
+
+        @Override
+        public void onLowMemory() {}
+      };
+
+  /** Pauses banner ad views while the app is in the background. */
+  private final AppStateNotifier.Listener adViewPauserListener =
+      new AppStateNotifier.Listener() {
+        @Override
+        public void onAppStateChanged(boolean isInForeground) {
+          if (instanceManager != null) {
+            instanceManager.getAdViewPauser().setAppInForeground(isInForeground);
+          }
+        }
+      };
+
   /**
    * Public constructor for the plugin. Dependency initialization is handled in lifecycle methods
    * below.
@@ -114,6 +194,33 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
     NativeAdView createNativeAd(NativeAd nativeAd, Map<String, Object> customOptions);
   }
 
+  /**
+   * A {@link NativeAdFactory} whose {@link com.google.android.gms.ads.nativead.NativeAdView}s can
+   * be reused for other native ads.
+   *
+   * <p>When a native ad created by this factory is disposed, its view is unbound and kept in a pool
+   * for the factory id. The next native ad loaded with the same factory id is bound to a pooled
+   * view instead of creating a new one. This avoids inflating identical layouts in scrolling feeds.
+   */
+  public interface RecyclingNativeAdFactory extends NativeAdFactory {
+    /**
+     * Binds {@code nativeAd} to a view previously created by {@link #createNativeAd} and unbound
+     * with {@link #unbindNativeAd}.
+     *
+     * @param nativeAdView the view to reuse
+     * @param nativeAd the ad to display in the view
+     * @param customOptions Used to pass additional custom options. Nullable.
+     */
+    void bindNativeAd(
+        NativeAdView nativeAdView, NativeAd nativeAd, Map<String, Object> customOptions);
+
+    /**
+     * Clears everything tied to the previous native ad from {@code nativeAdView}, including the
+     * asset views' content, before the view is pooled.
+     */
+    void unbindNativeAd(NativeAdView nativeAdView);
+  }
+
   /**
    * Registers a {@link io.flutter.plugins.googlemobileads.GoogleMobileAdsPlugin.NativeAdFactory}
    * used to create {@link com.google.android.gms.ads.nativead.NativeAdView}s from a Native Ad
@@ -225,9 +332,37 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
   }
 
   private NativeAdFactory removeNativeAdFactory(String factoryId) {
+    final NativeAdViewPool pool = nativeAdViewPools.remove(factoryId);
+    if (pool != null) {
+      pool.clear();
+    }
     return nativeAdFactories.remove(factoryId);
   }
 
+  @Nullable
+  private NativeAdViewPool getNativeAdViewPool(String factoryId, NativeAdFactory factory) {
+    if (!(factory instanceof RecyclingNativeAdFactory)) {
+      return null;
+    }
+    NativeAdViewPool pool = nativeAdViewPools.get(factoryId);
+    if (pool == null) {
+      pool = new NativeAdViewPool();
+      nativeAdViewPools.put(factoryId, pool);
+    }
+    return pool;
+  }
+
+  /** Destroys pooled native ad views, which hold on to the context they were inflated with. */
+  private void clearNativeAdViewPools() {
+    for (NativeAdViewPool pool : nativeAdViewPools.values()) {
+      pool.clear();
+    }
+    if (nativeAdBatchLoader != null) {
+      nativeAdBatchLoader.clear();
+      nativeAdBatchLoader = null;
+    }
+  }
+
   @Override
   public void onAttachedToEngine(FlutterPluginBinding binding) {
     pluginBinding = binding;
@@ -235,19 +370,31 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
     if (mediationNetworkExtrasProvider != null) {
       adMessageCodec.setMediationNetworkExtrasProvider(mediationNetworkExtrasProvider);
     }
+    final StandardMethodCodec methodCodec = new StandardMethodCodec(adMessageCodec);
     final MethodChannel channel =
         new MethodChannel(
-            binding.getBinaryMessenger(),
-            "plugins.flutter.io/google_mobile_ads",
-            new StandardMethodCodec(adMessageCodec));
+            binding.getBinaryMessenger(), "plugins.flutter.io/google_mobile_ads", methodCodec);
     channel.setMethodCallHandler(this);
-    instanceManager = new AdInstanceManager(channel);
+    this.channel = channel;
+    instanceManager =
+        new AdInstanceManager(
+            new AdEventDispatcher(
+                binding.getBinaryMessenger(),
+                "plugins.flutter.io/google_mobile_ads",
+                adMessageCodec));
     binding
         .getPlatformViewRegistry()
         .registerViewFactory(
             "plugins.flutter.io/google_mobile_ads/ad_widget",
             new GoogleMobileAdsViewFactory(instanceManager));
+    binding.getApplicationContext().registerComponentCallbacks(configurationCallbacks);
+    adPool = new FullScreenAdPool(new FlutterAdLoader(binding.getApplicationContext()));
+    revenueAggregator = getSharedRevenueAggregator(binding.getApplicationContext());
+    instanceManager.setRevenueAggregator(revenueAggregator);
     appStateNotifier = new AppStateNotifier(binding.getBinaryMessenger());
+    appStateNotifier.addListener(adViewPauserListener);
+    appOpenAdWarmer = new AppOpenAdWarmer(adPool, instanceManager, channel);
+    appStateNotifier.addListener(appOpenAdWarmer);
     userMessagingPlatformManager =
         new UserMessagingPlatformManager(
             binding.getBinaryMessenger(), binding.getApplicationContext());
@@ -256,9 +403,34 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
   @Override
   public void onDetachedFromEngine(FlutterPluginBinding binding) {
     if (appStateNotifier != null) {
+      appStateNotifier.removeListener(adViewPauserListener);
+      if (appOpenAdWarmer != null) {
+        appStateNotifier.removeListener(appOpenAdWarmer);
+      }
       appStateNotifier.stop();
       appStateNotifier = null;
     }
+    if (pluginBinding != null) {
+      pluginBinding.getApplicationContext().unregisterComponentCallbacks(configurationCallbacks);
+    }
+    if (appOpenAdWarmer != null) {
+      appOpenAdWarmer.clear();
+      appOpenAdWarmer = null;
+    }
+    if (adPool != null) {
+      adPool.clear();
+      adPool = null;
+    }
+    if (revenueAggregator != null && channel != null) {
+      revenueAggregator.stop(channel);
+    }
+    revenueAggregator = null;
+    channel = null;
+    clearBannerAdCreator();
+    // The next engine gets a new instance manager, which has no journal until Dart enables it.
+    isEventJournalEnabled = false;
+    eventJournalGeneration++;
+    clearNativeAdViewPools();
   }
 
   @Override
@@ -272,10 +444,13 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
     if (userMessagingPlatformManager != null) {
       userMessagingPlatformManager.setActivity(binding.getActivity());
     }
+    resumeBannerAdPrewarming(binding.getActivity());
   }
 
   @Override
   public void onDetachedFromActivityForConfigChanges() {
+    clearNativeAdViewPools();
+    clearBannerAdCreator();
     // Use the application context
     if (adMessageCodec != null && pluginBinding != null) {
       adMessageCodec.setContext(pluginBinding.getApplicationContext());
@@ -299,10 +474,13 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
     if (userMessagingPlatformManager != null) {
       userMessagingPlatformManager.setActivity(binding.getActivity());
     }
+    resumeBannerAdPrewarming(binding.getActivity());
   }
 
   @Override
   public void onDetachedFromActivity() {
+    clearNativeAdViewPools();
+    clearBannerAdCreator();
     if (adMessageCodec != null && pluginBinding != null) {
       adMessageCodec.setContext(pluginBinding.getApplicationContext());
     }
@@ -314,6 +492,75 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
     }
   }
 
+  @Nullable
+  private <T> T claimPooledAd(
+      @NonNull FullScreenAdPool.Format format,
+      @Nullable String adUnitId,
+      @Nullable FlutterAdRequest request,
+      int orientation) {
+    if (adPool == null || adUnitId == null || request == null) {
+      return null;
+    }
+    return adPool.claim(format, adUnitId, request, orientation);
+  }
+
+  /** Times calls to show an ad. */
+  private void recordCallReceived(@NonNull MethodCall call) {
+    if (call.method.equals("showAdWithoutView")) {
+      instanceManager
+          .getTimelines()
+          .mark(call.<Integer>argument("adId"), Stage.SHOW, Step.CALL_RECEIVED);
+    }
+  }
+
+  /**
+   * Tracks an ad that Dart asks to load. The load is only recorded once the ad is tracked, so a
+   * rejected call can't touch the timeline or ad unit of a live ad with the same id.
+   */
+  private void trackLoadRequest(@NonNull MethodCall call, @NonNull FlutterAd ad) {
+    trackLoadRequest(
+        ad, requireNonNull(call.<Integer>argument("adId")), call.<String>argument("adUnitId"));
+  }
+
+  private void trackLoadRequest(@NonNull FlutterAd ad, int adId, @Nullable String adUnitId) {
+    instanceManager.trackAd(ad, adId);
+    if (adUnitId != null) {
+      instanceManager.onLoadRequested(adId, adUnitId);
+    }
+  }
+
+  /** Hands the load of a tracked ad to the load scheduler. */
+  private void scheduleLoad(@NonNull MethodCall call, @NonNull FlutterAd ad) {
+    instanceManager
+        .getLoadScheduler()
+        .schedule(
+            call.<Integer>argument("adId"),
+            call.<String>argument("adUnitId"),
+            AdLoadScheduler.Priority.fromIndex(call.<Integer>argument("loadPriority")),
+            ad);
+  }
+
+  @Nullable
+  private static FullScreenAdPool.Format getPoolFormat(@Nullable String format) {
+    if (format == null) {
+      return null;
+    }
+    switch (format) {
+      case "interstitial":
+        return FullScreenAdPool.Format.INTERSTITIAL;
+      case "adManagerInterstitial":
+        return FullScreenAdPool.Format.AD_MANAGER_INTERSTITIAL;
+      case "rewarded":
+        return FullScreenAdPool.Format.REWARDED;
+      case "rewardedInterstitial":
+        return FullScreenAdPool.Format.REWARDED_INTERSTITIAL;
+      case "appOpen":
+        return FullScreenAdPool.Format.APP_OPEN;
+      default:
+        return null;
+    }
+  }
+
   @Override
   public void onMethodCall(@NonNull MethodCall call, @NonNull final Result result) {
     if (instanceManager == null || pluginBinding == null) {
@@ -325,10 +572,15 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
         (instanceManager.getActivity() != null)
             ? instanceManager.getActivity()
             : pluginBinding.getApplicationContext();
+    recordCallReceived(call);
     switch (call.method) {
       case "_init":
         // Internal init. This is necessary to cleanup state on hot restart.
         instanceManager.disposeAllAds();
+        // Dart starts with an empty string table.
+        if (adMessageCodec != null) {
+          adMessageCodec.resetStringTable();
+        }
         result.success(null);
         break;
       case "MobileAds#initialize":
@@ -383,8 +635,8 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
                 call.<FlutterAdRequest>argument("request"),
                 call.<FlutterAdSize>argument("size"),
                 getBannerAdCreator(context));
-        instanceManager.trackAd(bannerAd, call.<Integer>argument("adId"));
-        bannerAd.load();
+        trackLoadRequest(call, bannerAd);
+        scheduleLoad(call, bannerAd);
         result.success(null);
         break;
       case "loadNativeAd":
@@ -407,11 +659,94 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
                 .setId(call.<Integer>argument("adId"))
                 .setNativeAdOptions(call.<FlutterNativeAdOptions>argument("nativeAdOptions"))
                 .setFlutterAdLoader(new FlutterAdLoader(context))
+                .setNativeAdViewPool(getNativeAdViewPool(factoryId, factory))
                 .build();
-        instanceManager.trackAd(nativeAd, call.<Integer>argument("adId"));
-        nativeAd.load();
+        trackLoadRequest(call, nativeAd);
+        scheduleLoad(call, nativeAd);
+        result.success(null);
+        break;
+      case "loadNativeAds":
+        final String batchFactoryId = call.argument("factoryId");
+        final NativeAdFactory batchFactory = nativeAdFactories.get(batchFactoryId);
+        if (batchFactory == null) {
+          final String message =
+              String.format("Can't find NativeAdFactory with id: %s", batchFactoryId);
+          result.error("NativeAdError", message, null);
+          break;
+        }
+
+        final String batchAdUnitId = call.argument("adUnitId");
+        final FlutterAdRequest batchRequest = call.argument("request");
+        final FlutterAdManagerAdRequest batchAdManagerRequest = call.argument("adManagerRequest");
+        final FlutterNativeAdOptions batchNativeAdOptions = call.argument("nativeAdOptions");
+        final List<Integer> adIds = call.argument("adIds");
+        final List<Map<String, Object>> batchCustomOptions = call.argument("customOptions");
+        if (batchAdUnitId == null
+            || (batchRequest == null && batchAdManagerRequest == null)
+            || adIds == null
+            || adIds.contains(null)
+            || batchCustomOptions == null
+            || batchCustomOptions.size() != adIds.size()) {
+          result.error("InvalidRequest", "A null or invalid ad request was provided.", null);
+          break;
+        }
+        // Checked up front, so a bad id can't leave earlier ads of the batch tracked but unloaded.
+        final Integer trackedAdId = findTrackedOrDuplicateAdId(adIds);
+        if (trackedAdId != null) {
+          result.error(
+              "InvalidRequest",
+              String.format("Ad for following adId already exists: %d", trackedAdId),
+              null);
+          break;
+        }
+        final List<FlutterNativeAd> nativeAds = new ArrayList<>(adIds.size());
+        for (int i = 0; i < adIds.size(); i++) {
+          final FlutterNativeAd batchNativeAd =
+              new FlutterNativeAd.Builder()
+                  .setManager(instanceManager)
+                  .setAdUnitId(batchAdUnitId)
+                  .setAdFactory(batchFactory)
+                  .setRequest(batchRequest)
+                  .setAdManagerRequest(batchAdManagerRequest)
+                  .setCustomOptions(batchCustomOptions.get(i))
+                  .setId(adIds.get(i))
+                  .setNativeAdOptions(batchNativeAdOptions)
+                  .setFlutterAdLoader(new FlutterAdLoader(context))
+                  .setNativeAdViewPool(getNativeAdViewPool(batchFactoryId, batchFactory))
+                  .build();
+          trackLoadRequest(batchNativeAd, adIds.get(i), batchAdUnitId);
+          nativeAds.add(batchNativeAd);
+        }
+        final AdLoadCircuitBreaker batchCircuitBreaker = instanceManager.getCircuitBreaker();
+        if (!batchCircuitBreaker.allowLoad(batchAdUnitId)) {
+          final FlutterAd.FlutterLoadAdError circuitOpenError =
+              batchCircuitBreaker.getCircuitOpenError(batchAdUnitId);
+          for (FlutterNativeAd batchNativeAd : nativeAds) {
+            batchNativeAd.onNativeAdFailedToLoad(circuitOpenError);
+          }
+          result.success(null);
+          break;
+        }
+        final AdRequest batchAdRequest =
+            batchRequest != null
+                ? batchRequest.asAdRequest(batchAdUnitId)
+                : batchAdManagerRequest.asAdManagerAdRequest(batchAdUnitId);
+        for (Integer adId : adIds) {
+          // Batches skip the load scheduler, so their loads start right away.
+          instanceManager.onAdRequestBuilt(adId);
+        }
+        getNativeAdBatchLoader(context)
+            .load(batchAdUnitId, batchNativeAdOptions, batchAdRequest, nativeAds);
         result.success(null);
         break;
+      case "loadAds":
+        final List<Map<String, Object>> loadSpecs = call.argument("ads");
+        final List<Object> loadResults = new ArrayList<>(loadSpecs.size());
+        for (Map<String, Object> loadSpec : loadSpecs) {
+          loadResults.add(loadAdFromSpec(loadSpec));
+        }
+        result.success(loadResults);
+        break;
       case "loadInterstitialAd":
         final FlutterInterstitialAd interstitial =
             new FlutterInterstitialAd(
@@ -420,8 +755,18 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
                 call.<String>argument("adUnitId"),
                 call.<FlutterAdRequest>argument("request"),
                 new FlutterAdLoader(context));
-        instanceManager.trackAd(interstitial, call.<Integer>argument("adId"));
-        interstitial.load();
+        trackLoadRequest(call, interstitial);
+        final InterstitialAd pooledInterstitial =
+            claimPooledAd(
+                FullScreenAdPool.Format.INTERSTITIAL,
+                call.<String>argument("adUnitId"),
+                call.<FlutterAdRequest>argument("request"),
+                0);
+        if (pooledInterstitial != null) {
+          interstitial.onAdLoaded(pooledInterstitial);
+        } else {
+          scheduleLoad(call, interstitial);
+        }
         result.success(null);
         break;
       case "loadRewardedAd":
@@ -452,8 +797,18 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
           break;
         }
 
-        instanceManager.trackAd(rewardedAd, requireNonNull(call.<Integer>argument("adId")));
-        rewardedAd.load();
+        trackLoadRequest(call, rewardedAd);
+        final RewardedAd pooledRewardedAd =
+            claimPooledAd(
+                FullScreenAdPool.Format.REWARDED,
+                rewardedAdUnitId,
+                rewardedAdRequest != null ? rewardedAdRequest : rewardedAdManagerRequest,
+                0);
+        if (pooledRewardedAd != null) {
+          rewardedAd.onAdLoaded(pooledRewardedAd);
+        } else {
+          scheduleLoad(call, rewardedAd);
+        }
         result.success(null);
         break;
       case "loadAdManagerBannerAd":
@@ -465,8 +820,8 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
                 call.<List<FlutterAdSize>>argument("sizes"),
                 call.<FlutterAdManagerAdRequest>argument("request"),
                 getBannerAdCreator(context));
-        instanceManager.trackAd(adManagerBannerAd, call.<Integer>argument("adId"));
-        adManagerBannerAd.load();
+        trackLoadRequest(call, adManagerBannerAd);
+        scheduleLoad(call, adManagerBannerAd);
         result.success(null);
         break;
       case "loadFluidAd":
@@ -477,8 +832,8 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
                 call.<String>argument("adUnitId"),
                 call.<FlutterAdManagerAdRequest>argument("request"),
                 getBannerAdCreator(context));
-        instanceManager.trackAd(fluidAd, call.<Integer>argument("adId"));
-        fluidAd.load();
+        trackLoadRequest(call, fluidAd);
+        scheduleLoad(call, fluidAd);
         result.success(null);
         break;
       case "loadAdManagerInterstitialAd":
@@ -489,9 +844,18 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
                 requireNonNull(call.<String>argument("adUnitId")),
                 call.<FlutterAdManagerAdRequest>argument("request"),
                 new FlutterAdLoader(context));
-        instanceManager.trackAd(
-            adManagerInterstitialAd, requireNonNull(call.<Integer>argument("adId")));
-        adManagerInterstitialAd.load();
+        trackLoadRequest(call, adManagerInterstitialAd);
+        final AdManagerInterstitialAd pooledAdManagerInterstitial =
+            claimPooledAd(
+                FullScreenAdPool.Format.AD_MANAGER_INTERSTITIAL,
+                call.<String>argument("adUnitId"),
+                call.<FlutterAdManagerAdRequest>argument("request"),
+                0);
+        if (pooledAdManagerInterstitial != null) {
+          adManagerInterstitialAd.onAdLoaded(pooledAdManagerInterstitial);
+        } else {
+          scheduleLoad(call, adManagerInterstitialAd);
+        }
         result.success(null);
         break;
       case "loadRewardedInterstitialAd":
@@ -523,9 +887,20 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
           break;
         }
 
-        instanceManager.trackAd(
-            rewardedInterstitialAd, requireNonNull(call.<Integer>argument("adId")));
-        rewardedInterstitialAd.load();
+        trackLoadRequest(call, rewardedInterstitialAd);
+        final RewardedInterstitialAd pooledRewardedInterstitialAd =
+            claimPooledAd(
+                FullScreenAdPool.Format.REWARDED_INTERSTITIAL,
+                rewardedInterstitialAdUnitId,
+                rewardedInterstitialAdRequest != null
+                    ? rewardedInterstitialAdRequest
+                    : rewardedInterstitialAdManagerRequest,
+                0);
+        if (pooledRewardedInterstitialAd != null) {
+          rewardedInterstitialAd.onAdLoaded(pooledRewardedInterstitialAd);
+        } else {
+          scheduleLoad(call, rewardedInterstitialAd);
+        }
         result.success(null);
         break;
       case "loadAppOpenAd":
@@ -538,8 +913,74 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
                 call.<FlutterAdRequest>argument("request"),
                 call.<FlutterAdManagerAdRequest>argument("adManagerRequest"),
                 new FlutterAdLoader(context));
-        instanceManager.trackAd(appOpenAd, call.<Integer>argument("adId"));
-        appOpenAd.load();
+        trackLoadRequest(call, appOpenAd);
+        final FlutterAdRequest appOpenRequest = call.argument("request");
+        final AppOpenAd pooledAppOpenAd =
+            claimPooledAd(
+                FullScreenAdPool.Format.APP_OPEN,
+                call.<String>argument("adUnitId"),
+                appOpenRequest != null
+                    ? appOpenRequest
+                    : call.<FlutterAdManagerAdRequest>argument("adManagerRequest"),
+                FlutterAppOpenAd.getSdkOrientation(call.<Integer>argument("orientation")));
+        if (pooledAppOpenAd != null) {
+          appOpenAd.onAdLoaded(pooledAppOpenAd);
+        } else {
+          scheduleLoad(call, appOpenAd);
+        }
+        result.success(null);
+        break;
+      case "preloadAd":
+        final FullScreenAdPool.Format format = getPoolFormat(call.<String>argument("format"));
+        final FlutterAdRequest preloadRequest =
+            call.argument("request") != null
+                ? call.<FlutterAdRequest>argument("request")
+                : call.<FlutterAdManagerAdRequest>argument("adManagerRequest");
+        if (format == null
+            || preloadRequest == null
+            || (format == FullScreenAdPool.Format.AD_MANAGER_INTERSTITIAL
+                && !(preloadRequest instanceof FlutterAdManagerAdRequest))) {
+          result.error("InvalidRequest", "A null or invalid ad request was provided.", null);
+          break;
+        }
+        if (adPool != null) {
+          final Integer orientation = call.<Integer>argument("orientation");
+          adPool.preload(
+              format,
+              requireNonNull(call.<String>argument("adUnitId")),
+              preloadRequest,
+              orientation != null ? FlutterAppOpenAd.getSdkOrientation(orientation) : 0,
+              requireNonNull(call.<Integer>argument("count")));
+        }
+        result.success(null);
+        break;
+      case "MobileAds#enableAppOpenAdWarmUp":
+        final FlutterAdRequest warmUpRequest = call.argument("request");
+        if (warmUpRequest == null) {
+          result.error("InvalidRequest", "A null or invalid ad request was provided.", null);
+          break;
+        }
+        if (appOpenAdWarmer != null) {
+          appOpenAdWarmer.warmUp(
+              requireNonNull(call.<String>argument("adUnitId")),
+              warmUpRequest,
+              FlutterAppOpenAd.getSdkOrientation(call.<Integer>argument("orientation")),
+              requireNonNull(call.<Boolean>argument("showOnForeground")));
+        }
+        result.success(null);
+        break;
+      case "MobileAds#disableAppOpenAdWarmUp":
+        if (appOpenAdWarmer != null) {
+          appOpenAdWarmer.stop(requireNonNull(call.<String>argument("adUnitId")));
+        }
+        result.success(null);
+        break;
+      case "setAdLoadPriority":
+        instanceManager
+            .getLoadScheduler()
+            .setPriority(
+                call.<Integer>argument("adId"),
+                AdLoadScheduler.Priority.fromIndex(call.<Integer>argument("loadPriority")));
         result.success(null);
         break;
       case "disposeAd":
@@ -558,7 +999,7 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
         final FlutterAdSize.AnchoredAdaptiveBannerAdSize size =
             new FlutterAdSize.AnchoredAdaptiveBannerAdSize(
                 context,
-                new FlutterAdSize.AdSizeFactory(),
+                adMessageCodec.adSizeFactory,
                 call.<String>argument("orientation"),
                 call.<Integer>argument("width"));
         if (AdSize.INVALID.equals(size.size)) {
@@ -567,6 +1008,11 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
           result.success(size.height);
         }
         break;
+      case "AdSize#precomputeAdaptiveBannerAdSizes":
+        adMessageCodec.adSizeFactory.precomputeAdaptiveBannerAdSizes(
+            context, call.<List<Integer>>argument("widths"));
+        result.success(null);
+        break;
       case "MobileAds#setAppMuted":
         flutterMobileAds.setAppMuted(call.<Boolean>argument("muted"));
         result.success(null);
@@ -584,6 +1030,98 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
         flutterMobileAds.disableMediationInitialization(context);
         result.success(null);
         break;
+      case "MobileAds#setAdEventBatchingEnabled":
+        instanceManager.setEventBatchingEnabled(call.<Boolean>argument("enabled"));
+        result.success(null);
+        break;
+      case "MobileAds#prewarmBannerAdViews":
+        prewarmedAdViewCount = requireNonNull(call.<Integer>argument("adViewCount"));
+        prewarmedAdManagerAdViewCount =
+            requireNonNull(call.<Integer>argument("adManagerAdViewCount"));
+        getBannerAdCreator(context).prewarm(prewarmedAdViewCount, prewarmedAdManagerAdViewCount);
+        result.success(null);
+        break;
+      case "MobileAds#setAdViewAutoPauseEnabled":
+        instanceManager
+            .getAdViewPauser()
+            .setEnabled(requireNonNull(call.<Boolean>argument("enabled")));
+        result.success(null);
+        break;
+      case "MobileAds#setFluidAdHeightThreshold":
+        instanceManager.setFluidAdHeightThreshold(
+            requireNonNull(call.<Integer>argument("thresholdPixels")));
+        result.success(null);
+        break;
+      case "MobileAds#setAdEventJournalEnabled":
+        setEventJournalEnabled(requireNonNull(call.<Boolean>argument("enabled")), result);
+        break;
+      case "MobileAds#readAdEventJournal":
+        final File journalFile = getEventJournalFile();
+        getJournalExecutor()
+            .execute(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    final List<Map<String, Object>> records = AdEventJournal.read(journalFile);
+                    mainHandler.post(
+                        new Runnable() {
+                          @Override
+                          public void run() {
+                            result.success(records);
+                          }
+                        });
+                  }
+                });
+        break;
+      case "MobileAds#setMaxConcurrentLoads":
+        instanceManager
+            .getLoadScheduler()
+            .setMaxInFlight(
+                requireNonNull(call.<Integer>argument("maxLoads")),
+                requireNonNull(call.<Integer>argument("maxLoadsPerAdUnit")));
+        result.success(null);
+        break;
+      case "MobileAds#setLoadTimeout":
+        final Number timeoutMillis = requireNonNull(call.<Number>argument("timeoutMillis"));
+        instanceManager.getLoadScheduler().setLoadTimeoutMillis(timeoutMillis.longValue());
+        result.success(null);
+        break;
+      case "MobileAds#setRevenueFlushInterval":
+        final Number flushIntervalMillis =
+            requireNonNull(call.<Number>argument("flushIntervalMillis"));
+        if (revenueAggregator != null && channel != null) {
+          revenueAggregator.setFlushIntervalMillis(channel, flushIntervalMillis.longValue());
+        }
+        result.success(null);
+        break;
+      case "MobileAds#flushRevenue":
+        if (revenueAggregator != null) {
+          revenueAggregator.flush();
+        }
+        result.success(null);
+        break;
+      case "getResponseInfo":
+        result.success(instanceManager.getResponseInfo(call.<Integer>argument("adId")));
+        break;
+      case "MobileAds#setResponseInfoLevel":
+        instanceManager.setResponseInfoLevel(
+            FlutterResponseInfo.Level.fromIndex(call.<Integer>argument("level")));
+        result.success(null);
+        break;
+      case "getAdTimeline":
+        result.success(instanceManager.getTimelines().getTimeline(call.<Integer>argument("adId")));
+        break;
+      case "MobileAds#getAdapterLatencies":
+        result.success(instanceManager.getAdapterLatencies().getSummaries());
+        break;
+      case "MobileAds#resetAdapterLatencies":
+        instanceManager.getAdapterLatencies().clear();
+        result.success(null);
+        break;
+      case "MobileAds#getAdUnitCircuitState":
+        result.success(
+            instanceManager.getCircuitBreaker().getState(call.<String>argument("adUnitId")));
+        break;
       case "MobileAds#getVersionString":
         result.success(flutterMobileAds.getVersionString());
         break;
@@ -634,7 +1172,199 @@ public class GoogleMobileAdsPlugin implements FlutterPlugin, ActivityAware, Meth
 
   @VisibleForTesting
   BannerAdCreator getBannerAdCreator(@NonNull Context context) {
-    return new BannerAdCreator(context);
+    // Prewarmed views are bound to the context they were built with, so they are dropped when the
+    // context changes.
+    if (bannerAdCreator == null || bannerAdCreator.getContext() != context) {
+      if (bannerAdCreator != null) {
+        bannerAdCreator.clear();
+      }
+      bannerAdCreator = new BannerAdCreator(context);
+      bannerAdCreator.prewarm(prewarmedAdViewCount, prewarmedAdManagerAdViewCount);
+    }
+    return bannerAdCreator;
+  }
+
+  /** Destroys the prewarmed banner views, which hold on to the context they were built with. */
+  private void clearBannerAdCreator() {
+    if (bannerAdCreator != null) {
+      bannerAdCreator.clear();
+      bannerAdCreator = null;
+    }
+  }
+
+  /** Builds the banner views Dart asked to prewarm for a newly attached activity. */
+  private void resumeBannerAdPrewarming(@NonNull Context context) {
+    if (prewarmedAdViewCount > 0 || prewarmedAdManagerAdViewCount > 0) {
+      getBannerAdCreator(context);
+    }
+  }
+
+  /**
+   * Starts writing the ad events of this engine to the journal shared by every engine, which is
+   * opened in the background on first use, or stops writing them. Enabling it while it is already
+   * enabled does nothing.
+   */
+  private void setEventJournalEnabled(boolean enabled, @NonNull final Result result) {
+    if (enabled == isEventJournalEnabled) {
+      result.success(null);
+      return;
+    }
+    isEventJournalEnabled = enabled;
+    final int generation = ++eventJournalGeneration;
+    if (!enabled) {
+      requireNonNull(instanceManager).setEventJournal(null);
+      result.success(null);
+      return;
+    }
+    final AdInstanceManager journalInstanceManager = requireNonNull(instanceManager);
+    final File journalFile = getEventJournalFile();
+    getJournalExecutor()
+        .execute(
+            new Runnable() {
+              @Override
+              public void run() {
+                final AdEventJournal journal = getSharedEventJournal(journalFile);
+                mainHandler.post(
+                    new Runnable() {
+                      @Override
+                      public void run() {
+                        if (generation == eventJournalGeneration) {
+                          journalInstanceManager.setEventJournal(journal);
+                        }
+                        result.success(null);
+                      }
+                    });
+              }
+            });
+  }
+
+  /** Returns the aggregator of every engine in the process, starting it on first use. */
+  @NonNull
+  private static synchronized RevenueAggregator getSharedRevenueAggregator(
+      @NonNull Context context) {
+    if (sharedRevenueAggregator == null) {
+      sharedRevenueAggregator =
+          new RevenueAggregator(
+              new RevenueLedger(new File(context.getFilesDir(), REVENUE_LEDGER_FILE_NAME)));
+      sharedRevenueAggregator.start();
+    }
+    return sharedRevenueAggregator;
+  }
+
+  /** Returns the journal of every engine, opening it on first use. Runs on the journal executor. */
+  @Nullable
+  private static AdEventJournal getSharedEventJournal(@NonNull File file) {
+    if (sharedEventJournal == null) {
+      sharedEventJournal = AdEventJournal.open(file);
+    }
+    return sharedEventJournal;
+  }
+
+  @NonNull
+  private static synchronized Executor getJournalExecutor() {
+    if (journalExecutor == null) {
+      journalExecutor =
+          Executors.newSingleThreadExecutor(
+              new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                  final Thread thread = new Thread(runnable, "GoogleMobileAdsEventJournal");
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              });
+    }
+    return journalExecutor;
+  }
+
+  @NonNull
+  private File getEventJournalFile() {
+    return new File(
+        requireNonNull(pluginBinding).getApplicationContext().getFilesDir(),
+        EVENT_JOURNAL_FILE_NAME);
+  }
+
+  @VisibleForTesting
+  NativeAdBatchLoader getNativeAdBatchLoader(@NonNull Context context) {
+    // Cached AdLoaders are bound to the context they were built with.
+    if (nativeAdBatchLoader == null || nativeAdBatchLoader.getContext() != context) {
+      if (nativeAdBatchLoader != null) {
+        nativeAdBatchLoader.clear();
+      }
+      nativeAdBatchLoader = new NativeAdBatchLoader(context, instanceManager.getCircuitBreaker());
+    }
+    return nativeAdBatchLoader;
+  }
+
+  /** Returns an id of {@code adIds} that is tracked already or repeated, or null if none is. */
+  @Nullable
+  private Integer findTrackedOrDuplicateAdId(@NonNull List<Integer> adIds) {
+    final Set<Integer> seen = new HashSet<>();
+    for (Integer adId : adIds) {
+      if (!seen.add(adId) || instanceManager.adForId(adId) != null) {
+        return adId;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Runs a single load call of a {@code loadAds} batch.
+   *
+   * @return null if the load started, otherwise a map with the error code and message.
+   */
+  @Nullable
+  private Map<String, Object> loadAdFromSpec(@NonNull Map<String, Object> loadSpec) {
+    final String method = (String) loadSpec.get("method");
+    final Object arguments = loadSpec.get("arguments");
+    final BatchLoadResult batchLoadResult = new BatchLoadResult();
+    if (!BATCH_LOAD_METHODS.contains(method)) {
+      batchLoadResult.error(
+          "InvalidRequest", String.format("Can't load ads with %s in a batch.", method), null);
+      return batchLoadResult.error;
+    }
+    final Object adId = arguments instanceof Map ? ((Map<?, ?>) arguments).get("adId") : null;
+    if (!(adId instanceof Integer)) {
+      batchLoadResult.error("InvalidRequest", "A null or invalid ad request was provided.", null);
+      return batchLoadResult.error;
+    }
+    // Checked up front, so a failed call can't be mistaken for the live ad with the same id.
+    if (instanceManager.adForId((Integer) adId) != null) {
+      batchLoadResult.error(
+          "InvalidRequest",
+          String.format("Ad for following adId already exists: %d", (Integer) adId),
+          null);
+      return batchLoadResult.error;
+    }
+    try {
+      onMethodCall(new MethodCall(method, arguments), batchLoadResult);
+    } catch (IllegalArgumentException | ClassCastException | NullPointerException e) {
+      // A malformed load call must not fail the rest of the batch, or leave its ad tracked.
+      instanceManager.disposeAd((Integer) adId);
+      batchLoadResult.error("InvalidRequest", String.valueOf(e.getMessage()), null);
+    }
+    return batchLoadResult.error;
+  }
+
+  /** A {@link Result} that records the outcome of a load call of a {@code loadAds} batch. */
+  private static final class BatchLoadResult implements Result {
+    @Nullable private Map<String, Object> error;
+
+    @Override
+    public void success(@Nullable Object result) {}
+
+    @Override
+    public void error(
+        @NonNull String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+      error = new HashMap<>();
+      error.put("code", errorCode);
+      error.put("message", errorMessage);
+    }
+
+    @Override
+    public void notImplemented() {
+      error("InvalidRequest", "Method not implemented.", null);
+    }
   }
 
   /** An {@link OnInitializationCompleteListener} that invokes result.success() at most once. */
@@ -0,0 +1,230 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.google.android.gms.ads.AdListener;
+import com.google.android.gms.ads.AdLoader;
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.google.android.gms.ads.nativead.NativeAd.OnNativeAdLoadedListener;
+import com.google.android.gms.ads.nativead.NativeAdOptions;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Loads several {@link FlutterNativeAd}s with a single request through {@link AdLoader#loadAds},
+ * reusing one {@link AdLoader} per ad unit and native ad options.
+ *
+ * <p>The SDK reports events of every ad loaded by an {@link AdLoader} to its one {@link
+ * AdListener}, so clicks and impressions of ads loaded here can't be attributed to an ad and are
+ * not forwarded. Each request reports its fill result to the {@link AdLoadCircuitBreaker}, like a
+ * single load would. Must only be used from the main thread.
+ */
+final class NativeAdBatchLoader {
+  /** The most native ads the SDK loads with a single request. */
+  @VisibleForTesting static final int MAX_ADS_PER_REQUEST = 5;
+
+  private static final int MAX_LOADERS = 8;
+  private static final String ERROR_DOMAIN = "com.google.android.gms.ads";
+
+  @NonNull private final Context context;
+  @NonNull private final FlutterAdLoader flutterAdLoader;
+  @NonNull private final AdLoadCircuitBreaker circuitBreaker;
+
+  private final Map<Key, CachedLoader> loaders =
+      new LinkedHashMap<Key, CachedLoader>(MAX_LOADERS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CachedLoader> eldest) {
+          // A dropped loader still delivers the batches it already started.
+          return size() > MAX_LOADERS;
+        }
+      };
+
+  NativeAdBatchLoader(@NonNull Context context, @NonNull AdLoadCircuitBreaker circuitBreaker) {
+    this(context, new FlutterAdLoader(context), circuitBreaker);
+  }
+
+  @VisibleForTesting
+  NativeAdBatchLoader(
+      @NonNull Context context,
+      @NonNull FlutterAdLoader flutterAdLoader,
+      @NonNull AdLoadCircuitBreaker circuitBreaker) {
+    this.context = context;
+    this.flutterAdLoader = flutterAdLoader;
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  @NonNull
+  Context getContext() {
+    return context;
+  }
+
+  /**
+   * Loads an ad for each of {@code ads}, which must share the ad unit and options. Ads that aren't
+   * filled receive a no fill error.
+   */
+  void load(
+      @NonNull String adUnitId,
+      @Nullable FlutterNativeAdOptions nativeAdOptions,
+      @NonNull AdRequest request,
+      @NonNull List<FlutterNativeAd> ads) {
+    final Key key = new Key(adUnitId, nativeAdOptions);
+    CachedLoader loader = loaders.get(key);
+    if (loader == null) {
+      loader = new CachedLoader(adUnitId, nativeAdOptions);
+      loaders.put(key, loader);
+    }
+    for (int start = 0; start < ads.size(); start += MAX_ADS_PER_REQUEST) {
+      final int end = Math.min(start + MAX_ADS_PER_REQUEST, ads.size());
+      loader.enqueue(new Batch(request, ads.subList(start, end)));
+    }
+  }
+
+  /** Drops the cached loaders and any batches that haven't started loading yet. */
+  void clear() {
+    for (CachedLoader loader : loaders.values()) {
+      if (!loader.pending.isEmpty()) {
+        // A dropped batch may have been let through as the probe of an open circuit.
+        circuitBreaker.onLoadCancelled(loader.adUnitId);
+        loader.pending.clear();
+      }
+    }
+    loaders.clear();
+  }
+
+  @VisibleForTesting
+  int getLoaderCount() {
+    return loaders.size();
+  }
+
+  /** A single {@link AdLoader#loadAds} request and the ads waiting on it. */
+  private static final class Batch {
+    @NonNull final AdRequest request;
+    @NonNull final ArrayDeque<FlutterNativeAd> ads;
+    boolean isFilled;
+
+    Batch(@NonNull AdRequest request, @NonNull List<FlutterNativeAd> ads) {
+      this.request = request;
+      this.ads = new ArrayDeque<>(ads);
+    }
+  }
+
+  /**
+   * An {@link AdLoader} together with its queue of batches. The SDK delivers ads in no particular
+   * request order, so batches for one loader are loaded one after another.
+   */
+  private final class CachedLoader extends AdListener implements OnNativeAdLoadedListener {
+    @NonNull private final String adUnitId;
+    @NonNull private final AdLoader adLoader;
+    @NonNull private final ArrayDeque<Batch> pending = new ArrayDeque<>();
+    @Nullable private Batch current;
+
+    CachedLoader(@NonNull String adUnitId, @Nullable FlutterNativeAdOptions nativeAdOptions) {
+      this.adUnitId = adUnitId;
+      final NativeAdOptions options =
+          nativeAdOptions == null
+              ? new NativeAdOptions.Builder().build()
+              : nativeAdOptions.asNativeAdOptions();
+      adLoader = flutterAdLoader.buildNativeAdLoader(adUnitId, this, options, this);
+    }
+
+    void enqueue(@NonNull Batch batch) {
+      pending.add(batch);
+      if (current == null) {
+        loadNext();
+      }
+    }
+
+    private void loadNext() {
+      current = pending.poll();
+      if (current != null) {
+        flutterAdLoader.loadNativeAds(adLoader, current.request, current.ads.size());
+      }
+    }
+
+    @Override
+    public void onNativeAdLoaded(@NonNull NativeAd nativeAd) {
+      final FlutterNativeAd ad = current == null ? null : current.ads.poll();
+      if (ad == null) {
+        nativeAd.destroy();
+        return;
+      }
+      if (!current.isFilled) {
+        current.isFilled = true;
+        circuitBreaker.onLoadSucceeded(adUnitId);
+      }
+      ad.onNativeAdLoaded(nativeAd);
+      if (current.ads.isEmpty() || !flutterAdLoader.isLoading(adLoader)) {
+        finish(
+            new FlutterLoadAdError(AdRequest.ERROR_CODE_NO_FILL, ERROR_DOMAIN, "No fill.", null));
+      }
+    }
+
+    @Override
+    public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+      final FlutterLoadAdError error = new FlutterLoadAdError(loadAdError);
+      if (current != null && !current.isFilled) {
+        circuitBreaker.onLoadFailed(adUnitId, error);
+      }
+      finish(error);
+    }
+
+    private void finish(@NonNull FlutterLoadAdError error) {
+      if (current != null) {
+        FlutterNativeAd ad;
+        while ((ad = current.ads.poll()) != null) {
+          ad.onNativeAdFailedToLoad(error);
+        }
+      }
+      loadNext();
+    }
+  }
+
+  private static final class Key {
+    @NonNull private final String adUnitId;
+    @Nullable private final FlutterNativeAdOptions nativeAdOptions;
+
+    Key(@NonNull String adUnitId, @Nullable FlutterNativeAdOptions nativeAdOptions) {
+      this.adUnitId = adUnitId;
+      this.nativeAdOptions = nativeAdOptions;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (this == object) {
+        return true;
+      } else if (!(object instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) object;
+      return adUnitId.equals(that.adUnitId)
+          && Objects.equals(nativeAdOptions, that.nativeAdOptions);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(adUnitId, nativeAdOptions);
+    }
+  }
+}
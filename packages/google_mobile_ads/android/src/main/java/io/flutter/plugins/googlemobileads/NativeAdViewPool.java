@@ -0,0 +1,69 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.view.ViewGroup;
+import android.view.ViewParent;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.google.android.gms.ads.nativead.NativeAdView;
+import java.util.ArrayDeque;
+
+/**
+ * Holds the unbound {@link NativeAdView}s of a single {@link
+ * GoogleMobileAdsPlugin.RecyclingNativeAdFactory}, so they can be bound to the next native ad
+ * instead of inflating a new layout.
+ *
+ * <p>Must only be used from the main thread.
+ */
+final class NativeAdViewPool {
+  private static final int MAX_VIEWS = 4;
+
+  @NonNull private final ArrayDeque<NativeAdView> views = new ArrayDeque<>();
+
+  /** Returns an unbound view, or null if the pool is empty. */
+  @Nullable
+  NativeAdView acquire() {
+    return views.poll();
+  }
+
+  /**
+   * Adds an unbound view to the pool, detaching it from its parent first. Views beyond the pool
+   * size are destroyed instead.
+   */
+  void release(@NonNull NativeAdView view) {
+    if (views.size() >= MAX_VIEWS) {
+      view.destroy();
+      return;
+    }
+    final ViewParent parent = view.getParent();
+    if (parent instanceof ViewGroup) {
+      ((ViewGroup) parent).removeView(view);
+    }
+    views.add(view);
+  }
+
+  /** Destroys every pooled view. */
+  void clear() {
+    NativeAdView view;
+    while ((view = views.poll()) != null) {
+      view.destroy();
+    }
+  }
+
+  int size() {
+    return views.size();
+  }
+}
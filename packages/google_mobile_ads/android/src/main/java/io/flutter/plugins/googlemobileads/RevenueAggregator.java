@@ -0,0 +1,354 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Sums the value of paid events per ad unit, currency and precision, and sends the sums to Dart on
+ * an interval.
+ *
+ * <p>Paid events are only recorded while sums are being sent, so nothing accumulates while Dart is
+ * not listening. Each one is appended to a {@link RevenueLedger} before it is summed, and the
+ * ledger is only compacted to what is still owed once Dart acknowledges a flush. Revenue that was
+ * not delivered when the process died is read back from the ledger by {@link #start} and sent with
+ * the next flush. Delivery is at least once: if the process dies after Dart received a flush but
+ * before its reply arrived, that flush is sent again.
+ *
+ * <p>There is a single aggregator per process, shared by every engine, since they all write the
+ * same ledger. Sums are sent over the channel of the engine that last enabled them.
+ *
+ * <p>The sums are kept in parallel primitive arrays indexed by a slot per key. Paid events may be
+ * recorded from any thread and are posted to the main thread, where every other method must be
+ * called. The ledger is written on a background thread.
+ */
+final class RevenueAggregator {
+  @VisibleForTesting static final String FLUSH_METHOD = "onRevenueAggregated";
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  private static final class Key {
+    @NonNull final String adUnitId;
+    @NonNull final String currencyCode;
+    final int precision;
+
+    Key(@NonNull String adUnitId, @NonNull String currencyCode, int precision) {
+      this.adUnitId = adUnitId;
+      this.currencyCode = currencyCode;
+      this.precision = precision;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) o;
+      return precision == other.precision
+          && adUnitId.equals(other.adUnitId)
+          && currencyCode.equals(other.currencyCode);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(adUnitId, currencyCode, precision);
+    }
+  }
+
+  @NonNull private final RevenueLedger ledger;
+  @NonNull private final Handler mainHandler;
+  @NonNull private final Executor ledgerExecutor;
+
+  private final Map<Key, Integer> slots = new HashMap<>();
+  @NonNull private Key[] keys = new Key[INITIAL_CAPACITY];
+  @NonNull private long[] valueMicros = new long[INITIAL_CAPACITY];
+  @NonNull private int[] eventCounts = new int[INITIAL_CAPACITY];
+  private int slotCount;
+
+  // The sums sent by the flush Dart has not acknowledged yet, indexed by slot.
+  @Nullable private long[] inFlightValueMicros;
+  @Nullable private int[] inFlightEventCounts;
+
+  @Nullable private MethodChannel channel;
+  private boolean isRecovered;
+  private long flushIntervalMillis;
+  private boolean isFlushScheduled;
+
+  private final Runnable scheduledFlush =
+      new Runnable() {
+        @Override
+        public void run() {
+          isFlushScheduled = false;
+          flush();
+        }
+      };
+
+  RevenueAggregator(@NonNull RevenueLedger ledger) {
+    this(
+        ledger,
+        new Handler(Looper.getMainLooper()),
+        Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+              @Override
+              public Thread newThread(@NonNull Runnable runnable) {
+                final Thread thread = new Thread(runnable, "GoogleMobileAdsRevenueLedger");
+                thread.setDaemon(true);
+                return thread;
+              }
+            }));
+  }
+
+  @VisibleForTesting
+  RevenueAggregator(
+      @NonNull RevenueLedger ledger,
+      @NonNull Handler mainHandler,
+      @NonNull Executor ledgerExecutor) {
+    this.ledger = ledger;
+    this.mainHandler = mainHandler;
+    this.ledgerExecutor = ledgerExecutor;
+  }
+
+  /** Reads back the revenue left in the ledger by a previous process. */
+  void start() {
+    ledgerExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            final List<RevenueLedger.Entry> entries = ledger.recover();
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    for (RevenueLedger.Entry entry : entries) {
+                      add(entry);
+                    }
+                    isRecovered = true;
+                    scheduleFlush();
+                  }
+                });
+          }
+        });
+  }
+
+  /**
+   * Records a paid event of an ad loaded with {@code adUnitId}. Dropped while sums are not being
+   * sent.
+   */
+  void record(@NonNull String adUnitId, @NonNull FlutterAdValue adValue) {
+    final RevenueLedger.Entry entry =
+        new RevenueLedger.Entry(
+            adUnitId, adValue.currencyCode, adValue.precisionType, adValue.valueMicros, 1);
+    mainHandler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (flushIntervalMillis == 0) {
+              return;
+            }
+            ledgerExecutor.execute(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    ledger.append(entry);
+                  }
+                });
+            add(entry);
+            scheduleFlush();
+          }
+        });
+  }
+
+  /**
+   * Sets how often sums are sent to Dart over {@code channel}, taking over from the engine that set
+   * it before. Zero, the default, stops sending them and recording new paid events, unless the
+   * channel of another engine is in use.
+   */
+  void setFlushIntervalMillis(@NonNull MethodChannel channel, long flushIntervalMillis) {
+    if (flushIntervalMillis == 0 && channel != this.channel) {
+      return;
+    }
+    this.channel = flushIntervalMillis == 0 ? null : channel;
+    this.flushIntervalMillis = flushIntervalMillis;
+    mainHandler.removeCallbacks(scheduledFlush);
+    isFlushScheduled = false;
+    scheduleFlush();
+  }
+
+  /**
+   * Sends the sums to Dart now, unless there is nothing to send or an earlier flush has not been
+   * acknowledged yet.
+   */
+  void flush() {
+    final MethodChannel channel = this.channel;
+    if (channel == null
+        || !isRecovered
+        || inFlightValueMicros != null
+        || !hasPendingRevenue()) {
+      return;
+    }
+    mainHandler.removeCallbacks(scheduledFlush);
+    isFlushScheduled = false;
+    final List<Map<String, Object>> aggregates = new ArrayList<>();
+    for (int slot = 0; slot < slotCount; slot++) {
+      if (eventCounts[slot] == 0) {
+        continue;
+      }
+      final Map<String, Object> aggregate = new HashMap<>();
+      aggregate.put("adUnitId", keys[slot].adUnitId);
+      aggregate.put("currencyCode", keys[slot].currencyCode);
+      aggregate.put("precision", keys[slot].precision);
+      aggregate.put("valueMicros", valueMicros[slot]);
+      aggregate.put("eventCount", eventCounts[slot]);
+      aggregates.add(aggregate);
+    }
+    final long[] sentValueMicros = Arrays.copyOf(valueMicros, slotCount);
+    inFlightValueMicros = sentValueMicros;
+    inFlightEventCounts = Arrays.copyOf(eventCounts, slotCount);
+    channel.invokeMethod(
+        FLUSH_METHOD,
+        aggregates,
+        new MethodChannel.Result() {
+          @Override
+          public void success(@Nullable Object result) {
+            onFlushDelivered(sentValueMicros);
+          }
+
+          @Override
+          public void error(
+              @NonNull String errorCode, @Nullable String errorMessage, @Nullable Object details) {
+            onFlushFailed(sentValueMicros);
+          }
+
+          @Override
+          public void notImplemented() {
+            onFlushFailed(sentValueMicros);
+          }
+        });
+  }
+
+  /**
+   * Stops sending sums and recording paid events if {@code channel}, whose engine is going away, is
+   * in use. What is owed stays in the ledger, including a flush the engine never answered.
+   */
+  void stop(@NonNull MethodChannel channel) {
+    if (channel != this.channel) {
+      return;
+    }
+    this.channel = null;
+    flushIntervalMillis = 0;
+    inFlightValueMicros = null;
+    inFlightEventCounts = null;
+    mainHandler.removeCallbacks(scheduledFlush);
+    isFlushScheduled = false;
+  }
+
+  /** Called when Dart acknowledged the flush that sent {@code sentValueMicros}. */
+  private void onFlushDelivered(@NonNull long[] sentValueMicros) {
+    if (inFlightValueMicros != sentValueMicros) {
+      // The flush was given up on when its engine went away, so its revenue is sent again.
+      return;
+    }
+    final long[] deliveredValueMicros = inFlightValueMicros;
+    final int[] deliveredEventCounts = inFlightEventCounts;
+    inFlightValueMicros = null;
+    inFlightEventCounts = null;
+    if (deliveredEventCounts == null) {
+      return;
+    }
+    final List<RevenueLedger.Entry> owed = new ArrayList<>();
+    for (int slot = 0; slot < slotCount; slot++) {
+      if (slot < deliveredValueMicros.length) {
+        valueMicros[slot] -= deliveredValueMicros[slot];
+        eventCounts[slot] -= deliveredEventCounts[slot];
+      }
+      if (eventCounts[slot] > 0) {
+        owed.add(
+            new RevenueLedger.Entry(
+                keys[slot].adUnitId,
+                keys[slot].currencyCode,
+                keys[slot].precision,
+                valueMicros[slot],
+                eventCounts[slot]));
+      }
+    }
+    // Queued behind the appends of every event summed so far, so none of them are lost.
+    ledgerExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            ledger.rewrite(owed);
+          }
+        });
+    scheduleFlush();
+  }
+
+  private void onFlushFailed(@NonNull long[] sentValueMicros) {
+    if (inFlightValueMicros != sentValueMicros) {
+      return;
+    }
+    inFlightValueMicros = null;
+    inFlightEventCounts = null;
+    scheduleFlush();
+  }
+
+  private void add(@NonNull RevenueLedger.Entry entry) {
+    final Key key = new Key(entry.adUnitId, entry.currencyCode, entry.precision);
+    Integer slot = slots.get(key);
+    if (slot == null) {
+      if (slotCount == keys.length) {
+        keys = Arrays.copyOf(keys, slotCount * 2);
+        valueMicros = Arrays.copyOf(valueMicros, slotCount * 2);
+        eventCounts = Arrays.copyOf(eventCounts, slotCount * 2);
+      }
+      slot = slotCount++;
+      keys[slot] = key;
+      slots.put(key, slot);
+    }
+    valueMicros[slot] += entry.valueMicros;
+    eventCounts[slot] += entry.eventCount;
+  }
+
+  private boolean hasPendingRevenue() {
+    for (int slot = 0; slot < slotCount; slot++) {
+      if (eventCounts[slot] > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void scheduleFlush() {
+    if (flushIntervalMillis > 0 && !isFlushScheduled && hasPendingRevenue()) {
+      isFlushScheduled = true;
+      mainHandler.postDelayed(scheduledFlush, flushIntervalMillis);
+    }
+  }
+}
@@ -0,0 +1,206 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * An append only file of the revenue that has not been delivered to Dart yet.
+ *
+ * <p>Each record is written with a single {@code write} call as its length, its fields and a CRC32
+ * of the fields. A record cut short by the process dying, or one that fails its checksum, ends the
+ * ledger: {@link #recover} keeps the records before it and rewrites the file without it. Rewrites
+ * go to a temporary file that is synced and then renamed over the ledger, so the ledger is never
+ * left half written. Appends are not synced, as the data only has to survive the process dying.
+ *
+ * <p>I/O errors are logged and otherwise ignored, so a broken ledger only loses durability. Must
+ * only be used from one background thread.
+ */
+final class RevenueLedger {
+  private static final String TAG = "RevenueLedger";
+
+  /** Revenue summed for an ad unit, currency and precision. */
+  static final class Entry {
+    @NonNull final String adUnitId;
+    @NonNull final String currencyCode;
+    final int precision;
+    final long valueMicros;
+    final int eventCount;
+
+    Entry(
+        @NonNull String adUnitId,
+        @NonNull String currencyCode,
+        int precision,
+        long valueMicros,
+        int eventCount) {
+      this.adUnitId = adUnitId;
+      this.currencyCode = currencyCode;
+      this.precision = precision;
+      this.valueMicros = valueMicros;
+      this.eventCount = eventCount;
+    }
+  }
+
+  @NonNull private final File file;
+
+  RevenueLedger(@NonNull File file) {
+    this.file = file;
+  }
+
+  /** Adds {@code entry} to the end of the ledger. */
+  void append(@NonNull Entry entry) {
+    FileOutputStream stream = null;
+    try {
+      stream = new FileOutputStream(file, true);
+      stream.write(encode(entry));
+    } catch (IOException e) {
+      Log.w(TAG, "Failed to append to the revenue ledger: " + e.getMessage());
+    } finally {
+      close(stream);
+    }
+  }
+
+  /** Returns the valid records of the ledger and drops anything after the last of them. */
+  @NonNull
+  List<Entry> recover() {
+    final List<Entry> entries = new ArrayList<>();
+    if (!file.exists()) {
+      return entries;
+    }
+    boolean isTruncated = false;
+    DataInputStream stream = null;
+    try {
+      stream = new DataInputStream(new FileInputStream(file));
+      while (true) {
+        final int length;
+        try {
+          length = stream.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        final Entry entry = decode(stream, length);
+        if (entry == null) {
+          isTruncated = true;
+          break;
+        }
+        entries.add(entry);
+      }
+    } catch (IOException e) {
+      isTruncated = true;
+    } finally {
+      close(stream);
+    }
+    if (isTruncated) {
+      Log.w(TAG, "Dropped a damaged record from the end of the revenue ledger.");
+      rewrite(entries);
+    }
+    return entries;
+  }
+
+  /** Replaces the content of the ledger with {@code entries}. */
+  void rewrite(@NonNull List<Entry> entries) {
+    final File temporaryFile = new File(file.getPath() + ".tmp");
+    FileOutputStream stream = null;
+    try {
+      stream = new FileOutputStream(temporaryFile);
+      final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      for (Entry entry : entries) {
+        buffer.write(encode(entry));
+      }
+      stream.write(buffer.toByteArray());
+      stream.getFD().sync();
+      stream.close();
+      stream = null;
+      if (!temporaryFile.renameTo(file)) {
+        throw new IOException("Rename failed.");
+      }
+    } catch (IOException e) {
+      Log.w(TAG, "Failed to rewrite the revenue ledger: " + e.getMessage());
+    } finally {
+      close(stream);
+    }
+  }
+
+  @NonNull
+  private static byte[] encode(@NonNull Entry entry) throws IOException {
+    final ByteArrayOutputStream fields = new ByteArrayOutputStream();
+    final DataOutputStream fieldStream = new DataOutputStream(fields);
+    fieldStream.writeUTF(entry.adUnitId);
+    fieldStream.writeUTF(entry.currencyCode);
+    fieldStream.writeInt(entry.precision);
+    fieldStream.writeLong(entry.valueMicros);
+    fieldStream.writeInt(entry.eventCount);
+    final byte[] fieldBytes = fields.toByteArray();
+
+    final CRC32 crc = new CRC32();
+    crc.update(fieldBytes);
+    final ByteArrayOutputStream record = new ByteArrayOutputStream(fieldBytes.length + 12);
+    final DataOutputStream recordStream = new DataOutputStream(record);
+    recordStream.writeInt(fieldBytes.length);
+    recordStream.write(fieldBytes);
+    recordStream.writeLong(crc.getValue());
+    return record.toByteArray();
+  }
+
+  /** Reads the record after its length, or returns null if it is cut short or damaged. */
+  @Nullable
+  private static Entry decode(@NonNull DataInputStream stream, int length) throws IOException {
+    if (length <= 0 || length > stream.available()) {
+      return null;
+    }
+    final byte[] fieldBytes = new byte[length];
+    stream.readFully(fieldBytes);
+    final long expectedCrc;
+    try {
+      expectedCrc = stream.readLong();
+    } catch (EOFException e) {
+      return null;
+    }
+    final CRC32 crc = new CRC32();
+    crc.update(fieldBytes);
+    if (crc.getValue() != expectedCrc) {
+      return null;
+    }
+    final DataInputStream fields = new DataInputStream(new ByteArrayInputStream(fieldBytes));
+    return new Entry(
+        fields.readUTF(), fields.readUTF(), fields.readInt(), fields.readLong(), fields.readInt());
+  }
+
+  private static void close(@Nullable Closeable closeable) {
+    if (closeable == null) {
+      return;
+    }
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      // Nothing left to do with the stream.
+    }
+  }
+}
@@ -0,0 +1,65 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Assigns small indices to the strings {@link AdMessageCodec} sends to Dart, so a string already
+ * sent can be referenced by its index instead of being encoded again.
+ *
+ * <p>Dart keeps a matching table that is filled in from the definitions it receives. Messages must
+ * reach Dart in the order they are encoded, so that a definition is always read before the
+ * references to it. When the table is full, the least recently used string gives its index to the
+ * new one, and the definition of the new string replaces it on the Dart side. Must only be used
+ * from the thread that encodes events.
+ */
+final class StringTable {
+  @VisibleForTesting static final int MAX_ENTRIES = 256;
+  @VisibleForTesting static final int MAX_STRING_LENGTH = 128;
+
+  /** Returned by {@link #add} for strings that are sent as they are. */
+  static final int NO_INDEX = -1;
+
+  private final Map<String, Integer> indices = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true);
+
+  /** Returns the index Dart already has for {@code value}, or {@link #NO_INDEX}. */
+  int indexOf(@NonNull String value) {
+    final Integer index = indices.get(value);
+    return index == null ? NO_INDEX : index;
+  }
+
+  /**
+   * Assigns an index to {@code value}, which must not be in the table yet. Returns {@link
+   * #NO_INDEX} for strings too long to be worth keeping.
+   */
+  int add(@NonNull String value) {
+    if (value.length() > MAX_STRING_LENGTH) {
+      return NO_INDEX;
+    }
+    int index = indices.size();
+    if (index == MAX_ENTRIES) {
+      final Iterator<Integer> eldest = indices.values().iterator();
+      index = eldest.next();
+      eldest.remove();
+    }
+    indices.put(value, index);
+    return index;
+  }
+}
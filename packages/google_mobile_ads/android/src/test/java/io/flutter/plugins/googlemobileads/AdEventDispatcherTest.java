@@ -0,0 +1,324 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import android.os.Handler;
+import android.os.Looper;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodCodec;
+import io.flutter.plugin.common.StandardMethodCodec;
+import io.flutter.plugins.googlemobileads.FlutterAdEvent.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AdEventDispatcher}. */
+@RunWith(RobolectricTestRunner.class)
+public class AdEventDispatcherTest {
+  private static final String CHANNEL_NAME = "plugins.flutter.io/google_mobile_ads";
+
+  private BinaryMessenger mockMessenger;
+  private AdMessageCodec messageCodec;
+  private MethodCodec codec;
+  private List<Runnable> encoderTasks;
+  private List<MethodCall> sentCalls;
+  private List<Integer> sentSizes;
+  private AdEventDispatcher dispatcher;
+
+  @Before
+  public void setup() {
+    mockMessenger = mock(BinaryMessenger.class);
+    messageCodec = new AdMessageCodec(null);
+    messageCodec.registerOutgoingValueReaders();
+    codec = new StandardMethodCodec(messageCodec);
+    sentCalls = new ArrayList<>();
+    sentSizes = new ArrayList<>();
+    doAnswer(
+            new Answer() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                final ByteBuffer message = invocation.getArgument(1);
+                sentSizes.add(message.limit());
+                sentCalls.add(codec.decodeMethodCall((ByteBuffer) message.position(0)));
+                return null;
+              }
+            })
+        .when(mockMessenger)
+        .send(eq(CHANNEL_NAME), any(ByteBuffer.class), (BinaryMessenger.BinaryReply) isNull());
+    encoderTasks = new ArrayList<>();
+    final Executor encoder =
+        new Executor() {
+          @Override
+          public void execute(Runnable runnable) {
+            encoderTasks.add(runnable);
+          }
+        };
+    dispatcher =
+        new AdEventDispatcher(
+            mockMessenger,
+            CHANNEL_NAME,
+            messageCodec,
+            new Handler(Looper.getMainLooper()),
+            encoder);
+  }
+
+  @Test
+  public void dispatch_sendsEachEventWhenNotBatching() {
+    final FlutterAdEvent loaded = new FlutterAdEvent(1, Type.AD_LOADED, (Object) null);
+    final FlutterAdEvent impression = new FlutterAdEvent(1, Type.AD_IMPRESSION);
+
+    dispatcher.dispatch(loaded);
+    dispatcher.dispatch(impression);
+    runEncoderAndMainThread();
+
+    assertEquals(2, sentCalls.size());
+    assertEvent(sentCalls.get(0), loaded);
+    assertEvent(sentCalls.get(1), impression);
+  }
+
+  @Test
+  public void timelineRecorder_seesQueuedAndSentEvents() {
+    final AdTimelineRecorder mockRecorder = mock(AdTimelineRecorder.class);
+    dispatcher.setTimelineRecorder(mockRecorder);
+    final FlutterAdEvent loaded = new FlutterAdEvent(1, Type.AD_LOADED, (Object) null);
+
+    dispatcher.dispatch(loaded);
+
+    verify(mockRecorder).onEventQueued(loaded);
+    verify(mockRecorder, never()).onEventSent(loaded);
+
+    runEncoderAndMainThread();
+
+    verify(mockRecorder).onEventSent(loaded);
+  }
+
+  @Test
+  public void dispatch_encodesOffTheCallingThread() {
+    dispatcher.dispatch(new FlutterAdEvent(1, Type.AD_IMPRESSION));
+    Robolectric.flushForegroundThreadScheduler();
+
+    assertTrue(sentCalls.isEmpty());
+    assertEquals(1, encoderTasks.size());
+  }
+
+  @Test
+  public void dispatch_sendsQueuedEventsInOneCallWhenBatching() {
+    dispatcher.setBatchingEnabled(true);
+    final FlutterAdEvent first = new FlutterAdEvent(1, Type.AD_IMPRESSION);
+    final FlutterAdEvent second = new FlutterAdEvent(2, Type.AD_IMPRESSION);
+    final FlutterAdEvent third = new FlutterAdEvent(1, Type.AD_CLICKED);
+
+    dispatcher.dispatch(first);
+    dispatcher.dispatch(second);
+    dispatcher.dispatch(third);
+    dispatcher.flush();
+    runEncoderAndMainThread();
+
+    assertEquals(1, sentCalls.size());
+    assertBatch(sentCalls.get(0), first, second, third);
+  }
+
+  @Test
+  public void setBatchingEnabled_falseFlushesQueuedEvents() {
+    dispatcher.setBatchingEnabled(true);
+    final FlutterAdEvent queued = new FlutterAdEvent(1, Type.AD_IMPRESSION);
+    dispatcher.dispatch(queued);
+
+    dispatcher.setBatchingEnabled(false);
+    final FlutterAdEvent immediate = new FlutterAdEvent(1, Type.AD_CLICKED);
+    dispatcher.dispatch(immediate);
+    runEncoderAndMainThread();
+
+    assertEquals(2, sentCalls.size());
+    assertBatch(sentCalls.get(0), queued);
+    assertEvent(sentCalls.get(1), immediate);
+  }
+
+  @Test
+  public void dispatchCoalesced_sendsOnlyLatestEventPerKeyWhenNotBatching() {
+    final FlutterAdEvent stale = new FlutterAdEvent(1, Type.FLUID_AD_HEIGHT_CHANGED, 10);
+    final FlutterAdEvent otherAd = new FlutterAdEvent(2, Type.FLUID_AD_HEIGHT_CHANGED, 30);
+    final FlutterAdEvent latest = new FlutterAdEvent(1, Type.FLUID_AD_HEIGHT_CHANGED, 20);
+
+    dispatcher.dispatchCoalesced("1/onFluidAdHeightChanged", stale);
+    dispatcher.dispatchCoalesced("2/onFluidAdHeightChanged", otherAd);
+    dispatcher.dispatchCoalesced("1/onFluidAdHeightChanged", latest);
+    runEncoderAndMainThread();
+
+    assertEquals(2, sentCalls.size());
+    assertEvent(sentCalls.get(0), latest);
+    assertEvent(sentCalls.get(1), otherAd);
+
+    // Once sent, the next event with the same key is delivered again.
+    final FlutterAdEvent next = new FlutterAdEvent(1, Type.FLUID_AD_HEIGHT_CHANGED, 40);
+    dispatcher.dispatchCoalesced("1/onFluidAdHeightChanged", next);
+    runEncoderAndMainThread();
+
+    assertEquals(3, sentCalls.size());
+    assertEvent(sentCalls.get(2), next);
+  }
+
+  @Test
+  public void dispatchCoalesced_keepsQueuePositionWhenBatching() {
+    dispatcher.setBatchingEnabled(true);
+    final FlutterAdEvent stale = new FlutterAdEvent(1, Type.APP_EVENT, "color", "red");
+    final FlutterAdEvent impression = new FlutterAdEvent(2, Type.AD_IMPRESSION);
+    final FlutterAdEvent latest = new FlutterAdEvent(1, Type.APP_EVENT, "color", "blue");
+
+    dispatcher.dispatchCoalesced("1/onAppEvent/color", stale);
+    dispatcher.dispatch(impression);
+    dispatcher.dispatchCoalesced("1/onAppEvent/color", latest);
+    dispatcher.flush();
+    runEncoderAndMainThread();
+
+    assertEquals(1, sentCalls.size());
+    assertBatch(sentCalls.get(0), latest, impression);
+  }
+
+  @Test
+  public void dispatchUrgent_flushesBatchWithoutWaitingForFrame() {
+    dispatcher.setBatchingEnabled(true);
+    final FlutterAdEvent impression = new FlutterAdEvent(1, Type.AD_IMPRESSION);
+    final FlutterAdEvent paid = new FlutterAdEvent(1, Type.PAID_EVENT, 1200L, 2, "USD");
+
+    dispatcher.dispatch(impression);
+    dispatcher.dispatchUrgent(paid);
+    runEncoderAndMainThread();
+
+    assertEquals(1, sentCalls.size());
+    assertBatch(sentCalls.get(0), impression, paid);
+  }
+
+  @Test
+  public void dispatchUrgent_sendsOnlyEventsOfSameAdWithoutWaitingForFrame() {
+    dispatcher.setBatchingEnabled(true);
+    final FlutterAdEvent otherImpression = new FlutterAdEvent(2, Type.AD_IMPRESSION);
+    final FlutterAdEvent paid = new FlutterAdEvent(1, Type.PAID_EVENT, 1200L, 2, "USD");
+
+    dispatcher.dispatch(otherImpression);
+    dispatcher.dispatchUrgent(paid);
+    runEncoderAndMainThread();
+
+    assertEquals(1, sentCalls.size());
+    assertEvent(sentCalls.get(0), paid);
+
+    dispatcher.flush();
+    runEncoderAndMainThread();
+    assertBatch(sentCalls.get(1), otherImpression);
+  }
+
+  @Test
+  public void dispatchUrgent_keepsOrderOfEventsOfSameAd() {
+    final FlutterAdEvent loaded = new FlutterAdEvent(1, Type.AD_LOADED, (Object) null);
+    final FlutterAdEvent paid = new FlutterAdEvent(1, Type.PAID_EVENT, 1200L, 2, "USD");
+
+    dispatcher.dispatch(loaded);
+    dispatcher.dispatchUrgent(paid);
+    runEncoderAndMainThread();
+
+    assertEquals(2, sentCalls.size());
+    assertEvent(sentCalls.get(0), loaded);
+    assertEvent(sentCalls.get(1), paid);
+
+    // A batch already handed to the encoder is not overtaken either.
+    dispatcher.setBatchingEnabled(true);
+    final FlutterAdEvent shown = new FlutterAdEvent(1, Type.AD_SHOWED_FULL_SCREEN_CONTENT);
+    final FlutterAdEvent paidAfterShow = new FlutterAdEvent(1, Type.PAID_EVENT, 800L, 2, "USD");
+    dispatcher.dispatch(shown);
+    dispatcher.flush();
+    dispatcher.dispatchUrgent(paidAfterShow);
+    runEncoderAndMainThread();
+
+    assertEquals(4, sentCalls.size());
+    assertBatch(sentCalls.get(2), shown);
+    assertEvent(sentCalls.get(3), paidAfterShow);
+  }
+
+  @Test
+  public void stringTable_sendsRepeatedStringsByIndex() {
+    messageCodec.resetStringTable();
+    final FlutterAdEvent first = new FlutterAdEvent(1, Type.APP_EVENT, "app-event", "data");
+    final FlutterAdEvent second = new FlutterAdEvent(2, Type.APP_EVENT, "app-event", "data");
+
+    dispatcher.dispatch(first);
+    dispatcher.dispatch(second);
+    runEncoderAndMainThread();
+
+    assertEquals(2, sentCalls.size());
+    assertEvent(sentCalls.get(0), first);
+    assertEvent(sentCalls.get(1), second);
+    assertTrue(sentSizes.get(1) < sentSizes.get(0));
+  }
+
+  @Test
+  public void stringTable_isUsedByUrgentCalls() {
+    messageCodec.resetStringTable();
+    final FlutterAdEvent paid = new FlutterAdEvent(1, Type.PAID_EVENT, 1200L, 2, "USD");
+    final FlutterAdEvent urgentPaid = new FlutterAdEvent(2, Type.PAID_EVENT, 800L, 2, "USD");
+
+    dispatcher.dispatch(paid);
+    dispatcher.dispatchUrgent(urgentPaid);
+    runEncoderAndMainThread();
+
+    // Urgent calls are read in the order they are encoded, so they can refer to earlier strings.
+    assertEquals(2, sentCalls.size());
+    assertEvent(sentCalls.get(0), paid);
+    assertEvent(sentCalls.get(1), urgentPaid);
+    assertTrue(sentSizes.get(1) < sentSizes.get(0));
+  }
+
+  private void runEncoderAndMainThread() {
+    final List<Runnable> tasks = new ArrayList<>(encoderTasks);
+    encoderTasks.clear();
+    for (Runnable task : tasks) {
+      task.run();
+    }
+    Robolectric.flushForegroundThreadScheduler();
+  }
+
+  private static void assertEvent(MethodCall call, FlutterAdEvent event) {
+    assertEquals("onAdEvent", call.method);
+    assertEquals(event.toMap(), call.arguments);
+  }
+
+  private static void assertBatch(MethodCall call, FlutterAdEvent... events) {
+    assertEquals("onAdEvents", call.method);
+    final List<Map<Object, Object>> expected = new ArrayList<>();
+    for (FlutterAdEvent event : events) {
+      expected.add(event.toMap());
+    }
+    assertEquals(expected, call.arguments);
+  }
+}
@@ -0,0 +1,143 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import io.flutter.plugins.googlemobileads.FlutterAdEvent.Type;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AdEventJournal}. */
+@RunWith(RobolectricTestRunner.class)
+public class AdEventJournalTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+  private long currentTimeMillis;
+  private AdEventJournal.Clock clock;
+
+  @Before
+  public void setup() {
+    file = new File(folder.getRoot(), "journal");
+    currentTimeMillis = 1000;
+    clock =
+        new AdEventJournal.Clock() {
+          @Override
+          public long currentTimeMillis() {
+            return currentTimeMillis;
+          }
+        };
+  }
+
+  @Test
+  public void read_returnsWrittenEvents() {
+    assertTrue(AdEventJournal.read(file).isEmpty());
+    final AdEventJournal journal = AdEventJournal.open(file, clock);
+    assertNotNull(journal);
+
+    journal.write(new FlutterAdEvent(3, Type.AD_LOADED, (Object) null));
+    currentTimeMillis = 2000;
+    journal.write(new FlutterAdEvent(3, Type.PAID_EVENT, 1200L, 2, "USD"));
+    journal.write(new FlutterAdEvent(4, Type.FLUID_AD_HEIGHT_CHANGED, 250));
+
+    final List<Map<String, Object>> records = AdEventJournal.read(file);
+    assertEquals(3, records.size());
+    assertRecord(records.get(0), 1, 1000, 3, "onAdLoaded", null);
+    assertRecord(records.get(1), 2, 2000, 3, "onPaidEvent", 1200L);
+    assertRecord(records.get(2), 3, 2000, 4, "onFluidAdHeightChanged", 250L);
+  }
+
+  @Test
+  public void write_replacesOldestRecordsAndContinuesAfterReopening() {
+    AdEventJournal journal = AdEventJournal.open(file, clock);
+    assertNotNull(journal);
+    for (int i = 0; i < AdEventJournal.CAPACITY + 10; i++) {
+      journal.write(new FlutterAdEvent(i, Type.AD_IMPRESSION));
+    }
+
+    journal = AdEventJournal.open(file, clock);
+    assertNotNull(journal);
+    journal.write(new FlutterAdEvent(-1, Type.AD_CLICKED));
+
+    final List<Map<String, Object>> records = AdEventJournal.read(file);
+    assertEquals(AdEventJournal.CAPACITY, records.size());
+    assertRecord(records.get(0), 12, 1000, 11, "onAdImpression", null);
+    assertRecord(
+        records.get(AdEventJournal.CAPACITY - 1),
+        AdEventJournal.CAPACITY + 11,
+        1000,
+        -1,
+        "onAdClicked",
+        null);
+  }
+
+  @Test
+  public void read_skipsRecordsThatWereNotCompleted() throws IOException {
+    final AdEventJournal journal = AdEventJournal.open(file, clock);
+    assertNotNull(journal);
+    journal.write(new FlutterAdEvent(1, Type.AD_OPENED));
+    journal.write(new FlutterAdEvent(1, Type.AD_CLOSED));
+
+    // Clear the sequence number of the second record, as if the process died while writing it.
+    final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    randomAccessFile.seek(AdEventJournal.HEADER_SIZE + AdEventJournal.RECORD_SIZE);
+    randomAccessFile.writeLong(0);
+    randomAccessFile.close();
+
+    final List<Map<String, Object>> records = AdEventJournal.read(file);
+    assertEquals(1, records.size());
+    assertRecord(records.get(0), 1, 1000, 1, "onAdOpened", null);
+  }
+
+  @Test
+  public void open_resetsFileWithUnknownFormat() throws IOException {
+    final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    randomAccessFile.writeLong(42);
+    randomAccessFile.close();
+
+    final AdEventJournal journal = AdEventJournal.open(file, clock);
+    assertNotNull(journal);
+    assertTrue(AdEventJournal.read(file).isEmpty());
+
+    journal.write(new FlutterAdEvent(1, Type.AD_IMPRESSION));
+    assertRecord(AdEventJournal.read(file).get(0), 1, 1000, 1, "onAdImpression", null);
+  }
+
+  private static void assertRecord(
+      Map<String, Object> record,
+      long sequence,
+      long timeMillis,
+      int adId,
+      String eventName,
+      Long value) {
+    assertEquals(sequence, record.get("sequence"));
+    assertEquals(timeMillis, record.get("timeMillis"));
+    assertEquals(adId, record.get("adId"));
+    assertEquals(eventName, record.get("eventName"));
+    assertEquals(value, record.get("value"));
+  }
+}
@@ -0,0 +1,132 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.gms.ads.AdRequest;
+import io.flutter.plugins.googlemobileads.AdLoadCircuitBreaker.State;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AdLoadCircuitBreaker}. */
+@RunWith(RobolectricTestRunner.class)
+public class AdLoadCircuitBreakerTest {
+  private static final String AD_UNIT_ID = "test-ad-unit";
+  private static final FlutterLoadAdError NO_FILL =
+      new FlutterLoadAdError(
+          AdRequest.ERROR_CODE_NO_FILL, "com.google.android.gms.ads", "No fill.", null);
+  private static final FlutterLoadAdError NETWORK_ERROR =
+      new FlutterLoadAdError(
+          AdRequest.ERROR_CODE_NETWORK_ERROR, "com.google.android.gms.ads", "Network.", null);
+
+  private long now;
+  private AdLoadCircuitBreaker breaker;
+
+  @Before
+  public void setup() {
+    now = 0;
+    breaker =
+        new AdLoadCircuitBreaker(
+            new AdLoadCircuitBreaker.Clock() {
+              @Override
+              public long elapsedRealtime() {
+                return now;
+              }
+            });
+  }
+
+  private void failRepeatedly(int count) {
+    for (int i = 0; i < count; i++) {
+      breaker.onLoadFailed(AD_UNIT_ID, NO_FILL);
+    }
+  }
+
+  @Test
+  public void opensAfterRepeatedNoFills() {
+    failRepeatedly(AdLoadCircuitBreaker.FAILURE_THRESHOLD - 1);
+    assertTrue(breaker.allowLoad(AD_UNIT_ID));
+
+    breaker.onLoadFailed(AD_UNIT_ID, NO_FILL);
+
+    assertFalse(breaker.allowLoad(AD_UNIT_ID));
+    assertTrue(breaker.allowLoad("other-ad-unit"));
+    final Map<String, Object> state = breaker.getState(AD_UNIT_ID);
+    assertEquals(State.OPEN.ordinal(), state.get("state"));
+    assertEquals(AdLoadCircuitBreaker.FAILURE_THRESHOLD, state.get("consecutiveFailures"));
+    assertEquals(AdLoadCircuitBreaker.INITIAL_BACKOFF_MILLIS, state.get("retryAfterMillis"));
+    assertEquals(
+        FlutterLoadAdError.ERROR_CODE_CIRCUIT_OPEN, breaker.getCircuitOpenError(AD_UNIT_ID).code);
+  }
+
+  @Test
+  public void otherErrorsAndSuccessDoNotOpen() {
+    failRepeatedly(AdLoadCircuitBreaker.FAILURE_THRESHOLD - 1);
+    breaker.onLoadFailed(AD_UNIT_ID, NETWORK_ERROR);
+    breaker.onLoadSucceeded(AD_UNIT_ID);
+    failRepeatedly(AdLoadCircuitBreaker.FAILURE_THRESHOLD - 1);
+
+    assertTrue(breaker.allowLoad(AD_UNIT_ID));
+  }
+
+  @Test
+  public void letsOneProbeThroughAfterBackoff() {
+    failRepeatedly(AdLoadCircuitBreaker.FAILURE_THRESHOLD);
+    now = AdLoadCircuitBreaker.INITIAL_BACKOFF_MILLIS;
+
+    assertEquals(State.HALF_OPEN.ordinal(), breaker.getState(AD_UNIT_ID).get("state"));
+    assertTrue(breaker.allowLoad(AD_UNIT_ID));
+    assertFalse(breaker.allowLoad(AD_UNIT_ID));
+
+    breaker.onLoadSucceeded(AD_UNIT_ID);
+
+    assertTrue(breaker.allowLoad(AD_UNIT_ID));
+    assertEquals(State.CLOSED.ordinal(), breaker.getState(AD_UNIT_ID).get("state"));
+  }
+
+  @Test
+  public void failedProbeDoublesBackoff() {
+    failRepeatedly(AdLoadCircuitBreaker.FAILURE_THRESHOLD);
+    now = AdLoadCircuitBreaker.INITIAL_BACKOFF_MILLIS;
+    breaker.allowLoad(AD_UNIT_ID);
+
+    breaker.onLoadFailed(AD_UNIT_ID, NO_FILL);
+
+    assertEquals(
+        2 * AdLoadCircuitBreaker.INITIAL_BACKOFF_MILLIS,
+        breaker.getState(AD_UNIT_ID).get("retryAfterMillis"));
+    now += 2 * AdLoadCircuitBreaker.INITIAL_BACKOFF_MILLIS - 1;
+    assertFalse(breaker.allowLoad(AD_UNIT_ID));
+    now += 1;
+    assertTrue(breaker.allowLoad(AD_UNIT_ID));
+  }
+
+  @Test
+  public void cancelledProbeLetsAnotherLoadProbe() {
+    failRepeatedly(AdLoadCircuitBreaker.FAILURE_THRESHOLD);
+    now = AdLoadCircuitBreaker.INITIAL_BACKOFF_MILLIS;
+    breaker.allowLoad(AD_UNIT_ID);
+
+    breaker.onLoadCancelled(AD_UNIT_ID);
+
+    assertTrue(breaker.allowLoad(AD_UNIT_ID));
+  }
+}
@@ -0,0 +1,291 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.os.Handler;
+import io.flutter.plugins.googlemobileads.AdLoadScheduler.Priority;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AdLoadScheduler}. */
+@RunWith(RobolectricTestRunner.class)
+public class AdLoadSchedulerTest {
+  private static final int MAX_IN_FLIGHT = 4;
+  private static final int MAX_IN_FLIGHT_PER_AD_UNIT = 2;
+
+  private AdLoadScheduler scheduler;
+
+  @Before
+  public void setup() {
+    scheduler = new AdLoadScheduler();
+    scheduler.setMaxInFlight(MAX_IN_FLIGHT, MAX_IN_FLIGHT_PER_AD_UNIT);
+  }
+
+  /** Schedules loads for ad ids {@code 0..count - 1}, each on its own ad unit. */
+  private FlutterAd[] fillInFlight(int count) {
+    final FlutterAd[] ads = new FlutterAd[count];
+    for (int i = 0; i < count; i++) {
+      ads[i] = mock(FlutterAd.class);
+      scheduler.schedule(i, "unit-" + i, Priority.VISIBLE, ads[i]);
+    }
+    return ads;
+  }
+
+  @Test
+  public void schedule_startsLoadsUpToGlobalLimit() {
+    final FlutterAd[] ads = fillInFlight(MAX_IN_FLIGHT);
+    final FlutterAd queued = mock(FlutterAd.class);
+    scheduler.schedule(100, "other-unit", Priority.VISIBLE, queued);
+
+    for (FlutterAd ad : ads) {
+      verify(ad).load();
+    }
+    verify(queued, never()).load();
+    assertEquals(1, scheduler.getQueuedCount());
+
+    scheduler.onLoadFinished(0);
+
+    verify(queued).load();
+    assertEquals(MAX_IN_FLIGHT, scheduler.getInFlightCount());
+  }
+
+  @Test
+  public void schedule_limitsLoadsPerAdUnit() {
+    for (int i = 0; i < MAX_IN_FLIGHT_PER_AD_UNIT; i++) {
+      scheduler.schedule(i, "unit", Priority.VISIBLE, mock(FlutterAd.class));
+    }
+    final FlutterAd sameUnit = mock(FlutterAd.class);
+    final FlutterAd otherUnit = mock(FlutterAd.class);
+    scheduler.schedule(10, "unit", Priority.VISIBLE, sameUnit);
+    scheduler.schedule(11, "other-unit", Priority.PREFETCH, otherUnit);
+
+    verify(sameUnit, never()).load();
+    verify(otherUnit).load();
+
+    scheduler.onLoadFinished(0);
+    verify(sameUnit).load();
+  }
+
+  @Test
+  public void noLimits_startsEveryLoad() {
+    scheduler = new AdLoadScheduler();
+    final FlutterAd[] ads = fillInFlight(MAX_IN_FLIGHT + 1);
+    final FlutterAd sameUnit = mock(FlutterAd.class);
+    scheduler.schedule(10, "unit-0", Priority.VISIBLE, sameUnit);
+    scheduler.schedule(11, "unit-0", Priority.VISIBLE, mock(FlutterAd.class));
+
+    for (FlutterAd ad : ads) {
+      verify(ad).load();
+    }
+    verify(sameUnit).load();
+    assertEquals(0, scheduler.getQueuedCount());
+  }
+
+  @Test
+  public void setMaxInFlight_startsQueuedLoadsWhenRaised() {
+    fillInFlight(MAX_IN_FLIGHT);
+    final FlutterAd queued = mock(FlutterAd.class);
+    scheduler.schedule(10, "other-unit", Priority.VISIBLE, queued);
+    verify(queued, never()).load();
+
+    scheduler.setMaxInFlight(0, 0);
+
+    verify(queued).load();
+    assertEquals(0, scheduler.getQueuedCount());
+  }
+
+  @Test
+  public void fullScreenAds_areNotLimited() {
+    fillInFlight(MAX_IN_FLIGHT);
+    final FlutterAd interstitial = mock(FlutterAd.FlutterOverlayAd.class);
+    scheduler.schedule(10, "unit-0", Priority.PREFETCH, interstitial);
+
+    verify(interstitial).load();
+
+    final FlutterAd banner = mock(FlutterAd.class);
+    scheduler.schedule(11, "other-unit", Priority.VISIBLE, banner);
+    scheduler.onLoadFinished(10);
+    verify(banner, never()).load();
+    scheduler.onLoadFinished(0);
+    verify(banner).load();
+  }
+
+  @Test
+  public void queuedLoads_startByPriority() {
+    fillInFlight(MAX_IN_FLIGHT);
+    final FlutterAd prefetch = mock(FlutterAd.class);
+    final FlutterAd nearVisible = mock(FlutterAd.class);
+    final FlutterAd visible = mock(FlutterAd.class);
+    scheduler.schedule(10, "a", Priority.PREFETCH, prefetch);
+    scheduler.schedule(11, "b", Priority.NEAR_VISIBLE, nearVisible);
+    scheduler.schedule(12, "c", Priority.VISIBLE, visible);
+
+    scheduler.onLoadFinished(0);
+    verify(visible).load();
+    verify(nearVisible, never()).load();
+
+    scheduler.setPriority(10, Priority.VISIBLE);
+    scheduler.onLoadFinished(1);
+    verify(prefetch).load();
+    verify(nearVisible, never()).load();
+  }
+
+  @Test
+  public void cancel_dropsQueuedLoadAndFreesStartedOne() {
+    fillInFlight(MAX_IN_FLIGHT);
+    final FlutterAd disposed = mock(FlutterAd.class);
+    final FlutterAd next = mock(FlutterAd.class);
+    scheduler.schedule(10, "a", Priority.VISIBLE, disposed);
+    scheduler.schedule(11, "b", Priority.VISIBLE, next);
+
+    scheduler.cancel(10);
+    scheduler.cancel(0);
+
+    verify(disposed, never()).load();
+    verify(next).load();
+    assertEquals(0, scheduler.getQueuedCount());
+  }
+
+  @Test
+  public void onLoadFinished_ignoresAdsNotInFlight() {
+    fillInFlight(MAX_IN_FLIGHT);
+    scheduler.onLoadFinished(0);
+    scheduler.onLoadFinished(0);
+    scheduler.onLoadFinished(42);
+
+    assertEquals(MAX_IN_FLIGHT - 1, scheduler.getInFlightCount());
+  }
+
+  @Test
+  public void synchronousLoad_startsNextLoad() {
+    final FlutterAd[] ads = fillInFlight(MAX_IN_FLIGHT - 1);
+    final FlutterAd synchronous = mock(FlutterAd.class);
+    doAnswer(
+            new Answer() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                scheduler.onLoadFinished(50);
+                return null;
+              }
+            })
+        .when(synchronous)
+        .load();
+    final FlutterAd next = mock(FlutterAd.class);
+
+    scheduler.schedule(50, "sync-unit", Priority.VISIBLE, synchronous);
+    scheduler.schedule(51, "next-unit", Priority.VISIBLE, next);
+
+    verify(next).load();
+    assertEquals(ads.length + 1, scheduler.getInFlightCount());
+  }
+
+  @Test
+  public void gate_dropsLoadsItRejects() {
+    scheduler =
+        new AdLoadScheduler(
+            new AdLoadScheduler.Delegate() {
+              @Override
+              public boolean allowLoad(int adId, String adUnitId) {
+                return !adUnitId.equals("blocked-unit");
+              }
+
+              @Override
+              public void onLoadTimedOut(int adId, String adUnitId) {}
+            });
+    final FlutterAd blocked = mock(FlutterAd.class);
+    final FlutterAd allowed = mock(FlutterAd.class);
+
+    scheduler.schedule(0, "blocked-unit", Priority.VISIBLE, blocked);
+    scheduler.schedule(1, "unit", Priority.VISIBLE, allowed);
+
+    verify(blocked, never()).load();
+    verify(allowed).load();
+    assertEquals(1, scheduler.getInFlightCount());
+    assertEquals(0, scheduler.getQueuedCount());
+  }
+
+  @Test
+  public void deadline_timesOutLoadAndStartsNext() {
+    final Handler mockHandler = mock(Handler.class);
+    final AdLoadScheduler.Delegate mockDelegate = mock(AdLoadScheduler.Delegate.class);
+    doReturn(true).when(mockDelegate).allowLoad(anyInt(), anyString());
+    scheduler = new AdLoadScheduler(mockDelegate, mockHandler);
+    scheduler.setMaxInFlight(MAX_IN_FLIGHT, MAX_IN_FLIGHT_PER_AD_UNIT);
+    scheduler.setLoadTimeoutMillis(1000);
+    fillInFlight(MAX_IN_FLIGHT);
+    final FlutterAd queued = mock(FlutterAd.class);
+    scheduler.schedule(10, "other-unit", Priority.VISIBLE, queued);
+
+    final ArgumentCaptor<Runnable> deadlines = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler, times(MAX_IN_FLIGHT))
+        .postDelayed(deadlines.capture(), eq(1000L));
+    deadlines.getAllValues().get(0).run();
+
+    verify(mockDelegate).onLoadTimedOut(0, "unit-0");
+    verify(queued).load();
+    assertNull(scheduler.getInFlightAdUnitId(0));
+  }
+
+  @Test
+  public void deadline_isRemovedWhenLoadFinishes() {
+    final Handler mockHandler = mock(Handler.class);
+    final AdLoadScheduler.Delegate mockDelegate = mock(AdLoadScheduler.Delegate.class);
+    doReturn(true).when(mockDelegate).allowLoad(anyInt(), anyString());
+    scheduler = new AdLoadScheduler(mockDelegate, mockHandler);
+    scheduler.setLoadTimeoutMillis(1000);
+    fillInFlight(2);
+
+    final ArgumentCaptor<Runnable> deadlines = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler, times(2)).postDelayed(deadlines.capture(), anyLong());
+    scheduler.onLoadFinished(0);
+    scheduler.cancel(1);
+
+    verify(mockHandler).removeCallbacks(deadlines.getAllValues().get(0));
+    verify(mockHandler).removeCallbacks(deadlines.getAllValues().get(1));
+    verify(mockDelegate, never()).onLoadTimedOut(anyInt(), anyString());
+  }
+
+  @Test
+  public void noTimeout_postsNoDeadline() {
+    final Handler mockHandler = mock(Handler.class);
+    final AdLoadScheduler.Delegate mockDelegate = mock(AdLoadScheduler.Delegate.class);
+    doReturn(true).when(mockDelegate).allowLoad(anyInt(), anyString());
+    scheduler = new AdLoadScheduler(mockDelegate, mockHandler);
+    final FlutterAd ad = mock(FlutterAd.class);
+    scheduler.schedule(0, "unit", Priority.VISIBLE, ad);
+
+    verify(ad).load();
+    verify(mockHandler, never()).postDelayed(any(Runnable.class), anyLong());
+  }
+}
@@ -28,6 +28,8 @@ import static org.mockito.Mockito.mock;
 import android.content.Context;
 import com.google.android.gms.ads.AdSize;
 import com.google.android.gms.ads.RequestConfiguration;
+import io.flutter.plugin.common.StandardMessageCodec;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterAdError;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterAdapterResponseInfo;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterResponseInfo;
 import io.flutter.plugins.googlemobileads.FlutterAdSize.AdSizeFactory;
@@ -54,6 +56,7 @@ public class AdMessageCodecTest {
   public void setup() {
     mockAdSizeFactory = mock(AdSizeFactory.class);
     codec = new AdMessageCodec(mock(Context.class), mockAdSizeFactory);
+    codec.registerOutgoingValueReaders();
   }
 
   @Test
@@ -379,4 +382,98 @@ public class AdMessageCodecTest {
         RequestConfiguration.TAG_FOR_UNDER_AGE_OF_CONSENT_FALSE);
     assertEquals(result.getTestDeviceIds(), Arrays.asList("test-device-id"));
   }
+
+  @Test
+  public void encodeSubclassesAndStandardValuesTogether() {
+    // An unregistered subclass is written by the writer of its nearest registered superclass.
+    final FlutterAdError subclassedError = new FlutterAdError(1, "domain", "message") {};
+    final List<Object> values =
+        Arrays.asList(
+            subclassedError,
+            "text",
+            7,
+            Collections.singletonMap("key", new FlutterAdError(2, "domain", "message")),
+            null);
+
+    final ByteBuffer data = codec.encodeMessage(values);
+    final List<?> result = (List<?>) codec.decodeMessage((ByteBuffer) data.position(0));
+
+    assertEquals(values, result);
+    assertEquals(FlutterAdError.class, result.get(0).getClass());
+  }
+
+  @Test
+  public void encodeAdEvent() {
+    final FlutterAdEvent event =
+        new FlutterAdEvent(3, FlutterAdEvent.Type.PAID_EVENT, 1200L, 2, "USD");
+
+    final ByteBuffer data = codec.encodeMessage(event);
+
+    assertEquals(codec.decodeMessage((ByteBuffer) data.position(0)), event.toMap());
+  }
+
+  @Test
+  public void encodeAdEventWithNullArgument() {
+    final FlutterResponseInfo responseInfo = null;
+    final FlutterAdEvent event = new FlutterAdEvent(0, FlutterAdEvent.Type.AD_LOADED, responseInfo);
+
+    final ByteBuffer data = codec.encodeMessage(event);
+
+    assertEquals(codec.decodeMessage((ByteBuffer) data.position(0)), event.toMap());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void decodeAdEvent_isUnknownWithoutOutgoingValueReaders() {
+    final FlutterAdEvent event = new FlutterAdEvent(0, FlutterAdEvent.Type.AD_IMPRESSION);
+    final ByteBuffer data = codec.encodeMessage(event);
+
+    new AdMessageCodec(mock(Context.class), mockAdSizeFactory)
+        .decodeMessage((ByteBuffer) data.position(0));
+  }
+
+  @Test
+  public void stringTable_reusesIndicesOfLeastRecentlyUsedStrings() {
+    codec.resetStringTable();
+    codec.setUsesStringTable(true);
+    final List<ByteBuffer> messages = new ArrayList<>();
+    final List<String> sent = new ArrayList<>();
+    for (int i = 0; i <= StringTable.MAX_ENTRIES; i++) {
+      sent.add("string-" + i);
+    }
+    // Evicted by the last string, so it is defined again.
+    sent.add("string-0");
+    sent.add("string-" + StringTable.MAX_ENTRIES);
+    final char[] longChars = new char[StringTable.MAX_STRING_LENGTH + 1];
+    Arrays.fill(longChars, 'a');
+    sent.add(new String(longChars));
+    for (String value : sent) {
+      messages.add(codec.encodeMessage(value));
+    }
+    codec.setUsesStringTable(false);
+
+    assertEquals(2, messages.get(sent.size() - 2).limit());
+    for (int i = 0; i < sent.size(); i++) {
+      assertEquals(sent.get(i), codec.decodeMessage((ByteBuffer) messages.get(i).position(0)));
+    }
+  }
+
+  @Test
+  public void stringTable_isOnlyUsedWhenEnabled() {
+    codec.setUsesStringTable(true);
+    final ByteBuffer beforeReset = codec.encodeMessage("domain");
+    codec.resetStringTable();
+    codec.setUsesStringTable(false);
+    final ByteBuffer notUsed = codec.encodeMessage("domain");
+
+    final ByteBuffer plain = new StandardMessageCodec().encodeMessage("domain");
+    assertEquals(plain.position(0), beforeReset.position(0));
+    assertEquals(plain.position(0), notUsed.position(0));
+  }
+
+  @Test
+  public void adEventTypeCodesRoundTrip() {
+    for (FlutterAdEvent.Type type : FlutterAdEvent.Type.values()) {
+      assertEquals(type, FlutterAdEvent.Type.forCode(type.code));
+    }
+  }
 }
@@ -0,0 +1,118 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AdRegistry}. */
+@RunWith(RobolectricTestRunner.class)
+public class AdRegistryTest {
+
+  private AdRegistry registry;
+
+  @Before
+  public void setup() {
+    registry = new AdRegistry();
+  }
+
+  @Test
+  public void addAndLookUpInBothDirections() {
+    final FlutterAd ad = mock(FlutterAd.class);
+
+    assertTrue(registry.add(3, ad));
+
+    assertSame(ad, registry.get(3));
+    assertEquals(Integer.valueOf(3), registry.idFor(ad));
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  public void addRejectsDuplicateIds() {
+    final FlutterAd first = mock(FlutterAd.class);
+    final FlutterAd second = mock(FlutterAd.class);
+
+    assertTrue(registry.add(1, first));
+    assertFalse(registry.add(1, second));
+
+    assertSame(first, registry.get(1));
+    assertNull(registry.idFor(second));
+  }
+
+  @Test
+  public void removeClearsBothDirections() {
+    final FlutterAd ad = mock(FlutterAd.class);
+    registry.add(7, ad);
+
+    assertSame(ad, registry.remove(7));
+
+    assertNull(registry.get(7));
+    assertNull(registry.idFor(ad));
+    assertNull(registry.remove(7));
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  public void growsAndKeepsEntriesReachableAfterRemovals() {
+    final List<FlutterAd> ads = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      final FlutterAd ad = mock(FlutterAd.class);
+      ads.add(ad);
+      assertTrue(registry.add(i, ad));
+    }
+    for (int i = 0; i < 500; i += 2) {
+      assertSame(ads.get(i), registry.remove(i));
+    }
+
+    assertEquals(250, registry.size());
+    for (int i = 0; i < 500; i++) {
+      if (i % 2 == 0) {
+        assertNull(registry.get(i));
+        assertNull(registry.idFor(ads.get(i)));
+      } else {
+        assertSame(ads.get(i), registry.get(i));
+        assertEquals(Integer.valueOf(i), registry.idFor(ads.get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void clearReturnsTrackedAds() {
+    final FlutterAd first = mock(FlutterAd.class);
+    final FlutterAd second = mock(FlutterAd.class);
+    registry.add(0, first);
+    registry.add(1, second);
+
+    final List<FlutterAd> removed = registry.clear();
+
+    assertEquals(2, removed.size());
+    assertTrue(removed.contains(first));
+    assertTrue(removed.contains(second));
+    assertNull(registry.get(0));
+    assertNull(registry.idFor(second));
+    assertEquals(0, registry.size());
+  }
+}
@@ -0,0 +1,89 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.flutter.plugins.googlemobileads.AdTimelineRecorder.Stage;
+import io.flutter.plugins.googlemobileads.AdTimelineRecorder.Step;
+import io.flutter.plugins.googlemobileads.FlutterAdEvent.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AdTimelineRecorder}. */
+@RunWith(RobolectricTestRunner.class)
+public class AdTimelineRecorderTest {
+  private long now;
+  private AdTimelineRecorder recorder;
+
+  @Before
+  public void setup() {
+    now = 100;
+    recorder =
+        new AdTimelineRecorder(
+            new AdTimelineRecorder.Clock() {
+              @Override
+              public long elapsedRealtimeNanos() {
+                return now++;
+              }
+            });
+  }
+
+  @Test
+  public void recordsEachStepOfLoad() {
+    recorder.start(1);
+    recorder.mark(1, Stage.LOAD, Step.REQUEST_BUILT);
+    recorder.mark(1, Stage.LOAD, Step.SDK_STARTED);
+    recorder.mark(1, Stage.LOAD, Step.SDK_CALLBACK);
+    final FlutterAdEvent loaded = new FlutterAdEvent(1, Type.AD_LOADED, (Object) null);
+    recorder.onEventQueued(loaded);
+    recorder.onEventSent(loaded);
+
+    final Map<String, Object> timeline = recorder.getTimeline(1);
+    assertEquals(Arrays.asList(100L, 101L, 102L, 103L, 104L, 105L), timeline.get("load"));
+    assertEquals(
+        Arrays.asList(null, null, null, null, null, null), (List<?>) timeline.get("show"));
+  }
+
+  @Test
+  public void keepsFirstTimeOfEachStep() {
+    recorder.start(1);
+    recorder.mark(1, Stage.IMPRESSION, Step.SDK_CALLBACK);
+    recorder.mark(1, Stage.IMPRESSION, Step.SDK_CALLBACK);
+    recorder.start(1);
+
+    final Map<String, Object> timeline = recorder.getTimeline(1);
+    assertEquals(100L, ((List<?>) timeline.get("load")).get(Step.CALL_RECEIVED.ordinal()));
+    assertEquals(101L, ((List<?>) timeline.get("impression")).get(Step.SDK_CALLBACK.ordinal()));
+  }
+
+  @Test
+  public void ignoresAdsWithoutTimeline() {
+    recorder.mark(1, Stage.LOAD, Step.SDK_CALLBACK);
+    recorder.onEventSent(new FlutterAdEvent(1, Type.AD_IMPRESSION));
+    assertNull(recorder.getTimeline(1));
+
+    recorder.start(2);
+    recorder.remove(2);
+    recorder.mark(2, Stage.LOAD, Step.SDK_CALLBACK);
+    assertNull(recorder.getTimeline(2));
+  }
+}
@@ -0,0 +1,100 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.android.gms.ads.AdView;
+import com.google.android.gms.ads.admanager.AdManagerAdView;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AdViewPauser}. */
+@RunWith(RobolectricTestRunner.class)
+public class AdViewPauserTest {
+  private AdViewPauser pauser;
+  private AdView mockAdView;
+
+  @Before
+  public void setup() {
+    pauser = new AdViewPauser();
+    mockAdView = mock(AdView.class);
+  }
+
+  @Test
+  public void pausesWhileDetachedAfterBeingAttached() {
+    pauser.track(mockAdView);
+    verify(mockAdView).addOnAttachStateChangeListener(pauser);
+
+    // Ad views that were never attached keep loading.
+    pauser.onViewDetachedFromWindow(mockAdView);
+    verify(mockAdView, never()).pause();
+
+    pauser.onViewAttachedToWindow(mockAdView);
+    pauser.onViewDetachedFromWindow(mockAdView);
+    verify(mockAdView).pause();
+
+    pauser.onViewAttachedToWindow(mockAdView);
+    verify(mockAdView).resume();
+  }
+
+  @Test
+  public void pausesWhileAppIsInBackground() {
+    final AdManagerAdView attachedAdView = mock(AdManagerAdView.class);
+    doReturn(true).when(attachedAdView).isAttachedToWindow();
+    pauser.track(mockAdView);
+    pauser.track(attachedAdView);
+
+    pauser.setAppInForeground(false);
+    verify(mockAdView).pause();
+    verify(attachedAdView).pause();
+
+    pauser.setAppInForeground(false);
+    verify(attachedAdView, times(1)).pause();
+
+    pauser.setAppInForeground(true);
+    verify(mockAdView).resume();
+    verify(attachedAdView).resume();
+  }
+
+  @Test
+  public void setEnabled_resumesPausedAdViews() {
+    pauser.track(mockAdView);
+    pauser.setAppInForeground(false);
+    verify(mockAdView).pause();
+
+    pauser.setEnabled(false);
+    verify(mockAdView).resume();
+
+    pauser.setEnabled(true);
+    verify(mockAdView, times(2)).pause();
+  }
+
+  @Test
+  public void untrack_stopsPausing() {
+    pauser.track(mockAdView);
+    pauser.untrack(mockAdView);
+    verify(mockAdView).removeOnAttachStateChangeListener(pauser);
+
+    pauser.setAppInForeground(false);
+    verify(mockAdView, never()).pause();
+  }
+}
@@ -0,0 +1,111 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterAdapterResponseInfo;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterResponseInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AdapterLatencyHistograms}. */
+@RunWith(RobolectricTestRunner.class)
+public class AdapterLatencyHistogramsTest {
+  private static final String AD_UNIT_ID = "test-ad-unit";
+
+  private AdapterLatencyHistograms histograms;
+
+  @Before
+  public void setup() {
+    histograms = new AdapterLatencyHistograms();
+  }
+
+  private static FlutterResponseInfo responseInfo(String adapterClassName, long latencyMillis) {
+    final List<FlutterAdapterResponseInfo> adapterResponses = new ArrayList<>();
+    adapterResponses.add(
+        new FlutterAdapterResponseInfo(
+            adapterClassName,
+            latencyMillis,
+            "description",
+            Collections.<String, String>emptyMap(),
+            null));
+    return new FlutterResponseInfo("response-id", adapterClassName, adapterResponses);
+  }
+
+  @Test
+  public void buckets_coverLatenciesWithBoundedError() {
+    final long maxLatency = AdapterLatencyHistograms.MAX_TRACKED_LATENCY_MILLIS;
+    int previousBucket = -1;
+    for (long latency = 0; latency <= maxLatency; latency++) {
+      final int bucket = AdapterLatencyHistograms.getBucket(latency);
+      assertTrue(bucket == previousBucket || bucket == previousBucket + 1);
+      final long upperBound = AdapterLatencyHistograms.getBucketUpperBound(bucket);
+      assertTrue(latency < upperBound);
+      assertTrue(upperBound - 1 - latency <= Math.max(1, latency / 4));
+      previousBucket = bucket;
+    }
+    assertEquals(AdapterLatencyHistograms.BUCKET_COUNT - 1, previousBucket);
+    assertEquals(
+        AdapterLatencyHistograms.BUCKET_COUNT - 1,
+        AdapterLatencyHistograms.getBucket(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void getSummaries_reportsPercentilesPerAdapterAndAdUnit() {
+    for (int latency = 1; latency <= 100; latency++) {
+      histograms.record(AD_UNIT_ID, responseInfo("SlowAdapter", latency * 10));
+    }
+    histograms.record(AD_UNIT_ID, responseInfo("FastAdapter", 5));
+    histograms.record("other-ad-unit", responseInfo("SlowAdapter", 5));
+
+    final List<Map<String, Object>> summaries = histograms.getSummaries();
+    assertEquals(3, summaries.size());
+    final Map<String, Object> slow = summaries.get(0);
+    assertEquals("SlowAdapter", slow.get("adapterClassName"));
+    assertEquals(AD_UNIT_ID, slow.get("adUnitId"));
+    assertEquals(100, slow.get("count"));
+    assertEquals(1000L, slow.get("maxMillis"));
+    assertWithinQuarter(500, (Long) slow.get("p50Millis"));
+    assertWithinQuarter(900, (Long) slow.get("p90Millis"));
+    assertWithinQuarter(990, (Long) slow.get("p99Millis"));
+    assertEquals(5L, summaries.get(1).get("p99Millis"));
+  }
+
+  @Test
+  public void keepsAtMostMaxHistograms() {
+    for (int i = 0; i <= AdapterLatencyHistograms.MAX_HISTOGRAMS; i++) {
+      histograms.record(AD_UNIT_ID, responseInfo("Adapter" + i, 10));
+    }
+
+    final List<Map<String, Object>> summaries = histograms.getSummaries();
+    assertEquals(AdapterLatencyHistograms.MAX_HISTOGRAMS, summaries.size());
+    assertEquals("Adapter1", summaries.get(0).get("adapterClassName"));
+
+    histograms.clear();
+    assertTrue(histograms.getSummaries().isEmpty());
+  }
+
+  private static void assertWithinQuarter(long expected, long actual) {
+    assertTrue(actual >= expected && actual <= expected + expected / 4);
+  }
+}
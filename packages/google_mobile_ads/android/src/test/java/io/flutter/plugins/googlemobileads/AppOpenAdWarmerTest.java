@@ -0,0 +1,232 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.app.Activity;
+import android.os.Handler;
+import com.google.android.gms.ads.AdValue;
+import com.google.android.gms.ads.FullScreenContentCallback;
+import com.google.android.gms.ads.OnPaidEventListener;
+import com.google.android.gms.ads.appopen.AppOpenAd;
+import io.flutter.plugin.common.MethodChannel;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link AppOpenAdWarmer}. */
+@RunWith(RobolectricTestRunner.class)
+public class AppOpenAdWarmerTest {
+  private static final String AD_UNIT_ID = "test-ad-unit";
+
+  private FullScreenAdPool mockPool;
+  private AdInstanceManager manager;
+  private MethodChannel mockChannel;
+  private Handler mockHandler;
+  private Activity mockActivity;
+  private FlutterAdRequest request;
+  private AppOpenAdWarmer warmer;
+
+  @Before
+  public void setup() {
+    mockPool = mock(FullScreenAdPool.class);
+    manager = spy(new AdInstanceManager(mock(AdEventDispatcher.class)));
+    mockActivity = mock(Activity.class);
+    manager.setActivity(mockActivity);
+    mockChannel = mock(MethodChannel.class);
+    mockHandler = mock(Handler.class);
+    request = new FlutterAdRequest.Builder().build();
+    warmer = new AppOpenAdWarmer(mockPool, manager, mockChannel, mockHandler);
+  }
+
+  @Test
+  public void refreshesAdsShortlyBeforeTheyExpireWhileInBackground() {
+    warmer.warmUp(AD_UNIT_ID, request, 1, false);
+    verify(mockPool).preload(FullScreenAdPool.Format.APP_OPEN, AD_UNIT_ID, request, 1, 1);
+    final long millisUntilExpiry = 60 * 60 * 1000L;
+    doReturn(millisUntilExpiry)
+        .when(mockPool)
+        .getMillisUntilNextExpiry(FullScreenAdPool.Format.APP_OPEN, AD_UNIT_ID, request, 1);
+
+    warmer.onAppStateChanged(false);
+    verify(mockPool)
+        .refresh(
+            FullScreenAdPool.Format.APP_OPEN,
+            AD_UNIT_ID,
+            request,
+            1,
+            AppOpenAdWarmer.REFRESH_MARGIN_MILLIS);
+    final ArgumentCaptor<Runnable> refreshCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler)
+        .postDelayed(
+            refreshCaptor.capture(),
+            eq(millisUntilExpiry - AppOpenAdWarmer.REFRESH_MARGIN_MILLIS));
+
+    refreshCaptor.getValue().run();
+    verify(mockPool, times(2))
+        .refresh(
+            FullScreenAdPool.Format.APP_OPEN,
+            AD_UNIT_ID,
+            request,
+            1,
+            AppOpenAdWarmer.REFRESH_MARGIN_MILLIS);
+
+    warmer.onAppStateChanged(true);
+    // Once when the app moved to the background, and once when it returned.
+    verify(mockHandler, times(2)).removeCallbacks(refreshCaptor.getValue());
+    // Not shown unless asked for.
+    verify(mockPool, never())
+        .claim(
+            any(FullScreenAdPool.Format.class),
+            anyString(),
+            any(FlutterAdRequest.class),
+            anyInt());
+  }
+
+  @Test
+  public void retriesMissingAdsWithBackoff() {
+    warmer.warmUp(AD_UNIT_ID, request, 1, false);
+
+    // The pool has no ready ad, because its load is in flight or failed.
+    warmer.onAppStateChanged(false);
+    final ArgumentCaptor<Runnable> refreshCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler)
+        .postDelayed(refreshCaptor.capture(), eq(AppOpenAdWarmer.MIN_RETRY_DELAY_MILLIS));
+
+    refreshCaptor.getValue().run();
+    verify(mockHandler)
+        .postDelayed(refreshCaptor.getValue(), 2 * AppOpenAdWarmer.MIN_RETRY_DELAY_MILLIS);
+    verify(mockPool, times(2))
+        .refresh(
+            FullScreenAdPool.Format.APP_OPEN,
+            AD_UNIT_ID,
+            request,
+            1,
+            AppOpenAdWarmer.REFRESH_MARGIN_MILLIS);
+
+    // Going to the background again starts over.
+    warmer.onAppStateChanged(true);
+    warmer.onAppStateChanged(false);
+    verify(mockHandler, times(2))
+        .postDelayed(refreshCaptor.getValue(), AppOpenAdWarmer.MIN_RETRY_DELAY_MILLIS);
+  }
+
+  @Test
+  public void showsWarmAdOnForegroundAndSendsItsEvents() {
+    final AppOpenAd mockAd = mock(AppOpenAd.class);
+    doReturn(mockAd).when(mockPool).claim(FullScreenAdPool.Format.APP_OPEN, AD_UNIT_ID, request, 1);
+    warmer.warmUp(AD_UNIT_ID, request, 1, true);
+
+    warmer.onAppStateChanged(true);
+    verify(mockAd).show(mockActivity);
+
+    // A second start while the ad is showing doesn't show another one.
+    warmer.onAppStateChanged(true);
+    verify(mockAd, times(1)).show(mockActivity);
+
+    final ArgumentCaptor<FullScreenContentCallback> callbackCaptor =
+        ArgumentCaptor.forClass(FullScreenContentCallback.class);
+    verify(mockAd).setFullScreenContentCallback(callbackCaptor.capture());
+    callbackCaptor.getValue().onAdDismissedFullScreenContent();
+
+    final ArgumentCaptor<Map<String, Object>> eventCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(mockChannel).invokeMethod(eq(AppOpenAdWarmer.EVENT_METHOD), eventCaptor.capture());
+    assertEquals(AD_UNIT_ID, eventCaptor.getValue().get("adUnitId"));
+    assertEquals("onAdDismissedFullScreenContent", eventCaptor.getValue().get("eventName"));
+
+    warmer.onAppStateChanged(true);
+    verify(mockAd, times(2)).show(mockActivity);
+  }
+
+  @Test
+  public void doesNotShowWarmAdOverFullScreenAdFromDart() {
+    final AppOpenAd mockAd = mock(AppOpenAd.class);
+    doReturn(mockAd).when(mockPool).claim(FullScreenAdPool.Format.APP_OPEN, AD_UNIT_ID, request, 1);
+    warmer.warmUp(AD_UNIT_ID, request, 1, true);
+    manager.trackAd(mock(FlutterInterstitialAd.class), 1);
+    manager.showAdWithId(1);
+
+    // The app returns from the click-through of the interstitial.
+    warmer.onAppStateChanged(true);
+    verify(mockAd, never()).show(any(Activity.class));
+
+    manager.onAdDismissedFullScreenContent(1);
+    warmer.onAppStateChanged(true);
+    verify(mockAd).show(mockActivity);
+  }
+
+  @Test
+  public void recordsRevenueOfWarmAd() {
+    final RevenueAggregator mockAggregator = mock(RevenueAggregator.class);
+    manager.setRevenueAggregator(mockAggregator);
+    final AppOpenAd mockAd = mock(AppOpenAd.class);
+    doReturn(mockAd).when(mockPool).claim(FullScreenAdPool.Format.APP_OPEN, AD_UNIT_ID, request, 1);
+    warmer.warmUp(AD_UNIT_ID, request, 1, true);
+    warmer.onAppStateChanged(true);
+
+    final ArgumentCaptor<OnPaidEventListener> listenerCaptor =
+        ArgumentCaptor.forClass(OnPaidEventListener.class);
+    verify(mockAd).setOnPaidEventListener(listenerCaptor.capture());
+    final AdValue adValue = mock(AdValue.class);
+    doReturn(1).when(adValue).getPrecisionType();
+    doReturn("USD").when(adValue).getCurrencyCode();
+    doReturn(1000L).when(adValue).getValueMicros();
+    listenerCaptor.getValue().onPaidEvent(adValue);
+
+    final ArgumentCaptor<FlutterAdValue> valueCaptor =
+        ArgumentCaptor.forClass(FlutterAdValue.class);
+    verify(mockAggregator).record(eq(AD_UNIT_ID), valueCaptor.capture());
+    assertEquals(1000L, valueCaptor.getValue().valueMicros);
+    assertEquals("USD", valueCaptor.getValue().currencyCode);
+    assertEquals(1, valueCaptor.getValue().precisionType);
+  }
+
+  @Test
+  public void doesNothingAfterStop() {
+    warmer.warmUp(AD_UNIT_ID, request, 1, true);
+    warmer.stop(AD_UNIT_ID);
+
+    warmer.onAppStateChanged(false);
+    warmer.onAppStateChanged(true);
+    verify(mockPool, never())
+        .refresh(
+            any(FullScreenAdPool.Format.class),
+            anyString(),
+            any(FlutterAdRequest.class),
+            anyInt(),
+            anyLong());
+    verify(mockPool, never())
+        .claim(
+            any(FullScreenAdPool.Format.class),
+            anyString(),
+            any(FlutterAdRequest.class),
+            anyInt());
+  }
+}
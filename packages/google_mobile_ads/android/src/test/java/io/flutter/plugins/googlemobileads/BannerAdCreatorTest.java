@@ -0,0 +1,114 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.content.Context;
+import com.google.android.gms.ads.AdView;
+import com.google.android.gms.ads.admanager.AdManagerAdView;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link BannerAdCreator}. */
+@RunWith(RobolectricTestRunner.class)
+public class BannerAdCreatorTest {
+
+  private BannerAdCreator creator;
+  private List<AdView> builtAdViews;
+
+  @Before
+  public void setup() {
+    creator = spy(new BannerAdCreator(mock(Context.class)));
+    builtAdViews = new ArrayList<>();
+    doAnswer(
+            new Answer() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                final AdView adView = mock(AdView.class);
+                builtAdViews.add(adView);
+                return adView;
+              }
+            })
+        .when(creator)
+        .buildAdView();
+    doAnswer(
+            new Answer() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                return mock(AdManagerAdView.class);
+              }
+            })
+        .when(creator)
+        .buildAdManagerAdView();
+  }
+
+  @Test
+  public void createAdView_buildsNewViewWithoutPrewarm() {
+    final AdView first = creator.createAdView();
+    final AdView second = creator.createAdView();
+
+    assertNotSame(first, second);
+    verify(creator, times(2)).buildAdView();
+  }
+
+  @Test
+  public void prewarm_buildsOneViewPerIdlePass() {
+    creator.prewarm(2, 1);
+
+    assertTrue(creator.warmNextView());
+    assertTrue(creator.warmNextView());
+    assertFalse(creator.warmNextView());
+    verify(creator, times(2)).buildAdView();
+    verify(creator).buildAdManagerAdView();
+  }
+
+  @Test
+  public void createAdView_handsOutPrewarmedViewAndRefills() {
+    creator.prewarm(1, 0);
+    creator.warmNextView();
+
+    final AdView adView = creator.createAdView();
+
+    assertSame(builtAdViews.get(0), adView);
+    assertFalse(creator.warmNextView());
+    assertSame(builtAdViews.get(1), creator.createAdView());
+  }
+
+  @Test
+  public void clear_destroysPrewarmedViews() {
+    creator.prewarm(1, 0);
+    creator.warmNextView();
+
+    creator.clear();
+
+    verify(builtAdViews.get(0)).destroy();
+    assertFalse(creator.warmNextView());
+  }
+}
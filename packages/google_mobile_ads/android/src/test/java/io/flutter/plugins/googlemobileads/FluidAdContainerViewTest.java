@@ -0,0 +1,66 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import android.view.View;
+import android.view.View.MeasureSpec;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link FluidAdContainerView}. */
+@RunWith(RobolectricTestRunner.class)
+public class FluidAdContainerViewTest {
+  private FluidAdContainerView container;
+  private View child;
+
+  @Before
+  public void setup() {
+    container = new FluidAdContainerView(ApplicationProvider.getApplicationContext());
+    child = new View(ApplicationProvider.getApplicationContext());
+    child.setMinimumHeight(500);
+    container.addView(child);
+  }
+
+  @Test
+  public void childOverflowsExactHeight() {
+    container.measure(
+        MeasureSpec.makeMeasureSpec(300, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(100, MeasureSpec.EXACTLY));
+    container.layout(0, 0, 300, 100);
+
+    assertFalse(container.getClipChildren());
+    assertEquals(300, container.getMeasuredWidth());
+    assertEquals(100, container.getMeasuredHeight());
+    assertEquals(300, child.getMeasuredWidth());
+    assertEquals(500, child.getMeasuredHeight());
+    assertEquals(500, child.getBottom());
+  }
+
+  @Test
+  public void wrapsChildWithinMaximumHeight() {
+    container.measure(
+        MeasureSpec.makeMeasureSpec(300, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(800, MeasureSpec.AT_MOST));
+
+    assertEquals(500, container.getMeasuredHeight());
+    assertEquals(500, child.getMeasuredHeight());
+  }
+}
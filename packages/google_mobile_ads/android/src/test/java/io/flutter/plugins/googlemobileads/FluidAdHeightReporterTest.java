@@ -0,0 +1,99 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.os.Handler;
+import android.view.Choreographer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link FluidAdHeightReporter}. */
+@RunWith(RobolectricTestRunner.class)
+public class FluidAdHeightReporterTest {
+  private AdInstanceManager manager;
+  private Choreographer mockChoreographer;
+  private Handler mockHandler;
+  private FluidAdHeightReporter reporter;
+
+  @Before
+  public void setup() {
+    manager = spy(new AdInstanceManager(mock(AdEventDispatcher.class)));
+    mockChoreographer = mock(Choreographer.class);
+    mockHandler = mock(Handler.class);
+    reporter = new FluidAdHeightReporter(1, manager, mockChoreographer, mockHandler);
+  }
+
+  @Test
+  public void reportsLatestHeightOncePerFrame() {
+    reporter.onHeightMeasured(10);
+    reporter.onHeightMeasured(20);
+    reporter.onHeightMeasured(30);
+
+    verify(mockChoreographer, times(1)).postFrameCallback(reporter);
+    verify(manager, never()).onFluidAdHeightChanged(anyInt(), anyInt());
+
+    reporter.doFrame(0);
+    verify(manager).onFluidAdHeightChanged(eq(1), eq(30));
+
+    reporter.onHeightMeasured(40);
+    verify(mockChoreographer, times(2)).postFrameCallback(reporter);
+    reporter.doFrame(0);
+    verify(manager).onFluidAdHeightChanged(eq(1), eq(40));
+  }
+
+  @Test
+  public void reportsSettledHeightWithinThreshold() {
+    manager.setFluidAdHeightThreshold(5);
+    reporter.onHeightMeasured(100);
+    reporter.doFrame(0);
+    verify(manager).onFluidAdHeightChanged(eq(1), eq(100));
+
+    reporter.onHeightMeasured(103);
+    reporter.doFrame(0);
+    verify(manager, never()).onFluidAdHeightChanged(eq(1), eq(103));
+
+    final ArgumentCaptor<Runnable> settleCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler, times(2))
+        .postDelayed(settleCaptor.capture(), eq(FluidAdHeightReporter.SETTLE_DELAY_MILLIS));
+    settleCaptor.getValue().run();
+    verify(manager).onFluidAdHeightChanged(eq(1), eq(103));
+
+    reporter.onHeightMeasured(110);
+    reporter.doFrame(0);
+    verify(manager).onFluidAdHeightChanged(eq(1), eq(110));
+  }
+
+  @Test
+  public void stop_cancelsPendingReports() {
+    reporter.onHeightMeasured(10);
+    reporter.stop();
+
+    verify(mockChoreographer).removeFrameCallback(reporter);
+    // Once when the height was measured, and once when stopped.
+    verify(mockHandler, times(2)).removeCallbacks(any(Runnable.class));
+  }
+}
@@ -29,7 +29,6 @@ import static org.mockito.Mockito.when;
 
 import android.view.View.OnLayoutChangeListener;
 import android.view.ViewGroup.LayoutParams;
-import android.widget.ScrollView;
 import com.google.android.gms.ads.AdListener;
 import com.google.android.gms.ads.AdSize;
 import com.google.android.gms.ads.LoadAdError;
@@ -38,7 +37,6 @@ import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.admanager.AdManagerAdView;
 import com.google.android.gms.ads.admanager.AppEventListener;
 import io.flutter.plugin.common.BinaryMessenger;
-import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.platform.PlatformView;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
 import org.junit.Before;
@@ -56,6 +54,7 @@ public class FluidAdManagerBannerAdTest {
   private AdInstanceManager mockManager;
   private AdManagerAdRequest mockAdRequest;
   private AdManagerAdView mockAdView;
+  private FluidAdHeightReporter mockHeightReporter;
   // The system under test.
   private FluidAdManagerBannerAd fluidAd;
 
@@ -63,15 +62,17 @@ public class FluidAdManagerBannerAdTest {
   public void setup() {
     // Setup mock dependencies for flutterBannerAd.
     BinaryMessenger mockMessenger = mock(BinaryMessenger.class);
-    mockManager = spy(new AdInstanceManager(mock(MethodChannel.class)));
+    mockManager = spy(new AdInstanceManager(mock(AdEventDispatcher.class)));
     FlutterAdManagerAdRequest mockFlutterAdRequest = mock(FlutterAdManagerAdRequest.class);
     mockAdRequest = mock(AdManagerAdRequest.class);
     when(mockFlutterAdRequest.asAdManagerAdRequest(anyString())).thenReturn(mockAdRequest);
     BannerAdCreator bannerAdCreator = mock(BannerAdCreator.class);
     mockAdView = mock(AdManagerAdView.class);
     doReturn(mockAdView).when(bannerAdCreator).createAdManagerAdView();
+    mockHeightReporter = mock(FluidAdHeightReporter.class);
     fluidAd =
-        new FluidAdManagerBannerAd(1, mockManager, "testId", mockFlutterAdRequest, bannerAdCreator);
+        new FluidAdManagerBannerAd(
+            1, mockManager, "testId", mockFlutterAdRequest, bannerAdCreator, mockHeightReporter);
   }
 
   @Test
@@ -142,12 +143,10 @@ public class FluidAdManagerBannerAdTest {
 
     // Verify that ad is correctly put into container view.
     FluidAdManagerBannerAd spy = spy(fluidAd);
-    ScrollView mockContainer = mock(ScrollView.class);
+    FluidAdContainerView mockContainer = mock(FluidAdContainerView.class);
     doReturn(mockContainer).when(spy).createContainerView();
     assertEquals(spy.getPlatformView().getView(), mockAdView);
-    verify(mockContainer).setClipChildren(false);
-    verify(mockContainer).setVerticalScrollBarEnabled(false);
-    verify(mockContainer).setHorizontalScrollBarEnabled(false);
+    verify(mockContainer).addView(mockAdView);
 
     // Height changed callback.
     ArgumentCaptor<OnLayoutChangeListener> layoutChangeCaptor =
@@ -156,7 +155,7 @@ public class FluidAdManagerBannerAdTest {
     doReturn(10).when(mockAdView).getMeasuredHeight();
 
     layoutChangeCaptor.getValue().onLayoutChange(mockAdView, 0, 0, 10, 10, 0, 0, 0, 0);
-    verify(mockManager).onFluidAdHeightChanged(eq(1), eq(10));
+    verify(mockHeightReporter).onHeightMeasured(eq(10));
   }
 
   @Test
@@ -183,7 +182,7 @@ public class FluidAdManagerBannerAdTest {
     fluidAd.load();
 
     FluidAdManagerBannerAd spy = spy(fluidAd);
-    ScrollView mockContainer = mock(ScrollView.class);
+    FluidAdContainerView mockContainer = mock(FluidAdContainerView.class);
     doReturn(mockContainer).when(spy).createContainerView();
 
     assertEquals(spy.getPlatformView().getView(), mockAdView);
@@ -192,6 +191,7 @@ public class FluidAdManagerBannerAdTest {
 
     spy.dispose();
     verify(mockAdView).destroy();
+    verify(mockHeightReporter).stop();
     assertNull(spy.getPlatformView());
     // Check that the platform view still retains a reference to the view until
     // dispose is called on it.
@@ -16,7 +16,9 @@ package io.flutter.plugins.googlemobileads;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
@@ -108,4 +110,28 @@ public class FlutterAdManagerAdRequestTest {
     assertEquals(adRequest.getNetworkExtrasBundle(AdMobAdapter.class).get("key"), "value");
     assertEquals(adRequest.getNetworkExtrasBundle(AdMobAdapter.class).get("npa"), "1");
   }
+
+  @Test
+  public void testAsAdManagerAdRequest_cachesByContentIncludingPublisherProvidedId() {
+    final AdRequestCache cache = new AdRequestCache();
+    final Builder firstBuilder = new Builder();
+    firstBuilder.setPublisherProvidedId("ppid");
+    firstBuilder.setRequestCache(cache);
+    final Builder secondBuilder = new Builder();
+    secondBuilder.setPublisherProvidedId("ppid");
+    secondBuilder.setRequestCache(cache);
+    final Builder otherBuilder = new Builder();
+    otherBuilder.setPublisherProvidedId("other-ppid");
+    otherBuilder.setRequestCache(cache);
+
+    final FlutterAdManagerAdRequest first = firstBuilder.build();
+    final AdManagerAdRequest adRequest = first.asAdManagerAdRequest("test-ad-unit");
+
+    assertSame(adRequest, secondBuilder.build().asAdManagerAdRequest("test-ad-unit"));
+    final AdManagerAdRequest other = otherBuilder.build().asAdManagerAdRequest("test-ad-unit");
+    assertNotSame(adRequest, other);
+    assertEquals("other-ppid", other.getPublisherProvidedId());
+    // A plain AdRequest built from the same content is cached separately.
+    assertFalse(first.asAdRequest("test-ad-unit") instanceof AdManagerAdRequest);
+  }
 }
@@ -37,7 +37,6 @@ import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.admanager.AdManagerInterstitialAd;
 import com.google.android.gms.ads.admanager.AdManagerInterstitialAdLoadCallback;
 import com.google.android.gms.ads.admanager.AppEventListener;
-import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
 import org.junit.Before;
 import org.junit.Test;
@@ -59,7 +58,7 @@ public class FlutterAdManagerInterstitialAdTest {
 
   @Before
   public void setup() {
-    mockManager = spy(new AdInstanceManager(mock(MethodChannel.class)));
+    mockManager = spy(new AdInstanceManager(mock(AdEventDispatcher.class)));
     doReturn(mock(Activity.class)).when(mockManager).getActivity();
     final FlutterAdManagerAdRequest mockFlutterRequest = mock(FlutterAdManagerAdRequest.class);
     mockRequest = mock(AdManagerAdRequest.class);
@@ -15,16 +15,20 @@
 package io.flutter.plugins.googlemobileads;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
+import android.content.Context;
 import android.os.Bundle;
 import com.google.ads.mediation.admob.AdMobAdapter;
 import com.google.android.gms.ads.AdRequest;
 import io.flutter.plugins.googlemobileads.FlutterAdRequest.Builder;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -93,4 +97,56 @@ public class FlutterAdRequestTest {
     assertEquals(adRequest.getNetworkExtrasBundle(AdMobAdapter.class).get("key"), "value");
     assertEquals(adRequest.getNetworkExtrasBundle(AdMobAdapter.class).get("npa"), "1");
   }
+
+  @Test
+  public void testAsAdRequest_reusesCachedRequestForEqualContent() {
+    final AdRequestCache cache = new AdRequestCache();
+    final FlutterAdRequest first =
+        new Builder()
+            .setKeywords(Collections.singletonList("keyword"))
+            .setRequestCache(cache)
+            .build();
+    final FlutterAdRequest second =
+        new Builder()
+            .setKeywords(Collections.singletonList("keyword"))
+            .setRequestCache(cache)
+            .build();
+    final FlutterAdRequest different =
+        new Builder()
+            .setKeywords(Collections.singletonList("other"))
+            .setRequestCache(cache)
+            .build();
+
+    final AdRequest adRequest = first.asAdRequest("test-ad-unit");
+
+    assertSame(adRequest, second.asAdRequest("test-ad-unit"));
+    assertNotSame(adRequest, second.asAdRequest("other-ad-unit"));
+    assertNotSame(adRequest, different.asAdRequest("test-ad-unit"));
+  }
+
+  @Test
+  public void testAsAdRequest_rebuildsAfterCacheIsCleared() {
+    final AdRequestCache cache = new AdRequestCache();
+    final FlutterAdRequest flutterAdRequest = new Builder().setRequestCache(cache).build();
+    final AdRequest adRequest = flutterAdRequest.asAdRequest("test-ad-unit");
+
+    cache.clear();
+
+    assertNotSame(adRequest, flutterAdRequest.asAdRequest("test-ad-unit"));
+  }
+
+  @Test
+  public void testSetMediationNetworkExtrasProvider_clearsCachedRequests() {
+    final AdMessageCodec codec = new AdMessageCodec(mock(Context.class));
+    final FlutterAdRequest flutterAdRequest = new Builder().build();
+    final ByteBuffer message = codec.encodeMessage(flutterAdRequest);
+    final FlutterAdRequest decoded =
+        (FlutterAdRequest) codec.decodeMessage((ByteBuffer) message.position(0));
+    final AdRequest adRequest = decoded.asAdRequest("test-ad-unit");
+    assertSame(adRequest, decoded.asAdRequest("test-ad-unit"));
+
+    codec.setMediationNetworkExtrasProvider(mock(MediationNetworkExtrasProvider.class));
+
+    assertNotSame(adRequest, decoded.asAdRequest("test-ad-unit"));
+  }
 }
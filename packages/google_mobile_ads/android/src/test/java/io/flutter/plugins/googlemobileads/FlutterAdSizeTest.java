@@ -0,0 +1,120 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import com.google.android.gms.ads.AdSize;
+import io.flutter.plugins.googlemobileads.FlutterAdSize.AdSizeFactory;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link FlutterAdSize.AdSizeFactory}. */
+@RunWith(RobolectricTestRunner.class)
+public class FlutterAdSizeTest {
+
+  private AdSizeFactory factory;
+  private Context mockContext;
+  private Configuration configuration;
+
+  @Before
+  public void setup() {
+    factory = spy(new AdSizeFactory());
+    doReturn(new AdSize(320, 50))
+        .when(factory)
+        .resolveAdSize(anyInt(), any(Context.class), anyInt(), anyInt());
+    doReturn(new AdSize(320, 0))
+        .when(factory)
+        .resolveAdSize(anyInt(), eq((Context) null), anyInt(), anyInt());
+
+    configuration = new Configuration();
+    configuration.orientation = Configuration.ORIENTATION_PORTRAIT;
+    configuration.screenWidthDp = 360;
+    configuration.screenHeightDp = 640;
+    configuration.densityDpi = 320;
+    final Resources mockResources = mock(Resources.class);
+    doReturn(configuration).when(mockResources).getConfiguration();
+    mockContext = mock(Context.class);
+    doReturn(mockResources).when(mockContext).getResources();
+  }
+
+  @Test
+  public void reusesSizeForSameKind() {
+    final AdSize first = factory.getPortraitAnchoredAdaptiveBannerAdSize(mockContext, 320);
+    final AdSize second = factory.getPortraitAnchoredAdaptiveBannerAdSize(mockContext, 320);
+    factory.getLandscapeAnchoredAdaptiveBannerAdSize(mockContext, 320);
+    factory.getPortraitAnchoredAdaptiveBannerAdSize(mockContext, 300);
+
+    assertSame(first, second);
+    verify(factory, times(3)).resolveAdSize(anyInt(), any(Context.class), anyInt(), anyInt());
+  }
+
+  @Test
+  public void reusesMaxHeightSizeWithoutContext() {
+    factory.getInlineAdaptiveBannerAdSize(320, 100);
+    factory.getInlineAdaptiveBannerAdSize(320, 100);
+    factory.getInlineAdaptiveBannerAdSize(320, 150);
+
+    verify(factory, times(2)).resolveAdSize(anyInt(), eq((Context) null), eq(320), anyInt());
+  }
+
+  @Test
+  public void resolvesAgainWhenDisplayConfigurationChanges() {
+    factory.getCurrentOrientationAnchoredAdaptiveBannerAdSize(mockContext, 320);
+
+    configuration.orientation = Configuration.ORIENTATION_LANDSCAPE;
+    configuration.screenWidthDp = 640;
+    configuration.screenHeightDp = 360;
+    factory.getCurrentOrientationAnchoredAdaptiveBannerAdSize(mockContext, 320);
+
+    verify(factory, times(2)).resolveAdSize(anyInt(), any(Context.class), eq(320), anyInt());
+  }
+
+  @Test
+  public void clearCacheDropsSizes() {
+    factory.getCurrentOrientationInlineAdaptiveBannerAdSize(mockContext, 320);
+    factory.clearCache();
+    factory.getCurrentOrientationInlineAdaptiveBannerAdSize(mockContext, 320);
+
+    verify(factory, times(2)).resolveAdSize(anyInt(), any(Context.class), eq(320), anyInt());
+  }
+
+  @Test
+  public void precomputeResolvesPortraitAndLandscapeSizes() {
+    factory.precomputeAdaptiveBannerAdSizes(mockContext, Arrays.asList(320, 360));
+    verify(factory, times(8)).resolveAdSize(anyInt(), any(Context.class), anyInt(), anyInt());
+
+    factory.getPortraitAnchoredAdaptiveBannerAdSize(mockContext, 320);
+    factory.getLandscapeAnchoredAdaptiveBannerAdSize(mockContext, 360);
+    factory.getPortraitInlineAdaptiveBannerAdSize(mockContext, 360);
+    factory.getLandscapeInlineAdaptiveBannerAdSize(mockContext, 320);
+
+    verify(factory, times(8)).resolveAdSize(anyInt(), any(Context.class), anyInt(), anyInt());
+  }
+}
@@ -38,7 +38,6 @@ import com.google.android.gms.ads.ResponseInfo;
 import com.google.android.gms.ads.admanager.AdManagerAdRequest;
 import com.google.android.gms.ads.appopen.AppOpenAd;
 import com.google.android.gms.ads.appopen.AppOpenAd.AppOpenAdLoadCallback;
-import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
 import org.junit.Before;
 import org.junit.Test;
@@ -63,7 +62,7 @@ public class FlutterAppOpenAdTest {
 
   @Before
   public void setup() {
-    mockManager = spy(new AdInstanceManager(mock(MethodChannel.class)));
+    mockManager = spy(new AdInstanceManager(mock(AdEventDispatcher.class)));
     doReturn(mock(Activity.class)).when(mockManager).getActivity();
     mockFlutterAdLoader = mock(FlutterAdLoader.class);
     mockAd = mock(AppOpenAd.class);
@@ -36,7 +36,6 @@ import com.google.android.gms.ads.AdValue;
 import com.google.android.gms.ads.AdView;
 import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.ResponseInfo;
-import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.platform.PlatformView;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
 import org.junit.Before;
@@ -61,7 +60,7 @@ public class FlutterBannerAdTest {
 
   @Before
   public void setup() {
-    mockManager = spy(new AdInstanceManager(mock(MethodChannel.class)));
+    mockManager = spy(new AdInstanceManager(mock(AdEventDispatcher.class)));
     doReturn(mock(Activity.class)).when(mockManager).getActivity();
     final FlutterAdRequest mockFlutterRequest = mock(FlutterAdRequest.class);
     mockAdRequest = mock(AdRequest.class);
@@ -165,12 +164,14 @@ public class FlutterBannerAdTest {
   @Test
   public void dispose() {
     flutterBannerAd.load();
+    verify(mockAdView).addOnAttachStateChangeListener(mockManager.getAdViewPauser());
 
     assertEquals(flutterBannerAd.getPlatformView().getView(), mockAdView);
     PlatformView platformView = flutterBannerAd.getPlatformView();
     assertNotNull(platformView);
 
     flutterBannerAd.dispose();
+    verify(mockAdView).removeOnAttachStateChangeListener(mockManager.getAdViewPauser());
     verify(mockAdView).destroy();
     assertNull(flutterBannerAd.getPlatformView());
     // Check that the platform view still retains a reference to the view until
@@ -22,7 +22,9 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -36,12 +38,12 @@ import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.ResponseInfo;
 import com.google.android.gms.ads.interstitial.InterstitialAd;
 import com.google.android.gms.ads.interstitial.InterstitialAdLoadCallback;
-import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
@@ -59,7 +61,7 @@ public class FlutterInterstitialAdTest {
 
   @Before
   public void setup() {
-    mockManager = spy(new AdInstanceManager(mock(MethodChannel.class)));
+    mockManager = spy(new AdInstanceManager(mock(AdEventDispatcher.class)));
     doReturn(mock(Activity.class)).when(mockManager).getActivity();
     final FlutterAdRequest mockFlutterRequest = mock(FlutterAdRequest.class);
     mockAdRequest = mock(AdRequest.class);
@@ -103,6 +105,35 @@ public class FlutterInterstitialAdTest {
     verify(mockManager).onAdFailedToLoad(eq(1), eq(expectedError));
   }
 
+  @Test
+  public void load_recordsRequestBuiltBeforeSdkLoadStarts() {
+    flutterInterstitialAd.load();
+
+    final InOrder inOrder = inOrder(mockManager, mockFlutterAdLoader);
+    inOrder.verify(mockManager).onAdRequestBuilt(1);
+    inOrder
+        .verify(mockFlutterAdLoader)
+        .loadInterstitial(eq("testId"), eq(mockAdRequest), any(InterstitialAdLoadCallback.class));
+  }
+
+  @Test
+  public void dispose_dropsResultsOfPendingLoad() {
+    flutterInterstitialAd.load();
+    final ArgumentCaptor<InterstitialAdLoadCallback> callbackCaptor =
+        forClass(InterstitialAdLoadCallback.class);
+    verify(mockFlutterAdLoader)
+        .loadInterstitial(eq("testId"), eq(mockAdRequest), callbackCaptor.capture());
+
+    flutterInterstitialAd.dispose();
+    final InterstitialAd mockAd = mock(InterstitialAd.class);
+    callbackCaptor.getValue().onAdLoaded(mockAd);
+    callbackCaptor.getValue().onAdFailedToLoad(mock(LoadAdError.class));
+
+    verify(mockAd, never()).setOnPaidEventListener(any(FlutterPaidEventListener.class));
+    verify(mockManager, never()).onAdLoaded(eq(1), any(ResponseInfo.class));
+    verify(mockManager, never()).onAdFailedToLoad(eq(1), any(FlutterLoadAdError.class));
+  }
+
   @Test
   public void loadInterstitialAd_showSuccess() {
     final InterstitialAd mockAd = mock(InterstitialAd.class);
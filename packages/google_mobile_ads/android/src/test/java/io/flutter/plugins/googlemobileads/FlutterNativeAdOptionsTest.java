@@ -16,6 +16,8 @@ package io.flutter.plugins.googlemobileads;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
 
@@ -61,4 +63,23 @@ public class FlutterNativeAdOptionsTest {
     assertTrue(nativeAdOptions.shouldReturnUrlsForImageAssets());
     assertEquals(nativeAdOptions.getVideoOptions(), mockVideoOptions);
   }
+
+  @Test
+  public void testInternedOptionsShareBuiltNativeAdOptions() {
+    final AdRequestCache cache = new AdRequestCache();
+    final FlutterNativeAdOptions first =
+        cache.intern(
+            new FlutterNativeAdOptions(
+                1, 2, new FlutterVideoOptions(true, false, true), true, false, true));
+    final FlutterNativeAdOptions second =
+        cache.intern(
+            new FlutterNativeAdOptions(
+                1, 2, new FlutterVideoOptions(true, false, true), true, false, true));
+    final FlutterNativeAdOptions different =
+        cache.intern(new FlutterNativeAdOptions(3, 2, null, true, false, true));
+
+    assertSame(first, second);
+    assertSame(first.asNativeAdOptions(), second.asNativeAdOptions());
+    assertNotSame(first, different);
+  }
 }
@@ -21,10 +21,13 @@ import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,15 +42,16 @@ import com.google.android.gms.ads.nativead.NativeAd;
 import com.google.android.gms.ads.nativead.NativeAd.OnNativeAdLoadedListener;
 import com.google.android.gms.ads.nativead.NativeAdOptions;
 import com.google.android.gms.ads.nativead.NativeAdView;
-import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.platform.PlatformView;
 import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
 import io.flutter.plugins.googlemobileads.GoogleMobileAdsPlugin.NativeAdFactory;
+import io.flutter.plugins.googlemobileads.GoogleMobileAdsPlugin.RecyclingNativeAdFactory;
 import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
@@ -61,7 +65,7 @@ public class FlutterNativeAdTest {
 
   @Before
   public void setup() {
-    testManager = spy(new AdInstanceManager(mock(MethodChannel.class)));
+    testManager = spy(new AdInstanceManager(mock(AdEventDispatcher.class)));
     doReturn(mock(Activity.class)).when(testManager).getActivity();
   }
 
@@ -255,6 +259,91 @@ public class FlutterNativeAdTest {
     assertNull(platformView.getView());
   }
 
+  @Test
+  public void recyclingFactory_rebindsDisposedView() {
+    final RecyclingNativeAdFactory mockFactory = mock(RecyclingNativeAdFactory.class);
+    final NativeAdView mockNativeAdView = mock(NativeAdView.class);
+    doReturn(mockNativeAdView)
+        .when(mockFactory)
+        .createNativeAd(any(NativeAd.class), ArgumentMatchers.<Map<String, Object>>any());
+    final NativeAdViewPool pool = new NativeAdViewPool();
+    final FlutterNativeAd.Builder builder =
+        new FlutterNativeAd.Builder()
+            .setManager(testManager)
+            .setAdUnitId("testId")
+            .setAdFactory(mockFactory)
+            .setRequest(request)
+            .setNativeAdViewPool(pool);
+    final FlutterNativeAd firstAd = builder.setId(1).build();
+    final FlutterNativeAd secondAd = builder.setId(2).build();
+    final NativeAd firstNativeAd = mock(NativeAd.class);
+    final NativeAd secondNativeAd = mock(NativeAd.class);
+
+    firstAd.onNativeAdLoaded(firstNativeAd);
+    firstAd.dispose();
+
+    verify(mockFactory).unbindNativeAd(mockNativeAdView);
+    verify(firstNativeAd).destroy();
+    verify(mockNativeAdView, never()).destroy();
+    assertEquals(1, pool.size());
+
+    secondAd.onNativeAdLoaded(secondNativeAd);
+
+    verify(mockFactory).bindNativeAd(eq(mockNativeAdView), eq(secondNativeAd), isNull());
+    verify(mockFactory, times(1))
+        .createNativeAd(any(NativeAd.class), ArgumentMatchers.<Map<String, Object>>any());
+    assertEquals(mockNativeAdView, secondAd.getPlatformView().getView());
+    assertEquals(0, pool.size());
+  }
+
+  @Test
+  public void nonRecyclingFactory_ignoresPool() {
+    final NativeAdFactory mockFactory = mock(NativeAdFactory.class);
+    final NativeAdView mockNativeAdView = mock(NativeAdView.class);
+    doReturn(mockNativeAdView)
+        .when(mockFactory)
+        .createNativeAd(any(NativeAd.class), ArgumentMatchers.<Map<String, Object>>any());
+    final NativeAdViewPool pool = new NativeAdViewPool();
+    final FlutterNativeAd nativeAd =
+        new FlutterNativeAd.Builder()
+            .setManager(testManager)
+            .setAdUnitId("testId")
+            .setAdFactory(mockFactory)
+            .setRequest(request)
+            .setId(1)
+            .setNativeAdViewPool(pool)
+            .build();
+
+    nativeAd.onNativeAdLoaded(mock(NativeAd.class));
+    nativeAd.dispose();
+
+    verify(mockNativeAdView).destroy();
+    assertEquals(0, pool.size());
+  }
+
+  @Test
+  public void adLoadedAfterDispose_isDestroyed() {
+    final NativeAdFactory mockFactory = mock(NativeAdFactory.class);
+    final FlutterNativeAd nativeAd =
+        new FlutterNativeAd.Builder()
+            .setManager(testManager)
+            .setAdUnitId("testId")
+            .setAdFactory(mockFactory)
+            .setRequest(request)
+            .setId(1)
+            .build();
+    final NativeAd lateNativeAd = mock(NativeAd.class);
+
+    nativeAd.dispose();
+    nativeAd.onNativeAdLoaded(lateNativeAd);
+
+    verify(lateNativeAd).destroy();
+    verify(mockFactory, never())
+        .createNativeAd(any(NativeAd.class), ArgumentMatchers.<Map<String, Object>>any());
+    verify(testManager, never()).onAdLoaded(eq(1), any(ResponseInfo.class));
+    assertNull(nativeAd.getPlatformView());
+  }
+
   @Test(expected = IllegalStateException.class)
   public void nativeAdBuilderNullManager() {
     new FlutterNativeAd.Builder()
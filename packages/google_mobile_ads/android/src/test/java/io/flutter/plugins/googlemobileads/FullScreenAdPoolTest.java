@@ -0,0 +1,244 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.admanager.AdManagerAdRequest;
+import com.google.android.gms.ads.appopen.AppOpenAd;
+import com.google.android.gms.ads.appopen.AppOpenAd.AppOpenAdLoadCallback;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
+import com.google.android.gms.ads.interstitial.InterstitialAdLoadCallback;
+import com.google.android.gms.ads.rewarded.RewardedAdLoadCallback;
+import io.flutter.plugins.googlemobileads.FullScreenAdPool.Format;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link FullScreenAdPool}. */
+@RunWith(RobolectricTestRunner.class)
+public class FullScreenAdPoolTest {
+  private static final String AD_UNIT_ID = "test-ad-unit";
+  private static final long ONE_HOUR_MILLIS = 60 * 60 * 1000L;
+
+  private FlutterAdLoader mockFlutterAdLoader;
+  private FlutterAdRequest mockRequest;
+  private List<InterstitialAdLoadCallback> interstitialCallbacks;
+  private long now;
+  private FullScreenAdPool pool;
+
+  @Before
+  public void setup() {
+    mockFlutterAdLoader = mock(FlutterAdLoader.class);
+    mockRequest = mock(FlutterAdRequest.class);
+    doReturn(mock(AdRequest.class)).when(mockRequest).asAdRequest(anyString());
+    interstitialCallbacks = new ArrayList<>();
+    doAnswer(
+            new Answer() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                interstitialCallbacks.add(invocation.<InterstitialAdLoadCallback>getArgument(2));
+                return null;
+              }
+            })
+        .when(mockFlutterAdLoader)
+        .loadInterstitial(eq(AD_UNIT_ID), any(AdRequest.class), any());
+    pool =
+        new FullScreenAdPool(
+            mockFlutterAdLoader,
+            new FullScreenAdPool.Clock() {
+              @Override
+              public long elapsedRealtime() {
+                return now;
+              }
+            });
+  }
+
+  @Test
+  public void claim_returnsNullWithoutPreload() {
+    assertNull(pool.claim(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+    verify(mockFlutterAdLoader, never()).loadInterstitial(any(), any(), any());
+  }
+
+  @Test
+  public void preload_loadsRequestedNumberOfAds() {
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 2);
+    assertEquals(2, interstitialCallbacks.size());
+
+    // Ads already loading count towards the depth.
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 2);
+    assertEquals(2, interstitialCallbacks.size());
+  }
+
+  @Test
+  public void claim_handsOutLoadedAdAndRefills() {
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 1);
+    final InterstitialAd ad = mock(InterstitialAd.class);
+    interstitialCallbacks.get(0).onAdLoaded(ad);
+
+    final InterstitialAd claimed = pool.claim(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0);
+
+    assertSame(ad, claimed);
+    assertEquals(2, interstitialCallbacks.size());
+    assertEquals(1, pool.getDepth(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+    assertNull(pool.claim(Format.INTERSTITIAL, "other-ad-unit", mockRequest, 0));
+  }
+
+  @Test
+  public void claim_missGrowsDepth() {
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 1);
+
+    assertNull(pool.claim(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+
+    assertEquals(2, pool.getDepth(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+    assertEquals(2, interstitialCallbacks.size());
+
+    for (int i = 0; i < 5; i++) {
+      pool.claim(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0);
+    }
+    assertEquals(
+        FullScreenAdPool.MAX_DEPTH,
+        pool.getDepth(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+  }
+
+  @Test
+  public void claim_skipsExpiredAdsAndShrinksDepth() {
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 2);
+    interstitialCallbacks.get(0).onAdLoaded(mock(InterstitialAd.class));
+    now = ONE_HOUR_MILLIS / 2;
+    final InterstitialAd fresh = mock(InterstitialAd.class);
+    interstitialCallbacks.get(1).onAdLoaded(fresh);
+
+    now = ONE_HOUR_MILLIS;
+    final InterstitialAd claimed = pool.claim(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0);
+
+    assertSame(fresh, claimed);
+    assertEquals(1, pool.getDepth(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+  }
+
+  @Test
+  public void refresh_replacesExpiredAds() {
+    pool.refresh(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 0);
+    assertEquals(0, interstitialCallbacks.size());
+
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 1);
+    interstitialCallbacks.get(0).onAdLoaded(mock(InterstitialAd.class));
+    pool.refresh(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 0);
+    assertEquals(1, interstitialCallbacks.size());
+
+    now = ONE_HOUR_MILLIS;
+    pool.refresh(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 0);
+    assertEquals(2, interstitialCallbacks.size());
+    final InterstitialAd fresh = mock(InterstitialAd.class);
+    interstitialCallbacks.get(1).onAdLoaded(fresh);
+
+    assertSame(fresh, pool.claim(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+  }
+
+  @Test
+  public void refresh_replacesAdsExpiringWithinMargin() {
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 1);
+    assertNull(pool.getMillisUntilNextExpiry(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+    interstitialCallbacks.get(0).onAdLoaded(mock(InterstitialAd.class));
+    now = ONE_HOUR_MILLIS / 2;
+    assertEquals(
+        Long.valueOf(ONE_HOUR_MILLIS / 2),
+        pool.getMillisUntilNextExpiry(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+
+    pool.refresh(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, ONE_HOUR_MILLIS / 4);
+    assertEquals(1, interstitialCallbacks.size());
+
+    pool.refresh(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, ONE_HOUR_MILLIS / 2);
+    assertEquals(2, interstitialCallbacks.size());
+    assertNull(pool.getMillisUntilNextExpiry(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+  }
+
+  @Test
+  public void failedLoad_isRetriedOnRefresh() {
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 1);
+    interstitialCallbacks.get(0).onAdFailedToLoad(mock(LoadAdError.class));
+
+    pool.refresh(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 0);
+
+    assertEquals(2, interstitialCallbacks.size());
+  }
+
+  @Test
+  public void failedLoad_isRetriedOnNextClaim() {
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 1);
+    interstitialCallbacks.get(0).onAdFailedToLoad(mock(LoadAdError.class));
+    assertEquals(1, interstitialCallbacks.size());
+
+    pool.claim(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0);
+
+    assertEquals(3, interstitialCallbacks.size());
+  }
+
+  @Test
+  public void clear_dropsAdsLoadedAfterwards() {
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 1);
+    pool.clear();
+    interstitialCallbacks.get(0).onAdLoaded(mock(InterstitialAd.class));
+
+    pool.preload(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0, 1);
+
+    assertNull(pool.claim(Format.INTERSTITIAL, AD_UNIT_ID, mockRequest, 0));
+  }
+
+  @Test
+  public void preload_usesAdManagerRequestAndOrientation() {
+    final FlutterAdManagerAdRequest mockAdManagerRequest = mock(FlutterAdManagerAdRequest.class);
+    final AdManagerAdRequest adManagerAdRequest = mock(AdManagerAdRequest.class);
+    doReturn(adManagerAdRequest).when(mockAdManagerRequest).asAdManagerAdRequest(AD_UNIT_ID);
+
+    pool.preload(
+        Format.APP_OPEN,
+        AD_UNIT_ID,
+        mockAdManagerRequest,
+        AppOpenAd.APP_OPEN_AD_ORIENTATION_LANDSCAPE,
+        1);
+    pool.preload(Format.REWARDED, AD_UNIT_ID, mockAdManagerRequest, 0, 1);
+
+    verify(mockFlutterAdLoader)
+        .loadAdManagerAppOpen(
+            eq(AD_UNIT_ID),
+            eq(adManagerAdRequest),
+            eq(AppOpenAd.APP_OPEN_AD_ORIENTATION_LANDSCAPE),
+            any(AppOpenAdLoadCallback.class));
+    verify(mockFlutterAdLoader)
+        .loadAdManagerRewarded(
+            eq(AD_UNIT_ID), eq(adManagerAdRequest), any(RewardedAdLoadCallback.class));
+    verify(mockFlutterAdLoader, times(0)).loadAppOpen(any(), any(), anyInt(), any());
+  }
+}
@@ -20,11 +20,14 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -32,6 +35,8 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import android.app.Activity;
 import android.content.Context;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.test.core.app.ApplicationProvider;
 import com.google.android.gms.ads.AdError;
 import com.google.android.gms.ads.AdInspectorError;
@@ -50,7 +55,6 @@ import io.flutter.embedding.engine.plugins.FlutterPlugin.FlutterPluginBinding;
 import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.MethodCall;
-import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.Result;
 import io.flutter.plugin.common.StandardMethodCodec;
 import io.flutter.plugin.platform.PlatformViewRegistry;
@@ -62,6 +66,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Test;
@@ -72,6 +78,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
 
 /** Tests {@link AdInstanceManager}. */
 @RunWith(RobolectricTestRunner.class)
@@ -92,7 +99,9 @@ public class GoogleMobileAdsTest {
             byteBufferCaptor.capture(),
             (BinaryMessenger.BinaryReply) isNull());
 
-    return new StandardMethodCodec(new AdMessageCodec(null))
+    final AdMessageCodec messageCodec = new AdMessageCodec(null);
+    messageCodec.registerOutgoingValueReaders();
+    return new StandardMethodCodec(messageCodec)
         .decodeMethodCall((ByteBuffer) byteBufferCaptor.getValue().position(0));
   }
 
@@ -111,12 +120,22 @@ public class GoogleMobileAdsTest {
             })
         .when(mockActivity)
         .runOnUiThread(ArgumentMatchers.any(Runnable.class));
-    MethodChannel methodChannel =
-        new MethodChannel(
+    // Encode events on the calling thread so they are sent once the main looper is flushed.
+    final Executor directExecutor =
+        new Executor() {
+          @Override
+          public void execute(Runnable runnable) {
+            runnable.run();
+          }
+        };
+    final AdEventDispatcher eventDispatcher =
+        new AdEventDispatcher(
             mockMessenger,
             "plugins.flutter.io/google_mobile_ads",
-            new StandardMethodCodec(new AdMessageCodec(mockActivity)));
-    testManager = new AdInstanceManager(methodChannel);
+            new AdMessageCodec(mockActivity),
+            new Handler(Looper.getMainLooper()),
+            directExecutor);
+    testManager = new AdInstanceManager(eventDispatcher);
     testManager.setActivity(mockActivity);
     mockContext = mock(Context.class);
     mockFlutterPluginBinding = mock(FlutterPluginBinding.class);
@@ -257,6 +276,48 @@ public class GoogleMobileAdsTest {
     assertThat(call.arguments, (Matcher) hasEntry("responseInfo", null));
   }
 
+  @Test
+  public void flutterAdListener_onAdLoaded_convertsResponseInfoAtLevel() {
+    final FlutterBannerAd bannerAd =
+        new FlutterBannerAd(
+            0,
+            testManager,
+            "testId",
+            request,
+            new FlutterAdSize(1, 2),
+            mock(BannerAdCreator.class));
+    testManager.trackAd(bannerAd, 0);
+
+    final AdapterResponseInfo adapterInfo = mock(AdapterResponseInfo.class);
+    doReturn("adapter-class").when(adapterInfo).getAdapterClassName();
+    doReturn(123L).when(adapterInfo).getLatencyMillis();
+    doReturn("description").when(adapterInfo).toString();
+    final ResponseInfo responseInfo = mock(ResponseInfo.class);
+    doReturn("response-id").when(responseInfo).getResponseId();
+    doReturn("class-name").when(responseInfo).getMediationAdapterClassName();
+    doReturn(Collections.singletonList(adapterInfo)).when(responseInfo).getAdapterResponses();
+
+    testManager.setResponseInfoLevel(FlutterResponseInfo.Level.ID_ONLY);
+    testManager.onAdLoaded(0, responseInfo);
+
+    final FlutterResponseInfo idOnly =
+        new FlutterResponseInfo(
+            "response-id",
+            "class-name",
+            Collections.<FlutterAd.FlutterAdapterResponseInfo>emptyList());
+    //noinspection rawtypes
+    assertThat(getLastMethodCall().arguments, (Matcher) hasEntry("responseInfo", idOnly));
+    assertEquals(new FlutterResponseInfo(responseInfo), testManager.getResponseInfo(0));
+
+    testManager.setResponseInfoLevel(FlutterResponseInfo.Level.NONE);
+    testManager.onAdLoaded(0, responseInfo);
+    //noinspection rawtypes
+    assertThat(getLastMethodCall().arguments, (Matcher) hasEntry("responseInfo", null));
+
+    testManager.disposeAd(0);
+    assertNull(testManager.getResponseInfo(0));
+  }
+
   @Test
   public void flutterAdListener_onAdFailedToLoad() {
     final FlutterBannerAd bannerAd =
@@ -625,6 +686,21 @@ public class GoogleMobileAdsTest {
     assertEquals(args.get("currencyCode"), "code");
   }
 
+  @Test
+  public void onPaidEvent_recordsRevenueOfDisposedAdUnderItsAdUnit() {
+    final RevenueAggregator mockAggregator = mock(RevenueAggregator.class);
+    testManager.setRevenueAggregator(mockAggregator);
+    final FlutterInterstitialAd interstitial = mock(FlutterInterstitialAd.class);
+    doReturn("test-ad-unit").when(interstitial).getAdUnitId();
+    testManager.trackAd(interstitial, 1);
+    testManager.disposeAd(1);
+
+    final FlutterAdValue flutterAdValue = new FlutterAdValue(1, "USD", 1200L);
+    testManager.onPaidEvent(interstitial, flutterAdValue);
+
+    verify(mockAggregator).record("test-ad-unit", flutterAdValue);
+  }
+
   @Test
   public void testSetAppMuted() {
     AdInstanceManager testManagerSpy = spy(testManager);
@@ -785,6 +861,41 @@ public class GoogleMobileAdsTest {
     verify(result).success(adSize.getHeight());
   }
 
+  @Test
+  public void testPrecomputeAdaptiveBannerAdSizes() {
+    AdInstanceManager testManagerSpy = spy(testManager);
+    FlutterMobileAdsWrapper mockMobileAds = mock(FlutterMobileAdsWrapper.class);
+    GoogleMobileAdsPlugin plugin =
+        new GoogleMobileAdsPlugin(mockFlutterPluginBinding, testManagerSpy, mockMobileAds);
+
+    FlutterPluginBinding mockActivityPluginBinding = mock(FlutterPluginBinding.class);
+    Context context = ApplicationProvider.getApplicationContext();
+    doReturn(context).when(mockActivityPluginBinding).getApplicationContext();
+    doReturn(mock(BinaryMessenger.class)).when(mockActivityPluginBinding).getBinaryMessenger();
+    doReturn(mock(PlatformViewRegistry.class))
+        .when(mockActivityPluginBinding)
+        .getPlatformViewRegistry();
+    plugin.onAttachedToEngine(mockActivityPluginBinding);
+
+    HashMap<String, Object> arguments = new HashMap<>();
+    arguments.put("widths", Arrays.asList(320, 360));
+    Result result = mock(Result.class);
+    MethodCall methodCall = new MethodCall("AdSize#precomputeAdaptiveBannerAdSizes", arguments);
+    plugin.onMethodCall(methodCall, result);
+
+    verify(result).success(isNull());
+
+    arguments = new HashMap<>();
+    arguments.put("orientation", "landscape");
+    arguments.put("width", 360);
+    result = mock(Result.class);
+    methodCall = new MethodCall("AdSize#getAnchoredAdaptiveBannerAdSize", arguments);
+    plugin.onMethodCall(methodCall, result);
+
+    verify(result)
+        .success(AdSize.getLandscapeAnchoredAdaptiveBannerAdSize(context, 360).getHeight());
+  }
+
   public void testGetAdSize_bannerAd() {
     // Setup mocks
     AdInstanceManager testManagerSpy = spy(testManager);
@@ -988,4 +1099,138 @@ public class GoogleMobileAdsTest {
     // result.success() still invoked, resulting in no-op
     verify(result).success(null);
   }
+
+  @Test
+  public void onAdLoaded_offMainThread_finishesLoadOnMainThread() throws InterruptedException {
+    final FlutterAd mockAd = mock(FlutterAd.class);
+    testManager.trackAd(mockAd, 0);
+    testManager
+        .getLoadScheduler()
+        .schedule(0, "test-ad-unit", AdLoadScheduler.Priority.VISIBLE, mockAd);
+    assertEquals(1, testManager.getLoadScheduler().getInFlightCount());
+
+    final Thread adapterThread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                testManager.onAdLoaded(0, null);
+              }
+            });
+    adapterThread.start();
+    adapterThread.join();
+    assertEquals(1, testManager.getLoadScheduler().getInFlightCount());
+
+    Robolectric.flushForegroundThreadScheduler();
+    assertEquals(0, testManager.getLoadScheduler().getInFlightCount());
+  }
+
+  @Test
+  public void loadTimeout_removesAndDisposesAd() {
+    final FlutterAd mockAd = mock(FlutterAd.class);
+    testManager.trackAd(mockAd, 0);
+    testManager.getLoadScheduler().setLoadTimeoutMillis(1000);
+    testManager
+        .getLoadScheduler()
+        .schedule(0, "test-ad-unit", AdLoadScheduler.Priority.VISIBLE, mockAd);
+
+    ShadowLooper.idleMainLooper(1000, TimeUnit.MILLISECONDS);
+
+    verify(mockAd).dispose();
+    assertNull(testManager.adForId(0));
+    assertEquals(0, testManager.getLoadScheduler().getInFlightCount());
+  }
+
+  @Test
+  public void testLoadAds_reportsResultPerAd() {
+    AdInstanceManager testManagerSpy = spy(testManager);
+    FlutterMobileAdsWrapper mockMobileAds = mock(FlutterMobileAdsWrapper.class);
+    GoogleMobileAdsPlugin plugin =
+        new GoogleMobileAdsPlugin(mockFlutterPluginBinding, testManagerSpy, mockMobileAds);
+    GoogleMobileAdsPlugin pluginSpy = spy(plugin);
+    BannerAdCreator bannerAdCreator = mock(BannerAdCreator.class);
+    doReturn(mock(AdView.class)).when(bannerAdCreator).createAdView();
+    doReturn(bannerAdCreator)
+        .when(pluginSpy)
+        .getBannerAdCreator(ArgumentMatchers.any(Context.class));
+
+    Map<String, Object> bannerArgs = new HashMap<>();
+    bannerArgs.put("adId", 1);
+    bannerArgs.put("adUnitId", "test-ad-unit");
+    bannerArgs.put("request", new FlutterAdRequest.Builder().build());
+    bannerArgs.put("size", new FlutterAdSize(1, 2));
+    Map<String, Object> nativeArgs = new HashMap<>();
+    nativeArgs.put("adId", 2);
+    nativeArgs.put("factoryId", "missing-factory");
+    Map<String, Object> interstitialArgs = new HashMap<>();
+    interstitialArgs.put("adId", 3);
+    List<Map<String, Object>> specs = new ArrayList<>();
+    specs.add(loadSpec("loadBannerAd", bannerArgs));
+    specs.add(loadSpec("loadNativeAd", nativeArgs));
+    specs.add(loadSpec("loadInterstitialAd", interstitialArgs));
+
+    Result result = mock(Result.class);
+    pluginSpy.onMethodCall(
+        new MethodCall("loadAds", Collections.singletonMap("ads", (Object) specs)), result);
+
+    ArgumentCaptor<List<Map<String, Object>>> captor = ArgumentCaptor.forClass(List.class);
+    verify(result).success(captor.capture());
+    List<Map<String, Object>> results = captor.getValue();
+    assertEquals(3, results.size());
+    assertNull(results.get(0));
+    assertEquals("NativeAdError", results.get(1).get("code"));
+    assertEquals("InvalidRequest", results.get(2).get("code"));
+    assertNotNull(testManagerSpy.adForId(1));
+    assertNull(testManagerSpy.adForId(2));
+    assertNull(testManagerSpy.adForId(3));
+  }
+
+  @Test
+  public void testLoadAds_keepsTrackedAdWithSameId() {
+    FlutterMobileAdsWrapper mockMobileAds = mock(FlutterMobileAdsWrapper.class);
+    GoogleMobileAdsPlugin plugin =
+        new GoogleMobileAdsPlugin(mockFlutterPluginBinding, testManager, mockMobileAds);
+    FlutterAd trackedAd = mock(FlutterAd.class);
+    testManager.trackAd(trackedAd, 1);
+
+    Map<String, Object> interstitialArgs = new HashMap<>();
+    interstitialArgs.put("adId", 1);
+    List<Map<String, Object>> specs = new ArrayList<>();
+    specs.add(loadSpec("loadInterstitialAd", interstitialArgs));
+
+    Result result = mock(Result.class);
+    plugin.onMethodCall(
+        new MethodCall("loadAds", Collections.singletonMap("ads", (Object) specs)), result);
+
+    ArgumentCaptor<List<Map<String, Object>>> captor = ArgumentCaptor.forClass(List.class);
+    verify(result).success(captor.capture());
+    assertEquals("InvalidRequest", captor.getValue().get(0).get("code"));
+    assertEquals(trackedAd, testManager.adForId(1));
+    verify(trackedAd, never()).dispose();
+  }
+
+  @Test
+  public void testLoadNativeAd_rejectedCallDoesNotRecordLoadRequest() {
+    AdInstanceManager testManagerSpy = spy(testManager);
+    FlutterMobileAdsWrapper mockMobileAds = mock(FlutterMobileAdsWrapper.class);
+    GoogleMobileAdsPlugin plugin =
+        new GoogleMobileAdsPlugin(mockFlutterPluginBinding, testManagerSpy, mockMobileAds);
+
+    Map<String, Object> nativeArgs = new HashMap<>();
+    nativeArgs.put("adId", 1);
+    nativeArgs.put("adUnitId", "test-ad-unit");
+    nativeArgs.put("factoryId", "missing-factory");
+    Result result = mock(Result.class);
+    plugin.onMethodCall(new MethodCall("loadNativeAd", nativeArgs), result);
+
+    verify(result).error(eq("NativeAdError"), any(String.class), isNull());
+    verify(testManagerSpy, never()).onLoadRequested(anyInt(), anyString());
+  }
+
+  private static Map<String, Object> loadSpec(String method, Map<String, Object> arguments) {
+    Map<String, Object> spec = new HashMap<>();
+    spec.put("method", method);
+    spec.put("arguments", arguments);
+    return spec;
+  }
 }
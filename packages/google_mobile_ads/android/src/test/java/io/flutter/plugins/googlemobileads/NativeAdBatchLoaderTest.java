@@ -0,0 +1,202 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.content.Context;
+import com.google.android.gms.ads.AdListener;
+import com.google.android.gms.ads.AdLoader;
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.nativead.NativeAd;
+import com.google.android.gms.ads.nativead.NativeAd.OnNativeAdLoadedListener;
+import com.google.android.gms.ads.nativead.NativeAdOptions;
+import io.flutter.plugins.googlemobileads.FlutterAd.FlutterLoadAdError;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link NativeAdBatchLoader}. */
+@RunWith(RobolectricTestRunner.class)
+public class NativeAdBatchLoaderTest {
+  private static final String AD_UNIT_ID = "test-ad-unit";
+
+  private FlutterAdLoader mockFlutterAdLoader;
+  private AdLoader mockAdLoader;
+  private AdRequest mockRequest;
+  private OnNativeAdLoadedListener loadedListener;
+  private AdListener adListener;
+  private AdLoadCircuitBreaker mockCircuitBreaker;
+  private NativeAdBatchLoader batchLoader;
+
+  @Before
+  public void setup() {
+    mockFlutterAdLoader = mock(FlutterAdLoader.class);
+    mockAdLoader = mock(AdLoader.class);
+    mockRequest = mock(AdRequest.class);
+    doAnswer(
+            new Answer() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                loadedListener = invocation.getArgument(1);
+                adListener = invocation.getArgument(3);
+                return mockAdLoader;
+              }
+            })
+        .when(mockFlutterAdLoader)
+        .buildNativeAdLoader(anyString(), any(), any(NativeAdOptions.class), any());
+    doReturn(true).when(mockFlutterAdLoader).isLoading(mockAdLoader);
+    mockCircuitBreaker = mock(AdLoadCircuitBreaker.class);
+    batchLoader =
+        new NativeAdBatchLoader(mock(Context.class), mockFlutterAdLoader, mockCircuitBreaker);
+  }
+
+  private static List<FlutterNativeAd> mockAds(int count) {
+    final List<FlutterNativeAd> ads = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ads.add(mock(FlutterNativeAd.class));
+    }
+    return ads;
+  }
+
+  @Test
+  public void load_deliversAdsFromOneRequest() {
+    final List<FlutterNativeAd> ads = mockAds(3);
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, ads);
+
+    verify(mockFlutterAdLoader).loadNativeAds(mockAdLoader, mockRequest, 3);
+    final NativeAd first = mock(NativeAd.class);
+    final NativeAd second = mock(NativeAd.class);
+    loadedListener.onNativeAdLoaded(first);
+    loadedListener.onNativeAdLoaded(second);
+
+    verify(ads.get(0)).onNativeAdLoaded(first);
+    verify(ads.get(1)).onNativeAdLoaded(second);
+    verify(ads.get(2), never()).onNativeAdLoaded(any(NativeAd.class));
+  }
+
+  @Test
+  public void load_reusesLoaderForSameAdUnitAndOptions() {
+    final FlutterNativeAdOptions options =
+        new FlutterNativeAdOptions(null, null, null, null, null, null);
+    batchLoader.load(AD_UNIT_ID, options, mockRequest, mockAds(1));
+    loadedListener.onNativeAdLoaded(mock(NativeAd.class));
+    batchLoader.load(AD_UNIT_ID, options, mockRequest, mockAds(1));
+    batchLoader.load("other-ad-unit", options, mockRequest, mockAds(1));
+
+    verify(mockFlutterAdLoader, times(2))
+        .buildNativeAdLoader(anyString(), any(), any(NativeAdOptions.class), any());
+    assertEquals(2, batchLoader.getLoaderCount());
+  }
+
+  @Test
+  public void load_splitsIntoSequentialRequests() {
+    final List<FlutterNativeAd> ads = mockAds(NativeAdBatchLoader.MAX_ADS_PER_REQUEST + 2);
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, ads);
+
+    verify(mockFlutterAdLoader)
+        .loadNativeAds(mockAdLoader, mockRequest, NativeAdBatchLoader.MAX_ADS_PER_REQUEST);
+    verify(mockFlutterAdLoader, never()).loadNativeAds(mockAdLoader, mockRequest, 2);
+
+    for (int i = 0; i < NativeAdBatchLoader.MAX_ADS_PER_REQUEST; i++) {
+      loadedListener.onNativeAdLoaded(mock(NativeAd.class));
+    }
+
+    verify(mockFlutterAdLoader).loadNativeAds(mockAdLoader, mockRequest, 2);
+  }
+
+  @Test
+  public void partialFill_failsRemainingAds() {
+    final List<FlutterNativeAd> ads = mockAds(3);
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, ads);
+
+    doReturn(false).when(mockFlutterAdLoader).isLoading(mockAdLoader);
+    loadedListener.onNativeAdLoaded(mock(NativeAd.class));
+
+    verify(ads.get(0), never()).onNativeAdFailedToLoad(any(FlutterLoadAdError.class));
+    verify(ads.get(1)).onNativeAdFailedToLoad(any(FlutterLoadAdError.class));
+    verify(ads.get(2)).onNativeAdFailedToLoad(any(FlutterLoadAdError.class));
+  }
+
+  @Test
+  public void failedLoad_failsBatchAndStartsNext() {
+    final List<FlutterNativeAd> first = mockAds(2);
+    final List<FlutterNativeAd> second = mockAds(1);
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, first);
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, second);
+    verify(mockFlutterAdLoader, never()).loadNativeAds(mockAdLoader, mockRequest, 1);
+
+    final LoadAdError error = new LoadAdError(3, "no fill", "domain", null, null);
+    adListener.onAdFailedToLoad(error);
+
+    final FlutterLoadAdError expected = new FlutterLoadAdError(error);
+    verify(first.get(0)).onNativeAdFailedToLoad(eq(expected));
+    verify(first.get(1)).onNativeAdFailedToLoad(eq(expected));
+    verify(mockFlutterAdLoader).loadNativeAds(mockAdLoader, mockRequest, 1);
+  }
+
+  @Test
+  public void load_reportsFillResultsToCircuitBreaker() {
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, mockAds(2));
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, mockAds(1));
+
+    loadedListener.onNativeAdLoaded(mock(NativeAd.class));
+    loadedListener.onNativeAdLoaded(mock(NativeAd.class));
+    verify(mockCircuitBreaker, times(1)).onLoadSucceeded(AD_UNIT_ID);
+
+    final LoadAdError error = new LoadAdError(3, "no fill", "domain", null, null);
+    adListener.onAdFailedToLoad(error);
+    verify(mockCircuitBreaker).onLoadFailed(AD_UNIT_ID, new FlutterLoadAdError(error));
+  }
+
+  @Test
+  public void adWithoutWaitingRequest_isDestroyed() {
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, mockAds(1));
+    loadedListener.onNativeAdLoaded(mock(NativeAd.class));
+
+    final NativeAd extra = mock(NativeAd.class);
+    loadedListener.onNativeAdLoaded(extra);
+
+    verify(extra).destroy();
+  }
+
+  @Test
+  public void clear_dropsQueuedBatches() {
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, mockAds(1));
+    batchLoader.load(AD_UNIT_ID, null, mockRequest, mockAds(1));
+    batchLoader.clear();
+
+    loadedListener.onNativeAdLoaded(mock(NativeAd.class));
+
+    verify(mockFlutterAdLoader, times(1)).loadNativeAds(mockAdLoader, mockRequest, 1);
+    verify(mockCircuitBreaker).onLoadCancelled(AD_UNIT_ID);
+    assertEquals(0, batchLoader.getLoaderCount());
+  }
+}
@@ -0,0 +1,231 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import android.os.Handler;
+import io.flutter.plugin.common.MethodChannel;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link RevenueAggregator}. */
+@RunWith(RobolectricTestRunner.class)
+public class RevenueAggregatorTest {
+  private static final String AD_UNIT_ID = "test-ad-unit";
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private MethodChannel mockChannel;
+  private Handler mockHandler;
+  private RevenueLedger ledger;
+  private RevenueAggregator aggregator;
+
+  @Before
+  public void setup() {
+    mockChannel = mock(MethodChannel.class);
+    mockHandler = mock(Handler.class);
+    doAnswer(
+            new Answer() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                ((Runnable) invocation.getArgument(0)).run();
+                return true;
+              }
+            })
+        .when(mockHandler)
+        .post(any(Runnable.class));
+    ledger = new RevenueLedger(new File(folder.getRoot(), "ledger"));
+    aggregator = createAggregator();
+  }
+
+  private RevenueAggregator createAggregator() {
+    final Executor directExecutor =
+        new Executor() {
+          @Override
+          public void execute(Runnable runnable) {
+            runnable.run();
+          }
+        };
+    final RevenueAggregator aggregator =
+        new RevenueAggregator(ledger, mockHandler, directExecutor);
+    aggregator.start();
+    aggregator.setFlushIntervalMillis(mockChannel, 60000);
+    return aggregator;
+  }
+
+  @SuppressWarnings("unchecked")
+  private MethodChannel.Result verifyFlush(List<Map<String, Object>> expected) {
+    final ArgumentCaptor<Object> aggregates = ArgumentCaptor.forClass(Object.class);
+    final ArgumentCaptor<MethodChannel.Result> result =
+        ArgumentCaptor.forClass(MethodChannel.Result.class);
+    verify(mockChannel)
+        .invokeMethod(eq(RevenueAggregator.FLUSH_METHOD), aggregates.capture(), result.capture());
+    assertEquals(expected.size(), ((List<?>) aggregates.getValue()).size());
+    for (Map<String, Object> aggregate : expected) {
+      assertTrue(((List<Map<String, Object>>) aggregates.getValue()).contains(aggregate));
+    }
+    return result.getValue();
+  }
+
+  private static Map<String, Object> aggregate(
+      String currencyCode, int precision, long valueMicros, int eventCount) {
+    final Map<String, Object> aggregate = new HashMap<>();
+    aggregate.put("adUnitId", AD_UNIT_ID);
+    aggregate.put("currencyCode", currencyCode);
+    aggregate.put("precision", precision);
+    aggregate.put("valueMicros", valueMicros);
+    aggregate.put("eventCount", eventCount);
+    return aggregate;
+  }
+
+  @Test
+  public void flush_sendsSumsPerKey() {
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 1200));
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 300));
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(3, "USD", 50));
+
+    aggregator.flush();
+
+    verifyFlush(Arrays.asList(aggregate("USD", 2, 1500, 2), aggregate("USD", 3, 50, 1)));
+  }
+
+  @Test
+  public void flushInterval_schedulesFlushOnlyWithPendingRevenue() {
+    aggregator.setFlushIntervalMillis(mockChannel, 1000);
+    verify(mockHandler, never()).postDelayed(any(Runnable.class), anyLong());
+
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 1200));
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 300));
+
+    final ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockHandler).postDelayed(flush.capture(), eq(1000L));
+    flush.getValue().run();
+    verifyFlush(Collections.singletonList(aggregate("USD", 2, 1500, 2)));
+  }
+
+  @Test
+  public void deliveredFlush_leavesOnlyLaterRevenueInLedger() {
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 1200));
+    aggregator.flush();
+    final MethodChannel.Result result =
+        verifyFlush(Collections.singletonList(aggregate("USD", 2, 1200, 1)));
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 300));
+
+    result.success(null);
+
+    final List<RevenueLedger.Entry> entries = ledger.recover();
+    assertEquals(1, entries.size());
+    assertEquals(300, entries.get(0).valueMicros);
+    assertEquals(1, entries.get(0).eventCount);
+  }
+
+  @Test
+  public void failedFlush_isSentAgain() {
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 1200));
+    aggregator.flush();
+    final MethodChannel.Result result =
+        verifyFlush(Collections.singletonList(aggregate("USD", 2, 1200, 1)));
+
+    result.notImplemented();
+    aggregator.flush();
+
+    verify(mockChannel, times(2))
+        .invokeMethod(eq(RevenueAggregator.FLUSH_METHOD), any(), any(MethodChannel.Result.class));
+    assertEquals(1, ledger.recover().size());
+  }
+
+  @Test
+  public void record_dropsPaidEventsWhileDisabled() {
+    aggregator.setFlushIntervalMillis(mockChannel, 0);
+
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 1200));
+    aggregator.flush();
+
+    verify(mockChannel, never())
+        .invokeMethod(eq(RevenueAggregator.FLUSH_METHOD), any(), any(MethodChannel.Result.class));
+    assertTrue(ledger.recover().isEmpty());
+  }
+
+  @Test
+  public void setFlushIntervalMillis_movesFlushesToLatestChannel() {
+    final MethodChannel otherChannel = mock(MethodChannel.class);
+    aggregator.setFlushIntervalMillis(otherChannel, 1000);
+    // Disabling from an engine that is not in use changes nothing.
+    aggregator.setFlushIntervalMillis(mockChannel, 0);
+
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 1200));
+    aggregator.flush();
+
+    verify(mockChannel, never())
+        .invokeMethod(eq(RevenueAggregator.FLUSH_METHOD), any(), any(MethodChannel.Result.class));
+    verify(otherChannel)
+        .invokeMethod(eq(RevenueAggregator.FLUSH_METHOD), any(), any(MethodChannel.Result.class));
+  }
+
+  @Test
+  public void stop_resendsFlushUnansweredByStoppedEngine() {
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 1200));
+    aggregator.flush();
+    final MethodChannel.Result staleResult =
+        verifyFlush(Collections.singletonList(aggregate("USD", 2, 1200, 1)));
+
+    aggregator.stop(mockChannel);
+    final MethodChannel otherChannel = mock(MethodChannel.class);
+    aggregator.setFlushIntervalMillis(otherChannel, 1000);
+    aggregator.flush();
+    // A late reply from the stopped engine doesn't settle the flush sent to the new one.
+    staleResult.success(null);
+
+    verify(otherChannel)
+        .invokeMethod(eq(RevenueAggregator.FLUSH_METHOD), any(), any(MethodChannel.Result.class));
+    assertEquals(1, ledger.recover().size());
+  }
+
+  @Test
+  public void start_recoversRevenueOfPreviousProcess() {
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 1200));
+    aggregator.record(AD_UNIT_ID, new FlutterAdValue(2, "USD", 300));
+
+    mockChannel = mock(MethodChannel.class);
+    aggregator = createAggregator();
+    aggregator.flush();
+
+    verifyFlush(Collections.singletonList(aggregate("USD", 2, 1500, 2)));
+  }
+}
@@ -0,0 +1,114 @@
+// Copyright 2022 Google LLC
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.flutter.plugins.googlemobileads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link RevenueLedger}. */
+@RunWith(RobolectricTestRunner.class)
+public class RevenueLedgerTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+  private RevenueLedger ledger;
+
+  @Before
+  public void setup() {
+    file = new File(folder.getRoot(), "ledger");
+    ledger = new RevenueLedger(file);
+  }
+
+  @Test
+  public void recover_returnsAppendedEntries() {
+    assertTrue(ledger.recover().isEmpty());
+
+    ledger.append(new RevenueLedger.Entry("ad-unit", "USD", 2, 1200, 1));
+    ledger.append(new RevenueLedger.Entry("other-ad-unit", "EUR", 3, 800, 2));
+
+    final List<RevenueLedger.Entry> entries = new RevenueLedger(file).recover();
+    assertEquals(2, entries.size());
+    assertEntry(entries.get(0), "ad-unit", "USD", 2, 1200, 1);
+    assertEntry(entries.get(1), "other-ad-unit", "EUR", 3, 800, 2);
+  }
+
+  @Test
+  public void recover_dropsDamagedTail() throws IOException {
+    ledger.append(new RevenueLedger.Entry("ad-unit", "USD", 2, 1200, 1));
+    final long validLength = file.length();
+    ledger.append(new RevenueLedger.Entry("ad-unit", "USD", 2, 500, 1));
+    // Cut the last record short, as if the process died while writing it.
+    final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    randomAccessFile.setLength(file.length() - 3);
+    randomAccessFile.close();
+
+    final List<RevenueLedger.Entry> entries = ledger.recover();
+
+    assertEquals(1, entries.size());
+    assertEntry(entries.get(0), "ad-unit", "USD", 2, 1200, 1);
+    assertEquals(validLength, file.length());
+  }
+
+  @Test
+  public void recover_stopsAtChecksumMismatch() throws IOException {
+    ledger.append(new RevenueLedger.Entry("ad-unit", "USD", 2, 1200, 1));
+    final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    randomAccessFile.seek(file.length() - 1);
+    final int lastByte = randomAccessFile.read();
+    randomAccessFile.seek(file.length() - 1);
+    randomAccessFile.write(lastByte ^ 0xFF);
+    randomAccessFile.close();
+
+    assertTrue(ledger.recover().isEmpty());
+  }
+
+  @Test
+  public void rewrite_replacesEntries() {
+    ledger.append(new RevenueLedger.Entry("ad-unit", "USD", 2, 1200, 1));
+
+    ledger.rewrite(
+        Collections.singletonList(new RevenueLedger.Entry("ad-unit", "USD", 2, 300, 4)));
+
+    final List<RevenueLedger.Entry> entries = ledger.recover();
+    assertEquals(1, entries.size());
+    assertEntry(entries.get(0), "ad-unit", "USD", 2, 300, 4);
+  }
+
+  private static void assertEntry(
+      RevenueLedger.Entry entry,
+      String adUnitId,
+      String currencyCode,
+      int precision,
+      long valueMicros,
+      int eventCount) {
+    assertEquals(adUnitId, entry.adUnitId);
+    assertEquals(currencyCode, entry.currencyCode);
+    assertEquals(precision, entry.precision);
+    assertEquals(valueMicros, entry.valueMicros);
+    assertEquals(eventCount, entry.eventCount);
+  }
+}
@@ -389,6 +389,25 @@ class AdSize {
     );
   }
 
+  /// Resolves the portrait and landscape adaptive banner sizes for each of
+  /// [widths] ahead of time (Android only).
+  ///
+  /// Call this at startup with the widths your banners will use, so that the
+  /// first banner layout doesn't wait on the size computation. Adaptive sizes
+  /// are cached until the display configuration changes. This is a no-op on
+  /// iOS.
+  static Future<void> precomputeAdaptiveBannerAdSizes(List<int> widths) {
+    if (defaultTargetPlatform != TargetPlatform.android) {
+      return Future<void>.value();
+    }
+    return instanceManager.channel.invokeMethod<void>(
+      'AdSize#precomputeAdaptiveBannerAdSizes',
+      <String, Object?>{
+        'widths': widths,
+      },
+    );
+  }
+
   /// Returns an AdSize with the given width and a Google-optimized height to create a banner ad.
   ///
   /// The size returned will have an aspect ratio similar to AdSize, suitable for anchoring near the top or bottom of your app.
@@ -537,12 +556,45 @@ abstract class AdWithView extends Ad {
   /// The [AdWithViewListener] for the ad.
   final AdWithViewListener listener;
 
+  AdLoadPriority _loadPriority = AdLoadPriority.visible;
+
+  /// How soon this ad is expected to be shown.
+  ///
+  /// Defaults to [AdLoadPriority.visible].
+  AdLoadPriority get loadPriority => _loadPriority;
+
+  /// Sets how soon this ad is expected to be shown.
+  ///
+  /// On Android, when [MobileAds.setMaxConcurrentLoads] limits how many ads
+  /// load at a time, waiting loads start in priority order. Set a lower
+  /// priority before [load] for ads further down a list, and raise it as they
+  /// scroll closer so their load starts sooner. Has no effect once the load
+  /// started, or on iOS.
+  Future<void> setLoadPriority(AdLoadPriority priority) {
+    _loadPriority = priority;
+    return instanceManager.setAdLoadPriority(this);
+  }
+
   /// Starts loading this ad.
   ///
   /// Loading callbacks are sent to this [Ad]'s [listener].
   Future<void> load();
 }
 
+/// How soon an [AdWithView] is expected to be shown.
+///
+/// See [AdWithView.setLoadPriority].
+enum AdLoadPriority {
+  /// The ad is on screen.
+  visible,
+
+  /// The ad is about to scroll on screen.
+  nearVisible,
+
+  /// The ad is loaded ahead of time.
+  prefetch,
+}
+
 /// An [Ad] that is overlaid on top of the UI.
 abstract class AdWithoutView extends Ad {
   /// Default constructor used by subclasses.
@@ -985,6 +1037,22 @@ class NativeAd extends AdWithView {
   Future<void> load() async {
     await instanceManager.loadNativeAd(this);
   }
+
+  /// Loads [ads] together, with a single request where the platform supports
+  /// it.
+  ///
+  /// All [ads] must share [adUnitId], [factoryId], [request] or
+  /// [adManagerRequest], and [nativeAdOptions], or the returned future fails
+  /// with an [ArgumentError] on Android. Ads that are not filled receive
+  /// [NativeAdListener.onAdFailedToLoad].
+  ///
+  /// On Android the SDK reports the events of ads loaded together without
+  /// telling them apart, so the listener's `onAdOpened`, `onAdClosed`,
+  /// `onAdClicked` and `onAdImpression` are not called for these ads. Use
+  /// [load] for ads that need those events.
+  static Future<void> loadAll(List<NativeAd> ads) async {
+    await instanceManager.loadNativeAds(ads);
+  }
 }
 
 /// A full-screen interstitial ad for the Google Mobile Ads Plugin.
@@ -1020,6 +1088,21 @@ class InterstitialAd extends AdWithoutView {
     await instanceManager.loadInterstitialAd(ad);
   }
 
+  /// Keeps [count] ads for [adUnitId] and [request] loaded ahead of time
+  /// (Android only).
+  ///
+  /// A later [load] with the same ad unit and an equal request completes
+  /// without waiting on the network while a preloaded ad is available. The
+  /// pool refills itself after each ad is handed out. This is a no-op on iOS.
+  static Future<void> preload({
+    required String adUnitId,
+    required AdRequest request,
+    int count = 1,
+  }) {
+    return instanceManager.preloadAd('interstitial', adUnitId,
+        request: request, count: count);
+  }
+
   /// Displays this on top of the application.
   ///
   /// Set [fullScreenContentCallback] before calling this method to be
@@ -1066,6 +1149,21 @@ class AdManagerInterstitialAd extends AdWithoutView {
     await instanceManager.loadAdManagerInterstitialAd(ad);
   }
 
+  /// Keeps [count] ads for [adUnitId] and [request] loaded ahead of time
+  /// (Android only).
+  ///
+  /// A later [load] with the same ad unit and an equal request completes
+  /// without waiting on the network while a preloaded ad is available. The
+  /// pool refills itself after each ad is handed out. This is a no-op on iOS.
+  static Future<void> preload({
+    required String adUnitId,
+    required AdManagerAdRequest request,
+    int count = 1,
+  }) {
+    return instanceManager.preloadAd('adManagerInterstitial', adUnitId,
+        adManagerRequest: request, count: count);
+  }
+
   /// Displays this on top of the application.
   ///
   /// Set [fullScreenContentCallback] before calling this method to be
@@ -1143,6 +1241,34 @@ class RewardedAd extends AdWithoutView {
     await instanceManager.loadRewardedAd(rewardedAd);
   }
 
+  /// Keeps [count] ads for [adUnitId] and [request] loaded ahead of time
+  /// (Android only).
+  ///
+  /// A later [load] with the same ad unit and an equal request completes
+  /// without waiting on the network while a preloaded ad is available. The
+  /// pool refills itself after each ad is handed out. This is a no-op on iOS.
+  static Future<void> preload({
+    required String adUnitId,
+    required AdRequest request,
+    int count = 1,
+  }) {
+    return instanceManager.preloadAd('rewarded', adUnitId,
+        request: request, count: count);
+  }
+
+  /// Keeps [count] ads for [adUnitId] and [adManagerRequest] loaded ahead of
+  /// time (Android only).
+  ///
+  /// See [preload].
+  static Future<void> preloadWithAdManagerAdRequest({
+    required String adUnitId,
+    required AdManagerAdRequest adManagerRequest,
+    int count = 1,
+  }) {
+    return instanceManager.preloadAd('rewarded', adUnitId,
+        adManagerRequest: adManagerRequest, count: count);
+  }
+
   /// Display this on top of the application.
   ///
   /// Set [fullScreenContentCallback] before calling this method to be
@@ -1236,6 +1362,34 @@ class RewardedInterstitialAd extends AdWithoutView {
     await instanceManager.loadRewardedInterstitialAd(rewardedInterstitialAd);
   }
 
+  /// Keeps [count] ads for [adUnitId] and [request] loaded ahead of time
+  /// (Android only).
+  ///
+  /// A later [load] with the same ad unit and an equal request completes
+  /// without waiting on the network while a preloaded ad is available. The
+  /// pool refills itself after each ad is handed out. This is a no-op on iOS.
+  static Future<void> preload({
+    required String adUnitId,
+    required AdRequest request,
+    int count = 1,
+  }) {
+    return instanceManager.preloadAd('rewardedInterstitial', adUnitId,
+        request: request, count: count);
+  }
+
+  /// Keeps [count] ads for [adUnitId] and [adManagerRequest] loaded ahead of
+  /// time (Android only).
+  ///
+  /// See [preload].
+  static Future<void> preloadWithAdManagerAdRequest({
+    required String adUnitId,
+    required AdManagerAdRequest adManagerRequest,
+    int count = 1,
+  }) {
+    return instanceManager.preloadAd('rewardedInterstitial', adUnitId,
+        adManagerRequest: adManagerRequest, count: count);
+  }
+
   /// Display this on top of the application.
   ///
   /// Set [fullScreenContentCallback] before calling this method to be
@@ -1374,6 +1528,39 @@ class AppOpenAd extends AdWithoutView {
     await instanceManager.loadAppOpenAd(ad);
   }
 
+  /// Keeps [count] ads for [adUnitId], [request] and [orientation] loaded
+  /// ahead of time (Android only).
+  ///
+  /// A later [load] with the same ad unit, orientation and an equal request
+  /// completes without waiting on the network while a preloaded ad is
+  /// available. Preloaded app open ads are discarded after four hours. This is
+  /// a no-op on iOS.
+  static Future<void> preload({
+    required String adUnitId,
+    required AdRequest request,
+    required int orientation,
+    int count = 1,
+  }) {
+    return instanceManager.preloadAd('appOpen', adUnitId,
+        request: request, orientation: orientation, count: count);
+  }
+
+  /// Keeps [count] ads for [adUnitId], [adManagerAdRequest] and [orientation]
+  /// loaded ahead of time (Android only).
+  ///
+  /// See [preload].
+  static Future<void> preloadWithAdManagerAdRequest({
+    required String adUnitId,
+    required AdManagerAdRequest adManagerAdRequest,
+    required int orientation,
+    int count = 1,
+  }) {
+    return instanceManager.preloadAd('appOpen', adUnitId,
+        adManagerRequest: adManagerAdRequest,
+        orientation: orientation,
+        count: count);
+  }
+
   /// Displays this on top of the application.
   ///
   /// Set [fullScreenContentCallback] before calling this method to be
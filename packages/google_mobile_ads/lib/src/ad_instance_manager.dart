@@ -18,6 +18,7 @@
 
 import 'dart:async';
 import 'dart:collection';
+import 'dart:convert';
 
 import 'package:google_mobile_ads/src/ad_inspector_containers.dart';
 import 'package:google_mobile_ads/src/ad_listeners.dart';
@@ -43,20 +44,77 @@ class AdInstanceManager {
           StandardMethodCodec(AdMessageCodec()),
         ) {
     channel.setMethodCallHandler((MethodCall call) async {
-      assert(call.method == 'onAdEvent');
-
-      final int adId = call.arguments['adId'];
-      final String eventName = call.arguments['eventName'];
-
-      final Ad? ad = adFor(adId);
-      if (ad != null) {
-        _onAdEvent(ad, eventName, call.arguments);
+      assert(call.method == 'onAdEvent' ||
+          call.method == 'onAdEvents' ||
+          call.method == 'onRevenueAggregated' ||
+          call.method == 'onWarmAppOpenAdEvent');
+
+      if (call.method == 'onWarmAppOpenAdEvent') {
+        _handleWarmAppOpenAdEvent(call.arguments);
+      } else if (call.method == 'onRevenueAggregated') {
+        // Throwing leaves the revenue on the platform to be sent again.
+        await _handleRevenueAggregated(call.arguments);
+      } else if (call.method == 'onAdEvents') {
+        // Events batched by the platform, in the order they occurred.
+        for (final Map<dynamic, dynamic> arguments in call.arguments) {
+          _handleAdEvent(arguments);
+        }
       } else {
-        debugPrint('$Ad with id `$adId` is not available for $eventName.');
+        _handleAdEvent(call.arguments);
       }
     });
   }
 
+  /// Receives the revenue aggregated on the platform (Android only).
+  OnRevenueAggregated? onRevenueAggregated;
+
+  Future<void> _handleRevenueAggregated(List<dynamic> arguments) async {
+    final OnRevenueAggregated? listener = onRevenueAggregated;
+    if (listener == null) {
+      throw PlatformException(
+        code: 'noListener',
+        message: 'Revenue aggregation is not enabled.',
+      );
+    }
+    await listener(arguments
+        .map((dynamic aggregate) => AdRevenueAggregate(
+              adUnitId: aggregate['adUnitId'],
+              currencyCode: aggregate['currencyCode'],
+              precision: _decodePrecisionType(aggregate['precision']),
+              valueMicros: aggregate['valueMicros'],
+              eventCount: aggregate['eventCount'],
+            ))
+        .toList());
+  }
+
+  /// Receives the events of app open ads shown by the warm-up (Android only).
+  OnWarmAppOpenAdEvent? onWarmAppOpenAdEvent;
+
+  void _handleWarmAppOpenAdEvent(Map<dynamic, dynamic> arguments) {
+    final num? valueMicros = arguments['valueMicros'];
+    final int? precision = arguments['precision'];
+    onWarmAppOpenAdEvent?.call(WarmAppOpenAdEvent(
+      adUnitId: arguments['adUnitId'],
+      eventName: arguments['eventName'],
+      error: arguments['error'],
+      valueMicros: valueMicros?.toDouble(),
+      precision: precision == null ? null : _decodePrecisionType(precision),
+      currencyCode: arguments['currencyCode'],
+    ));
+  }
+
+  void _handleAdEvent(Map<dynamic, dynamic> arguments) {
+    final int adId = arguments['adId'];
+    final String eventName = arguments['eventName'];
+
+    final Ad? ad = adFor(adId);
+    if (ad != null) {
+      _onAdEvent(ad, eventName, arguments);
+    } else {
+      debugPrint('$Ad with id `$adId` is not available for $eventName.');
+    }
+  }
+
   int _nextAdId = 0;
   final _BiMap<int, Ad> _loadedAds = _BiMap<int, Ad>();
 
@@ -381,11 +439,7 @@ class AdInstanceManager {
     }
   }
 
-  void _invokePaidEvent(
-      Ad ad, String eventName, Map<dynamic, dynamic> arguments) {
-    assert(arguments['valueMicros'] != null && arguments['valueMicros'] is num);
-
-    int precisionTypeInt = arguments['precision'];
+  PrecisionType _decodePrecisionType(int precisionTypeInt) {
     PrecisionType precisionType;
     switch (precisionTypeInt) {
       case 0:
@@ -405,6 +459,15 @@ class AdInstanceManager {
         precisionType = PrecisionType.unknown;
         break;
     }
+    return precisionType;
+  }
+
+  void _invokePaidEvent(
+      Ad ad, String eventName, Map<dynamic, dynamic> arguments) {
+    assert(arguments['valueMicros'] != null && arguments['valueMicros'] is num);
+
+    final PrecisionType precisionType =
+        _decodePrecisionType(arguments['precision']);
     if (ad is AdWithView) {
       ad.listener.onPaidEvent?.call(
         ad,
@@ -466,15 +529,7 @@ class AdInstanceManager {
 
     final int adId = _nextAdId++;
     _loadedAds[adId] = ad;
-    return channel.invokeMethod<void>(
-      'loadBannerAd',
-      <dynamic, dynamic>{
-        'adId': adId,
-        'adUnitId': ad.adUnitId,
-        'request': ad.request,
-        'size': ad.size,
-      },
-    );
+    return _invokeLoad(_loadAdCall(adId, ad));
   }
 
   Future<void> loadInterstitialAd(InterstitialAd ad) {
@@ -504,16 +559,56 @@ class AdInstanceManager {
 
     final int adId = _nextAdId++;
     _loadedAds[adId] = ad;
+    return _invokeLoad(_loadAdCall(adId, ad));
+  }
+
+  /// Starts loading the ads that were not previously loaded with one request.
+  ///
+  /// The ads must share their ad unit, request, factory and native ad options,
+  /// or an [ArgumentError] is thrown on Android, where they are loaded with
+  /// the settings of the first ad. Platforms without batched loading load
+  /// each ad on its own.
+  ///
+  /// On Android the ads of a batch never receive `onAdOpened`, `onAdClosed`,
+  /// `onAdClicked` or `onAdImpression`, because the SDK reports those events
+  /// for the whole batch without telling its ads apart.
+  Future<void> loadNativeAds(List<NativeAd> ads) {
+    final List<NativeAd> newAds =
+        ads.where((NativeAd ad) => adIdFor(ad) == null).toList();
+    if (newAds.isEmpty) {
+      return Future<void>.value();
+    }
+    if (defaultTargetPlatform != TargetPlatform.android) {
+      return Future.wait(newAds.map(loadNativeAd)).then((_) {});
+    }
+
+    final NativeAd first = newAds.first;
+    if (!newAds.every((NativeAd ad) =>
+        ad.adUnitId == first.adUnitId &&
+        ad.factoryId == first.factoryId &&
+        ad.request == first.request &&
+        ad.adManagerRequest == first.adManagerRequest &&
+        ad.nativeAdOptions == first.nativeAdOptions)) {
+      throw ArgumentError.value(ads, 'ads',
+          'Must share adUnitId, factoryId, request and nativeAdOptions');
+    }
+    final List<int> adIds = <int>[];
+    for (final NativeAd ad in newAds) {
+      final int adId = _nextAdId++;
+      _loadedAds[adId] = ad;
+      adIds.add(adId);
+    }
     return channel.invokeMethod<void>(
-      'loadNativeAd',
+      'loadNativeAds',
       <dynamic, dynamic>{
-        'adId': adId,
-        'adUnitId': ad.adUnitId,
-        'request': ad.request,
-        'adManagerRequest': ad.adManagerRequest,
-        'factoryId': ad.factoryId,
-        'nativeAdOptions': ad.nativeAdOptions,
-        'customOptions': ad.customOptions,
+        'adIds': adIds,
+        'adUnitId': first.adUnitId,
+        'request': first.request,
+        'adManagerRequest': first.adManagerRequest,
+        'factoryId': first.factoryId,
+        'nativeAdOptions': first.nativeAdOptions,
+        'customOptions':
+            newAds.map((NativeAd ad) => ad.customOptions).toList(),
       },
     );
   }
@@ -580,6 +675,34 @@ class AdInstanceManager {
     );
   }
 
+  /// Keeps [count] full-screen ads of [format] loaded ahead of time (Android
+  /// only).
+  ///
+  /// A later load with the same ad unit and request is served from the pool.
+  Future<void> preloadAd(
+    String format,
+    String adUnitId, {
+    AdRequest? request,
+    AdManagerAdRequest? adManagerRequest,
+    int? orientation,
+    required int count,
+  }) {
+    if (defaultTargetPlatform != TargetPlatform.android) {
+      return Future<void>.value();
+    }
+    return channel.invokeMethod<void>(
+      'preloadAd',
+      <dynamic, dynamic>{
+        'format': format,
+        'adUnitId': adUnitId,
+        'request': request,
+        'adManagerRequest': adManagerRequest,
+        'orientation': orientation,
+        'count': count,
+      },
+    );
+  }
+
   /// Starts loading the ad if not previously loaded.
   ///
   /// Loading also terminates if ad is already in the process of loading.
@@ -590,15 +713,7 @@ class AdInstanceManager {
 
     final int adId = _nextAdId++;
     _loadedAds[adId] = ad;
-    return channel.invokeMethod<void>(
-      'loadAdManagerBannerAd',
-      <dynamic, dynamic>{
-        'adId': adId,
-        'sizes': ad.sizes,
-        'adUnitId': ad.adUnitId,
-        'request': ad.request,
-      },
-    );
+    return _invokeLoad(_loadAdCall(adId, ad));
   }
 
   /// Starts loading the ad if not previously loaded.
@@ -611,15 +726,124 @@ class AdInstanceManager {
 
     final int adId = _nextAdId++;
     _loadedAds[adId] = ad;
+    return _invokeLoad(_loadAdCall(adId, ad));
+  }
+
+  /// Starts loading the ads that were not previously loaded with a single
+  /// channel call.
+  ///
+  /// Ads the platform rejects are no longer tracked and receive
+  /// [AdWithViewListener.onAdFailedToLoad]. Platforms without batched loading
+  /// load each ad on its own.
+  Future<void> loadAds(List<AdWithView> ads) async {
+    final List<AdWithView> newAds =
+        ads.where((AdWithView ad) => adIdFor(ad) == null).toSet().toList();
+    if (newAds.isEmpty) {
+      return;
+    }
+    if (defaultTargetPlatform != TargetPlatform.android) {
+      await Future.wait(newAds.map((AdWithView ad) => ad.load()));
+      return;
+    }
+
+    final List<int> adIds = <int>[];
+    final List<Map<dynamic, dynamic>> specs = <Map<dynamic, dynamic>>[];
+    for (final AdWithView ad in newAds) {
+      final int adId = _nextAdId++;
+      final MethodCall call = _loadAdCall(adId, ad);
+      _loadedAds[adId] = ad;
+      adIds.add(adId);
+      specs.add(<dynamic, dynamic>{
+        'method': call.method,
+        'arguments': call.arguments,
+      });
+    }
+    final List<dynamic>? results = await channel.invokeMethod<List<dynamic>>(
+      'loadAds',
+      <dynamic, dynamic>{'ads': specs},
+    );
+    if (results == null) {
+      return;
+    }
+    for (int i = 0; i < results.length; i++) {
+      final Map<dynamic, dynamic>? error = results[i];
+      if (error == null) {
+        continue;
+      }
+      final AdWithView ad = newAds[i];
+      _loadedAds.remove(adIds[i]);
+      ad.listener.onAdFailedToLoad?.call(
+        ad,
+        LoadAdError(
+          _invalidRequestErrorCode,
+          'GoogleMobileAdsPlugin',
+          '${error['code']}: ${error['message']}',
+          null,
+        ),
+      );
+    }
+  }
+
+  /// Moves the queued load of [ad] to its current [AdWithView.loadPriority].
+  Future<void> setAdLoadPriority(AdWithView ad) {
+    final int? adId = adIdFor(ad);
+    if (adId == null || defaultTargetPlatform != TargetPlatform.android) {
+      return Future<void>.value();
+    }
     return channel.invokeMethod<void>(
-      'loadFluidAd',
+      'setAdLoadPriority',
       <dynamic, dynamic>{
+        'adId': adId,
+        'loadPriority': ad.loadPriority.index,
+      },
+    );
+  }
+
+  /// The SDK's error code for an invalid ad request.
+  static const int _invalidRequestErrorCode = 1;
+
+  MethodCall _loadAdCall(int adId, AdWithView ad) {
+    if (ad is FluidAdManagerBannerAd) {
+      return MethodCall('loadFluidAd', <dynamic, dynamic>{
         'adId': adId,
         'sizes': ad.sizes,
         'adUnitId': ad.adUnitId,
         'request': ad.request,
-      },
-    );
+        'loadPriority': ad.loadPriority.index,
+      });
+    } else if (ad is AdManagerBannerAd) {
+      return MethodCall('loadAdManagerBannerAd', <dynamic, dynamic>{
+        'adId': adId,
+        'sizes': ad.sizes,
+        'adUnitId': ad.adUnitId,
+        'request': ad.request,
+        'loadPriority': ad.loadPriority.index,
+      });
+    } else if (ad is BannerAd) {
+      return MethodCall('loadBannerAd', <dynamic, dynamic>{
+        'adId': adId,
+        'adUnitId': ad.adUnitId,
+        'request': ad.request,
+        'size': ad.size,
+        'loadPriority': ad.loadPriority.index,
+      });
+    } else if (ad is NativeAd) {
+      return MethodCall('loadNativeAd', <dynamic, dynamic>{
+        'adId': adId,
+        'adUnitId': ad.adUnitId,
+        'request': ad.request,
+        'adManagerRequest': ad.adManagerRequest,
+        'factoryId': ad.factoryId,
+        'nativeAdOptions': ad.nativeAdOptions,
+        'customOptions': ad.customOptions,
+        'loadPriority': ad.loadPriority.index,
+      });
+    }
+    throw ArgumentError.value(ad, 'ad', 'Unsupported ad type');
+  }
+
+  Future<void> _invokeLoad(MethodCall call) {
+    return channel.invokeMethod<void>(call.method, call.arguments);
   }
 
   /// Loads an ad if not currently loading or loaded.
@@ -753,6 +977,237 @@ class AdInstanceManager {
         .invokeMethod<void>('MobileAds#disableMediationInitialization');
   }
 
+  /// Sets whether ad events are delivered in one batch per frame (Android only).
+  Future<void> setAdEventBatchingEnabled(bool enabled) {
+    return channel.invokeMethod<void>(
+      'MobileAds#setAdEventBatchingEnabled',
+      <dynamic, dynamic>{
+        'enabled': enabled,
+      },
+    );
+  }
+
+  /// Builds banner ad views ahead of time (Android only).
+  Future<void> prewarmBannerAdViews(
+      int adViewCount, int adManagerAdViewCount) {
+    return channel.invokeMethod<void>(
+      'MobileAds#prewarmBannerAdViews',
+      <dynamic, dynamic>{
+        'adViewCount': adViewCount,
+        'adManagerAdViewCount': adManagerAdViewCount,
+      },
+    );
+  }
+
+  /// Limits how many banner and native ads load at once (Android only).
+  Future<void> setMaxConcurrentLoads(int maxLoads, int maxLoadsPerAdUnit) {
+    return channel.invokeMethod<void>(
+      'MobileAds#setMaxConcurrentLoads',
+      <dynamic, dynamic>{
+        'maxLoads': maxLoads,
+        'maxLoadsPerAdUnit': maxLoadsPerAdUnit,
+      },
+    );
+  }
+
+  /// Sets the deadline of ad loads (Android only).
+  Future<void> setLoadTimeout(Duration? timeout) {
+    return channel.invokeMethod<void>(
+      'MobileAds#setLoadTimeout',
+      <dynamic, dynamic>{
+        'timeoutMillis': timeout?.inMilliseconds ?? 0,
+      },
+    );
+  }
+
+  /// Sets whether banner ad views are paused automatically (Android only).
+  Future<void> setAdViewAutoPauseEnabled(bool enabled) {
+    return channel.invokeMethod<void>(
+      'MobileAds#setAdViewAutoPauseEnabled',
+      <dynamic, dynamic>{
+        'enabled': enabled,
+      },
+    );
+  }
+
+  /// Keeps an app open ad of [adUnitId] loaded across app lifecycle changes
+  /// (Android only).
+  Future<void> enableAppOpenAdWarmUp(
+    String adUnitId,
+    AdRequest request,
+    int orientation,
+    bool showOnForeground,
+  ) {
+    return channel.invokeMethod<void>(
+      'MobileAds#enableAppOpenAdWarmUp',
+      <dynamic, dynamic>{
+        'adUnitId': adUnitId,
+        'request': request,
+        'orientation': orientation,
+        'showOnForeground': showOnForeground,
+      },
+    );
+  }
+
+  /// Stops the warm-up of app open ads of [adUnitId] (Android only).
+  Future<void> disableAppOpenAdWarmUp(String adUnitId) {
+    return channel.invokeMethod<void>(
+      'MobileAds#disableAppOpenAdWarmUp',
+      <dynamic, dynamic>{
+        'adUnitId': adUnitId,
+      },
+    );
+  }
+
+  /// Sets the height change threshold of fluid ads (Android only).
+  Future<void> setFluidAdHeightThreshold(int thresholdPixels) {
+    return channel.invokeMethod<void>(
+      'MobileAds#setFluidAdHeightThreshold',
+      <dynamic, dynamic>{
+        'thresholdPixels': thresholdPixels,
+      },
+    );
+  }
+
+  /// Sets how often aggregated revenue is sent to [onRevenueAggregated]
+  /// (Android only). A null [flushInterval] stops sending it.
+  Future<void> setRevenueFlushInterval(Duration? flushInterval) {
+    return channel.invokeMethod<void>(
+      'MobileAds#setRevenueFlushInterval',
+      <dynamic, dynamic>{
+        'flushIntervalMillis': flushInterval?.inMilliseconds ?? 0,
+      },
+    );
+  }
+
+  /// Sends aggregated revenue to [onRevenueAggregated] now (Android only).
+  Future<void> flushRevenue() {
+    return channel.invokeMethod<void>('MobileAds#flushRevenue');
+  }
+
+  /// Sets how much of the response info is sent with load events (Android
+  /// only).
+  Future<void> setResponseInfoLevel(ResponseInfoLevel level) {
+    return channel.invokeMethod<void>(
+      'MobileAds#setResponseInfoLevel',
+      <dynamic, dynamic>{
+        'level': level.index,
+      },
+    );
+  }
+
+  /// Gets the full response info of [ad] and stores it on [ad] (Android only).
+  Future<ResponseInfo?> getResponseInfo(Ad ad) async {
+    final int? adId = adIdFor(ad);
+    if (adId == null) {
+      return ad.responseInfo;
+    }
+    final ResponseInfo? responseInfo = await channel.invokeMethod<ResponseInfo>(
+      'getResponseInfo',
+      <dynamic, dynamic>{'adId': adId},
+    );
+    if (responseInfo != null) {
+      ad.responseInfo = responseInfo;
+    }
+    return ad.responseInfo;
+  }
+
+  /// Gets adapter latency percentiles (Android only).
+  Future<List<AdapterLatencyStats>> getAdapterLatencies() async {
+    final List<dynamic> summaries = (await channel
+        .invokeMethod<List<dynamic>>('MobileAds#getAdapterLatencies'))!;
+    return summaries
+        .map((dynamic summary) => AdapterLatencyStats(
+              adapterClassName: summary['adapterClassName'],
+              adUnitId: summary['adUnitId'],
+              count: summary['count'],
+              p50: Duration(milliseconds: summary['p50Millis']),
+              p90: Duration(milliseconds: summary['p90Millis']),
+              p99: Duration(milliseconds: summary['p99Millis']),
+              max: Duration(milliseconds: summary['maxMillis']),
+            ))
+        .toList();
+  }
+
+  /// Sets whether ad events are written to the native journal (Android only).
+  Future<void> setAdEventJournalEnabled(bool enabled) {
+    return channel.invokeMethod<void>(
+      'MobileAds#setAdEventJournalEnabled',
+      <dynamic, dynamic>{
+        'enabled': enabled,
+      },
+    );
+  }
+
+  /// Reads the native ad event journal (Android only).
+  Future<List<AdEventJournalEntry>> readAdEventJournal() async {
+    final List<dynamic> records = (await channel
+        .invokeMethod<List<dynamic>>('MobileAds#readAdEventJournal'))!;
+    return records
+        .map((dynamic record) => AdEventJournalEntry(
+              sequence: record['sequence'],
+              time: DateTime.fromMillisecondsSinceEpoch(record['timeMillis']),
+              adId: record['adId'],
+              eventName: record['eventName'],
+              value: record['value'],
+            ))
+        .toList();
+  }
+
+  /// Clears adapter latency histograms (Android only).
+  Future<void> resetAdapterLatencies() {
+    return channel.invokeMethod<void>('MobileAds#resetAdapterLatencies');
+  }
+
+  /// Gets the lifecycle timeline of [ad] (Android only).
+  Future<AdTimeline?> getAdTimeline(Ad ad) async {
+    final int? adId = adIdFor(ad);
+    if (adId == null) {
+      return null;
+    }
+    final Map<dynamic, dynamic>? timeline =
+        await channel.invokeMethod<Map<dynamic, dynamic>>(
+      'getAdTimeline',
+      <dynamic, dynamic>{'adId': adId},
+    );
+    if (timeline == null) {
+      return null;
+    }
+    return AdTimeline(
+      load: _decodeTimelineStage(timeline['load']),
+      show: _decodeTimelineStage(timeline['show']),
+      impression: _decodeTimelineStage(timeline['impression']),
+    );
+  }
+
+  static AdTimelineStage _decodeTimelineStage(List<dynamic> nanos) {
+    final List<Duration?> times = nanos
+        .map((dynamic time) =>
+            time == null ? null : Duration(microseconds: time ~/ 1000))
+        .toList();
+    return AdTimelineStage(
+      callReceived: times[0],
+      requestBuilt: times[1],
+      sdkStarted: times[2],
+      sdkCallback: times[3],
+      eventQueued: times[4],
+      eventSent: times[5],
+    );
+  }
+
+  Future<AdUnitCircuitState> getAdUnitCircuitState(String adUnitId) async {
+    final Map<dynamic, dynamic> state = (await channel.invokeMethod<
+        Map<dynamic, dynamic>>(
+      'MobileAds#getAdUnitCircuitState',
+      <dynamic, dynamic>{'adUnitId': adUnitId},
+    ))!;
+    return AdUnitCircuitState(
+      status: AdUnitCircuitStatus.values[state['state']],
+      consecutiveFailures: state['consecutiveFailures'],
+      retryAfter: Duration(milliseconds: state['retryAfterMillis']),
+    );
+  }
+
   /// Gets the version string of Google Mobile Ads SDK.
   Future<String> getVersionString() async {
     return (await instanceManager.channel
@@ -821,6 +1276,38 @@ class AdMessageCodec extends StandardMessageCodec {
   static const int _valueVideoOptions = 145;
   static const int _valueInlineAdaptiveBannerAdSize = 146;
   static const int _valueRequestConfigurationParams = 148;
+  static const int _valueAdEvent = 149;
+  static const int _valueStringDefinition = 150;
+  static const int _valueStringReference = 151;
+
+  // Size of the string table kept by Android. Must match StringTable.java.
+  static const int _maxStrings = 256;
+
+  // Strings Android has sent once and now refers to by index. Definitions
+  // always come before the references to them, and a new definition replaces
+  // the string Android evicted from the same index.
+  final List<String?> _strings = List<String?>.filled(_maxStrings, null);
+
+  // Names of the events encoded as `_valueAdEvent`, indexed by their type
+  // code, followed by the names of their arguments in the order they are
+  // written. Only sent by Android.
+  static const List<List<String>> _adEventLayouts = <List<String>>[
+    <String>['onAdLoaded', 'responseInfo'],
+    <String>['onAdFailedToLoad', 'loadAdError'],
+    <String>['onAppEvent', 'name', 'data'],
+    <String>['onAdImpression'],
+    <String>['onAdClicked'],
+    <String>['onAdOpened'],
+    <String>['onAdClosed'],
+    <String>['onRewardedAdUserEarnedReward', 'rewardItem'],
+    <String>['onRewardedInterstitialAdUserEarnedReward', 'rewardItem'],
+    <String>['onPaidEvent', 'valueMicros', 'precision', 'currencyCode'],
+    <String>['onFailedToShowFullScreenContent', 'error'],
+    <String>['onAdShowedFullScreenContent'],
+    <String>['onAdDismissedFullScreenContent'],
+    <String>['onAdMetadataChanged'],
+    <String>['onFluidAdHeightChanged', 'height'],
+  ];
 
   @override
   void writeValue(WriteBuffer buffer, dynamic value) {
@@ -1094,6 +1581,25 @@ class AdMessageCodec extends StandardMessageCodec {
           testDeviceIds:
               readValueOfType(buffer.getUint8(), buffer).cast<String>(),
         );
+      case _valueStringDefinition:
+        final int index = readSize(buffer);
+        final String value = utf8.decoder.convert(
+          buffer.getUint8List(readSize(buffer)),
+        );
+        _strings[index] = value;
+        return value;
+      case _valueStringReference:
+        return _strings[readSize(buffer)];
+      case _valueAdEvent:
+        final List<String> layout = _adEventLayouts[buffer.getUint8()];
+        final Map<dynamic, dynamic> event = <dynamic, dynamic>{
+          'adId': buffer.getInt32(),
+          'eventName': layout[0],
+        };
+        for (final String argumentName in layout.skip(1)) {
+          event[argumentName] = readValueOfType(buffer.getUint8(), buffer);
+        }
+        return event;
       default:
         return super.readValueOfType(type, buffer);
     }
@@ -41,6 +41,11 @@ class MobileAds {
   /// Shared instance to initialize the AdMob SDK.
   static MobileAds get instance => _instance;
 
+  /// The [LoadAdError.code] of loads that miss the deadline set with
+  /// [setLoadTimeout]. Their [LoadAdError.domain] is
+  /// [AdUnitCircuitState.errorDomain].
+  static const int loadTimeoutErrorCode = 2;
+
   /// Initializes the Google Mobile Ads SDK.
   ///
   /// Call this method as early as possible after the app launches to reduce
@@ -118,6 +123,323 @@ class MobileAds {
     return instanceManager.disableMediationInitialization();
   }
 
+  /// Sets whether ad events are delivered to Dart in one batch per frame
+  /// (Android only).
+  ///
+  /// Batching saves a platform channel message per event when many ads load or
+  /// record impressions at the same time, such as when a feed first renders.
+  /// Events for each ad are still delivered in order. Batching is disabled by
+  /// default. This is a no-op on iOS.
+  Future<void> setAdEventBatchingEnabled(bool enabled) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.setAdEventBatchingEnabled(enabled);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Builds banner ad views ahead of time while the app is idle (Android only).
+  ///
+  /// The first ad view in a process also initializes the WebView, which can
+  /// drop frames when the first banners appear. Call this after [initialize]
+  /// to keep [adViewCount] views for [BannerAd]s and [adManagerAdViewCount]
+  /// views for [AdManagerBannerAd]s ready. Banners use a prebuilt view when one
+  /// is available, and a replacement is built during the next idle time. This
+  /// is a no-op on iOS.
+  Future<void> prewarmBannerAdViews({
+    int adViewCount = 1,
+    int adManagerAdViewCount = 0,
+  }) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.prewarmBannerAdViews(
+          adViewCount, adManagerAdViewCount);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Loads [ads] with a single platform call.
+  ///
+  /// Screens that show many banner and native ads at once can use this instead
+  /// of calling [Ad.load] on each ad. Ads that can't be loaded, for example a
+  /// [NativeAd] with an unregistered factory, receive `onAdFailedToLoad` on
+  /// their listener. On iOS each ad is loaded on its own.
+  Future<void> loadAds(List<AdWithView> ads) {
+    return instanceManager.loadAds(ads);
+  }
+
+  /// Limits how many banner and native ads load at once (Android only).
+  ///
+  /// By default every ad starts loading as soon as [Ad.load] is called. Apps
+  /// that load many ads at once, such as a long list of native ads, can cap
+  /// the loads in flight at [maxLoads] overall and at [maxLoadsPerAdUnit] for
+  /// each ad unit. Loads over the limits wait, and start by
+  /// [AdWithView.loadPriority] as earlier ones finish. A limit of 0 turns it
+  /// off. Full-screen ads are never held back and don't count against the
+  /// limits. This is a no-op on iOS.
+  Future<void> setMaxConcurrentLoads(
+      {int maxLoads = 0, int maxLoadsPerAdUnit = 0}) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.setMaxConcurrentLoads(
+          maxLoads, maxLoadsPerAdUnit);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Sets how long an ad may take to load before it fails (Android only).
+  ///
+  /// A load that has not finished when [timeout] passes fails with a
+  /// [loadTimeoutErrorCode] error, and the native ad is released so that
+  /// nothing the request returns later reaches the app. Disposing an ad that
+  /// is still loading releases it in the same way. Only affects loads that
+  /// start afterwards. A null [timeout], the default, turns the deadline off.
+  /// This is a no-op on iOS.
+  Future<void> setLoadTimeout(Duration? timeout) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.setLoadTimeout(timeout);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Sets whether banner ad views are paused while they can't be seen
+  /// (Android only).
+  ///
+  /// When enabled, the default, the native ad view of a [BannerAd] or an
+  /// [AdManagerBannerAd] is paused while the app is in the background, and
+  /// while its [AdWidget] is out of the widget tree after having been shown,
+  /// such as when it is scrolled out of a list. Paused ad views stop their
+  /// timers, animations and refreshes, and resume when they can be seen
+  /// again. This is a no-op on iOS.
+  Future<void> setAdViewAutoPauseEnabled(bool enabled) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.setAdViewAutoPauseEnabled(enabled);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Keeps an app open ad of [adUnitId] loaded while the app is in the
+  /// background, ready for when it returns (Android only).
+  ///
+  /// An ad is loaded for [adUnitId], [request] and [orientation] right away.
+  /// When the app moves to the background, an expired ad is replaced, and it
+  /// is replaced again every four hours until the app returns. A later
+  /// [AppOpenAd.load] with the same ad unit, orientation and an equal request
+  /// is served from it. [request] may be an [AdManagerAdRequest].
+  ///
+  /// If [showOnForeground] is true, the ad is shown by the platform as soon as
+  /// the app returns to the foreground, without waiting on Dart, and its
+  /// events are sent to [onEvent]. Calling this again for the same ad unit
+  /// replaces its settings. This is a no-op on iOS.
+  Future<void> enableAppOpenAdWarmUp({
+    required String adUnitId,
+    required AdRequest request,
+    required int orientation,
+    bool showOnForeground = false,
+    OnWarmAppOpenAdEvent? onEvent,
+  }) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      if (onEvent != null) {
+        instanceManager.onWarmAppOpenAdEvent = onEvent;
+      }
+      return instanceManager.enableAppOpenAdWarmUp(
+          adUnitId, request, orientation, showOnForeground);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Stops the warm-up of app open ads of [adUnitId] (Android only).
+  ///
+  /// An ad that is already loaded can still be used by [AppOpenAd.load].
+  Future<void> disableAppOpenAdWarmUp(String adUnitId) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.disableAppOpenAdWarmUp(adUnitId);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Sets the smallest height change, in physical pixels, that a
+  /// [FluidAdManagerBannerAd] reports while its creative is still resizing
+  /// (Android only).
+  ///
+  /// Height changes are reported at most once per frame. Changes smaller
+  /// than [thresholdPixels] are held back until the layout of the creative
+  /// has settled, and the settled height is always reported. Defaults to 0,
+  /// which reports every change. This is a no-op on iOS.
+  Future<void> setFluidAdHeightThreshold(int thresholdPixels) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.setFluidAdHeightThreshold(thresholdPixels);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Sends the revenue of paid events to [onRevenueAggregated] in sums
+  /// (Android only).
+  ///
+  /// The value of each paid event is written to a ledger on disk as soon as it
+  /// arrives and summed per ad unit, currency and precision. Every
+  /// [flushInterval] the sums are sent to [onRevenueAggregated], and they are
+  /// removed from the ledger once it completes. If it throws, or the process
+  /// dies first, the same revenue is sent again later, including after the app
+  /// restarts. Only paid events that arrive while aggregation is enabled are
+  /// counted. Revenue still owed when it is disabled stays in the ledger and is
+  /// sent once it is enabled again. Paid events are still sent to the
+  /// `onPaidEvent` callback of each ad. This is a no-op on iOS.
+  Future<void> enableRevenueAggregation({
+    required Duration flushInterval,
+    required OnRevenueAggregated onRevenueAggregated,
+  }) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      instanceManager.onRevenueAggregated = onRevenueAggregated;
+      return instanceManager.setRevenueFlushInterval(flushInterval);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Stops sending aggregated revenue (Android only).
+  ///
+  /// Paid events that arrive afterwards are not counted. Revenue that has not
+  /// been sent stays in the ledger.
+  Future<void> disableRevenueAggregation() {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      instanceManager.onRevenueAggregated = null;
+      return instanceManager.setRevenueFlushInterval(null);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Sends the aggregated revenue now instead of at the next interval, for
+  /// example before the app goes to the background (Android only).
+  Future<void> flushRevenue() {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.flushRevenue();
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Sets how much of the response info is sent with load events (Android
+  /// only).
+  ///
+  /// Converting the full response info on every load costs time on the
+  /// platform thread, most of it for the description and credentials of each
+  /// mediation adapter. Below [ResponseInfoLevel.full], [Ad.responseInfo] and
+  /// [LoadAdError.responseInfo] only hold part of it, and [getResponseInfo]
+  /// gets the rest when it is needed. Defaults to [ResponseInfoLevel.full].
+  /// This is a no-op on iOS.
+  Future<void> setResponseInfoLevel(ResponseInfoLevel level) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.setResponseInfoLevel(level);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Gets the full response info of the latest load of [ad].
+  ///
+  /// On Android the response info is converted when this is called, and
+  /// [Ad.responseInfo] is updated with it. Returns [Ad.responseInfo] for ads
+  /// that are not loaded or disposed, and always on iOS.
+  Future<ResponseInfo?> getResponseInfo(Ad ad) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.getResponseInfo(ad);
+    } else {
+      return Future.value(ad.responseInfo);
+    }
+  }
+
+  /// Gets when each step of loading and showing [ad] happened (Android only).
+  ///
+  /// The timeline starts when the load call reaches the platform and is
+  /// dropped when [ad] is disposed. Use it after `onAdLoaded` to split load
+  /// latency into time spent in the plugin and time spent in the SDK. Returns
+  /// null for ads that are not loaded or disposed, and always on iOS.
+  Future<AdTimeline?> getAdTimeline(Ad ad) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.getAdTimeline(ad);
+    } else {
+      return Future.value(null);
+    }
+  }
+
+  /// Gets latency percentiles of each mediation adapter per ad unit (Android
+  /// only).
+  ///
+  /// The latency of every adapter in the response info of each load, filled
+  /// or not, is added to a fixed size histogram for its adapter and ad unit.
+  /// Percentiles are accurate to within a quarter of their value. Returns an
+  /// empty list on iOS.
+  Future<List<AdapterLatencyStats>> getAdapterLatencies() {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.getAdapterLatencies();
+    } else {
+      return Future.value(<AdapterLatencyStats>[]);
+    }
+  }
+
+  /// Clears the histograms behind [getAdapterLatencies] (Android only).
+  Future<void> resetAdapterLatencies() {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.resetAdapterLatencies();
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Sets whether every ad event is written to a native journal (Android
+  /// only).
+  ///
+  /// The journal is a ring of the last 1024 events in a memory mapped file,
+  /// cheap enough to leave enabled in production. It survives the process
+  /// dying, so after a crash or a hang the events that led up to it can be
+  /// read with [readAdEventJournal], or pulled from the app's files directory
+  /// with adb. This is a no-op on iOS.
+  Future<void> setAdEventJournalEnabled(bool enabled) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.setAdEventJournalEnabled(enabled);
+    } else {
+      return Future.value();
+    }
+  }
+
+  /// Reads the events in the journal, oldest first (Android only).
+  ///
+  /// This includes the events written by previous runs of the app, and can
+  /// be called while the journal is disabled. Returns an empty list on iOS.
+  Future<List<AdEventJournalEntry>> readAdEventJournal() {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.readAdEventJournal();
+    } else {
+      return Future.value(<AdEventJournalEntry>[]);
+    }
+  }
+
+  /// Gets the no fill circuit breaker state of [adUnitId] (Android only).
+  ///
+  /// After repeated no fills for an ad unit, new loads of it fail right away
+  /// with an [AdUnitCircuitState.errorDomain] error instead of reaching the
+  /// SDK. After a backoff a single load is let through to probe the ad unit,
+  /// and the backoff doubles each time that probe is not filled. On iOS the
+  /// circuit is always closed.
+  Future<AdUnitCircuitState> getAdUnitCircuitState(String adUnitId) {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return instanceManager.getAdUnitCircuitState(adUnitId);
+    } else {
+      return Future.value(AdUnitCircuitState(
+        status: AdUnitCircuitStatus.closed,
+        consecutiveFailures: 0,
+        retryAfter: Duration.zero,
+      ));
+    }
+  }
+
   /// Gets the version string of Google Mobile Ads SDK.
   Future<String> getVersionString() {
     return instanceManager.getVersionString();
@@ -175,3 +497,278 @@ class AdapterStatus {
   /// 0 if initialization has not yet ended.
   final double latency;
 }
+
+/// The status of the no fill circuit breaker of an ad unit.
+enum AdUnitCircuitStatus {
+  /// Loads reach the SDK.
+  closed,
+
+  /// Loads fail locally until the backoff ends.
+  open,
+
+  /// The next load probes whether the ad unit fills again.
+  halfOpen,
+}
+
+/// A snapshot of the no fill circuit breaker of an ad unit.
+///
+/// Returned when calling [MobileAds.getAdUnitCircuitState].
+class AdUnitCircuitState {
+  /// Default constructor to create an [AdUnitCircuitState].
+  AdUnitCircuitState({
+    required this.status,
+    required this.consecutiveFailures,
+    required this.retryAfter,
+  });
+
+  /// The [LoadAdError.domain] of loads stopped by an open circuit.
+  static const String errorDomain = 'io.flutter.plugins.googlemobileads';
+
+  /// The [LoadAdError.code] of loads stopped by an open circuit.
+  static const int errorCode = 1;
+
+  /// The status of the circuit.
+  final AdUnitCircuitStatus status;
+
+  /// The number of no fills in a row.
+  final int consecutiveFailures;
+
+  /// How long until a load may probe the ad unit again.
+  final Duration retryAfter;
+}
+
+/// When each step of one stage of an ad's life happened.
+///
+/// Times are measured on a monotonic clock that starts when the device boots.
+/// Steps that did not happen are null.
+class AdTimelineStage {
+  /// Default constructor to create an [AdTimelineStage].
+  AdTimelineStage({
+    this.callReceived,
+    this.requestBuilt,
+    this.sdkStarted,
+    this.sdkCallback,
+    this.eventQueued,
+    this.eventSent,
+  });
+
+  /// When the platform received the call from Dart.
+  final Duration? callReceived;
+
+  /// When the ad and its request were built.
+  final Duration? requestBuilt;
+
+  /// When the SDK was asked to load or show the ad.
+  final Duration? sdkStarted;
+
+  /// When the SDK reported the result.
+  final Duration? sdkCallback;
+
+  /// When the event for the result was queued to be sent to Dart.
+  final Duration? eventQueued;
+
+  /// When the event was handed to the platform channel.
+  final Duration? eventSent;
+
+  /// The time between [sdkStarted] and [sdkCallback].
+  Duration? get sdkTime => _between(sdkStarted, sdkCallback);
+
+  /// The time spent in the plugin before [sdkStarted] and after [sdkCallback].
+  Duration? get pluginTime {
+    final Duration? before = _between(callReceived, sdkStarted);
+    final Duration? after = _between(sdkCallback, eventSent);
+    if (before == null || after == null) {
+      return null;
+    }
+    return before + after;
+  }
+
+  static Duration? _between(Duration? start, Duration? end) {
+    if (start == null || end == null) {
+      return null;
+    }
+    return end - start;
+  }
+}
+
+/// The callback type for revenue aggregated on the platform.
+///
+/// See [MobileAds.enableRevenueAggregation].
+typedef OnRevenueAggregated = FutureOr<void> Function(
+    List<AdRevenueAggregate> aggregates);
+
+/// The sum of the paid events of an ad unit with the same currency and
+/// precision.
+class AdRevenueAggregate {
+  /// Default constructor to create an [AdRevenueAggregate].
+  AdRevenueAggregate({
+    required this.adUnitId,
+    required this.currencyCode,
+    required this.precision,
+    required this.valueMicros,
+    required this.eventCount,
+  });
+
+  /// The ad unit of the ads that were paid for. Empty if it is not known.
+  final String adUnitId;
+
+  /// The ISO 4217 currency code of [valueMicros].
+  final String currencyCode;
+
+  /// The precision of the summed values.
+  final PrecisionType precision;
+
+  /// The summed value in micro units.
+  final int valueMicros;
+
+  /// The number of paid events summed.
+  final int eventCount;
+}
+
+/// How much of the response info is sent with load events.
+///
+/// See [MobileAds.setResponseInfoLevel].
+enum ResponseInfoLevel {
+  /// No response info is sent.
+  none,
+
+  /// Only [ResponseInfo.responseId] and
+  /// [ResponseInfo.mediationAdapterClassName] are set.
+  idOnly,
+
+  /// Also sets the class name, latency and error of each adapter response.
+  summary,
+
+  /// The full response info, including the description and credentials of
+  /// each adapter response.
+  full,
+}
+
+/// When each step of loading and showing an ad happened.
+///
+/// Returned when calling [MobileAds.getAdTimeline].
+class AdTimeline {
+  /// Default constructor to create an [AdTimeline].
+  AdTimeline({
+    required this.load,
+    required this.show,
+    required this.impression,
+  });
+
+  /// The steps of the first load. Banner refreshes are not included.
+  final AdTimelineStage load;
+
+  /// The steps of showing a full screen ad. The call is received when `show`
+  /// is called and the SDK calls back when the ad is shown or fails to show.
+  final AdTimelineStage show;
+
+  /// The steps of the first impression. Only [AdTimelineStage.sdkCallback],
+  /// [AdTimelineStage.eventQueued] and [AdTimelineStage.eventSent] are set.
+  final AdTimelineStage impression;
+}
+
+/// Latency percentiles of a mediation adapter for an ad unit.
+///
+/// Returned when calling [MobileAds.getAdapterLatencies].
+class AdapterLatencyStats {
+  /// Default constructor to create an [AdapterLatencyStats].
+  AdapterLatencyStats({
+    required this.adapterClassName,
+    required this.adUnitId,
+    required this.count,
+    required this.p50,
+    required this.p90,
+    required this.p99,
+    required this.max,
+  });
+
+  /// The class name of the adapter, as in [AdapterResponseInfo].
+  final String adapterClassName;
+
+  /// The ad unit the adapter was called for.
+  final String adUnitId;
+
+  /// The number of latencies recorded.
+  final int count;
+
+  /// The median latency.
+  final Duration p50;
+
+  /// The 90th percentile latency.
+  final Duration p90;
+
+  /// The 99th percentile latency.
+  final Duration p99;
+
+  /// The largest latency recorded.
+  final Duration max;
+}
+
+/// An ad event read from the journal.
+///
+/// Returned when calling [MobileAds.readAdEventJournal].
+class AdEventJournalEntry {
+  /// Default constructor to create an [AdEventJournalEntry].
+  AdEventJournalEntry({
+    required this.sequence,
+    required this.time,
+    required this.adId,
+    required this.eventName,
+    this.value,
+  });
+
+  /// The position of the event in the journal, increasing across app runs.
+  final int sequence;
+
+  /// When the event was dispatched.
+  final DateTime time;
+
+  /// The native id of the ad, unique within one run of the app.
+  final int adId;
+
+  /// The name of the event, such as `onAdLoaded`.
+  final String eventName;
+
+  /// The value in micros of paid events, the error code of failures, the
+  /// amount of rewards or the height of fluid ads. Null for other events.
+  final int? value;
+}
+
+/// The callback type for events of app open ads shown by the warm-up.
+///
+/// See [MobileAds.enableAppOpenAdWarmUp].
+typedef OnWarmAppOpenAdEvent = void Function(WarmAppOpenAdEvent event);
+
+/// An event of an app open ad shown by the platform when the app returned to
+/// the foreground.
+class WarmAppOpenAdEvent {
+  /// Default constructor to create a [WarmAppOpenAdEvent].
+  WarmAppOpenAdEvent({
+    required this.adUnitId,
+    required this.eventName,
+    this.error,
+    this.valueMicros,
+    this.precision,
+    this.currencyCode,
+  });
+
+  /// The ad unit of the shown ad.
+  final String adUnitId;
+
+  /// The name of the event, such as `onAdDismissedFullScreenContent` or
+  /// `onPaidEvent`.
+  final String eventName;
+
+  /// Why the ad failed to show. Only set for
+  /// `onAdFailedToShowFullScreenContent`.
+  final AdError? error;
+
+  /// The value of the ad in micro units. Only set for `onPaidEvent`.
+  final double? valueMicros;
+
+  /// The precision of [valueMicros]. Only set for `onPaidEvent`.
+  final PrecisionType? precision;
+
+  /// The ISO 4217 currency code of [valueMicros]. Only set for `onPaidEvent`.
+  final String? currencyCode;
+}
@@ -43,6 +43,7 @@ void main() {
           case 'setImmersiveMode':
           case 'loadBannerAd':
           case 'loadNativeAd':
+          case 'loadNativeAds':
           case 'showAdWithoutView':
           case 'disposeAd':
           case 'loadRewardedAd':
@@ -249,6 +250,7 @@ void main() {
           'factoryId': '0',
           'nativeAdOptions': nativeAdOptions,
           'customOptions': options,
+          'loadPriority': 0,
         })
       ]);
 
@@ -276,12 +278,95 @@ void main() {
           'factoryId': '0',
           'nativeAdOptions': null,
           'customOptions': options,
+          'loadPriority': 0,
         })
       ]);
 
       expect(instanceManager.adFor(0), isNotNull);
     });
 
+    test('load native ads together on Android', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final AdRequest request = AdRequest();
+      final NativeAd first = NativeAd(
+        adUnitId: 'test-ad-unit',
+        factoryId: '0',
+        listener: NativeAdListener(),
+        request: request,
+        customOptions: <String, Object>{'a': 1},
+      );
+      final NativeAd second = NativeAd(
+        adUnitId: 'test-ad-unit',
+        factoryId: '0',
+        listener: NativeAdListener(),
+        request: request,
+      );
+
+      await NativeAd.loadAll(<NativeAd>[first, second]);
+      await NativeAd.loadAll(<NativeAd>[first, second]);
+      expect(log, <Matcher>[
+        isMethodCall('loadNativeAds', arguments: <String, dynamic>{
+          'adIds': <int>[0, 1],
+          'adUnitId': 'test-ad-unit',
+          'request': request,
+          'adManagerRequest': null,
+          'factoryId': '0',
+          'nativeAdOptions': null,
+          'customOptions': <Map<String, Object>?>[
+            <String, Object>{'a': 1},
+            null,
+          ],
+        })
+      ]);
+
+      expect(instanceManager.adFor(0), first);
+      expect(instanceManager.adFor(1), second);
+      debugDefaultTargetPlatformOverride = null;
+    });
+
+    test('load native ads together rejects ads that differ', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final NativeAd first = NativeAd(
+        adUnitId: 'test-ad-unit',
+        factoryId: '0',
+        listener: NativeAdListener(),
+        request: AdRequest(),
+      );
+      final NativeAd second = NativeAd(
+        adUnitId: 'other-ad-unit',
+        factoryId: '0',
+        listener: NativeAdListener(),
+        request: AdRequest(),
+      );
+
+      await expectLater(NativeAd.loadAll(<NativeAd>[first, second]),
+          throwsArgumentError);
+      expect(log, isEmpty);
+      expect(instanceManager.adIdFor(first), isNull);
+      debugDefaultTargetPlatformOverride = null;
+    });
+
+    test('load native ads one by one on iOS', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      final NativeAd first = NativeAd(
+        adUnitId: 'test-ad-unit',
+        factoryId: '0',
+        listener: NativeAdListener(),
+        request: AdRequest(),
+      );
+      final NativeAd second = NativeAd(
+        adUnitId: 'test-ad-unit',
+        factoryId: '0',
+        listener: NativeAdListener(),
+        request: AdRequest(),
+      );
+
+      await NativeAd.loadAll(<NativeAd>[first, second]);
+      expect(log.map((MethodCall call) => call.method),
+          <String>['loadNativeAd', 'loadNativeAd']);
+      debugDefaultTargetPlatformOverride = null;
+    });
+
     testWidgets('build ad widget', (WidgetTester tester) async {
       final NativeAd native = NativeAd(
         adUnitId: 'test-ad-unit',
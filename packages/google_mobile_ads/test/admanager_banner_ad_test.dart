@@ -85,6 +85,7 @@ void main() {
           'adUnitId': 'ad-unit',
           'request': request,
           'sizes': [AdSize.banner],
+          'loadPriority': 0,
         }),
       ]);
 
@@ -239,6 +240,7 @@ void main() {
           'adUnitId': 'ad-unit',
           'request': request,
           'sizes': [AdSize.banner],
+          'loadPriority': 0,
         }),
       ]);
 
@@ -37,6 +37,7 @@ void main() {
         log.add(methodCall);
         switch (methodCall.method) {
           case 'loadAppOpenAd':
+          case 'preloadAd':
           case 'showAdWithoutView':
           case 'disposeAd':
             return Future<void>.value();
@@ -47,6 +48,39 @@ void main() {
       });
     });
 
+    test('preload android', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      AdRequest request = AdRequest();
+      await AppOpenAd.preload(
+        adUnitId: 'test-ad-unit',
+        request: request,
+        orientation: AppOpenAd.orientationLandscapeLeft,
+        count: 2,
+      );
+
+      expect(log, <Matcher>[
+        isMethodCall('preloadAd', arguments: <String, dynamic>{
+          'format': 'appOpen',
+          'adUnitId': 'test-ad-unit',
+          'request': request,
+          'adManagerRequest': null,
+          'orientation': AppOpenAd.orientationLandscapeLeft,
+          'count': 2,
+        }),
+      ]);
+    });
+
+    test('preload is a no-op on ios', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await AppOpenAd.preload(
+        adUnitId: 'test-ad-unit',
+        request: AdRequest(),
+        orientation: AppOpenAd.orientationPortrait,
+      );
+
+      expect(log, isEmpty);
+    });
+
     test('load show android', () async {
       debugDefaultTargetPlatformOverride = TargetPlatform.android;
       AppOpenAd? appOpenAd;
@@ -37,6 +37,7 @@ void main() {
         log.add(methodCall);
         switch (methodCall.method) {
           case 'loadBannerAd':
+          case 'setAdLoadPriority':
           case 'disposeAd':
             return Future<void>.value();
           default:
@@ -46,6 +47,59 @@ void main() {
       });
     });
 
+    test('android batched events', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+
+      final List<String> events = <String>[];
+      final BannerAd bannerAd = BannerAd(
+        size: AdSize.banner,
+        adUnitId: 'ad-unit',
+        listener: BannerAdListener(
+          onAdLoaded: (ad) => events.add('loaded'),
+          onAdImpression: (ad) => events.add('impression'),
+        ),
+        request: AdRequest(),
+      );
+      await bannerAd.load();
+
+      final MethodCall methodCall = MethodCall('onAdEvents', <dynamic>[
+        <String, dynamic>{'adId': 0, 'eventName': 'onAdLoaded'},
+        <String, dynamic>{'adId': 0, 'eventName': 'onAdImpression'},
+      ]);
+      await instanceManager.channel.binaryMessenger.handlePlatformMessage(
+        'plugins.flutter.io/google_mobile_ads',
+        instanceManager.channel.codec.encodeMethodCall(methodCall),
+        (ByteData? data) {},
+      );
+
+      expect(events, <String>['loaded', 'impression']);
+    });
+
+    test('android load priority', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final BannerAd bannerAd = BannerAd(
+        size: AdSize.banner,
+        adUnitId: 'ad-unit',
+        listener: BannerAdListener(),
+        request: AdRequest(),
+      );
+
+      // Not sent before the ad is loaded.
+      await bannerAd.setLoadPriority(AdLoadPriority.prefetch);
+      expect(log, isEmpty);
+
+      await bannerAd.load();
+      expect(log.single.arguments['loadPriority'], 2);
+
+      await bannerAd.setLoadPriority(AdLoadPriority.nearVisible);
+      expect(
+          log.last,
+          isMethodCall('setAdLoadPriority', arguments: <String, dynamic>{
+            'adId': 0,
+            'loadPriority': 1,
+          }));
+    });
+
     test('android loaded events', () async {
       debugDefaultTargetPlatformOverride = TargetPlatform.android;
       AdRequest request = AdRequest();
@@ -85,6 +139,7 @@ void main() {
           'adUnitId': 'ad-unit',
           'request': request,
           'size': AdSize.banner,
+          'loadPriority': 0,
         }),
       ]);
 
@@ -238,6 +293,7 @@ void main() {
           'adUnitId': 'ad-unit',
           'request': request,
           'size': AdSize.banner,
+          'loadPriority': 0,
         }),
       ]);
 
@@ -89,6 +89,7 @@ void main() {
           'adUnitId': 'testId',
           'sizes': <AdSize>[FluidAdSize()],
           'request': AdManagerAdRequest(),
+          'loadPriority': 0,
         })
       ]);
 
@@ -175,6 +176,7 @@ void main() {
           'adUnitId': 'testId',
           'sizes': <AdSize>[FluidAdSize()],
           'request': AdManagerAdRequest(),
+          'loadPriority': 0,
         })
       ]);
 
@@ -13,6 +13,7 @@
 // limitations under the License.
 
 import 'dart:async';
+import 'dart:typed_data';
 
 import 'package:google_mobile_ads/google_mobile_ads.dart';
 import 'package:google_mobile_ads/src/ad_inspector_containers.dart';
@@ -55,7 +56,63 @@ void main() {
           case 'MobileAds#setAppVolume':
           case 'MobileAds#disableSDKCrashReporting':
           case 'MobileAds#disableMediationInitialization':
+          case 'MobileAds#setAdEventBatchingEnabled':
+          case 'MobileAds#prewarmBannerAdViews':
+          case 'MobileAds#setLoadTimeout':
+          case 'MobileAds#setMaxConcurrentLoads':
+          case 'MobileAds#setFluidAdHeightThreshold':
+          case 'MobileAds#setAdViewAutoPauseEnabled':
+          case 'MobileAds#enableAppOpenAdWarmUp':
+          case 'MobileAds#disableAppOpenAdWarmUp':
+          case 'MobileAds#resetAdapterLatencies':
+          case 'loadBannerAd':
             return null;
+          case 'MobileAds#getAdapterLatencies':
+            return <dynamic>[
+              <dynamic, dynamic>{
+                'adapterClassName': 'com.example.Adapter',
+                'adUnitId': 'ad-unit',
+                'count': 12,
+                'p50Millis': 100,
+                'p90Millis': 300,
+                'p99Millis': 900,
+                'maxMillis': 1000,
+              },
+            ];
+          case 'MobileAds#setResponseInfoLevel':
+          case 'MobileAds#setRevenueFlushInterval':
+          case 'MobileAds#flushRevenue':
+          case 'MobileAds#setAdEventJournalEnabled':
+            return null;
+          case 'MobileAds#readAdEventJournal':
+            return <dynamic>[
+              <dynamic, dynamic>{
+                'sequence': 7,
+                'timeMillis': 1000,
+                'adId': 3,
+                'eventName': 'onPaidEvent',
+                'value': 1200,
+              },
+              <dynamic, dynamic>{
+                'sequence': 8,
+                'timeMillis': 2000,
+                'adId': 3,
+                'eventName': 'onAdClicked',
+                'value': null,
+              },
+            ];
+          case 'getResponseInfo':
+            return ResponseInfo(
+              responseId: 'response-id',
+              mediationAdapterClassName: 'com.example.Adapter',
+              adapterResponses: <AdapterResponseInfo>[],
+            );
+          case 'getAdTimeline':
+            return <dynamic, dynamic>{
+              'load': <dynamic>[1000, 2000, 5000, 9000, 10000, 12000],
+              'show': List<dynamic>.filled(6, null),
+              'impression': <dynamic>[null, null, null, 20000, 21000, 23000],
+            };
           case 'MobileAds#getVersionString':
             return Future<String>.value('Test-SDK-Version');
           case 'MobileAds#updateRequestConfiguration':
@@ -68,7 +125,19 @@ void main() {
               testDeviceIds: <String>['test-device-id'],
             );
           case 'AdSize#getAnchoredAdaptiveBannerAdSize':
+          case 'AdSize#precomputeAdaptiveBannerAdSizes':
             return null;
+          case 'MobileAds#getAdUnitCircuitState':
+            return <dynamic, dynamic>{
+              'state': 1,
+              'consecutiveFailures': 3,
+              'retryAfterMillis': 5000,
+            };
+          case 'loadAds':
+            return <dynamic>[
+              null,
+              <dynamic, dynamic>{'code': 'NativeAdError', 'message': 'm'},
+            ];
           default:
             assert(false);
             return null;
@@ -119,6 +188,43 @@ void main() {
       );
     });
 
+    test('decode typed ad event', () {
+      final WriteBuffer buffer = WriteBuffer();
+      buffer.putUint8(9); // onPaidEvent
+      buffer.putInt32(3);
+      codec.writeValue(buffer, 1200);
+      codec.writeValue(buffer, 2);
+      codec.writeValue(buffer, 'USD');
+
+      final Map<dynamic, dynamic> event = codec.readValueOfType(
+        149 /* AdMessageCodec._valueAdEvent */,
+        ReadBuffer(buffer.done()),
+      );
+
+      expect(event, <dynamic, dynamic>{
+        'adId': 3,
+        'eventName': 'onPaidEvent',
+        'valueMicros': 1200,
+        'precision': 2,
+        'currencyCode': 'USD',
+      });
+    });
+
+    test('decode strings sent through the string table', () {
+      final AdMessageCodec codec = AdMessageCodec();
+      final WriteBuffer definitions = WriteBuffer();
+      definitions.putUint8(150); // AdMessageCodec._valueStringDefinition
+      codec.writeSize(definitions, 7);
+      codec.writeSize(definitions, 3);
+      definitions.putUint8List(Uint8List.fromList('USD'.codeUnits));
+      expect(codec.decodeMessage(definitions.done()), 'USD');
+
+      final WriteBuffer reference = WriteBuffer();
+      reference.putUint8(151); // AdMessageCodec._valueStringReference
+      codec.writeSize(reference, 7);
+      expect(codec.decodeMessage(reference.done()), 'USD');
+    });
+
     test('encode/decode $InitializationStatus', () {
       final ByteData byteData =
           codec.encodeMessage(InitializationStatus(<String, AdapterStatus>{
@@ -207,6 +313,372 @@ void main() {
       ]);
     });
 
+    test('$MobileAds.setAdEventBatchingEnabled', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await MobileAds.instance.setAdEventBatchingEnabled(true);
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#setAdEventBatchingEnabled',
+            arguments: {'enabled': true})
+      ]);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.setAdEventBatchingEnabled(false);
+      expect(log, hasLength(1));
+    });
+
+    test('$MobileAds.prewarmBannerAdViews', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await MobileAds.instance.prewarmBannerAdViews(adManagerAdViewCount: 2);
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#prewarmBannerAdViews',
+            arguments: {'adViewCount': 1, 'adManagerAdViewCount': 2})
+      ]);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.prewarmBannerAdViews();
+      expect(log, hasLength(1));
+    });
+
+    test('$MobileAds.setMaxConcurrentLoads', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await MobileAds.instance
+          .setMaxConcurrentLoads(maxLoads: 4, maxLoadsPerAdUnit: 2);
+      await MobileAds.instance.setMaxConcurrentLoads();
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#setMaxConcurrentLoads',
+            arguments: {'maxLoads': 4, 'maxLoadsPerAdUnit': 2}),
+        isMethodCall('MobileAds#setMaxConcurrentLoads',
+            arguments: {'maxLoads': 0, 'maxLoadsPerAdUnit': 0}),
+      ]);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.setMaxConcurrentLoads(maxLoads: 4);
+      expect(log, hasLength(2));
+    });
+
+    test('$MobileAds.setLoadTimeout', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await MobileAds.instance.setLoadTimeout(Duration(seconds: 8));
+      await MobileAds.instance.setLoadTimeout(null);
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#setLoadTimeout',
+            arguments: {'timeoutMillis': 8000}),
+        isMethodCall('MobileAds#setLoadTimeout',
+            arguments: {'timeoutMillis': 0}),
+      ]);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.setLoadTimeout(Duration(seconds: 8));
+      expect(log, hasLength(2));
+    });
+
+    test('$MobileAds.setAdViewAutoPauseEnabled', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await MobileAds.instance.setAdViewAutoPauseEnabled(false);
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#setAdViewAutoPauseEnabled',
+            arguments: {'enabled': false}),
+      ]);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.setAdViewAutoPauseEnabled(true);
+      expect(log, hasLength(1));
+    });
+
+    test('$MobileAds.enableAppOpenAdWarmUp', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final AdRequest request = AdRequest();
+      final List<WarmAppOpenAdEvent> received = <WarmAppOpenAdEvent>[];
+      await MobileAds.instance.enableAppOpenAdWarmUp(
+        adUnitId: 'ad-unit',
+        request: request,
+        orientation: AppOpenAd.orientationPortrait,
+        showOnForeground: true,
+        onEvent: (WarmAppOpenAdEvent event) => received.add(event),
+      );
+      await MobileAds.instance.disableAppOpenAdWarmUp('ad-unit');
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#enableAppOpenAdWarmUp', arguments: {
+          'adUnitId': 'ad-unit',
+          'request': request,
+          'orientation': AppOpenAd.orientationPortrait,
+          'showOnForeground': true,
+        }),
+        isMethodCall('MobileAds#disableAppOpenAdWarmUp',
+            arguments: {'adUnitId': 'ad-unit'}),
+      ]);
+
+      await instanceManager.channel.binaryMessenger.handlePlatformMessage(
+        'plugins.flutter.io/google_mobile_ads',
+        instanceManager.channel.codec.encodeMethodCall(
+            MethodCall('onWarmAppOpenAdEvent', <dynamic, dynamic>{
+          'adUnitId': 'ad-unit',
+          'eventName': 'onPaidEvent',
+          'valueMicros': 1200,
+          'precision': 1,
+          'currencyCode': 'USD',
+        })),
+        (ByteData? data) {},
+      );
+
+      expect(received, hasLength(1));
+      expect(received.single.adUnitId, 'ad-unit');
+      expect(received.single.eventName, 'onPaidEvent');
+      expect(received.single.valueMicros, 1200.0);
+      expect(received.single.precision, PrecisionType.estimated);
+      expect(received.single.currencyCode, 'USD');
+      expect(received.single.error, isNull);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.enableAppOpenAdWarmUp(
+        adUnitId: 'ad-unit',
+        request: request,
+        orientation: AppOpenAd.orientationPortrait,
+      );
+      await MobileAds.instance.disableAppOpenAdWarmUp('ad-unit');
+      expect(log, hasLength(2));
+    });
+
+    test('$MobileAds.setFluidAdHeightThreshold', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await MobileAds.instance.setFluidAdHeightThreshold(12);
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#setFluidAdHeightThreshold',
+            arguments: {'thresholdPixels': 12}),
+      ]);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.setFluidAdHeightThreshold(12);
+      expect(log, hasLength(1));
+    });
+
+    test('$MobileAds.getAdUnitCircuitState', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      AdUnitCircuitState state =
+          await MobileAds.instance.getAdUnitCircuitState('ad-unit');
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#getAdUnitCircuitState',
+            arguments: <dynamic, dynamic>{'adUnitId': 'ad-unit'})
+      ]);
+      expect(state.status, AdUnitCircuitStatus.open);
+      expect(state.consecutiveFailures, 3);
+      expect(state.retryAfter, Duration(seconds: 5));
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      state = await MobileAds.instance.getAdUnitCircuitState('ad-unit');
+      expect(log, hasLength(1));
+      expect(state.status, AdUnitCircuitStatus.closed);
+    });
+
+    test('$MobileAds.getAdapterLatencies', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final List<AdapterLatencyStats> latencies =
+          await MobileAds.instance.getAdapterLatencies();
+      await MobileAds.instance.resetAdapterLatencies();
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#getAdapterLatencies', arguments: null),
+        isMethodCall('MobileAds#resetAdapterLatencies', arguments: null),
+      ]);
+      expect(latencies, hasLength(1));
+      expect(latencies.single.adapterClassName, 'com.example.Adapter');
+      expect(latencies.single.adUnitId, 'ad-unit');
+      expect(latencies.single.count, 12);
+      expect(latencies.single.p50, Duration(milliseconds: 100));
+      expect(latencies.single.p90, Duration(milliseconds: 300));
+      expect(latencies.single.p99, Duration(milliseconds: 900));
+      expect(latencies.single.max, Duration(seconds: 1));
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      expect(await MobileAds.instance.getAdapterLatencies(), isEmpty);
+      await MobileAds.instance.resetAdapterLatencies();
+      expect(log, hasLength(2));
+    });
+
+    test('$MobileAds.readAdEventJournal', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await MobileAds.instance.setAdEventJournalEnabled(true);
+      final List<AdEventJournalEntry> entries =
+          await MobileAds.instance.readAdEventJournal();
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#setAdEventJournalEnabled',
+            arguments: <dynamic, dynamic>{'enabled': true}),
+        isMethodCall('MobileAds#readAdEventJournal', arguments: null),
+      ]);
+      expect(entries, hasLength(2));
+      expect(entries.first.sequence, 7);
+      expect(entries.first.time, DateTime.fromMillisecondsSinceEpoch(1000));
+      expect(entries.first.adId, 3);
+      expect(entries.first.eventName, 'onPaidEvent');
+      expect(entries.first.value, 1200);
+      expect(entries.last.eventName, 'onAdClicked');
+      expect(entries.last.value, isNull);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.setAdEventJournalEnabled(false);
+      expect(await MobileAds.instance.readAdEventJournal(), isEmpty);
+      expect(log, hasLength(2));
+    });
+
+    test('$MobileAds.getAdTimeline', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final BannerAd banner = BannerAd(
+        adUnitId: 'test-ad-unit',
+        size: AdSize.banner,
+        listener: BannerAdListener(),
+        request: AdRequest(),
+      );
+      expect(await MobileAds.instance.getAdTimeline(banner), isNull);
+      expect(log, isEmpty);
+
+      await banner.load();
+      final AdTimeline timeline =
+          (await MobileAds.instance.getAdTimeline(banner))!;
+
+      expect(
+          log.last,
+          isMethodCall('getAdTimeline', arguments: <dynamic, dynamic>{
+            'adId': instanceManager.adIdFor(banner),
+          }));
+      expect(timeline.load.callReceived, Duration(microseconds: 1));
+      expect(timeline.load.sdkTime, Duration(microseconds: 4));
+      expect(timeline.load.pluginTime, Duration(microseconds: 7));
+      expect(timeline.show.sdkStarted, isNull);
+      expect(timeline.show.sdkTime, isNull);
+      expect(timeline.impression.eventSent, Duration(microseconds: 23));
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      expect(await MobileAds.instance.getAdTimeline(banner), isNull);
+    });
+
+    test('$MobileAds.enableRevenueAggregation', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final List<AdRevenueAggregate> received = <AdRevenueAggregate>[];
+      await MobileAds.instance.enableRevenueAggregation(
+        flushInterval: Duration(seconds: 30),
+        onRevenueAggregated: (List<AdRevenueAggregate> aggregates) {
+          received.addAll(aggregates);
+        },
+      );
+      await MobileAds.instance.flushRevenue();
+
+      ByteData? reply;
+      await instanceManager.channel.binaryMessenger.handlePlatformMessage(
+        'plugins.flutter.io/google_mobile_ads',
+        instanceManager.channel.codec.encodeMethodCall(
+            MethodCall('onRevenueAggregated', <dynamic>[
+          <dynamic, dynamic>{
+            'adUnitId': 'ad-unit',
+            'currencyCode': 'USD',
+            'precision': 3,
+            'valueMicros': 1500,
+            'eventCount': 2,
+          },
+        ])),
+        (ByteData? data) => reply = data,
+      );
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#setRevenueFlushInterval',
+            arguments: <dynamic, dynamic>{'flushIntervalMillis': 30000}),
+        isMethodCall('MobileAds#flushRevenue', arguments: null),
+      ]);
+      expect(received, hasLength(1));
+      expect(received.single.adUnitId, 'ad-unit');
+      expect(received.single.currencyCode, 'USD');
+      expect(received.single.precision, PrecisionType.precise);
+      expect(received.single.valueMicros, 1500);
+      expect(received.single.eventCount, 2);
+      expect(instanceManager.channel.codec.decodeEnvelope(reply!), isNull);
+
+      await MobileAds.instance.disableRevenueAggregation();
+      expect(
+          log.last,
+          isMethodCall('MobileAds#setRevenueFlushInterval',
+              arguments: <dynamic, dynamic>{'flushIntervalMillis': 0}));
+      expect(instanceManager.onRevenueAggregated, isNull);
+    });
+
+    test('$MobileAds.setResponseInfoLevel', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await MobileAds.instance.setResponseInfoLevel(ResponseInfoLevel.idOnly);
+
+      expect(log, <Matcher>[
+        isMethodCall('MobileAds#setResponseInfoLevel',
+            arguments: <dynamic, dynamic>{'level': 1}),
+      ]);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await MobileAds.instance.setResponseInfoLevel(ResponseInfoLevel.none);
+      expect(log, hasLength(1));
+    });
+
+    test('$MobileAds.getResponseInfo', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final BannerAd banner = BannerAd(
+        adUnitId: 'test-ad-unit',
+        size: AdSize.banner,
+        listener: BannerAdListener(),
+        request: AdRequest(),
+      );
+      expect(await MobileAds.instance.getResponseInfo(banner), isNull);
+      expect(log, isEmpty);
+
+      await banner.load();
+      final ResponseInfo responseInfo =
+          (await MobileAds.instance.getResponseInfo(banner))!;
+
+      expect(
+          log.last,
+          isMethodCall('getResponseInfo', arguments: <dynamic, dynamic>{
+            'adId': instanceManager.adIdFor(banner),
+          }));
+      expect(responseInfo.responseId, 'response-id');
+      expect(responseInfo.mediationAdapterClassName, 'com.example.Adapter');
+      expect(banner.responseInfo, same(responseInfo));
+    });
+
+    test('$MobileAds.loadAds', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      final BannerAd banner = BannerAd(
+        adUnitId: 'test-ad-unit',
+        size: AdSize.banner,
+        listener: BannerAdListener(),
+        request: AdRequest(),
+      );
+      LoadAdError? nativeError;
+      final NativeAd native = NativeAd(
+        adUnitId: 'test-ad-unit',
+        factoryId: 'missing',
+        listener: NativeAdListener(
+          onAdFailedToLoad: (Ad ad, LoadAdError error) => nativeError = error,
+        ),
+        request: AdRequest(),
+      );
+
+      await MobileAds.instance.loadAds(<AdWithView>[banner, native]);
+
+      expect(log, hasLength(1));
+      expect(log.single.method, 'loadAds');
+      final List<dynamic> specs = log.single.arguments['ads'];
+      expect(specs.map((dynamic spec) => spec['method']),
+          <String>['loadBannerAd', 'loadNativeAd']);
+      expect(specs[0]['arguments']['adId'], instanceManager.adIdFor(banner));
+      expect(instanceManager.adIdFor(native), isNull);
+      expect(nativeError!.message, 'NativeAdError: m');
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+    });
+
     test('encode/decode empty native ad options', () {
       debugDefaultTargetPlatformOverride = TargetPlatform.android;
       ByteData byteData = codec.encodeMessage(NativeAdOptions())!;
@@ -361,6 +833,21 @@ void main() {
       ]);
     });
 
+    test('$AdSize.precomputeAdaptiveBannerAdSizes', () async {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      await AdSize.precomputeAdaptiveBannerAdSizes(<int>[320, 360]);
+
+      expect(log, <Matcher>[
+        isMethodCall('AdSize#precomputeAdaptiveBannerAdSizes', arguments: {
+          'widths': <int>[320, 360]
+        })
+      ]);
+
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      await AdSize.precomputeAdaptiveBannerAdSizes(<int>[320]);
+      expect(log, hasLength(1));
+    });
+
     test('encode/decode $MobileAds.getRequestConfiguration', () async {
       RequestConfiguration requestConfig =
           await MobileAds.instance.getRequestConfiguration();